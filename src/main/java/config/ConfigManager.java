@@ -52,6 +52,11 @@ public class ConfigManager {
     public static final String FIELD_THREAD_COUNT = "THREAD_COUNT";
     public static final String FIELD_SEND_BUF_SIZE = "SEND_BUF_SIZE";
     public static final String FIELD_RECV_BUF_SIZE = "RECV_BUF_SIZE";
+    public static final String FIELD_ENABLE_EPOLL = "ENABLE_EPOLL";
+    public static final String FIELD_EPOLL_EDGE_TRIGGERED = "EPOLL_EDGE_TRIGGERED";
+    public static final String FIELD_TIMER_SHARD_COUNT = "TIMER_SHARD_COUNT";
+    public static final String FIELD_TIMER_TICK_DURATION = "TIMER_TICK_DURATION";
+    public static final String FIELD_TIMER_TICKS_PER_WHEEL = "TIMER_TICKS_PER_WHEEL";
 
     // SERVER
     public static final String FIELD_STREAMING = "STREAMING";
@@ -70,6 +75,27 @@ public class ConfigManager {
     public static final String FIELD_LOCAL_MPD_LISTEN_SOCKET_SIZE = "LOCAL_MPD_LISTEN_SOCKET_SIZE";
     public static final String FIELD_LOCAL_AUDIO_LISTEN_SOCKET_SIZE= "LOCAL_AUDIO_LISTEN_SOCKET_SIZE";
     public static final String FIELD_LOCAL_VIDEO_LISTEN_SOCKET_SIZE= "LOCAL_VIDEO_LISTEN_SOCKET_SIZE";
+    public static final String FIELD_ENABLE_ZERO_COPY = "ENABLE_ZERO_COPY";
+    public static final String FIELD_ENABLE_SEGMENT_CACHE = "ENABLE_SEGMENT_CACHE";
+    public static final String FIELD_SEGMENT_CACHE_SIZE = "SEGMENT_CACHE_SIZE";
+    public static final String FIELD_PACKAGING_THREAD_COUNT = "PACKAGING_THREAD_COUNT";
+    public static final String FIELD_PACKAGING_QUEUE_LIMIT = "PACKAGING_QUEUE_LIMIT";
+    public static final String FIELD_SEGMENT_MAX_AGE = "SEGMENT_MAX_AGE";
+    public static final String FIELD_STATIC_MPD_MAX_AGE = "STATIC_MPD_MAX_AGE";
+    public static final String FIELD_HTTP_MAX_BODY_SIZE = "HTTP_MAX_BODY_SIZE";
+    public static final String FIELD_ENABLE_HTTP2 = "ENABLE_HTTP2";
+    public static final String FIELD_HTTP_LISTENER_COUNT = "HTTP_LISTENER_COUNT";
+    public static final String FIELD_ADMISSION_CLIENT_RATE = "ADMISSION_CLIENT_RATE";
+    public static final String FIELD_ADMISSION_CLIENT_BURST = "ADMISSION_CLIENT_BURST";
+    public static final String FIELD_ADMISSION_DASH_UNIT_RATE = "ADMISSION_DASH_UNIT_RATE";
+    public static final String FIELD_ADMISSION_DASH_UNIT_BURST = "ADMISSION_DASH_UNIT_BURST";
+    public static final String FIELD_ADMISSION_MAX_CONCURRENT_REQUESTS = "ADMISSION_MAX_CONCURRENT_REQUESTS";
+    public static final String FIELD_ADMISSION_LATENCY_TARGET = "ADMISSION_LATENCY_TARGET";
+    public static final String FIELD_ENABLE_ACCESS_LOG = "ENABLE_ACCESS_LOG";
+    public static final String FIELD_ACCESS_LOG_PATH = "ACCESS_LOG_PATH";
+    public static final String FIELD_ACCESS_LOG_BUFFER_SIZE = "ACCESS_LOG_BUFFER_SIZE";
+    public static final String FIELD_ACCESS_LOG_MAX_FILE_SIZE = "ACCESS_LOG_MAX_FILE_SIZE";
+    public static final String FIELD_ACCESS_LOG_MAX_FILE_COUNT = "ACCESS_LOG_MAX_FILE_COUNT";
 
     // CLIENT
     public static final String FIELD_ENABLE_GUI = "ENABLE_GUI";
@@ -80,6 +106,15 @@ public class ConfigManager {
     public static final String FIELD_PREPROCESS_TARGET_IP = "PREPROCESS_TARGET_IP";
     public static final String FIELD_PREPROCESS_TARGET_PORT = "PREPROCESS_TARGET_PORT";
     public static final String FIELD_DOWNLOAD_CHUNK_RETRY_COUNT = "DOWNLOAD_CHUNK_RETRY_COUNT";
+    public static final String FIELD_ENABLE_CONNECTION_POOL = "ENABLE_CONNECTION_POOL";
+    public static final String FIELD_CONNECTION_POOL_MAX_CONNECTIONS = "CONNECTION_POOL_MAX_CONNECTIONS";
+    public static final String FIELD_CONNECTION_POOL_MAX_IDLE_CONNECTIONS = "CONNECTION_POOL_MAX_IDLE_CONNECTIONS";
+    public static final String FIELD_CONNECTION_POOL_IDLE_TIMEOUT = "CONNECTION_POOL_IDLE_TIMEOUT";
+    public static final String FIELD_CONNECTION_POOL_MAX_PENDING_REQUESTS = "CONNECTION_POOL_MAX_PENDING_REQUESTS";
+    public static final String FIELD_SEGMENT_PREFETCH_WINDOW = "SEGMENT_PREFETCH_WINDOW";
+    public static final String FIELD_ENABLE_MEMORY_RELAY = "ENABLE_MEMORY_RELAY";
+    public static final String FIELD_MEMORY_RELAY_WINDOW_SIZE = "MEMORY_RELAY_WINDOW_SIZE";
+    public static final String FIELD_MEMORY_RELAY_MAX_SIZE = "MEMORY_RELAY_MAX_SIZE";
 
     // MEDIA
     public static final String FIELD_MEDIA_BASE_PATH = "MEDIA_BASE_PATH";
@@ -110,6 +145,8 @@ public class ConfigManager {
     public static final String FIELD_WINDOW_SIZE = "WINDOW_SIZE";
     public static final String FIELD_LOCAL_TIME_OFFSET = "LOCAL_TIME_OFFSET";
     public static final String FIELD_REMOTE_TIME_OFFSET = "REMOTE_TIME_OFFSET";
+    public static final String FIELD_ENABLE_LOW_LATENCY = "ENABLE_LOW_LATENCY";
+    public static final String FIELD_FRAGMENT_DURATION = "FRAGMENT_DURATION";
 
     // RTMP
     public static final String FIELD_RTMP_PUBLISH_IP = "RTMP_PUBLISH_IP";
@@ -127,6 +164,11 @@ public class ConfigManager {
     private int threadCount = 0;
     private int sendBufSize = 0;
     private int recvBufSize = 0;
+    private boolean enableEpoll = false;
+    private boolean epollEdgeTriggered = false;
+    private int timerShardCount = 0;
+    private long timerTickDuration = 0; // ms
+    private int timerTicksPerWheel = 0;
 
     // SERVER
     private String streaming = null;
@@ -145,6 +187,27 @@ public class ConfigManager {
     private int localMpdListenSocketSize = 0; // 1 ~ 10000
     private int localAudioListenSocketSize = 0; // 1 ~ 10000
     private int localVideoListenSocketSize = 0; // 1 ~ 10000
+    private boolean enableZeroCopy = false;
+    private boolean enableSegmentCache = false;
+    private long segmentCacheSize = 0; // bytes
+    private int packagingThreadCount = 0;
+    private int packagingQueueLimit = 0;
+    private long segmentMaxAge = 0; // sec
+    private long staticMpdMaxAge = 0; // sec
+    private int httpMaxBodySize = 0; // bytes
+    private boolean enableHttp2 = false;
+    private int httpListenerCount = 0; // 0 : 코어 수
+    private int admissionClientRate = 0; // 클라이언트 IP 별 초당 요청 수
+    private int admissionClientBurst = 0;
+    private int admissionDashUnitRate = 0; // DashUnit 별 초당 요청 수
+    private int admissionDashUnitBurst = 0;
+    private int admissionMaxConcurrentRequests = 0;
+    private long admissionLatencyTarget = 0; // ms
+    private boolean enableAccessLog = false;
+    private String accessLogPath = null;
+    private int accessLogBufferSize = 0; // records
+    private long accessLogMaxFileSize = 0; // bytes
+    private int accessLogMaxFileCount = 0;
 
     // CLIENT
     private boolean enableGui = false;
@@ -155,6 +218,15 @@ public class ConfigManager {
     private String preprocessTargetIp = null;
     private int preprocessTargetPort = 0;
     private int downloadChunkRetryCount = 0;
+    private boolean enableConnectionPool = false;
+    private int connectionPoolMaxConnections = 0; // origin 별
+    private int connectionPoolMaxIdleConnections = 0; // origin 별
+    private long connectionPoolIdleTimeout = 0; // sec
+    private int connectionPoolMaxPendingRequests = 0; // origin 별
+    private int segmentPrefetchWindow = 0; // representation 별 동시 세그먼트 요청 수 (1 이하 : 순차 요청)
+    private boolean enableMemoryRelay = false; // DYNAMIC DashUnit 의 세그먼트를 파일 대신 메모리에 보관
+    private int memoryRelayWindowSize = 0; // representation 별 보관 세그먼트 수
+    private long memoryRelayMaxSize = 0; // bytes, 모든 DashClient 의 relay 세그먼트 합계
 
     // MEDIA
     private String mediaBasePath = null;
@@ -185,6 +257,8 @@ public class ConfigManager {
     private double localTimeOffset = 0.0d;
     private double remoteTimeOffset = 0.0d;
     private int windowSize = 0;
+    private boolean enableLowLatency = false;
+    private double fragmentDuration = 0.0d;
 
     // RTMP
     private String rtmpServerIp = null;
@@ -286,6 +360,58 @@ public class ConfigManager {
             System.exit(1);
         }
 
+        String enableEpollString = getIniValue(SECTION_COMMON, FIELD_ENABLE_EPOLL);
+        if (enableEpollString == null) {
+            logger.error(CONSTANT_PRINT_FAIL_LOG_FORMAT_1, SECTION_COMMON, FIELD_ENABLE_EPOLL);
+            System.exit(1);
+        } else {
+            this.enableEpoll = Boolean.parseBoolean(enableEpollString);
+        }
+
+        String epollEdgeTriggeredString = getIniValue(SECTION_COMMON, FIELD_EPOLL_EDGE_TRIGGERED);
+        if (epollEdgeTriggeredString == null) {
+            logger.error(CONSTANT_PRINT_FAIL_LOG_FORMAT_1, SECTION_COMMON, FIELD_EPOLL_EDGE_TRIGGERED);
+            System.exit(1);
+        } else {
+            this.epollEdgeTriggered = Boolean.parseBoolean(epollEdgeTriggeredString);
+        }
+
+        String timerShardCountString = getIniValue(SECTION_COMMON, FIELD_TIMER_SHARD_COUNT);
+        if (timerShardCountString == null) {
+            logger.error(CONSTANT_PRINT_FAIL_LOG_FORMAT_1, SECTION_COMMON, FIELD_TIMER_SHARD_COUNT);
+            System.exit(1);
+        } else {
+            this.timerShardCount = Integer.parseInt(timerShardCountString);
+            if (this.timerShardCount <= 0) {
+                logger.error(CONSTANT_PRINT_FAIL_LOG_FORMAT_2, SECTION_COMMON, FIELD_TIMER_SHARD_COUNT, timerShardCount);
+                System.exit(1);
+            }
+        }
+
+        String timerTickDurationString = getIniValue(SECTION_COMMON, FIELD_TIMER_TICK_DURATION);
+        if (timerTickDurationString == null) {
+            logger.error(CONSTANT_PRINT_FAIL_LOG_FORMAT_1, SECTION_COMMON, FIELD_TIMER_TICK_DURATION);
+            System.exit(1);
+        } else {
+            this.timerTickDuration = Long.parseLong(timerTickDurationString);
+            if (this.timerTickDuration <= 0) {
+                logger.error(CONSTANT_PRINT_FAIL_LOG_FORMAT_2, SECTION_COMMON, FIELD_TIMER_TICK_DURATION, timerTickDuration);
+                System.exit(1);
+            }
+        }
+
+        String timerTicksPerWheelString = getIniValue(SECTION_COMMON, FIELD_TIMER_TICKS_PER_WHEEL);
+        if (timerTicksPerWheelString == null) {
+            logger.error(CONSTANT_PRINT_FAIL_LOG_FORMAT_1, SECTION_COMMON, FIELD_TIMER_TICKS_PER_WHEEL);
+            System.exit(1);
+        } else {
+            this.timerTicksPerWheel = Integer.parseInt(timerTicksPerWheelString);
+            if (this.timerTicksPerWheel <= 0) {
+                logger.error(CONSTANT_PRINT_FAIL_LOG_FORMAT_2, SECTION_COMMON, FIELD_TIMER_TICKS_PER_WHEEL, timerTicksPerWheel);
+                System.exit(1);
+            }
+        }
+
         logger.debug(CONSTANT_PRINT_SUCCESS_LOG_FORMAT, SECTION_COMMON);
     }
 
@@ -462,6 +588,236 @@ public class ConfigManager {
                 System.exit(1);
             }
         }
+
+        String enableZeroCopyString = getIniValue(SECTION_SERVER, FIELD_ENABLE_ZERO_COPY);
+        if (enableZeroCopyString == null) {
+            logger.error(CONSTANT_PRINT_FAIL_LOG_FORMAT_1, SECTION_SERVER, FIELD_ENABLE_ZERO_COPY);
+            System.exit(1);
+        } else {
+            this.enableZeroCopy = Boolean.parseBoolean(enableZeroCopyString);
+        }
+
+        String enableSegmentCacheString = getIniValue(SECTION_SERVER, FIELD_ENABLE_SEGMENT_CACHE);
+        if (enableSegmentCacheString == null) {
+            logger.error(CONSTANT_PRINT_FAIL_LOG_FORMAT_1, SECTION_SERVER, FIELD_ENABLE_SEGMENT_CACHE);
+            System.exit(1);
+        } else {
+            this.enableSegmentCache = Boolean.parseBoolean(enableSegmentCacheString);
+        }
+
+        String segmentCacheSizeString = getIniValue(SECTION_SERVER, FIELD_SEGMENT_CACHE_SIZE);
+        if (segmentCacheSizeString == null) {
+            logger.error(CONSTANT_PRINT_FAIL_LOG_FORMAT_1, SECTION_SERVER, FIELD_SEGMENT_CACHE_SIZE);
+            System.exit(1);
+        } else {
+            this.segmentCacheSize = Long.parseLong(segmentCacheSizeString);
+            if (this.segmentCacheSize <= 0) {
+                logger.error(CONSTANT_PRINT_FAIL_LOG_FORMAT_1, SECTION_SERVER, FIELD_SEGMENT_CACHE_SIZE);
+                System.exit(1);
+            }
+        }
+
+        String packagingThreadCountString = getIniValue(SECTION_SERVER, FIELD_PACKAGING_THREAD_COUNT);
+        if (packagingThreadCountString == null) {
+            logger.error(CONSTANT_PRINT_FAIL_LOG_FORMAT_1, SECTION_SERVER, FIELD_PACKAGING_THREAD_COUNT);
+            System.exit(1);
+        } else {
+            this.packagingThreadCount = Integer.parseInt(packagingThreadCountString);
+            if (this.packagingThreadCount <= 0) {
+                logger.error(CONSTANT_PRINT_FAIL_LOG_FORMAT_1, SECTION_SERVER, FIELD_PACKAGING_THREAD_COUNT);
+                System.exit(1);
+            }
+        }
+
+        String packagingQueueLimitString = getIniValue(SECTION_SERVER, FIELD_PACKAGING_QUEUE_LIMIT);
+        if (packagingQueueLimitString == null) {
+            logger.error(CONSTANT_PRINT_FAIL_LOG_FORMAT_1, SECTION_SERVER, FIELD_PACKAGING_QUEUE_LIMIT);
+            System.exit(1);
+        } else {
+            this.packagingQueueLimit = Integer.parseInt(packagingQueueLimitString);
+            if (this.packagingQueueLimit <= 0) {
+                logger.error(CONSTANT_PRINT_FAIL_LOG_FORMAT_1, SECTION_SERVER, FIELD_PACKAGING_QUEUE_LIMIT);
+                System.exit(1);
+            }
+        }
+
+        String segmentMaxAgeString = getIniValue(SECTION_SERVER, FIELD_SEGMENT_MAX_AGE);
+        if (segmentMaxAgeString == null) {
+            logger.error(CONSTANT_PRINT_FAIL_LOG_FORMAT_1, SECTION_SERVER, FIELD_SEGMENT_MAX_AGE);
+            System.exit(1);
+        } else {
+            this.segmentMaxAge = Long.parseLong(segmentMaxAgeString);
+            if (this.segmentMaxAge < 0) {
+                logger.error(CONSTANT_PRINT_FAIL_LOG_FORMAT_1, SECTION_SERVER, FIELD_SEGMENT_MAX_AGE);
+                System.exit(1);
+            }
+        }
+
+        String staticMpdMaxAgeString = getIniValue(SECTION_SERVER, FIELD_STATIC_MPD_MAX_AGE);
+        if (staticMpdMaxAgeString == null) {
+            logger.error(CONSTANT_PRINT_FAIL_LOG_FORMAT_1, SECTION_SERVER, FIELD_STATIC_MPD_MAX_AGE);
+            System.exit(1);
+        } else {
+            this.staticMpdMaxAge = Long.parseLong(staticMpdMaxAgeString);
+            if (this.staticMpdMaxAge < 0) {
+                logger.error(CONSTANT_PRINT_FAIL_LOG_FORMAT_1, SECTION_SERVER, FIELD_STATIC_MPD_MAX_AGE);
+                System.exit(1);
+            }
+        }
+
+        String httpMaxBodySizeString = getIniValue(SECTION_SERVER, FIELD_HTTP_MAX_BODY_SIZE);
+        if (httpMaxBodySizeString == null) {
+            logger.error(CONSTANT_PRINT_FAIL_LOG_FORMAT_1, SECTION_SERVER, FIELD_HTTP_MAX_BODY_SIZE);
+            System.exit(1);
+        } else {
+            this.httpMaxBodySize = Integer.parseInt(httpMaxBodySizeString);
+            if (this.httpMaxBodySize < 0) {
+                logger.error(CONSTANT_PRINT_FAIL_LOG_FORMAT_1, SECTION_SERVER, FIELD_HTTP_MAX_BODY_SIZE);
+                System.exit(1);
+            }
+        }
+
+        String enableHttp2String = getIniValue(SECTION_SERVER, FIELD_ENABLE_HTTP2);
+        if (enableHttp2String == null) {
+            logger.error(CONSTANT_PRINT_FAIL_LOG_FORMAT_1, SECTION_SERVER, FIELD_ENABLE_HTTP2);
+            System.exit(1);
+        } else {
+            this.enableHttp2 = Boolean.parseBoolean(enableHttp2String);
+        }
+
+        String httpListenerCountString = getIniValue(SECTION_SERVER, FIELD_HTTP_LISTENER_COUNT);
+        if (httpListenerCountString == null) {
+            logger.error(CONSTANT_PRINT_FAIL_LOG_FORMAT_1, SECTION_SERVER, FIELD_HTTP_LISTENER_COUNT);
+            System.exit(1);
+        } else {
+            this.httpListenerCount = Integer.parseInt(httpListenerCountString);
+            if (this.httpListenerCount < 0) {
+                logger.error(CONSTANT_PRINT_FAIL_LOG_FORMAT_1, SECTION_SERVER, FIELD_HTTP_LISTENER_COUNT);
+                System.exit(1);
+            }
+        }
+
+        String admissionClientRateString = getIniValue(SECTION_SERVER, FIELD_ADMISSION_CLIENT_RATE);
+        if (admissionClientRateString == null) {
+            logger.error(CONSTANT_PRINT_FAIL_LOG_FORMAT_1, SECTION_SERVER, FIELD_ADMISSION_CLIENT_RATE);
+            System.exit(1);
+        } else {
+            this.admissionClientRate = Integer.parseInt(admissionClientRateString);
+            if (this.admissionClientRate < 0) {
+                logger.error(CONSTANT_PRINT_FAIL_LOG_FORMAT_1, SECTION_SERVER, FIELD_ADMISSION_CLIENT_RATE);
+                System.exit(1);
+            }
+        }
+
+        String admissionClientBurstString = getIniValue(SECTION_SERVER, FIELD_ADMISSION_CLIENT_BURST);
+        if (admissionClientBurstString == null) {
+            logger.error(CONSTANT_PRINT_FAIL_LOG_FORMAT_1, SECTION_SERVER, FIELD_ADMISSION_CLIENT_BURST);
+            System.exit(1);
+        } else {
+            this.admissionClientBurst = Integer.parseInt(admissionClientBurstString);
+            if (this.admissionClientBurst < 0) {
+                logger.error(CONSTANT_PRINT_FAIL_LOG_FORMAT_1, SECTION_SERVER, FIELD_ADMISSION_CLIENT_BURST);
+                System.exit(1);
+            }
+        }
+
+        String admissionDashUnitRateString = getIniValue(SECTION_SERVER, FIELD_ADMISSION_DASH_UNIT_RATE);
+        if (admissionDashUnitRateString == null) {
+            logger.error(CONSTANT_PRINT_FAIL_LOG_FORMAT_1, SECTION_SERVER, FIELD_ADMISSION_DASH_UNIT_RATE);
+            System.exit(1);
+        } else {
+            this.admissionDashUnitRate = Integer.parseInt(admissionDashUnitRateString);
+            if (this.admissionDashUnitRate < 0) {
+                logger.error(CONSTANT_PRINT_FAIL_LOG_FORMAT_1, SECTION_SERVER, FIELD_ADMISSION_DASH_UNIT_RATE);
+                System.exit(1);
+            }
+        }
+
+        String admissionDashUnitBurstString = getIniValue(SECTION_SERVER, FIELD_ADMISSION_DASH_UNIT_BURST);
+        if (admissionDashUnitBurstString == null) {
+            logger.error(CONSTANT_PRINT_FAIL_LOG_FORMAT_1, SECTION_SERVER, FIELD_ADMISSION_DASH_UNIT_BURST);
+            System.exit(1);
+        } else {
+            this.admissionDashUnitBurst = Integer.parseInt(admissionDashUnitBurstString);
+            if (this.admissionDashUnitBurst < 0) {
+                logger.error(CONSTANT_PRINT_FAIL_LOG_FORMAT_1, SECTION_SERVER, FIELD_ADMISSION_DASH_UNIT_BURST);
+                System.exit(1);
+            }
+        }
+
+        String admissionMaxConcurrentRequestsString = getIniValue(SECTION_SERVER, FIELD_ADMISSION_MAX_CONCURRENT_REQUESTS);
+        if (admissionMaxConcurrentRequestsString == null) {
+            logger.error(CONSTANT_PRINT_FAIL_LOG_FORMAT_1, SECTION_SERVER, FIELD_ADMISSION_MAX_CONCURRENT_REQUESTS);
+            System.exit(1);
+        } else {
+            this.admissionMaxConcurrentRequests = Integer.parseInt(admissionMaxConcurrentRequestsString);
+            if (this.admissionMaxConcurrentRequests < 0) {
+                logger.error(CONSTANT_PRINT_FAIL_LOG_FORMAT_1, SECTION_SERVER, FIELD_ADMISSION_MAX_CONCURRENT_REQUESTS);
+                System.exit(1);
+            }
+        }
+
+        String admissionLatencyTargetString = getIniValue(SECTION_SERVER, FIELD_ADMISSION_LATENCY_TARGET);
+        if (admissionLatencyTargetString == null) {
+            logger.error(CONSTANT_PRINT_FAIL_LOG_FORMAT_1, SECTION_SERVER, FIELD_ADMISSION_LATENCY_TARGET);
+            System.exit(1);
+        } else {
+            this.admissionLatencyTarget = Long.parseLong(admissionLatencyTargetString);
+            if (this.admissionLatencyTarget < 0) {
+                logger.error(CONSTANT_PRINT_FAIL_LOG_FORMAT_1, SECTION_SERVER, FIELD_ADMISSION_LATENCY_TARGET);
+                System.exit(1);
+            }
+        }
+
+        String enableAccessLogString = getIniValue(SECTION_SERVER, FIELD_ENABLE_ACCESS_LOG);
+        if (enableAccessLogString == null) {
+            logger.error(CONSTANT_PRINT_FAIL_LOG_FORMAT_1, SECTION_SERVER, FIELD_ENABLE_ACCESS_LOG);
+            System.exit(1);
+        } else {
+            this.enableAccessLog = Boolean.parseBoolean(enableAccessLogString);
+        }
+
+        this.accessLogPath = getIniValue(SECTION_SERVER, FIELD_ACCESS_LOG_PATH);
+        if (this.accessLogPath == null) {
+            logger.error(CONSTANT_PRINT_FAIL_LOG_FORMAT_1, SECTION_SERVER, FIELD_ACCESS_LOG_PATH);
+            System.exit(1);
+        }
+
+        String accessLogBufferSizeString = getIniValue(SECTION_SERVER, FIELD_ACCESS_LOG_BUFFER_SIZE);
+        if (accessLogBufferSizeString == null) {
+            logger.error(CONSTANT_PRINT_FAIL_LOG_FORMAT_1, SECTION_SERVER, FIELD_ACCESS_LOG_BUFFER_SIZE);
+            System.exit(1);
+        } else {
+            this.accessLogBufferSize = Integer.parseInt(accessLogBufferSizeString);
+            if (this.accessLogBufferSize <= 0) {
+                logger.error(CONSTANT_PRINT_FAIL_LOG_FORMAT_1, SECTION_SERVER, FIELD_ACCESS_LOG_BUFFER_SIZE);
+                System.exit(1);
+            }
+        }
+
+        String accessLogMaxFileSizeString = getIniValue(SECTION_SERVER, FIELD_ACCESS_LOG_MAX_FILE_SIZE);
+        if (accessLogMaxFileSizeString == null) {
+            logger.error(CONSTANT_PRINT_FAIL_LOG_FORMAT_1, SECTION_SERVER, FIELD_ACCESS_LOG_MAX_FILE_SIZE);
+            System.exit(1);
+        } else {
+            this.accessLogMaxFileSize = Long.parseLong(accessLogMaxFileSizeString);
+            if (this.accessLogMaxFileSize <= 0) {
+                logger.error(CONSTANT_PRINT_FAIL_LOG_FORMAT_1, SECTION_SERVER, FIELD_ACCESS_LOG_MAX_FILE_SIZE);
+                System.exit(1);
+            }
+        }
+
+        String accessLogMaxFileCountString = getIniValue(SECTION_SERVER, FIELD_ACCESS_LOG_MAX_FILE_COUNT);
+        if (accessLogMaxFileCountString == null) {
+            logger.error(CONSTANT_PRINT_FAIL_LOG_FORMAT_1, SECTION_SERVER, FIELD_ACCESS_LOG_MAX_FILE_COUNT);
+            System.exit(1);
+        } else {
+            this.accessLogMaxFileCount = Integer.parseInt(accessLogMaxFileCountString);
+            if (this.accessLogMaxFileCount < 0) {
+                logger.error(CONSTANT_PRINT_FAIL_LOG_FORMAT_1, SECTION_SERVER, FIELD_ACCESS_LOG_MAX_FILE_COUNT);
+                System.exit(1);
+            }
+        }
     }
 
     /**
@@ -539,6 +895,106 @@ public class ConfigManager {
                 System.exit(1);
             }
         }
+
+        String enableConnectionPoolString = getIniValue(SECTION_CLIENT, FIELD_ENABLE_CONNECTION_POOL);
+        if (enableConnectionPoolString == null) {
+            logger.error(CONSTANT_PRINT_FAIL_LOG_FORMAT_1, SECTION_CLIENT, FIELD_ENABLE_CONNECTION_POOL);
+            System.exit(1);
+        } else {
+            this.enableConnectionPool = Boolean.parseBoolean(enableConnectionPoolString);
+        }
+
+        String connectionPoolMaxConnectionsString = getIniValue(SECTION_CLIENT, FIELD_CONNECTION_POOL_MAX_CONNECTIONS);
+        if (connectionPoolMaxConnectionsString == null) {
+            logger.error(CONSTANT_PRINT_FAIL_LOG_FORMAT_1, SECTION_CLIENT, FIELD_CONNECTION_POOL_MAX_CONNECTIONS);
+            System.exit(1);
+        } else {
+            this.connectionPoolMaxConnections = Integer.parseInt(connectionPoolMaxConnectionsString);
+            if (this.connectionPoolMaxConnections <= 0) {
+                logger.error(CONSTANT_PRINT_FAIL_LOG_FORMAT_1, SECTION_CLIENT, FIELD_CONNECTION_POOL_MAX_CONNECTIONS);
+                System.exit(1);
+            }
+        }
+
+        String connectionPoolMaxIdleConnectionsString = getIniValue(SECTION_CLIENT, FIELD_CONNECTION_POOL_MAX_IDLE_CONNECTIONS);
+        if (connectionPoolMaxIdleConnectionsString == null) {
+            logger.error(CONSTANT_PRINT_FAIL_LOG_FORMAT_1, SECTION_CLIENT, FIELD_CONNECTION_POOL_MAX_IDLE_CONNECTIONS);
+            System.exit(1);
+        } else {
+            this.connectionPoolMaxIdleConnections = Integer.parseInt(connectionPoolMaxIdleConnectionsString);
+            if (this.connectionPoolMaxIdleConnections < 0) {
+                logger.error(CONSTANT_PRINT_FAIL_LOG_FORMAT_1, SECTION_CLIENT, FIELD_CONNECTION_POOL_MAX_IDLE_CONNECTIONS);
+                System.exit(1);
+            }
+        }
+
+        String connectionPoolIdleTimeoutString = getIniValue(SECTION_CLIENT, FIELD_CONNECTION_POOL_IDLE_TIMEOUT);
+        if (connectionPoolIdleTimeoutString == null) {
+            logger.error(CONSTANT_PRINT_FAIL_LOG_FORMAT_1, SECTION_CLIENT, FIELD_CONNECTION_POOL_IDLE_TIMEOUT);
+            System.exit(1);
+        } else {
+            this.connectionPoolIdleTimeout = Long.parseLong(connectionPoolIdleTimeoutString);
+            if (this.connectionPoolIdleTimeout <= 0) {
+                logger.error(CONSTANT_PRINT_FAIL_LOG_FORMAT_1, SECTION_CLIENT, FIELD_CONNECTION_POOL_IDLE_TIMEOUT);
+                System.exit(1);
+            }
+        }
+
+        String connectionPoolMaxPendingRequestsString = getIniValue(SECTION_CLIENT, FIELD_CONNECTION_POOL_MAX_PENDING_REQUESTS);
+        if (connectionPoolMaxPendingRequestsString == null) {
+            logger.error(CONSTANT_PRINT_FAIL_LOG_FORMAT_1, SECTION_CLIENT, FIELD_CONNECTION_POOL_MAX_PENDING_REQUESTS);
+            System.exit(1);
+        } else {
+            this.connectionPoolMaxPendingRequests = Integer.parseInt(connectionPoolMaxPendingRequestsString);
+            if (this.connectionPoolMaxPendingRequests <= 0) {
+                logger.error(CONSTANT_PRINT_FAIL_LOG_FORMAT_1, SECTION_CLIENT, FIELD_CONNECTION_POOL_MAX_PENDING_REQUESTS);
+                System.exit(1);
+            }
+        }
+
+        String segmentPrefetchWindowString = getIniValue(SECTION_CLIENT, FIELD_SEGMENT_PREFETCH_WINDOW);
+        if (segmentPrefetchWindowString == null) {
+            logger.error(CONSTANT_PRINT_FAIL_LOG_FORMAT_1, SECTION_CLIENT, FIELD_SEGMENT_PREFETCH_WINDOW);
+            System.exit(1);
+        } else {
+            this.segmentPrefetchWindow = Integer.parseInt(segmentPrefetchWindowString);
+            if (this.segmentPrefetchWindow < 0) {
+                logger.error(CONSTANT_PRINT_FAIL_LOG_FORMAT_1, SECTION_CLIENT, FIELD_SEGMENT_PREFETCH_WINDOW);
+                System.exit(1);
+            }
+        }
+
+        String enableMemoryRelayString = getIniValue(SECTION_CLIENT, FIELD_ENABLE_MEMORY_RELAY);
+        if (enableMemoryRelayString == null) {
+            logger.error(CONSTANT_PRINT_FAIL_LOG_FORMAT_1, SECTION_CLIENT, FIELD_ENABLE_MEMORY_RELAY);
+            System.exit(1);
+        } else {
+            this.enableMemoryRelay = Boolean.parseBoolean(enableMemoryRelayString);
+        }
+
+        String memoryRelayWindowSizeString = getIniValue(SECTION_CLIENT, FIELD_MEMORY_RELAY_WINDOW_SIZE);
+        if (memoryRelayWindowSizeString == null) {
+            logger.error(CONSTANT_PRINT_FAIL_LOG_FORMAT_1, SECTION_CLIENT, FIELD_MEMORY_RELAY_WINDOW_SIZE);
+            System.exit(1);
+        } else {
+            this.memoryRelayWindowSize = Integer.parseInt(memoryRelayWindowSizeString);
+            if (this.memoryRelayWindowSize <= 0) {
+                logger.error(CONSTANT_PRINT_FAIL_LOG_FORMAT_1, SECTION_CLIENT, FIELD_MEMORY_RELAY_WINDOW_SIZE);
+                System.exit(1);
+            }
+        }
+
+        String memoryRelayMaxSizeString = getIniValue(SECTION_CLIENT, FIELD_MEMORY_RELAY_MAX_SIZE);
+        if (memoryRelayMaxSizeString == null) {
+            logger.error(CONSTANT_PRINT_FAIL_LOG_FORMAT_1, SECTION_CLIENT, FIELD_MEMORY_RELAY_MAX_SIZE);
+            System.exit(1);
+        } else {
+            this.memoryRelayMaxSize = Long.parseLong(memoryRelayMaxSizeString);
+            if (this.memoryRelayMaxSize <= 0) {
+                logger.error(CONSTANT_PRINT_FAIL_LOG_FORMAT_1, SECTION_CLIENT, FIELD_MEMORY_RELAY_MAX_SIZE);
+                System.exit(1);
+            }
+        }
     }
 
     /**
@@ -818,6 +1274,26 @@ public class ConfigManager {
                 System.exit(1);
             }
         }
+
+        String enableLowLatencyString = getIniValue(SECTION_MPD, FIELD_ENABLE_LOW_LATENCY);
+        if (enableLowLatencyString == null) {
+            logger.error(CONSTANT_PRINT_FAIL_LOG_FORMAT_1, SECTION_MPD, FIELD_ENABLE_LOW_LATENCY);
+            System.exit(1);
+        } else {
+            this.enableLowLatency = Boolean.parseBoolean(enableLowLatencyString);
+        }
+
+        String fragmentDurationString = getIniValue(SECTION_MPD, FIELD_FRAGMENT_DURATION);
+        if (fragmentDurationString == null) {
+            logger.error(CONSTANT_PRINT_FAIL_LOG_FORMAT_1, SECTION_MPD, FIELD_FRAGMENT_DURATION);
+            System.exit(1);
+        } else {
+            this.fragmentDuration = Double.parseDouble(fragmentDurationString);
+            if (this.fragmentDuration <= 0 || this.fragmentDuration > this.segmentDuration) {
+                logger.error(CONSTANT_PRINT_FAIL_LOG_FORMAT_1, SECTION_MPD, FIELD_FRAGMENT_DURATION);
+                System.exit(1);
+            }
+        }
     }
 
     /**
@@ -6,30 +6,43 @@ import config.ConfigManager;
 import dash.client.fsm.DashClientFsmManager;
 import dash.client.fsm.DashClientState;
 import dash.client.handler.DashHttpMessageSender;
+import dash.client.handler.base.DashHttpMessageHandler;
 import dash.client.handler.base.MessageType;
+import dash.client.handler.base.RelaySegmentWriter;
+import dash.client.handler.base.SegmentFileWriter;
+import dash.client.handler.base.SegmentWriter;
+import dash.client.prefetch.SegmentPrefetcher;
 import dash.mpd.MpdManager;
+import dash.server.DashServer;
 import dash.unit.DashUnit;
 import dash.unit.MediaType;
 import dash.unit.StreamType;
 import dash.unit.segment.MediaSegmentController;
+import dash.unit.segment.RelaySegmentStore;
 import io.netty.handler.codec.http.HttpRequest;
-import io.netty.util.HashedWheelTimer;
 import io.netty.util.Timeout;
-import io.netty.util.Timer;
+import io.netty.util.concurrent.EventExecutor;
+import io.netty.util.concurrent.ScheduledFuture;
 import network.definition.NetAddress;
+import network.socket.netty.NettyEventLoopRegistry;
 import org.apache.commons.io.FileUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import service.AppInstance;
 import service.ServiceManager;
 import service.scheduler.schedule.ScheduleManager;
+import service.scheduler.timer.SharedTimerService;
 import util.fsm.unit.StateUnit;
 import util.module.FileManager;
 
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * [DASH Client] : [Remote Dash Unit] = 1 : 1
@@ -40,7 +53,7 @@ public class DashClient {
     private transient static final Logger logger = LoggerFactory.getLogger(DashClient.class);
     private final transient ConfigManager configManager = AppInstance.getInstance().getConfigManager();
 
-    private boolean isStopped = false;
+    private volatile boolean isStopped = false;
 
     private final String dashUnitId;
     private final String srcPath;
@@ -52,24 +65,28 @@ public class DashClient {
     private String targetAudioInitSegPath;
     private String targetVideoInitSegPath;
 
-    private static final long TIMEOUT = 10000; // ms
-    private final transient Timer mpdTimer = new HashedWheelTimer();
+    public static final long TIMEOUT = 10000; // ms
     private transient Timeout mpdTimeout = null;
-    private final transient Timer audioTimer = new HashedWheelTimer();
     private transient Timeout audioTimeout = null;
-    private final transient Timer videoTimer = new HashedWheelTimer();
     private transient Timeout videoTimeout = null;
 
+    // 다음 요청 예약 (client event loop 의 scheduler 사용, I/O 스레드를 멈추지 않음)
+    // 응답 처리 스레드와 중지 스레드가 같이 접근하므로 교체 (getAndSet) 후 이전 예약을 취소한다.
+    private final transient EventExecutor requestExecutor = NettyEventLoopRegistry.getInstance().getClientGroup().next();
+    private final transient AtomicReference<ScheduledFuture<?>> mpdRequestFuture = new AtomicReference<>();
+    private final transient AtomicReference<ScheduledFuture<?>> audioRequestFuture = new AtomicReference<>();
+    private final transient AtomicReference<ScheduledFuture<?>> videoRequestFuture = new AtomicReference<>();
+    private final AtomicLong nextAudioRequestTime = new AtomicLong(0); // System.nanoTime(), 0 : 없음
+    private final AtomicLong nextVideoRequestTime = new AtomicLong(0);
+
     private final AtomicInteger mpdRetryCount = new AtomicInteger(0);
     private final AtomicBoolean isMpdRetrying = new AtomicBoolean(false);
 
     private final AtomicInteger audioRetryCount = new AtomicInteger(0);
     private final AtomicBoolean isAudioRetrying = new AtomicBoolean(false);
-    private final AtomicLong audioCompensationTime = new AtomicLong(0);
 
     private final AtomicInteger videoRetryCount = new AtomicInteger(0);
     private final AtomicBoolean isVideoRetrying = new AtomicBoolean(false);
-    private final AtomicLong videoCompensationTime = new AtomicLong(0);
 
     private final transient DashClientFsmManager dashClientAudioFsmManager = new DashClientFsmManager();
     private final transient DashClientFsmManager dashClientVideoFsmManager;
@@ -82,6 +99,11 @@ public class DashClient {
 
     private transient MediaSegmentController audioSegmentController = null;
     private transient MediaSegmentController videoSegmentController = null;
+
+    // key : MessageType + ":" + representationId
+    private final transient Map<String, SegmentPrefetcher> segmentPrefetcherMap = new ConcurrentHashMap<>();
+
+    private final transient RelaySegmentStore relaySegmentStore; // null : 세그먼트를 파일로 저장
     ////////////////////////////////////////////////////////////
 
     ////////////////////////////////////////////////////////////
@@ -105,6 +127,15 @@ public class DashClient {
             dashClientVideoFsmManager = null;
         }
 
+        // 메모리 relay 는 라이브 (DYNAMIC) 스트림만 사용 (STATIC 은 모든 세그먼트를 계속 서비스해야 하므로 파일로 저장)
+        DashServer dashServer = ServiceManager.getInstance().getDashServer();
+        DashUnit dashUnit = dashServer != null ? dashServer.getDashUnitById(dashUnitId) : null;
+        if (configManager.isEnableMemoryRelay() && dashUnit != null && dashUnit.getType().equals(StreamType.DYNAMIC)) {
+            this.relaySegmentStore = new RelaySegmentStore(dashUnitId, configManager.getMemoryRelayWindowSize());
+        } else {
+            this.relaySegmentStore = null;
+        }
+
         logger.debug("[DashClient({})] Created. (dashClientStateUnitId={}, srcPath={}, uriFileName={}, targetBasePath={}, targetMpdPath={})",
                 this.dashUnitId, this.dashClientStateUnitId,
                 this.srcPath, this.uriFileName,
@@ -189,6 +220,17 @@ public class DashClient {
     }
 
     public void stop() {
+        isStopped = true;
+        cancelScheduledRequests();
+        stopMpdTimeout();
+        stopAudioTimeout();
+        stopVideoTimeout();
+
+        for (SegmentPrefetcher segmentPrefetcher : segmentPrefetcherMap.values()) {
+            segmentPrefetcher.stop();
+        }
+        segmentPrefetcherMap.clear();
+
         if (audioSegmentController != null) {
             audioSegmentController.stop();
         }
@@ -204,7 +246,10 @@ public class DashClient {
 
         this.dashHttpMessageSender.stop();
 
-        isStopped = true;
+        if (relaySegmentStore != null) {
+            relaySegmentStore.close();
+        }
+
         logger.debug("[DashClient({})] STOP", dashUnitId);
     }
     ////////////////////////////////////////////////////////////
@@ -239,6 +284,186 @@ public class DashClient {
         }
     }
 
+    /**
+     * delay 후에 요청을 보낸다. (delay <= 0 이면 바로 전송)
+     * 같은 종류의 요청이 이미 예약되어 있으면 취소한다. (바로 전송하는 경우 포함)
+     */
+    public void scheduleHttpGetRequest(String path, MessageType messageType, long delay, TimeUnit timeUnit) {
+        if (isStopped) { return; }
+
+        AtomicReference<ScheduledFuture<?>> requestFutureRef = getRequestFuture(messageType);
+        if (delay <= 0) {
+            if (requestFutureRef != null) {
+                cancelScheduledRequest(requestFutureRef);
+            }
+            sendHttpGetRequest(path, messageType);
+            return;
+        }
+
+        ScheduledFuture<?> requestFuture;
+        try {
+            requestFuture = requestExecutor.schedule(() -> {
+                if (!isStopped) {
+                    sendHttpGetRequest(path, messageType);
+                }
+            }, delay, timeUnit);
+        } catch (RejectedExecutionException e) {
+            logger.warn("[DashClient({})] Fail to schedule the http request. Event loop is shut down. (path={})", dashUnitId, path);
+            return;
+        }
+        if (requestFutureRef == null) { return; }
+
+        ScheduledFuture<?> prevRequestFuture = requestFutureRef.getAndSet(requestFuture);
+        if (prevRequestFuture != null) {
+            prevRequestFuture.cancel(false);
+        }
+
+        // 교체하는 동안 중지되었으면 방금 예약한 요청도 취소 (cancelScheduledRequests 가 먼저 지나간 경우)
+        if (isStopped) {
+            cancelScheduledRequest(requestFutureRef);
+        }
+    }
+
+    /**
+     * 세그먼트 요청을 [이전 요청 예정 시각 + segmentDuration] 에 보낸다.
+     * - 응답 수신/처리 시간만큼 요청 주기가 계속 밀리지 않도록, 응답 시각이 아니라 예정 시각을 기준으로 한다.
+     * - 예정 시각이 이미 지났으면 바로 보낸다. (세그먼트 하나 이상 늦어졌으면 현재 시각 기준으로 다시 맞춤)
+     *
+     * @param segmentDuration micro-sec
+     */
+    public void scheduleSegmentRequest(String path, MessageType messageType, long segmentDuration) {
+        AtomicLong nextRequestTime = getNextRequestTime(messageType);
+        if (nextRequestTime == null) { return; }
+
+        long now = System.nanoTime();
+        long durationNanos = TimeUnit.MICROSECONDS.toNanos(Math.max(segmentDuration, 0));
+        long prevRequestTime = nextRequestTime.get();
+        long requestTime = (prevRequestTime > 0 ? prevRequestTime : now) + durationNanos;
+        if (requestTime < now - durationNanos) {
+            requestTime = now;
+        }
+
+        nextRequestTime.set(requestTime);
+        scheduleHttpGetRequest(path, messageType, requestTime - now, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * 같은 세그먼트를 delay 후에 다시 요청한다. (재시도)
+     * 세그먼트가 예상보다 늦게 준비된 것이므로 다음 세그먼트 예정 시각은 재요청 시각 기준으로 다시 맞춘다.
+     *
+     * @param delay micro-sec
+     */
+    public void scheduleSegmentRetry(String path, MessageType messageType, long delay) {
+        AtomicLong nextRequestTime = getNextRequestTime(messageType);
+        if (nextRequestTime == null) { return; }
+
+        delay = Math.max(delay, 0);
+        nextRequestTime.set(System.nanoTime() + TimeUnit.MICROSECONDS.toNanos(delay));
+        scheduleHttpGetRequest(path, messageType, delay, TimeUnit.MICROSECONDS);
+    }
+
+    /**
+     * representation 의 미디어 세그먼트를 SEGMENT_PREFETCH_WINDOW 개까지 동시에 요청하기 시작한다.
+     *
+     * @return 연결 풀을 사용하지 않거나 window 가 1 이하이면 false (순차 요청 사용)
+     */
+    public boolean startSegmentPrefetch(MessageType messageType, String representationId) {
+        if (isStopped || representationId == null) { return false; }
+        if (messageType != MessageType.AUDIO && messageType != MessageType.VIDEO) { return false; }
+
+        int windowSize = configManager.getSegmentPrefetchWindow();
+        if (windowSize <= 1 || !dashHttpMessageSender.isConnectionPoolEnabled()) { return false; }
+
+        String key = messageType + ":" + representationId;
+        if (segmentPrefetcherMap.containsKey(key)) { return true; }
+
+        long startNumber;
+        boolean isMainRepresentation;
+        if (messageType == MessageType.VIDEO) {
+            startNumber = mpdManager.getVideoSegmentSeqNum(representationId);
+            isMainRepresentation = representationId.equals(mpdManager.getFirstRepresentationId(MpdManager.CONTENT_VIDEO_TYPE));
+        } else {
+            startNumber = mpdManager.getAudioSegmentSeqNum(representationId);
+            isMainRepresentation = representationId.equals(mpdManager.getFirstRepresentationId(MpdManager.CONTENT_AUDIO_TYPE));
+        }
+
+        SegmentPrefetcher segmentPrefetcher = new SegmentPrefetcher(
+                this, messageType, representationId,
+                isMainRepresentation, windowSize, startNumber
+        );
+        if (segmentPrefetcherMap.putIfAbsent(key, segmentPrefetcher) != null) { return true; }
+
+        segmentPrefetcher.start();
+        return true;
+    }
+
+    /**
+     * 요청마다 응답을 처리할 handler 를 따로 지정해서 보낸다. (SegmentPrefetcher)
+     * timeout 은 요청마다 handler 가 관리한다. (DashSegmentHttpMessageHandler)
+     */
+    public void sendSegmentRequest(String path, DashHttpMessageHandler messageHandler) {
+        if (isStopped) { return; }
+
+        HttpRequest httpRequest = dashHttpMessageSender.makeHttpGetRequestMessage(path);
+        if (httpRequest == null) {
+            logger.warn("[DashClient({})] Fail to send the segment request. (path={})", dashUnitId, path);
+            messageHandler.onRequestFailed();
+            return;
+        }
+
+        dashHttpMessageSender.sendMessageForSegment(httpRequest, messageHandler);
+    }
+
+    /**
+     * 세그먼트 저장 방식 (메모리 relay 모드면 RelaySegmentStore, 아니면 파일)
+     *
+     * @param representationKey 메모리 relay 모드에서 세그먼트를 보관할 ring (null : 초기화 세그먼트)
+     */
+    public SegmentWriter createSegmentWriter(String representationKey) {
+        if (relaySegmentStore != null) {
+            return new RelaySegmentWriter(relaySegmentStore, representationKey);
+        }
+        return new SegmentFileWriter();
+    }
+
+    public RelaySegmentStore getRelaySegmentStore() {
+        return relaySegmentStore;
+    }
+
+    public Map<String, SegmentPrefetcher> getSegmentPrefetcherMap() {
+        return segmentPrefetcherMap;
+    }
+
+    private AtomicLong getNextRequestTime(MessageType messageType) {
+        switch (messageType) {
+            case AUDIO: return nextAudioRequestTime;
+            case VIDEO: return nextVideoRequestTime;
+            default: return null;
+        }
+    }
+
+    private AtomicReference<ScheduledFuture<?>> getRequestFuture(MessageType messageType) {
+        switch (messageType) {
+            case MPD: return mpdRequestFuture;
+            case AUDIO: return audioRequestFuture;
+            case VIDEO: return videoRequestFuture;
+            default: return null;
+        }
+    }
+
+    private void cancelScheduledRequests() {
+        cancelScheduledRequest(mpdRequestFuture);
+        cancelScheduledRequest(audioRequestFuture);
+        cancelScheduledRequest(videoRequestFuture);
+    }
+
+    private void cancelScheduledRequest(AtomicReference<ScheduledFuture<?>> requestFutureRef) {
+        ScheduledFuture<?> requestFuture = requestFutureRef.getAndSet(null);
+        if (requestFuture != null) {
+            requestFuture.cancel(false);
+        }
+    }
+
     public String getSourcePath(String additionalPath) {
         if (additionalPath == null) { return null; }
 
@@ -347,14 +572,6 @@ public class DashClient {
         return audioRetryCount.incrementAndGet();
     }
 
-    public long getAudioCompensationTime() {
-        return audioCompensationTime.get();
-    }
-
-    public void setAudioCompensationTime(long audioCompensationTime) {
-        this.audioCompensationTime.set(audioCompensationTime);
-    }
-
     public int getVideoRetryCount() {
         return videoRetryCount.get();
     }
@@ -367,14 +584,6 @@ public class DashClient {
         return videoRetryCount.incrementAndGet();
     }
 
-    public long getVideoCompensationTime() {
-        return videoCompensationTime.get();
-    }
-
-    public void setVideoCompensationTime(long videoCompensationTime) {
-        this.videoCompensationTime.set(videoCompensationTime);
-    }
-
     public boolean isMpdRetrying() {
         return isMpdRetrying.get();
     }
@@ -416,7 +625,8 @@ public class DashClient {
     public void startMpdTimeout() {
         if (mpdTimeout != null) { return; }
 
-        mpdTimeout = mpdTimer.newTimeout(
+        mpdTimeout = SharedTimerService.getInstance().newTimeout(
+                dashUnitId, requestExecutor,
                 timeout -> {
                     DashUnit dashUnit = ServiceManager.getInstance().getDashServer().getDashUnitById(dashUnitId);
                     if (dashUnit != null) {
@@ -447,7 +657,8 @@ public class DashClient {
     public void startAudioTimeout() {
         if (audioTimeout != null) { return; }
 
-        audioTimeout = audioTimer.newTimeout(
+        audioTimeout = SharedTimerService.getInstance().newTimeout(
+                dashUnitId, requestExecutor,
                 timeout -> {
                     DashUnit dashUnit = ServiceManager.getInstance().getDashServer().getDashUnitById(dashUnitId);
                     if (dashUnit != null) {
@@ -478,7 +689,8 @@ public class DashClient {
     public void startVideoTimeout() {
         if (videoTimeout != null) { return; }
 
-        videoTimeout = videoTimer.newTimeout(
+        videoTimeout = SharedTimerService.getInstance().newTimeout(
+                dashUnitId, requestExecutor,
                 timeout -> {
                     DashUnit dashUnit = ServiceManager.getInstance().getDashServer().getDashUnitById(dashUnitId);
                     if (dashUnit != null) {
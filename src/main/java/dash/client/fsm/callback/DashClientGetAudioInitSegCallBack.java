@@ -11,15 +11,11 @@ import util.fsm.event.base.CallBack;
 import util.fsm.unit.StateUnit;
 import util.module.FileManager;
 
-import java.util.concurrent.TimeUnit;
-
 public class DashClientGetAudioInitSegCallBack extends CallBack {
 
     ////////////////////////////////////////////////////////////
     private static final Logger logger = LoggerFactory.getLogger(DashClientGetAudioInitSegCallBack.class);
 
-    private static final TimeUnit timeUnit = TimeUnit.MICROSECONDS;
-
     private final FileManager fileManager = new FileManager();
     ////////////////////////////////////////////////////////////
 
@@ -45,28 +41,24 @@ public class DashClientGetAudioInitSegCallBack extends CallBack {
                 if (representation == null) { continue; }
                 logger.debug("AUDIO INIT CALL BACK representation: {}", representation);
 
-                long audioSegmentDuration = dashClient.getMpdManager().getAudioSegmentDuration(representation.getId());
-                if (audioSegmentDuration > 0) { // 1000000
-                    try {
-                        timeUnit.sleep(audioSegmentDuration);
-                        logger.trace("[DashClientGetAudioInitSegCallBack({})] [AUDIO({})] Waiting... ({})",
-                                dashClient.getDashUnitId(), representation.getId(), audioSegmentDuration
-                        );
-                    } catch (Exception e) {
-                        //logger.warn("");
-                    }
-                }
-
                 String audioSegmentName = mpdManager.getAudioMediaSegmentName(representation.getId());
                 logger.debug("[DashClientGetAudioInitSegCallBack({})] RepresentationId={}, audioSegmentName={}",
                         dashClient.getDashUnitId(), representation.getId(), audioSegmentName
                 );
-                dashClient.sendHttpGetRequest(
+                // 연결 풀 사용 시 여러 세그먼트를 동시에 요청 (SEGMENT_PREFETCH_WINDOW)
+                if (dashClient.startSegmentPrefetch(MessageType.AUDIO, representation.getId())) {
+                    continue;
+                }
+
+                // SegmentDuration(micro-sec) 후에 첫 미디어 세그먼트 요청 (event loop 를 멈추지 않음)
+                long audioSegmentDuration = mpdManager.getAudioSegmentDuration(representation.getId()); // 1000000
+                dashClient.scheduleSegmentRequest(
                         fileManager.concatFilePath(
                                 dashClient.getSrcPath(),
                                 audioSegmentName
                         ),
-                        MessageType.AUDIO
+                        MessageType.AUDIO,
+                        audioSegmentDuration
                 );
             }
         }
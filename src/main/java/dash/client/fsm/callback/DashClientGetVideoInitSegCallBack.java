@@ -12,15 +12,11 @@ import util.fsm.event.base.CallBack;
 import util.fsm.unit.StateUnit;
 import util.module.FileManager;
 
-import java.util.concurrent.TimeUnit;
-
 public class DashClientGetVideoInitSegCallBack extends CallBack {
 
     ////////////////////////////////////////////////////////////
     private static final Logger logger = LoggerFactory.getLogger(DashClientGetVideoInitSegCallBack.class);
 
-    private static final TimeUnit timeUnit = TimeUnit.MICROSECONDS;
-
     private final FileManager fileManager = new FileManager();
     ////////////////////////////////////////////////////////////
 
@@ -47,28 +43,24 @@ public class DashClientGetVideoInitSegCallBack extends CallBack {
                     if (representation == null) { continue; }
                     logger.debug("VIDEO INIT CALL BACK representation: {}", representation);
 
-                    long videoSegmentDuration = dashClient.getMpdManager().getVideoSegmentDuration(representation.getId()); // 1000000
-                    if (videoSegmentDuration > 0) {
-                        try {
-                            timeUnit.sleep(videoSegmentDuration);
-                            logger.trace("[DashClientGetVideoInitSegCallBack({})] [VIDEO({})] Waiting... ({})",
-                                    dashClient.getDashUnitId(), representation.getId(), videoSegmentDuration
-                            );
-                        } catch (Exception e) {
-                            //logger.warn("");
-                        }
-                    }
-
                     String videoSegmentName = mpdManager.getVideoMediaSegmentName(representation.getId());
                     logger.debug("[DashClientGetVideoInitSegCallBack({})] RepresentationId={}, videoSegmentName={}",
                             dashClient.getDashUnitId(), representation.getId(), videoSegmentName
                     );
-                    dashClient.sendHttpGetRequest(
+                    // 연결 풀 사용 시 여러 세그먼트를 동시에 요청 (SEGMENT_PREFETCH_WINDOW)
+                    if (dashClient.startSegmentPrefetch(MessageType.VIDEO, representation.getId())) {
+                        continue;
+                    }
+
+                    // SegmentDuration(micro-sec) 후에 첫 미디어 세그먼트 요청 (event loop 를 멈추지 않음)
+                    long videoSegmentDuration = mpdManager.getVideoSegmentDuration(representation.getId()); // 1000000
+                    dashClient.scheduleSegmentRequest(
                             fileManager.concatFilePath(
                                     dashClient.getSrcPath(),
                                     videoSegmentName
                             ),
-                            MessageType.VIDEO
+                            MessageType.VIDEO,
+                            videoSegmentDuration
                     );
                 }
             }
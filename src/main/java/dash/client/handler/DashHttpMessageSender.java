@@ -2,6 +2,11 @@ package dash.client.handler;
 
 import config.ConfigManager;
 import dash.client.DashClient;
+import dash.client.handler.audio.DashAudioHttpMessageHandler;
+import dash.client.handler.base.DashHttpMessageHandler;
+import dash.client.handler.mpd.DashMpdHttpMessageHandler;
+import dash.client.handler.video.DashVideoHttpMessageHandler;
+import dash.client.pool.DashHttpConnectionPool;
 import dash.server.network.DashLocalAddressManager;
 import dash.server.network.DashLocalNetworkInfo;
 import io.netty.handler.codec.http.*;
@@ -14,6 +19,7 @@ import org.slf4j.LoggerFactory;
 import service.AppInstance;
 import service.ServiceManager;
 
+import java.net.InetSocketAddress;
 import java.net.URI;
 import java.util.UUID;
 
@@ -34,6 +40,14 @@ public class DashHttpMessageSender {
 
     private final ConfigManager configManager;
     private final DashLocalAddressManager dashLocalAddressManager;
+
+    // 연결 풀 사용 시 (null 이면 GroupSocket 의 DashClient 전용 연결 사용)
+    private final DashHttpConnectionPool connectionPool;
+    private DashClient dashClient = null;
+    private InetSocketAddress targetSocketAddress = null;
+    private DashHttpMessageHandler mpdMessageHandler = null;
+    private DashHttpMessageHandler audioMessageHandler = null;
+    private DashHttpMessageHandler videoMessageHandler = null;
     ////////////////////////////////////////////////////////////
 
     ////////////////////////////////////////////////////////////
@@ -42,11 +56,16 @@ public class DashHttpMessageSender {
         this.socketSessionId = UUID.randomUUID().toString();
         this.configManager = AppInstance.getInstance().getConfigManager();
         this.dashLocalAddressManager = ServiceManager.getInstance().getDashServer().getDashLocalAddressManager();
+        this.connectionPool = dashLocalAddressManager.getConnectionPool();
     }
     ////////////////////////////////////////////////////////////
 
     ////////////////////////////////////////////////////////////
     public boolean start(DashClient dashClient, NetAddress targetAddress) {
+        if (connectionPool != null) {
+            return startWithConnectionPool(dashClient, targetAddress);
+        }
+
         localMpdNetworkInfoIndex = dashLocalAddressManager.addTargetToMpdSocket(dashClient, targetAddress, socketSessionId);
         if (localMpdNetworkInfoIndex < 0) { return false; }
 
@@ -61,7 +80,36 @@ public class DashHttpMessageSender {
         return true;
     }
 
+    private boolean startWithConnectionPool(DashClient dashClient, NetAddress targetAddress) {
+        if (targetAddress == null) { return false; }
+
+        int port = targetAddress.getPort() == 0 ? 80 : targetAddress.getPort();
+        if (targetAddress.isIpv4()) {
+            if (targetAddress.getInet4Address() == null) { return false; }
+            targetSocketAddress = new InetSocketAddress(targetAddress.getInet4Address(), port);
+        } else {
+            if (targetAddress.getInet6Address() == null) { return false; }
+            targetSocketAddress = new InetSocketAddress(targetAddress.getInet6Address(), port);
+        }
+
+        this.dashClient = dashClient;
+        mpdMessageHandler = new DashMpdHttpMessageHandler(dashClient);
+        audioMessageHandler = new DashAudioHttpMessageHandler(dashClient);
+        if (!configManager.isAudioOnly()) {
+            videoMessageHandler = new DashVideoHttpMessageHandler(dashClient);
+        }
+        return true;
+    }
+
     public void stop() {
+        // 쓰던 파일 정리
+        if (mpdMessageHandler != null) { mpdMessageHandler.close(); }
+        if (audioMessageHandler != null) { audioMessageHandler.close(); }
+        if (videoMessageHandler != null) { videoMessageHandler.close(); }
+
+        // 풀의 연결은 다른 DashClient 와 공유하므로 닫지 않는다. (대기 중인 요청은 DashClient 중지 후 버려짐)
+        if (connectionPool != null) { return; }
+
         if (!dashLocalAddressManager.deleteTargetFromMpdSocket(localMpdNetworkInfoIndex, socketSessionId)) {
             logger.warn("[DashHttpMessageSender({})] Fail to delete the target from mpd socket.", dashUnitId);
         }
@@ -100,6 +148,11 @@ public class DashHttpMessageSender {
     public void sendMessageForMpd(HttpRequest httpRequest) {
         if (httpRequest == null) { return; }
 
+        if (connectionPool != null) {
+            connectionPool.send(targetSocketAddress, httpRequest, dashClient, mpdMessageHandler);
+            return;
+        }
+
         DashLocalNetworkInfo mpdNetworkInfo = dashLocalAddressManager.getMpdNetworkInfo(localMpdNetworkInfoIndex);
         if (mpdNetworkInfo == null) { return; }
 
@@ -109,6 +162,11 @@ public class DashHttpMessageSender {
     public void sendMessageForAudio(HttpRequest httpRequest) {
         if (httpRequest == null) { return; }
 
+        if (connectionPool != null) {
+            connectionPool.send(targetSocketAddress, httpRequest, dashClient, audioMessageHandler);
+            return;
+        }
+
         DashLocalNetworkInfo audioNetworkInfo = dashLocalAddressManager.getAudioNetworkInfo(localAudioNetworkInfoIndex);
         if (audioNetworkInfo == null) { return; }
 
@@ -118,12 +176,31 @@ public class DashHttpMessageSender {
     public void sendMessageForVideo(HttpRequest httpRequest) {
         if (httpRequest == null) { return; }
 
+        if (connectionPool != null) {
+            connectionPool.send(targetSocketAddress, httpRequest, dashClient, videoMessageHandler);
+            return;
+        }
+
         DashLocalNetworkInfo videoNetworkInfo = dashLocalAddressManager.getVideoNetworkInfo(localVideoNetworkInfoIndex);
         if (videoNetworkInfo == null) { return; }
 
         sendMessage(videoNetworkInfo.getLocalGroupSocket(), httpRequest);
     }
 
+    /**
+     * 요청마다 handler 를 따로 지정해서 보낸다. (DashHttpConnectionPool 사용 시에만 가능)
+     */
+    public boolean sendMessageForSegment(HttpRequest httpRequest, DashHttpMessageHandler messageHandler) {
+        if (httpRequest == null || messageHandler == null) { return false; }
+        if (connectionPool == null) { return false; }
+
+        return connectionPool.send(targetSocketAddress, httpRequest, dashClient, messageHandler);
+    }
+
+    public boolean isConnectionPoolEnabled() {
+        return connectionPool != null;
+    }
+
     public void sendMessage(GroupSocket groupSocket, HttpRequest httpRequest) {
         if (groupSocket == null) { return; }
 
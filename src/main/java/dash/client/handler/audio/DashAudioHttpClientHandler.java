@@ -39,6 +39,7 @@ public class DashAudioHttpClientHandler extends SimpleChannelInboundHandler<Http
         if (dashClient != null) {
             logger.warn("DashAudioHttpClientHandler is inactive. (dashUnitId={})", dashClient.getDashUnitId());
         }
+        dashAudioHttpMessageHandler.close();
         ctx.close();
     }
     ////////////////////////////////////////////////////////////
@@ -6,6 +6,7 @@ import dash.client.fsm.DashClientFsmManager;
 import dash.client.fsm.DashClientState;
 import dash.client.handler.base.DashHttpMessageHandler;
 import dash.client.handler.base.MessageType;
+import dash.client.handler.base.SegmentWriter;
 import dash.mpd.MpdManager;
 import dash.unit.DashUnit;
 import dash.unit.StreamType;
@@ -22,22 +23,23 @@ import util.fsm.module.StateHandler;
 import util.fsm.unit.StateUnit;
 import util.module.FileManager;
 
-import java.util.concurrent.TimeUnit;
-
 public class DashAudioHttpMessageHandler extends DashHttpMessageHandler {
 
     private static final Logger logger = LoggerFactory.getLogger(DashAudioHttpMessageHandler.class);
 
-    private static final TimeUnit timeUnit = TimeUnit.MICROSECONDS;
     private final int retryCount;
 
     private final DashClient dashClient;
     private final FileManager fileManager = new FileManager();
+    private final SegmentWriter initSegmentWriter;
+    private final SegmentWriter mediaSegmentWriter;
 
     private String representationId;
 
     public DashAudioHttpMessageHandler(DashClient dashClient) {
         this.dashClient = dashClient;
+        this.initSegmentWriter = dashClient.createSegmentWriter(null);
+        this.mediaSegmentWriter = dashClient.createSegmentWriter(MessageType.AUDIO.name());
         this.retryCount = AppInstance.getInstance().getConfigManager().getDownloadChunkRetryCount();
     }
 
@@ -54,16 +56,12 @@ public class DashAudioHttpMessageHandler extends DashHttpMessageHandler {
                 return;
             }
 
-            int readBytes = buf.readableBytes();
             if (buf.readableBytes() <= 0) {
                 logger.warn("[DashAudioHttpClientHandler({})] Message is null.", dashClient.getDashUnitId());
                 finish(channelHandlerContext);
                 return;
             }
 
-            byte[] data = new byte[readBytes];
-            buf.getBytes(0, data);
-
             // TODO : Handle multiple representations
             this.representationId = dashClient.getMpdManager().getFirstRepresentationId(MpdManager.CONTENT_AUDIO_TYPE);
             long audioSegmentSeqNum = dashClient.getMpdManager().getAudioSegmentSeqNum(representationId);
@@ -90,17 +88,18 @@ public class DashAudioHttpMessageHandler extends DashHttpMessageHandler {
             String curAudioState = audioStateUnit.getCurState();
             switch (curAudioState) {
                 case DashClientState.MPD_DONE:
-                    dashClient.getMpdManager().makeInitSegment(fileManager, dashClient.getTargetAudioInitSegPath(), data);
+                    initSegmentWriter.write(dashClient.getTargetAudioInitSegPath(), httpContent);
                     break;
                 case DashClientState.AUDIO_INIT_SEG_DONE:
                     String targetAudioMediaSegPath = fileManager.concatFilePath(
                             dashClient.getTargetBasePath(),
                             dashClient.getMpdManager().getAudioMediaSegmentName(representationId)
                     );
-                    dashClient.getMpdManager().makeMediaSegment(fileManager, targetAudioMediaSegPath, data);
+                    boolean isWritten = mediaSegmentWriter.write(targetAudioMediaSegPath, httpContent);
 
+                    // 세그먼트가 완성된 후에 반영
                     MediaSegmentController audioSegmentController = dashClient.getAudioSegmentController();
-                    if (audioSegmentController != null) {
+                    if (isWritten && httpContent instanceof LastHttpContent && audioSegmentController != null) {
                         audioSegmentController.getMediaSegmentInfo().setLastSegmentNumber(audioSegmentSeqNum);
                     }
                     break;
@@ -145,11 +144,13 @@ public class DashAudioHttpMessageHandler extends DashHttpMessageHandler {
                 int audioRetryCount = dashClient.getAudioRetryCount();
                 if (audioRetryCount > 0) {
                     dashClient.setAudioRetryCount(0);
-                    dashClient.setAudioCompensationTime(0);
                     dashClient.setIsAudioRetrying(false);
                 }
             }
 
+            // 이전 응답에서 쓰다 만 세그먼트 정리
+            initSegmentWriter.abort();
+            mediaSegmentWriter.abort();
             printHeader(httpResponse);
         }
     }
@@ -177,7 +178,7 @@ public class DashAudioHttpMessageHandler extends DashHttpMessageHandler {
     }
 
     @Override
-    protected void sendReqForSegment(ChannelHandlerContext channelHandlerContext, boolean isTrySleep) {
+    protected void sendReqForSegment(ChannelHandlerContext channelHandlerContext, boolean isPaced) {
         long curSeqNum = dashClient.getMpdManager().incAndGetAudioSegmentSeqNum(representationId);
         String newAudioSegmentName = dashClient.getMpdManager().getAudioMediaSegmentName(representationId);
         if (newAudioSegmentName == null) {
@@ -189,37 +190,17 @@ public class DashAudioHttpMessageHandler extends DashHttpMessageHandler {
         }
         //logger.debug("[DashAudioHttpClientHandler({})] [+] [AUDIO] [seq={}] MediaSegment is changed. ([{}] > [{}])", dashClient.getDashUnitId(), curSeqNum, curAudioSegmentName, curAudioSegmentName);
 
-        if (isTrySleep) {
-            // SegmentDuration 만큼(micro-sec) sleep
+        String newSegmentPath = fileManager.concatFilePath(
+                dashClient.getSrcPath(),
+                newAudioSegmentName
+        );
+        if (isPaced) {
+            // 이전 요청 예정 시각 + SegmentDuration(micro-sec) 에 요청 (event loop 를 멈추지 않음)
             long segmentDuration = dashClient.getMpdManager().getAudioSegmentDuration(representationId); // 1000000
-            if (segmentDuration > 0) {
-                try {
-                    segmentDuration = dashClient.getMpdManager().applyAtoIntoDuration(representationId, segmentDuration, MpdManager.CONTENT_AUDIO_TYPE);
-
-                    long audioCompensationTime = dashClient.getAudioCompensationTime();
-                    if (audioCompensationTime > 0) {
-                        //logger.debug("audioCompensationTime: {}", audioCompensationTime);
-                        long newSegmentDuration = segmentDuration - audioCompensationTime;
-                        if (newSegmentDuration >= 0) {
-                            segmentDuration = newSegmentDuration;
-                        }
-                    }
-
-                    //logger.debug("[DashAudioHttpClientHandler({})] [AUDIO] Waiting... ({})", dashClient.getDashUnitId(), segmentDuration);
-                    timeUnit.sleep(segmentDuration);
-                } catch (Exception e) {
-                    //logger.warn("");
-                }
-            }
+            dashClient.scheduleSegmentRequest(newSegmentPath, MessageType.AUDIO, segmentDuration);
+        } else {
+            dashClient.sendHttpGetRequest(newSegmentPath, MessageType.AUDIO);
         }
-
-        dashClient.sendHttpGetRequest(
-                fileManager.concatFilePath(
-                        dashClient.getSrcPath(),
-                        newAudioSegmentName
-                ),
-                MessageType.AUDIO
-        );
     }
 
     @Override
@@ -232,31 +213,23 @@ public class DashAudioHttpMessageHandler extends DashHttpMessageHandler {
         dashClient.setIsAudioRetrying(true);
 
         long segmentDuration = dashClient.getMpdManager().getAudioSegmentDuration(representationId); // 1000000
+        long retryInterval = 0;
         if (segmentDuration > 0) {
-            try {
-                segmentDuration = dashClient.getMpdManager().applyAtoIntoDuration(representationId, segmentDuration, MpdManager.CONTENT_AUDIO_TYPE); // 800000
-
-                int retryIntervalFactor = retryCount - (curAudioRetryCount - 1);
-                if (retryIntervalFactor <= 0) { retryIntervalFactor = 1; }
-                segmentDuration /= retryIntervalFactor;
-
-                long curAudioCompensationFactor = dashClient.getAudioCompensationTime();
-                dashClient.setAudioCompensationTime(curAudioCompensationFactor + segmentDuration);
+            retryInterval = dashClient.getMpdManager().applyAtoIntoDuration(representationId, segmentDuration, MpdManager.CONTENT_AUDIO_TYPE); // 800000
 
-                //logger.debug("[DashAudioHttpClientHandler({})] [AUDIO] Waiting... (interval={}, retryIntervalFactor={})", dashClient.getDashUnitId(), segmentDuration, retryIntervalFactor);
-                timeUnit.sleep(segmentDuration);
-            } catch (Exception e) {
-                //logger.warn("");
-            }
+            int retryIntervalFactor = retryCount - (curAudioRetryCount - 1);
+            if (retryIntervalFactor <= 0) { retryIntervalFactor = 1; }
+            retryInterval /= retryIntervalFactor;
         }
 
         String curAudioSegmentName = dashClient.getMpdManager().getAudioMediaSegmentName(representationId);
-        dashClient.sendHttpGetRequest(
+        dashClient.scheduleSegmentRetry(
                 fileManager.concatFilePath(
                         dashClient.getSrcPath(),
                         curAudioSegmentName
                 ),
-                MessageType.AUDIO
+                MessageType.AUDIO,
+                retryInterval
         );
 
         //logger.warn("[DashAudioHttpClientHandler({})] [AUDIO] [count={}] Retrying... ({})", dashClient.getDashUnitId(), curAudioRetryCount, curAudioSegmentName);
@@ -265,6 +238,8 @@ public class DashAudioHttpMessageHandler extends DashHttpMessageHandler {
 
     @Override
     protected void finish(ChannelHandlerContext channelHandlerContext) {
+        initSegmentWriter.abort();
+        mediaSegmentWriter.abort();
         DashUnit dashUnit = ServiceManager.getInstance().getDashServer().getDashUnitById(dashClient.getDashUnitId());
         if (dashUnit != null) {
             if (dashUnit.getType().equals(StreamType.STATIC)) {
@@ -273,6 +248,12 @@ public class DashAudioHttpMessageHandler extends DashHttpMessageHandler {
                 ServiceManager.getInstance().getDashServer().deleteDashUnit(dashClient.getDashUnitId());
             }
         }
-        channelHandlerContext.close();
+        closeChannel(channelHandlerContext);
+    }
+
+    @Override
+    public void close() {
+        initSegmentWriter.abort();
+        mediaSegmentWriter.abort();
     }
 }
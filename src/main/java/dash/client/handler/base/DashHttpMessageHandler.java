@@ -1,5 +1,6 @@
 package dash.client.handler.base;
 
+import dash.client.pool.DashHttpConnectionPool;
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.handler.codec.http.HttpObject;
 import io.netty.handler.codec.http.HttpResponse;
@@ -9,8 +10,38 @@ public abstract class DashHttpMessageHandler {
     public abstract void processContent(HttpObject httpObject, ChannelHandlerContext channelHandlerContext);
     public abstract void processResponse(HttpObject httpObject, ChannelHandlerContext channelHandlerContext);
     protected abstract void printHeader(HttpResponse httpResponse);
-    protected abstract void sendReqForSegment(ChannelHandlerContext channelHandlerContext, boolean isTrySleep);
+    protected abstract void sendReqForSegment(ChannelHandlerContext channelHandlerContext, boolean isPaced);
     protected abstract boolean retry();
     protected abstract void finish(ChannelHandlerContext channelHandlerContext);
 
+    /**
+     * DashHttpConnectionPool 이 요청을 연결에 배정해서 보낼 때 호출된다. (연결의 event loop)
+     * (기본 : 아무것도 하지 않음)
+     */
+    public void onRequestSent(ChannelHandlerContext channelHandlerContext) {}
+
+    /**
+     * DashHttpConnectionPool 이 응답을 끝까지 받지 못한 요청을 버릴 때 호출된다.
+     * (기본 : 아무것도 하지 않음, DashClient 요청 timeout 에서 처리)
+     */
+    public void onRequestFailed() {}
+
+    /**
+     * DashClient 중지 시 호출된다. (쓰던 파일 정리)
+     */
+    public void close() {}
+
+    /**
+     * 요청 처리를 그만두고 연결을 정리한다.
+     * - DashHttpConnectionPool 의 연결은 다른 요청과 공유하므로 닫지 않고 풀에 맡긴다.
+     * - DashClient 전용 연결이면 닫는다.
+     */
+    protected void closeChannel(ChannelHandlerContext channelHandlerContext) {
+        if (channelHandlerContext == null) { return; }
+
+        if (!DashHttpConnectionPool.abort(channelHandlerContext, this)) {
+            channelHandlerContext.close();
+        }
+    }
+
 }
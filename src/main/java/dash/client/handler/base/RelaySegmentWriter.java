@@ -0,0 +1,94 @@
+package dash.client.handler.base;
+
+import dash.unit.segment.RelaySegmentStore;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.PooledByteBufAllocator;
+import io.netty.handler.codec.http.HttpContent;
+import io.netty.handler.codec.http.LastHttpContent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * 응답 하나 (세그먼트) 를 pooled direct ByteBuf 에 모았다가 완료 시 RelaySegmentStore 에 저장한다. (메모리 relay 모드)
+ * 디스크를 거치지 않으므로 서버는 완료된 세그먼트만 메모리에서 바로 내보낸다.
+ */
+public class RelaySegmentWriter implements SegmentWriter {
+
+    ////////////////////////////////////////////////////////////
+    private static final Logger logger = LoggerFactory.getLogger(RelaySegmentWriter.class);
+
+    private static final int INITIAL_CAPACITY = 64 * 1024;
+
+    private final RelaySegmentStore relaySegmentStore;
+    private final String representationKey; // null : 초기화 세그먼트 (pinned)
+
+    private String targetPath = null;
+    private ByteBuf buf = null;
+    private boolean isFailed = false; // 현재 응답 쓰기 실패 (LastHttpContent 까지 무시)
+    ////////////////////////////////////////////////////////////
+
+    ////////////////////////////////////////////////////////////
+    public RelaySegmentWriter(RelaySegmentStore relaySegmentStore, String representationKey) {
+        this.relaySegmentStore = relaySegmentStore;
+        this.representationKey = representationKey;
+    }
+    ////////////////////////////////////////////////////////////
+
+    ////////////////////////////////////////////////////////////
+    @Override
+    public synchronized boolean open(String targetPath) {
+        abort();
+        if (targetPath == null) { return false; }
+
+        this.targetPath = targetPath;
+        this.buf = PooledByteBufAllocator.DEFAULT.directBuffer(INITIAL_CAPACITY);
+        return true;
+    }
+
+    @Override
+    public synchronized boolean write(String targetPath, HttpContent httpContent) {
+        if (httpContent == null) { return false; }
+
+        boolean isLast = httpContent instanceof LastHttpContent;
+        if (isFailed) {
+            isFailed = !isLast;
+            return false;
+        }
+
+        if (buf == null && !open(targetPath)) {
+            isFailed = !isLast;
+            return false;
+        }
+
+        ByteBuf content = httpContent.content();
+        if (content != null && content.readableBytes() > 0) {
+            try {
+                buf.writeBytes(content, content.readerIndex(), content.readableBytes());
+            } catch (Exception e) {
+                logger.warn("[RelaySegmentWriter] Fail to write the segment. (path={})", this.targetPath, e);
+                abort();
+                isFailed = !isLast;
+                return false;
+            }
+        }
+
+        if (isLast) {
+            relaySegmentStore.put(representationKey, this.targetPath, buf);
+            buf = null;
+            this.targetPath = null;
+        }
+        return true;
+    }
+
+    @Override
+    public synchronized void abort() {
+        isFailed = false;
+        if (buf != null) {
+            buf.release();
+            buf = null;
+        }
+        targetPath = null;
+    }
+    ////////////////////////////////////////////////////////////
+
+}
@@ -0,0 +1,200 @@
+package dash.client.handler.base;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.handler.codec.http.HttpContent;
+import io.netty.handler.codec.http.LastHttpContent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * 응답 하나 (MPD, 세그먼트) 를 파일로 기록한다.
+ *
+ * - 응답을 받는 동안 [이름.part] 의 FileChannel 하나를 열어 두고, HttpContent 의 ByteBuf 를 복사 없이 그대로 쓴다. (gathering write)
+ * - 마지막 응답 메시지를 받으면 [이름.part] 를 [이름] 으로 rename 한다. (atomic)
+ *      > 서버는 요청받은 이름의 파일만 읽으므로 다 받지 못한 파일을 내보내지 않는다.
+ * - 중간에 실패하면 [이름.part] 를 지우고, 같은 응답의 나머지 메시지는 버린다. (기존 [이름] 파일은 그대로 유지)
+ * - 응답은 event loop 에서, 중지는 다른 스레드에서 호출될 수 있으므로 모든 메서드는 synchronized
+ */
+public class SegmentFileWriter implements SegmentWriter {
+
+    ////////////////////////////////////////////////////////////
+    private static final Logger logger = LoggerFactory.getLogger(SegmentFileWriter.class);
+
+    public static final String PART_POSTFIX = ".part";
+
+    private File targetFile = null;
+    private File partFile = null;
+    private FileChannel fileChannel = null;
+    private long writtenBytes = 0;
+    private boolean isFailed = false; // 현재 응답 쓰기 실패 (LastHttpContent 까지 무시)
+    ////////////////////////////////////////////////////////////
+
+    ////////////////////////////////////////////////////////////
+    /**
+     * [targetPath.part] 를 새로 연다. (이전에 열린 파일이 있으면 버림)
+     */
+    @Override
+    public synchronized boolean open(String targetPath) {
+        abort();
+        if (targetPath == null) { return false; }
+
+        File curTargetFile = new File(targetPath);
+        File curPartFile = new File(targetPath + PART_POSTFIX);
+        File parentFile = curTargetFile.getParentFile();
+        if (parentFile != null && !parentFile.exists() && !parentFile.mkdirs() && !parentFile.exists()) {
+            logger.warn("[SegmentFileWriter] Fail to make the directory. (path={})", parentFile.getAbsolutePath());
+            return false;
+        }
+
+        try {
+            fileChannel = FileChannel.open(curPartFile.toPath(),
+                    StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING
+            );
+        } catch (IOException e) {
+            logger.warn("[SegmentFileWriter] Fail to open the file. (path={})", curPartFile.getAbsolutePath(), e);
+            return false;
+        }
+
+        targetFile = curTargetFile;
+        partFile = curPartFile;
+        writtenBytes = 0;
+        return true;
+    }
+
+    /**
+     * 응답 메시지 하나를 쓴다. (열린 파일이 없으면 targetPath 로 열고, 마지막 메시지면 commit)
+     */
+    @Override
+    public synchronized boolean write(String targetPath, HttpContent httpContent) {
+        if (httpContent == null) { return false; }
+
+        boolean isLast = httpContent instanceof LastHttpContent;
+        if (isFailed) {
+            isFailed = !isLast;
+            return false;
+        }
+
+        if ((fileChannel == null && !open(targetPath)) || !write(httpContent.content())) {
+            isFailed = !isLast;
+            return false;
+        }
+
+        if (isLast) {
+            return commit();
+        }
+        return true;
+    }
+
+    /**
+     * ByteBuf 의 읽을 수 있는 영역을 모두 쓴다. (readerIndex 는 바꾸지 않음)
+     */
+    public synchronized boolean write(ByteBuf buf) {
+        if (fileChannel == null) { return false; }
+        if (buf == null || buf.readableBytes() <= 0) { return true; }
+
+        try {
+            if (buf.nioBufferCount() == 1) {
+                ByteBuffer byteBuffer = buf.nioBuffer();
+                while (byteBuffer.hasRemaining()) {
+                    writtenBytes += fileChannel.write(byteBuffer);
+                }
+            } else {
+                ByteBuffer[] byteBuffers = buf.nioBuffers();
+                long remainingBytes = buf.readableBytes();
+                while (remainingBytes > 0) {
+                    long curWrittenBytes = fileChannel.write(byteBuffers);
+                    remainingBytes -= curWrittenBytes;
+                    writtenBytes += curWrittenBytes;
+                }
+            }
+            return true;
+        } catch (IOException e) {
+            logger.warn("[SegmentFileWriter] Fail to write the file. (path={})", partFile.getAbsolutePath(), e);
+            abort();
+            return false;
+        }
+    }
+
+    /**
+     * 파일을 닫고 [이름.part] 를 [이름] 으로 바꾼다.
+     */
+    public synchronized boolean commit() {
+        if (fileChannel == null) { return false; }
+
+        File curTargetFile = targetFile;
+        File curPartFile = partFile;
+        if (!closeFile()) {
+            deletePartFile(curPartFile);
+            return false;
+        }
+
+        try {
+            try {
+                Files.move(curPartFile.toPath(), curTargetFile.toPath(),
+                        StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING
+                );
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(curPartFile.toPath(), curTargetFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (IOException e) {
+            logger.warn("[SegmentFileWriter] Fail to rename the file. (path={})", curPartFile.getAbsolutePath(), e);
+            deletePartFile(curPartFile);
+            return false;
+        }
+
+        return true;
+    }
+
+    /**
+     * 쓰던 파일을 닫고 지운다. (새 응답을 받을 준비)
+     */
+    @Override
+    public synchronized void abort() {
+        isFailed = false;
+        if (fileChannel == null) { return; }
+
+        File curPartFile = partFile;
+        closeFile();
+        deletePartFile(curPartFile);
+    }
+
+    public synchronized boolean isOpen() {
+        return fileChannel != null;
+    }
+
+    public synchronized long getWrittenBytes() {
+        return writtenBytes;
+    }
+
+    private boolean closeFile() {
+        boolean isClosed = true;
+        try {
+            fileChannel.close();
+        } catch (IOException e) {
+            logger.warn("[SegmentFileWriter] Fail to close the file. (path={})", partFile.getAbsolutePath(), e);
+            isClosed = false;
+        }
+
+        fileChannel = null;
+        targetFile = null;
+        partFile = null;
+        return isClosed;
+    }
+
+    private void deletePartFile(File curPartFile) {
+        if (curPartFile != null && curPartFile.exists() && !curPartFile.delete()) {
+            logger.warn("[SegmentFileWriter] Fail to delete the file. (path={})", curPartFile.getAbsolutePath());
+        }
+    }
+    ////////////////////////////////////////////////////////////
+
+}
@@ -0,0 +1,30 @@
+package dash.client.handler.base;
+
+import io.netty.handler.codec.http.HttpContent;
+
+/**
+ * 응답 하나 (세그먼트) 를 저장한다.
+ *
+ * - SegmentFileWriter : 파일 ([이름.part] 에 쓰고 완료 시 rename)
+ * - RelaySegmentWriter : 메모리 (완료 시 RelaySegmentStore 에 저장, 메모리 relay 모드)
+ */
+public interface SegmentWriter {
+
+    /**
+     * 새 응답을 받을 준비를 한다. (이전에 쓰던 응답은 버림)
+     */
+    boolean open(String targetPath);
+
+    /**
+     * 응답 메시지 하나를 쓴다. (열린 응답이 없으면 targetPath 로 열고, 마지막 메시지면 완료 처리)
+     *
+     * @return 실패하면 false (같은 응답의 나머지 메시지는 버림)
+     */
+    boolean write(String targetPath, HttpContent httpContent);
+
+    /**
+     * 쓰던 응답을 버린다.
+     */
+    void abort();
+
+}
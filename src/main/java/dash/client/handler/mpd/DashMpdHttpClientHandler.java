@@ -39,6 +39,7 @@ public class DashMpdHttpClientHandler extends SimpleChannelInboundHandler<HttpOb
         if (dashClient != null) {
             logger.warn("DashMpdHttpClientHandler is inactive. (dashUnitId={})", dashClient.getDashUnitId());
         }
+        dashMpdHttpMessageHandler.close();
         ctx.close();
     }
     ////////////////////////////////////////////////////////////
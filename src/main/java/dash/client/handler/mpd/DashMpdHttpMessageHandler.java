@@ -6,6 +6,7 @@ import dash.client.fsm.DashClientFsmManager;
 import dash.client.fsm.DashClientState;
 import dash.client.handler.base.DashHttpMessageHandler;
 import dash.client.handler.base.MessageType;
+import dash.client.handler.base.SegmentFileWriter;
 import dash.mpd.MpdManager;
 import dash.mpd.parser.mpd.Representation;
 import dash.unit.DashUnit;
@@ -37,6 +38,7 @@ public class DashMpdHttpMessageHandler extends DashHttpMessageHandler {
 
     private final DashClient dashClient;
     private final FileManager fileManager = new FileManager();
+    private final SegmentFileWriter segmentFileWriter = new SegmentFileWriter();
 
     private final long defaultMediaPresentationDuration;
 
@@ -58,39 +60,36 @@ public class DashMpdHttpMessageHandler extends DashHttpMessageHandler {
             if (buf == null) {
                 logger.warn("[PreProcessClientChannelHandler] DatagramPacket's content is null.");
                 ServiceManager.getInstance().getDashServer().deleteDashUnit(dashClient.getDashUnitId());
-                channelHandlerContext.close();
+                closeChannel(channelHandlerContext);
                 return;
             }
 
-            int readBytes = buf.readableBytes();
             if (buf.readableBytes() <= 0) {
                 logger.warn("[PreProcessClientChannelHandler] Message is null. Fail to get the mpd.");
                 ServiceManager.getInstance().getDashServer().deleteDashUnit(dashClient.getDashUnitId());
-                channelHandlerContext.close();
+                closeChannel(channelHandlerContext);
                 return;
             }
 
-            byte[] data = new byte[readBytes];
-            buf.getBytes(0, data);
-
-            dashClient.getMpdManager().makeMpd(fileManager, dashClient.getTargetMpdPath(), data);
+            // 다 받은 후에 rename > 파싱, 서버는 항상 완성된 MPD 만 읽는다.
+            boolean isWritten = segmentFileWriter.write(dashClient.getTargetMpdPath(), httpContent);
 
             //logger.trace("[DashMpdHttpClientHandler({})] [MPD] {}", dashClient.getDashUnitId(), data);
             if (httpContent instanceof LastHttpContent) {
                 logger.trace("[DashMpdHttpClientHandler({})] } END OF CONTENT <", dashClient.getDashUnitId());
 
                 // GET PARSE MPD & GET META DATA
-                if (!parseMpd()) {
+                if (!isWritten || !parseMpd()) {
                     logger.warn("[DashMpdHttpClientHandler({})] Fail to parse the mpd. (dashClient={})", dashClient.getDashUnitId(), dashClient);
                     ServiceManager.getInstance().getDashServer().deleteDashUnit(dashClient.getDashUnitId());
-                    channelHandlerContext.close();
+                    closeChannel(channelHandlerContext);
                     return;
                 }
 
                 if (!processFsm()) {
                     logger.warn("[DashAudioHttpClientHandler({})] Audio Fsm manager is not defined.", dashClient.getDashUnitId());
                     ServiceManager.getInstance().getDashServer().deleteDashUnit(dashClient.getDashUnitId());
-                    channelHandlerContext.close();
+                    closeChannel(channelHandlerContext);
                     return;
                 }
 
@@ -127,7 +126,7 @@ public class DashMpdHttpMessageHandler extends DashHttpMessageHandler {
                 if (!retry()) {
                     logger.warn("[DashMpdHttpClientHandler({})] [-] [MPD] !!! RECV NOT OK. DashClient will be stopped. (status={})", dashClient.getDashUnitId(), httpResponse.status());
                     ServiceManager.getInstance().getDashServer().deleteDashUnit(dashClient.getDashUnitId());
-                    channelHandlerContext.close();
+                    closeChannel(channelHandlerContext);
                 }
                 return;
             } else {
@@ -137,6 +136,8 @@ public class DashMpdHttpMessageHandler extends DashHttpMessageHandler {
                 }
             }
 
+            // 이전 응답에서 쓰다 만 파일 정리
+            segmentFileWriter.abort();
             printHeader(httpResponse);
         }
     }
@@ -164,7 +165,7 @@ public class DashMpdHttpMessageHandler extends DashHttpMessageHandler {
     }
 
     @Override
-    protected void sendReqForSegment(ChannelHandlerContext channelHandlerContext, boolean isTrySleep) {
+    protected void sendReqForSegment(ChannelHandlerContext channelHandlerContext, boolean isPaced) {
         // Not used
     }
 
@@ -177,14 +178,11 @@ public class DashMpdHttpMessageHandler extends DashHttpMessageHandler {
         }
         dashClient.setIsMpdRetrying(true);
 
-        try {
-            //logger.trace("[DashAudioHttpClientHandler({})] [MPD] Waiting... ({}sec)", dashClient.getDashUnitId(), 1);
-            timeUnitSec.sleep((long) AppInstance.getInstance().getConfigManager().getRemoteTimeOffset());
-        } catch (Exception e) {
-            //logger.warn("");
-        }
-
-        dashClient.sendHttpGetRequest(dashClient.getSrcPath(), MessageType.MPD);
+        // RemoteTimeOffset(sec) 후에 재요청 (event loop 를 멈추지 않음)
+        dashClient.scheduleHttpGetRequest(
+                dashClient.getSrcPath(), MessageType.MPD,
+                (long) AppInstance.getInstance().getConfigManager().getRemoteTimeOffset(), timeUnitSec
+        );
         //logger.warn("[DashMpdHttpClientHandler({})] [MPD] [count={}] Retrying... ({})", dashClient.getDashUnitId(), curMpdRetryCount, dashClient.getSrcPath());
         return true;
     }
@@ -194,6 +192,11 @@ public class DashMpdHttpMessageHandler extends DashHttpMessageHandler {
 
     }
 
+    @Override
+    public void close() {
+        segmentFileWriter.abort();
+    }
+
     private boolean parseMpd() {
         if (!dashClient.getMpdManager().parseMpd(dashClient.getTargetMpdPath(), true)) {
             return false;
@@ -272,20 +275,13 @@ public class DashMpdHttpMessageHandler extends DashHttpMessageHandler {
          */
         Duration mediaPresentationDuration = dashClient.getMpdManager().getMediaPresentationDuration();
         if (mediaPresentationDuration != null) {
-            try {
-                long seconds = mediaPresentationDuration.getSeconds();
-                if (seconds <= 0) {
-                    seconds = defaultMediaPresentationDuration;
-                }
-
-                //logger.debug("[DashMpdHttpClientHandler({})] [MPD] Waiting... ({})", dashClient.getDashUnitId(), seconds);
-                timeUnitSec.sleep(seconds);
-
-                // SEND MPD REQUEST again for MediaPresentationDuration
-                dashClient.sendHttpGetRequest(dashClient.getSrcPath(), MessageType.MPD);
-            } catch (Exception e) {
-                //logger.warn("");
+            long seconds = mediaPresentationDuration.getSeconds();
+            if (seconds <= 0) {
+                seconds = defaultMediaPresentationDuration;
             }
+
+            // SEND MPD REQUEST again for MediaPresentationDuration
+            dashClient.scheduleHttpGetRequest(dashClient.getSrcPath(), MessageType.MPD, seconds, timeUnitSec);
         }
     }
 
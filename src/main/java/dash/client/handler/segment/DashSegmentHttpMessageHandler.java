@@ -0,0 +1,208 @@
+package dash.client.handler.segment;
+
+import dash.client.handler.base.DashHttpMessageHandler;
+import dash.client.handler.base.SegmentWriter;
+import dash.client.prefetch.SegmentPrefetcher;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.handler.codec.http.*;
+import io.netty.util.Timeout;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 미디어 세그먼트 요청 하나의 응답 처리 (SegmentPrefetcher 가 요청마다 생성)
+ * 세그먼트 번호와 저장 경로를 요청 시점에 정해 두므로 여러 세그먼트의 응답이 동시에, 순서와 상관없이 도착해도 된다.
+ * 세그먼트는 응답을 다 받은 후에 파일 또는 메모리 (relay 모드) 에 저장된다. (SegmentWriter)
+ *
+ * 요청마다 timeout 을 가진다. (다른 요청의 응답이 timeout 을 끄지 않음)
+ * 응답을 다 받기 전에 timeout 이 지나면 연결을 정리하고 실패로 처리한다. (onRequestFailed > 재시도)
+ */
+public class DashSegmentHttpMessageHandler extends DashHttpMessageHandler {
+
+    ////////////////////////////////////////////////////////////
+    private static final Logger logger = LoggerFactory.getLogger(DashSegmentHttpMessageHandler.class);
+
+    private final SegmentPrefetcher segmentPrefetcher;
+    private final long segmentNumber;
+    private final int attempt;
+    private final String targetSegmentPath;
+    private final SegmentWriter segmentWriter;
+
+    private boolean isOk = false;
+    private final AtomicBoolean isFinished = new AtomicBoolean(false);
+    private volatile Timeout requestTimeout = null;
+    private volatile ChannelHandlerContext channelHandlerContext = null; // 요청을 보낸 연결
+    ////////////////////////////////////////////////////////////
+
+    ////////////////////////////////////////////////////////////
+    public DashSegmentHttpMessageHandler(SegmentPrefetcher segmentPrefetcher, long segmentNumber, int attempt,
+                                         String targetSegmentPath, SegmentWriter segmentWriter) {
+        this.segmentPrefetcher = segmentPrefetcher;
+        this.segmentNumber = segmentNumber;
+        this.attempt = attempt;
+        this.targetSegmentPath = targetSegmentPath;
+        this.segmentWriter = segmentWriter;
+    }
+    ////////////////////////////////////////////////////////////
+
+    ////////////////////////////////////////////////////////////
+    /**
+     * 요청을 보내기 전에 호출한다.
+     *
+     * @param timeout 응답을 다 받을 때까지 기다리는 시간 (ms)
+     */
+    public void startTimeout(long timeout) {
+        if (isFinished.get() || timeout <= 0) { return; }
+
+        requestTimeout = segmentPrefetcher.newRequestTimeout(this::onRequestTimeout, timeout);
+    }
+
+    private void stopTimeout() {
+        Timeout curTimeout = requestTimeout;
+        if (curTimeout != null) {
+            curTimeout.cancel();
+            requestTimeout = null;
+        }
+    }
+
+    /**
+     * 응답 처리와 겹치지 않도록 연결의 event loop 에서 처리한다.
+     */
+    private void onRequestTimeout() {
+        if (isFinished.get()) { return; }
+
+        ChannelHandlerContext curContext = channelHandlerContext;
+        if (curContext != null && !curContext.executor().inEventLoop()) {
+            curContext.executor().execute(this::onRequestTimeout);
+            return;
+        }
+
+        logger.warn("[DashSegmentHttpMessageHandler({})] [{}] REQUEST TIMEOUT. (seq={}, attempt={})",
+                segmentPrefetcher.getDashUnitId(), segmentPrefetcher.getMessageType(), segmentNumber, attempt
+        );
+
+        // 남은 응답은 버린다. (풀의 연결이 아직 이 요청에 묶여 있을 때만 연결을 닫음)
+        if (curContext != null) {
+            closeChannel(curContext);
+        }
+        onRequestFailed();
+    }
+    ////////////////////////////////////////////////////////////
+
+    ////////////////////////////////////////////////////////////
+    @Override
+    public void onRequestSent(ChannelHandlerContext channelHandlerContext) {
+        this.channelHandlerContext = channelHandlerContext;
+    }
+
+    @Override
+    public void processResponse(HttpObject httpObject, ChannelHandlerContext channelHandlerContext) {
+        if (!(httpObject instanceof HttpResponse) || isFinished.get()) { return; }
+
+        HttpResponse httpResponse = (HttpResponse) httpObject;
+        this.channelHandlerContext = channelHandlerContext;
+
+        isOk = httpResponse.status().equals(HttpResponseStatus.OK);
+        if (!isOk) {
+            if (!isFinished.compareAndSet(false, true)) { return; }
+            stopTimeout();
+
+            // 재시도 로직
+            if (!retry()) {
+                logger.warn("[DashSegmentHttpMessageHandler({})] [-] [{}] !!! RECV NOT OK. DashClient will be stopped. (status={}, seq={}, retryCount={})",
+                        segmentPrefetcher.getDashUnitId(), segmentPrefetcher.getMessageType(), httpResponse.status(),
+                        segmentNumber, segmentPrefetcher.getRetryCount()
+                );
+                finish(channelHandlerContext);
+            }
+            return;
+        }
+
+        if (!segmentWriter.open(targetSegmentPath)) {
+            onRequestFailed();
+            return;
+        }
+        printHeader(httpResponse);
+    }
+
+    @Override
+    public void processContent(HttpObject httpObject, ChannelHandlerContext channelHandlerContext) {
+        if (!(httpObject instanceof HttpContent) || !isOk || isFinished.get()) { return; }
+
+        HttpContent httpContent = (HttpContent) httpObject;
+        if (!segmentWriter.write(targetSegmentPath, httpContent)) {
+            onRequestFailed();
+            return;
+        }
+
+        if (httpContent instanceof LastHttpContent) {
+            if (!isFinished.compareAndSet(false, true)) { return; }
+            stopTimeout();
+            segmentPrefetcher.onSegmentCompleted(segmentNumber);
+        }
+    }
+
+    /**
+     * 응답을 다 받기 전에 연결이 끊겼거나, 요청이 전송되지 못했거나, timeout > 같은 세그먼트 재시도
+     */
+    @Override
+    public void onRequestFailed() {
+        if (!isFinished.compareAndSet(false, true)) { return; }
+        stopTimeout();
+        segmentWriter.abort();
+
+        if (!retry()) {
+            logger.warn("[DashSegmentHttpMessageHandler({})] [-] [{}] !!! Fail to get the segment. DashClient will be stopped. (seq={}, retryCount={})",
+                    segmentPrefetcher.getDashUnitId(), segmentPrefetcher.getMessageType(), segmentNumber, segmentPrefetcher.getRetryCount()
+            );
+            segmentPrefetcher.finish();
+        }
+    }
+
+    @Override
+    public void close() {
+        isFinished.set(true);
+        stopTimeout();
+        segmentWriter.abort();
+    }
+
+    @Override
+    protected void printHeader(HttpResponse httpResponse) {
+        if (logger.isTraceEnabled()) {
+            logger.trace("[DashSegmentHttpMessageHandler({})] > STATUS: {} (seq={})", segmentPrefetcher.getDashUnitId(), httpResponse.status(), segmentNumber);
+        }
+    }
+
+    @Override
+    protected void sendReqForSegment(ChannelHandlerContext channelHandlerContext, boolean isPaced) {
+        // Not used (SegmentPrefetcher)
+    }
+
+    @Override
+    protected boolean retry() {
+        return segmentPrefetcher.onSegmentFailed(segmentNumber, attempt);
+    }
+
+    @Override
+    protected void finish(ChannelHandlerContext channelHandlerContext) {
+        segmentPrefetcher.finish();
+    }
+    ////////////////////////////////////////////////////////////
+
+    ////////////////////////////////////////////////////////////
+    public long getSegmentNumber() {
+        return segmentNumber;
+    }
+
+    public int getAttempt() {
+        return attempt;
+    }
+
+    public boolean isFinished() {
+        return isFinished.get();
+    }
+    ////////////////////////////////////////////////////////////
+
+}
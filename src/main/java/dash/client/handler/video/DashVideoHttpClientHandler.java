@@ -39,6 +39,7 @@ public class DashVideoHttpClientHandler extends SimpleChannelInboundHandler<Http
         if (dashClient != null) {
             logger.warn("DashVideoHttpClientHandler is inactive. (dashUnitId={})", dashClient.getDashUnitId());
         }
+        dashVideoHttpMessageHandler.close();
         ctx.close();
     }
     ////////////////////////////////////////////////////////////
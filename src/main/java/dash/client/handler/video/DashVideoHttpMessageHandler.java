@@ -6,6 +6,7 @@ import dash.client.fsm.DashClientFsmManager;
 import dash.client.fsm.DashClientState;
 import dash.client.handler.base.DashHttpMessageHandler;
 import dash.client.handler.base.MessageType;
+import dash.client.handler.base.SegmentWriter;
 import dash.mpd.MpdManager;
 import dash.unit.DashUnit;
 import dash.unit.StreamType;
@@ -22,23 +23,23 @@ import util.fsm.module.StateHandler;
 import util.fsm.unit.StateUnit;
 import util.module.FileManager;
 
-import java.util.concurrent.TimeUnit;
-
 public class DashVideoHttpMessageHandler extends DashHttpMessageHandler {
 
     private static final Logger logger = LoggerFactory.getLogger(DashVideoHttpMessageHandler.class);
 
-    private static final TimeUnit timeUnit = TimeUnit.MICROSECONDS;
-
     private final int retryCount;
 
     private final DashClient dashClient;
     private final FileManager fileManager = new FileManager();
+    private final SegmentWriter initSegmentWriter;
+    private final SegmentWriter mediaSegmentWriter;
 
     private String representationId;
 
     public DashVideoHttpMessageHandler(DashClient dashClient) {
         this.dashClient = dashClient;
+        this.initSegmentWriter = dashClient.createSegmentWriter(null);
+        this.mediaSegmentWriter = dashClient.createSegmentWriter(MessageType.VIDEO.name());
         this.retryCount = AppInstance.getInstance().getConfigManager().getDownloadChunkRetryCount();
     }
 
@@ -61,11 +62,13 @@ public class DashVideoHttpMessageHandler extends DashHttpMessageHandler {
                 int videoRetryCount = dashClient.getVideoRetryCount();
                 if (videoRetryCount > 0) {
                     dashClient.setVideoRetryCount(0);
-                    dashClient.setVideoCompensationTime(0);
                     dashClient.setIsVideoRetrying(false);
                 }
             }
 
+            // 이전 응답에서 쓰다 만 세그먼트 정리
+            initSegmentWriter.abort();
+            mediaSegmentWriter.abort();
             printHeader(httpResponse);
         }
     }
@@ -83,16 +86,12 @@ public class DashVideoHttpMessageHandler extends DashHttpMessageHandler {
                 return;
             }
 
-            int readBytes = buf.readableBytes();
             if (buf.readableBytes() <= 0) {
                 logger.warn("[DashVideoHttpClientHandler({})] Message is null.", dashClient.getDashUnitId());
                 finish(channelHandlerContext);
                 return;
             }
 
-            byte[] data = new byte[readBytes];
-            buf.getBytes(0, data);
-
             // TODO : Handle multiple representations
             this.representationId = dashClient.getMpdManager().getFirstRepresentationId(MpdManager.CONTENT_VIDEO_TYPE);
             long videoSegmentSeqNum = dashClient.getMpdManager().getVideoSegmentSeqNum(representationId);
@@ -119,17 +118,18 @@ public class DashVideoHttpMessageHandler extends DashHttpMessageHandler {
             String curVideoState = videoStateUnit.getCurState();
             switch (curVideoState) {
                 case DashClientState.MPD_DONE:
-                    dashClient.getMpdManager().makeInitSegment(fileManager, dashClient.getTargetVideoInitSegPath(), data);
+                    initSegmentWriter.write(dashClient.getTargetVideoInitSegPath(), httpContent);
                     break;
                 case DashClientState.VIDEO_INIT_SEG_DONE:
                     String targetVideoMediaSegPath = fileManager.concatFilePath(
                             dashClient.getTargetBasePath(),
                             curVideoSegmentName
                     );
-                    dashClient.getMpdManager().makeMediaSegment(fileManager, targetVideoMediaSegPath, data);
+                    boolean isWritten = mediaSegmentWriter.write(targetVideoMediaSegPath, httpContent);
 
+                    // 세그먼트가 완성된 후에 반영
                     MediaSegmentController videoSegmentController = dashClient.getVideoSegmentController();
-                    if (videoSegmentController != null) {
+                    if (isWritten && httpContent instanceof LastHttpContent && videoSegmentController != null) {
                         videoSegmentController.getMediaSegmentInfo().setLastSegmentNumber(videoSegmentSeqNum);
                     }
                     break;
@@ -178,7 +178,7 @@ public class DashVideoHttpMessageHandler extends DashHttpMessageHandler {
     }
 
     @Override
-    protected void sendReqForSegment(ChannelHandlerContext channelHandlerContext, boolean isTrySleep) {
+    protected void sendReqForSegment(ChannelHandlerContext channelHandlerContext, boolean isPaced) {
         long curSeqNum = dashClient.getMpdManager().incAndGetVideoSegmentSeqNum(representationId);
         String newVideoSegmentName = dashClient.getMpdManager().getVideoMediaSegmentName(representationId);
         if (newVideoSegmentName == null) {
@@ -190,37 +190,17 @@ public class DashVideoHttpMessageHandler extends DashHttpMessageHandler {
         }
         //logger.debug("[DashVideoHttpClientHandler({})] [+] [VIDEO] [seq={}] MediaSegment is changed. ([{}] > [{}])", dashClient.getDashUnitId(), curSeqNum, curVideoSegmentName, newVideoSegmentName);
 
-        if (isTrySleep) {
-            // SegmentDuration 만큼(micro-sec) sleep
+        String newSegmentPath = fileManager.concatFilePath(
+                dashClient.getSrcPath(),
+                newVideoSegmentName
+        );
+        if (isPaced) {
+            // 이전 요청 예정 시각 + SegmentDuration(micro-sec) 에 요청 (event loop 를 멈추지 않음)
             long segmentDuration = dashClient.getMpdManager().getVideoSegmentDuration(representationId); // 1000000
-            if (segmentDuration > 0) {
-                try {
-                    segmentDuration = dashClient.getMpdManager().applyAtoIntoDuration(representationId, segmentDuration, MpdManager.CONTENT_VIDEO_TYPE);
-
-                    long videoCompensationTime = dashClient.getVideoCompensationTime();
-                    if (videoCompensationTime > 0) {
-                        //logger.debug("videoCompensationTime: {}", videoCompensationTime);
-                        long newSegmentDuration = segmentDuration - videoCompensationTime;
-                        if (newSegmentDuration >= 0) {
-                            segmentDuration = newSegmentDuration;
-                        }
-                    }
-
-                    //logger.debug("[DashVideoHttpClientHandler({})] [VIDEO] Waiting... ({})", dashClient.getDashUnitId(), segmentDuration);
-                    timeUnit.sleep(segmentDuration);
-                } catch (Exception e) {
-                    //logger.warn("");
-                }
-            }
+            dashClient.scheduleSegmentRequest(newSegmentPath, MessageType.VIDEO, segmentDuration);
+        } else {
+            dashClient.sendHttpGetRequest(newSegmentPath, MessageType.VIDEO);
         }
-
-        dashClient.sendHttpGetRequest(
-                fileManager.concatFilePath(
-                        dashClient.getSrcPath(),
-                        newVideoSegmentName
-                ),
-                MessageType.VIDEO
-        );
     }
 
     @Override
@@ -233,31 +213,23 @@ public class DashVideoHttpMessageHandler extends DashHttpMessageHandler {
         dashClient.setIsVideoRetrying(true);
 
         long segmentDuration = dashClient.getMpdManager().getVideoSegmentDuration(representationId); // 1000000
+        long retryInterval = 0;
         if (segmentDuration > 0) {
-            try {
-                segmentDuration = dashClient.getMpdManager().applyAtoIntoDuration(representationId, segmentDuration, MpdManager.CONTENT_VIDEO_TYPE); // 800000
-
-                int retryIntervalFactor = retryCount - (curVideoRetryCount - 1);
-                if (retryIntervalFactor <= 0) { retryIntervalFactor = 1; }
-                segmentDuration /= retryIntervalFactor;
+            retryInterval = dashClient.getMpdManager().applyAtoIntoDuration(representationId, segmentDuration, MpdManager.CONTENT_VIDEO_TYPE); // 800000
 
-                long curVideoCompensationFactor = dashClient.getVideoCompensationTime();
-                dashClient.setVideoCompensationTime(curVideoCompensationFactor + segmentDuration);
-
-                //logger.debug("[DashVideoHttpClientHandler({})] [VIDEO] Waiting... ({})", dashClient.getDashUnitId(), segmentDuration);
-                timeUnit.sleep(segmentDuration);
-            } catch (Exception e) {
-                //logger.warn("");
-            }
+            int retryIntervalFactor = retryCount - (curVideoRetryCount - 1);
+            if (retryIntervalFactor <= 0) { retryIntervalFactor = 1; }
+            retryInterval /= retryIntervalFactor;
         }
 
         String curVideoSegmentName = dashClient.getMpdManager().getVideoMediaSegmentName(representationId);
-        dashClient.sendHttpGetRequest(
+        dashClient.scheduleSegmentRetry(
                 fileManager.concatFilePath(
                         dashClient.getSrcPath(),
                         curVideoSegmentName
                 ),
-                MessageType.VIDEO
+                MessageType.VIDEO,
+                retryInterval
         );
 
         //logger.warn("[DashVideoHttpClientHandler({})] [VIDEO] [count={}] Retrying... ({})", dashClient.getDashUnitId(), curVideoRetryCount, curVideoSegmentName);
@@ -266,6 +238,8 @@ public class DashVideoHttpMessageHandler extends DashHttpMessageHandler {
 
     @Override
     protected void finish(ChannelHandlerContext channelHandlerContext) {
+        initSegmentWriter.abort();
+        mediaSegmentWriter.abort();
         DashUnit dashUnit = ServiceManager.getInstance().getDashServer().getDashUnitById(dashClient.getDashUnitId());
         if (dashUnit != null) {
             if (dashUnit.getType().equals(StreamType.STATIC)) {
@@ -274,7 +248,12 @@ public class DashVideoHttpMessageHandler extends DashHttpMessageHandler {
                 ServiceManager.getInstance().getDashServer().deleteDashUnit(dashClient.getDashUnitId());
             }
         }
-        channelHandlerContext.close();
+        closeChannel(channelHandlerContext);
     }
 
+    @Override
+    public void close() {
+        initSegmentWriter.abort();
+        mediaSegmentWriter.abort();
+    }
 }
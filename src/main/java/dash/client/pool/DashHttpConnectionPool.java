@@ -0,0 +1,558 @@
+package dash.client.pool;
+
+import dash.client.DashClient;
+import dash.client.handler.base.DashHttpMessageHandler;
+import io.netty.bootstrap.Bootstrap;
+import io.netty.buffer.PooledByteBufAllocator;
+import io.netty.channel.ChannelFutureListener;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInitializer;
+import io.netty.channel.ChannelOption;
+import io.netty.channel.ChannelPipeline;
+import io.netty.channel.socket.SocketChannel;
+import io.netty.handler.codec.http.HttpClientCodec;
+import io.netty.handler.codec.http.HttpContentDecompressor;
+import io.netty.handler.codec.http.HttpRequest;
+import io.netty.handler.ssl.SslContext;
+import io.netty.util.ReferenceCountUtil;
+import io.netty.util.Timeout;
+import io.netty.util.concurrent.EventExecutor;
+import network.socket.netty.NettyEventLoopRegistry;
+import network.socket.netty.NettyTransport;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import service.scheduler.timer.SharedTimerService;
+
+import java.net.InetSocketAddress;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Origin (ip:port) 별 HTTP/1.1 keep-alive 연결 풀 (DashClient 공용)
+ *
+ * - MPD, Audio, Video 요청과 여러 DashClient 가 같은 origin 의 연결을 나눠 쓴다. (연결당 동시 요청 1개, pipelining 없음)
+ * - 쉬는 연결이 없고 maxConnections 미만이면 새로 연결한다. (connect 는 비동기, 공용 client event loop 에 순서대로 분배)
+ * - 모든 연결이 사용 중이면 요청 순서대로 대기한다. (FIFO, maxPendingRequests 초과 시 버림 > DashClient 요청 timeout 처리)
+ * - 응답이 끝난 연결은 keep-alive 이면 idle 목록 (최대 maxIdleConnections) 으로 돌아가고, 아니면 닫는다.
+ * - health check : 꺼낼 때 channel 상태 확인, 주기적으로 idleTimeout 을 넘긴 연결을 닫는다.
+ * - 응답을 받기 전에 연결이 끊기면 (keep-alive 경합) 다른 연결로 한 번 다시 보낸다. (GET 만 사용하므로 안전)
+ */
+public class DashHttpConnectionPool {
+
+    ////////////////////////////////////////////////////////////
+    private static final Logger logger = LoggerFactory.getLogger(DashHttpConnectionPool.class);
+
+    private static final long HEALTH_CHECK_INTERVAL_MS = 5000;
+    private static final int MAX_SEND_ATTEMPTS = 2;
+
+    private final int maxConnections;
+    private final int maxIdleConnections;
+    private final long idleTimeoutNanos;
+    private final int maxPendingRequests;
+
+    private final Bootstrap bootstrap;
+    private final SslContext sslContext;
+
+    private final Map<String, OriginPool> originPools = new ConcurrentHashMap<>();
+    private final EventExecutor healthCheckExecutor = NettyEventLoopRegistry.getInstance().getClientGroup().next();
+    private Timeout healthCheckTimeout = null;
+    private volatile boolean isClosed = false;
+
+    // 전체 통계
+    private final AtomicLong connectCount = new AtomicLong(0); // TCP handshake 수
+    private final AtomicLong connectFailCount = new AtomicLong(0);
+    private final AtomicLong requestCount = new AtomicLong(0);
+    private final AtomicLong reuseCount = new AtomicLong(0); // 기존 연결로 보낸 요청 수
+    private final AtomicLong retryCount = new AtomicLong(0);
+    private final AtomicLong rejectCount = new AtomicLong(0);
+    ////////////////////////////////////////////////////////////
+
+    ////////////////////////////////////////////////////////////
+    /**
+     * @param maxConnections origin 별 최대 연결 수
+     * @param maxIdleConnections origin 별 최대 idle 연결 수
+     * @param idleTimeoutSec idle 연결 유지 시간 (sec)
+     * @param maxPendingRequests origin 별 최대 대기 요청 수
+     */
+    public DashHttpConnectionPool(SslContext sslContext, int recvBufSize,
+                                  int maxConnections, int maxIdleConnections, long idleTimeoutSec, int maxPendingRequests) {
+        this.sslContext = sslContext;
+        this.maxConnections = maxConnections;
+        this.maxIdleConnections = Math.min(maxIdleConnections, maxConnections);
+        this.idleTimeoutNanos = TimeUnit.SECONDS.toNanos(idleTimeoutSec);
+        this.maxPendingRequests = maxPendingRequests;
+
+        bootstrap = new Bootstrap();
+        bootstrap.group(NettyEventLoopRegistry.getInstance().getClientGroup()).channel(NettyTransport.getSocketChannelClass())
+                .option(ChannelOption.SO_RCVBUF, recvBufSize)
+                .option(ChannelOption.ALLOCATOR, PooledByteBufAllocator.DEFAULT)
+                .option(ChannelOption.SO_KEEPALIVE, true)
+                .option(ChannelOption.TCP_NODELAY, true)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, 1000);
+        NettyTransport.applyClientOptions(bootstrap);
+    }
+    ////////////////////////////////////////////////////////////
+
+    ////////////////////////////////////////////////////////////
+    public void start() {
+        scheduleHealthCheck();
+        logger.debug("[DashHttpConnectionPool] START (maxConnections={}, maxIdleConnections={}, idleTimeout={}s, maxPendingRequests={})",
+                maxConnections, maxIdleConnections, TimeUnit.NANOSECONDS.toSeconds(idleTimeoutNanos), maxPendingRequests
+        );
+    }
+
+    public void stop() {
+        isClosed = true;
+        synchronized (this) {
+            if (healthCheckTimeout != null) {
+                healthCheckTimeout.cancel();
+                healthCheckTimeout = null;
+            }
+        }
+
+        for (OriginPool originPool : originPools.values()) {
+            originPool.close();
+        }
+        originPools.clear();
+        logger.debug("[DashHttpConnectionPool] STOP ({})", this);
+    }
+
+    /**
+     * 요청을 origin 의 연결로 보낸다. (응답은 messageHandler 로 전달)
+     *
+     * @return 대기열이 가득 찼거나 풀이 종료되었으면 false (request 는 해제됨, 대기열 초과 시 messageHandler.onRequestFailed 호출)
+     */
+    public boolean send(InetSocketAddress targetAddress, HttpRequest request,
+                        DashClient dashClient, DashHttpMessageHandler messageHandler) {
+        if (targetAddress == null || request == null) { return false; }
+
+        if (isClosed) {
+            ReferenceCountUtil.release(request);
+            return false;
+        }
+
+        requestCount.incrementAndGet();
+        OriginPool originPool = originPools.computeIfAbsent(
+                targetAddress.getAddress().getHostAddress() + ":" + targetAddress.getPort(),
+                key -> new OriginPool(key, targetAddress)
+        );
+        return originPool.submit(new PendingRequest(request, dashClient, messageHandler), false);
+    }
+
+    /**
+     * handler 가 응답 처리 중에 요청을 포기할 때 호출한다. (공유 연결을 직접 닫지 않도록)
+     * 연결이 아직 이 handler 의 요청에 묶여 있을 때만 연결을 버린다.
+     *
+     * @param channelHandlerContext handler 가 받은 context
+     * @return 풀의 연결이 아니면 false (호출한 쪽에서 직접 닫는다)
+     */
+    public static boolean abort(ChannelHandlerContext channelHandlerContext, DashHttpMessageHandler messageHandler) {
+        if (channelHandlerContext == null
+                || !(channelHandlerContext.handler() instanceof DashPooledHttpConnection)) {
+            return false;
+        }
+
+        DashPooledHttpConnection connection = (DashPooledHttpConnection) channelHandlerContext.handler();
+        if (channelHandlerContext.executor().inEventLoop()) {
+            connection.abort(messageHandler);
+        } else {
+            channelHandlerContext.executor().execute(() -> connection.abort(messageHandler));
+        }
+        return true;
+    }
+    ////////////////////////////////////////////////////////////
+
+    ////////////////////////////////////////////////////////////
+    private void scheduleHealthCheck() {
+        if (isClosed) { return; }
+
+        Timeout timeout = SharedTimerService.getInstance().newTimeout(
+                this, healthCheckExecutor,
+                t -> {
+                    long now = System.nanoTime();
+                    for (OriginPool originPool : originPools.values()) {
+                        originPool.closeExpiredIdleConnections(now);
+                    }
+                    scheduleHealthCheck();
+                }, HEALTH_CHECK_INTERVAL_MS, TimeUnit.MILLISECONDS
+        );
+        synchronized (this) {
+            healthCheckTimeout = timeout;
+        }
+    }
+
+    public int getOriginCount() {
+        return originPools.size();
+    }
+
+    public long getConnectCount() {
+        return connectCount.get();
+    }
+
+    public long getReuseCount() {
+        return reuseCount.get();
+    }
+
+    @Override
+    public String toString() {
+        int connections = 0;
+        int idle = 0;
+        int pending = 0;
+        for (OriginPool originPool : originPools.values()) {
+            synchronized (originPool) {
+                connections += originPool.connectionCount;
+                idle += originPool.idleConnections.size();
+                pending += originPool.pendingRequests.size();
+            }
+        }
+
+        return "DashHttpConnectionPool{" +
+                "origins=" + originPools.size() +
+                ", connections=" + connections +
+                ", idle=" + idle +
+                ", pending=" + pending +
+                ", requests=" + requestCount.get() +
+                ", reused=" + reuseCount.get() +
+                ", handshakes=" + connectCount.get() +
+                ", connectFails=" + connectFailCount.get() +
+                ", retries=" + retryCount.get() +
+                ", rejected=" + rejectCount.get() +
+                '}';
+    }
+    ////////////////////////////////////////////////////////////
+
+    ////////////////////////////////////////////////////////////
+    /**
+     * origin 하나의 연결 목록과 대기열
+     * (여러 스레드에서 호출되므로 상태 변경은 synchronized, 전송은 연결의 event loop 에서 실행)
+     */
+    final class OriginPool {
+
+        private final String key;
+        private final InetSocketAddress address;
+
+        private final ArrayDeque<DashPooledHttpConnection> idleConnections = new ArrayDeque<>();
+        private final ArrayDeque<PendingRequest> pendingRequests = new ArrayDeque<>();
+        private int connectionCount = 0; // 연결 중 + 연결됨
+        private int connectingCount = 0;
+        private boolean isClosed = false;
+
+        private OriginPool(String key, InetSocketAddress address) {
+            this.key = key;
+            this.address = address;
+        }
+
+        /**
+         * @param isRetry 끊긴 연결에서 다시 보내는 요청이면 대기열 맨 앞에 넣는다.
+         */
+        boolean submit(PendingRequest pendingRequest, boolean isRetry) {
+            boolean isRejected = false;
+            synchronized (this) {
+                if (isClosed) {
+                    pendingRequest.release();
+                    return false;
+                }
+
+                if (!isRetry && pendingRequests.size() >= maxPendingRequests) {
+                    rejectCount.incrementAndGet();
+                    logger.warn("[DashHttpConnectionPool({})] Too many pending requests. The request is dropped. (pending={}, uri={})",
+                            key, pendingRequests.size(), pendingRequest.request.uri()
+                    );
+                    isRejected = true;
+                } else if (isRetry) {
+                    pendingRequests.addFirst(pendingRequest);
+                } else {
+                    pendingRequests.addLast(pendingRequest);
+                }
+            }
+
+            if (isRejected) {
+                pendingRequest.fail();
+                return false;
+            }
+
+            dispatch();
+            return true;
+        }
+
+        /**
+         * 대기 중인 요청을 쉬는 연결에 순서대로 배정하고, 부족하면 새로 연결한다.
+         */
+        private void dispatch() {
+            while (true) {
+                DashPooledHttpConnection connection;
+                PendingRequest pendingRequest;
+                boolean isConnectNeeded = false;
+
+                synchronized (this) {
+                    if (isClosed || pendingRequests.isEmpty()) { return; }
+
+                    // 중지된 DashClient 의 요청은 보내지 않음
+                    PendingRequest firstRequest = pendingRequests.peekFirst();
+                    if (firstRequest.isCancelled()) {
+                        pendingRequests.pollFirst();
+                        firstRequest.release();
+                        continue;
+                    }
+
+                    connection = pollHealthyIdleConnection();
+                    if (connection == null) {
+                        // 이미 연결 중인 수만큼은 연결 완료 후 처리
+                        if (connectionCount < maxConnections && connectingCount < pendingRequests.size()) {
+                            connectionCount++;
+                            connectingCount++;
+                            isConnectNeeded = true;
+                        }
+                        pendingRequest = null;
+                    } else {
+                        pendingRequest = pendingRequests.pollFirst();
+                    }
+                }
+
+                if (isConnectNeeded) {
+                    connect();
+                    continue;
+                }
+                if (connection == null) { return; }
+
+                if (connection.getRequestCount() > 0) {
+                    reuseCount.incrementAndGet();
+                }
+                connection.execute(pendingRequest);
+            }
+        }
+
+        /**
+         * 가장 최근에 쓴 연결부터 꺼낸다. (오래 쉰 연결은 health check 에서 정리)
+         */
+        private DashPooledHttpConnection pollHealthyIdleConnection() {
+            DashPooledHttpConnection connection;
+            while ((connection = idleConnections.pollLast()) != null) {
+                if (connection.isActive()) {
+                    return connection;
+                }
+                // 닫힌 연결은 onClosed() 에서 connectionCount 반영
+            }
+            return null;
+        }
+
+        private void connect() {
+            DashPooledHttpConnection connection = new DashPooledHttpConnection(this);
+            Bootstrap connectBootstrap = bootstrap.clone().handler(new PooledConnectionInitializer(sslContext, connection));
+            connectBootstrap.connect(address).addListener((ChannelFutureListener) future -> {
+                if (future.isSuccess()) {
+                    connectCount.incrementAndGet();
+                    future.channel().closeFuture().addListener((ChannelFutureListener) closeFuture -> onClosed(connection));
+                    onConnected(connection);
+                } else {
+                    connectFailCount.incrementAndGet();
+                    onConnectFailed(future.cause());
+                }
+            });
+        }
+
+        private void onConnected(DashPooledHttpConnection connection) {
+            boolean isAccepted;
+            synchronized (this) {
+                connectingCount--;
+                isAccepted = !isClosed;
+                if (isAccepted) {
+                    idleConnections.addLast(connection);
+                }
+            }
+
+            if (!isAccepted) {
+                connection.close();
+                return;
+            }
+            dispatch();
+        }
+
+        private void onConnectFailed(Throwable cause) {
+            List<PendingRequest> failedRequests = null;
+            synchronized (this) {
+                connectingCount--;
+                connectionCount--;
+
+                // 다른 연결이 하나도 없으면 대기 중인 요청을 모두 버린다. (DashClient 요청 timeout 에서 처리)
+                if (connectionCount == 0 && !pendingRequests.isEmpty()) {
+                    failedRequests = new ArrayList<>(pendingRequests);
+                    pendingRequests.clear();
+                }
+            }
+
+            logger.warn("[DashHttpConnectionPool({})] Fail to connect. (droppedRequests={}) ({})",
+                    key, failedRequests != null ? failedRequests.size() : 0, cause != null ? cause.toString() : ""
+            );
+            if (failedRequests != null) {
+                for (PendingRequest failedRequest : failedRequests) {
+                    failedRequest.fail();
+                }
+            }
+        }
+
+        /**
+         * 응답이 끝난 연결을 반환한다.
+         *
+         * @param isReusable keep-alive 응답이고 연결이 살아 있으면 true
+         */
+        void release(DashPooledHttpConnection connection, boolean isReusable) {
+            boolean isIdle = false;
+            synchronized (this) {
+                if (!isClosed && isReusable && idleConnections.size() < maxIdleConnections) {
+                    connection.setLastUsedTime(System.nanoTime());
+                    idleConnections.addLast(connection);
+                    isIdle = true;
+                }
+            }
+
+            if (!isIdle) {
+                connection.close();
+                return;
+            }
+            dispatch();
+        }
+
+        /**
+         * 연결이 끊기면 호출된다. (closeFuture)
+         */
+        private void onClosed(DashPooledHttpConnection connection) {
+            synchronized (this) {
+                idleConnections.remove(connection);
+                connectionCount--;
+            }
+
+            // 응답을 받기 전에 끊긴 요청은 한 번 더 보낸다.
+            PendingRequest unfinishedRequest = connection.takeUnfinishedRequest();
+            if (unfinishedRequest != null) {
+                if (unfinishedRequest.attempt < MAX_SEND_ATTEMPTS && !unfinishedRequest.isCancelled()) {
+                    retryCount.incrementAndGet();
+                    submit(unfinishedRequest, true);
+                    return;
+                }
+
+                logger.warn("[DashHttpConnectionPool({})] Connection is closed before the response. (uri={})",
+                        key, unfinishedRequest.request.uri()
+                );
+                unfinishedRequest.fail();
+            }
+            dispatch();
+        }
+
+        private void closeExpiredIdleConnections(long now) {
+            List<DashPooledHttpConnection> expiredConnections = null;
+            synchronized (this) {
+                Iterator<DashPooledHttpConnection> iterator = idleConnections.iterator();
+                while (iterator.hasNext()) {
+                    DashPooledHttpConnection connection = iterator.next();
+                    if (!connection.isActive() || now - connection.getLastUsedTime() >= idleTimeoutNanos) {
+                        iterator.remove();
+                        if (expiredConnections == null) {
+                            expiredConnections = new ArrayList<>();
+                        }
+                        expiredConnections.add(connection);
+                    }
+                }
+            }
+
+            if (expiredConnections != null) {
+                for (DashPooledHttpConnection connection : expiredConnections) {
+                    connection.close();
+                }
+            }
+        }
+
+        private void close() {
+            List<DashPooledHttpConnection> connections;
+            List<PendingRequest> requests;
+            synchronized (this) {
+                isClosed = true;
+                connections = new ArrayList<>(idleConnections);
+                idleConnections.clear();
+                requests = new ArrayList<>(pendingRequests);
+                pendingRequests.clear();
+            }
+
+            for (DashPooledHttpConnection connection : connections) {
+                connection.close();
+            }
+            for (PendingRequest request : requests) {
+                request.release();
+            }
+        }
+
+        String getKey() {
+            return key;
+        }
+
+    }
+
+    /**
+     * 연결을 기다리는 요청
+     */
+    static final class PendingRequest {
+
+        final HttpRequest request;
+        final DashClient dashClient;
+        final DashHttpMessageHandler messageHandler;
+        int attempt = 0;
+
+        private PendingRequest(HttpRequest request, DashClient dashClient, DashHttpMessageHandler messageHandler) {
+            this.request = request;
+            this.dashClient = dashClient;
+            this.messageHandler = messageHandler;
+        }
+
+        boolean isCancelled() {
+            return dashClient != null && dashClient.isStopped();
+        }
+
+        void release() {
+            ReferenceCountUtil.release(request);
+        }
+
+        /**
+         * 요청을 보내지 못하고 버림 > handler 에 알린다. (중지된 DashClient 의 요청이면 알리지 않음)
+         */
+        void fail() {
+            release();
+            if (!isCancelled()) {
+                messageHandler.onRequestFailed();
+            }
+        }
+
+    }
+
+    private static class PooledConnectionInitializer extends ChannelInitializer<SocketChannel> {
+
+        private final SslContext sslContext;
+        private final DashPooledHttpConnection connection;
+
+        private PooledConnectionInitializer(SslContext sslContext, DashPooledHttpConnection connection) {
+            this.sslContext = sslContext;
+            this.connection = connection;
+        }
+
+        @Override
+        public void initChannel(SocketChannel ch) {
+            final ChannelPipeline p = ch.pipeline();
+
+            // Enable HTTPS if necessary.
+            if (sslContext != null) {
+                p.addLast(sslContext.newHandler(ch.alloc()));
+            }
+
+            p.addLast("encoder", new HttpClientCodec());
+            p.addLast(new HttpContentDecompressor());
+            p.addLast(connection);
+        }
+    }
+    ////////////////////////////////////////////////////////////
+
+}
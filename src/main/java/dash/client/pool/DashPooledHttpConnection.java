@@ -0,0 +1,184 @@
+package dash.client.pool;
+
+import dash.client.handler.base.DashHttpMessageHandler;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelFutureListener;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.SimpleChannelInboundHandler;
+import io.netty.handler.codec.http.HttpHeaderUtil;
+import io.netty.handler.codec.http.HttpObject;
+import io.netty.handler.codec.http.HttpResponse;
+import io.netty.handler.codec.http.LastHttpContent;
+import io.netty.util.ReferenceCountUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * DashHttpConnectionPool 의 연결 하나 (pipeline 의 마지막 handler)
+ *
+ * - 한 번에 요청 하나만 보내고, 응답 메시지를 그 요청을 보낸 DashClient 의 DashHttpMessageHandler 로 넘긴다.
+ * - 마지막 응답 메시지 (LastHttpContent) 는 handler 로 넘긴 후에 풀에 반환한다.
+ *      (handler 가 처리하는 동안 연결이 다른 요청에 배정되지 않는다.)
+ * - handler 가 요청을 포기하면 (abort) 연결을 닫지 않고 풀을 통해 정리한다.
+ *      > 아직 이 요청의 응답을 받는 중일 때만 연결을 버린다. (남은 응답을 다음 요청이 받지 않도록)
+ * - currentRequest, isResponseStarted, isResponseFinished 는 event loop 에서만 접근
+ */
+public class DashPooledHttpConnection extends SimpleChannelInboundHandler<HttpObject> {
+
+    ////////////////////////////////////////////////////////////
+    private static final Logger logger = LoggerFactory.getLogger(DashPooledHttpConnection.class);
+
+    private final DashHttpConnectionPool.OriginPool originPool;
+
+    private volatile Channel channel = null;
+    private volatile ChannelHandlerContext channelHandlerContext = null;
+    private volatile long lastUsedTime = System.nanoTime();
+    private volatile int requestCount = 0;
+
+    private DashHttpConnectionPool.PendingRequest currentRequest = null;
+    private boolean isResponseStarted = false;
+    private boolean isResponseFinished = false;
+    private boolean isKeepAlive = true;
+    ////////////////////////////////////////////////////////////
+
+    ////////////////////////////////////////////////////////////
+    DashPooledHttpConnection(DashHttpConnectionPool.OriginPool originPool) {
+        this.originPool = originPool;
+    }
+    ////////////////////////////////////////////////////////////
+
+    ////////////////////////////////////////////////////////////
+    @Override
+    public void handlerAdded(ChannelHandlerContext ctx) {
+        this.channel = ctx.channel();
+        this.channelHandlerContext = ctx;
+    }
+
+    @Override
+    public void exceptionCaught(ChannelHandlerContext ctx, Throwable cause) {
+        logger.warn("[DashPooledHttpConnection({})] Exception is occurred. ({})", originPool.getKey(), cause.toString());
+        ctx.close();
+    }
+
+    @Override
+    protected void messageReceived(ChannelHandlerContext ctx, HttpObject httpObject) {
+        DashHttpConnectionPool.PendingRequest pendingRequest = currentRequest;
+        if (pendingRequest == null) {
+            logger.warn("[DashPooledHttpConnection({})] Unexpected response. The connection will be closed.", originPool.getKey());
+            ctx.close();
+            return;
+        }
+
+        if (httpObject instanceof HttpResponse) {
+            isResponseStarted = true;
+            isKeepAlive = HttpHeaderUtil.isKeepAlive((HttpResponse) httpObject);
+        }
+
+        if (httpObject instanceof LastHttpContent) {
+            isResponseFinished = true;
+        }
+
+        if (!pendingRequest.isCancelled()) {
+            pendingRequest.messageHandler.processResponse(httpObject, ctx);
+            pendingRequest.messageHandler.processContent(httpObject, ctx);
+        }
+
+        // handler 가 abort 한 요청이면 이미 정리됨
+        if (isResponseFinished && currentRequest == pendingRequest) {
+            currentRequest = null;
+            pendingRequest.release();
+            originPool.release(this, isKeepAlive && ctx.channel().isActive());
+        }
+    }
+    ////////////////////////////////////////////////////////////
+
+    ////////////////////////////////////////////////////////////
+    /**
+     * 연결의 event loop 에서 요청을 보낸다.
+     */
+    void execute(DashHttpConnectionPool.PendingRequest pendingRequest) {
+        Channel curChannel = channel;
+        if (curChannel.eventLoop().inEventLoop()) {
+            write(pendingRequest);
+        } else {
+            curChannel.eventLoop().execute(() -> write(pendingRequest));
+        }
+    }
+
+    private void write(DashHttpConnectionPool.PendingRequest pendingRequest) {
+        currentRequest = pendingRequest;
+        isResponseStarted = false;
+        isResponseFinished = false;
+        isKeepAlive = true;
+        pendingRequest.attempt++;
+        requestCount++;
+
+        // 끊기면 다시 보낼 수 있도록 풀이 가진 참조는 유지한다. (응답 완료 시 해제)
+        ReferenceCountUtil.retain(pendingRequest.request);
+        pendingRequest.messageHandler.onRequestSent(channelHandlerContext);
+        channel.writeAndFlush(pendingRequest.request).addListener((ChannelFutureListener) future -> {
+            if (!future.isSuccess()) {
+                future.channel().close();
+            }
+        });
+    }
+
+    /**
+     * 연결이 끊겼을 때 응답을 받지 못한 요청을 꺼낸다. (closeFuture 이후 호출)
+     *
+     * @return 응답을 받기 시작한 요청이면 null (다시 보내지 않고 handler 에 실패를 알린다)
+     */
+    DashHttpConnectionPool.PendingRequest takeUnfinishedRequest() {
+        DashHttpConnectionPool.PendingRequest pendingRequest = currentRequest;
+        currentRequest = null;
+        if (pendingRequest == null) { return null; }
+
+        if (isResponseStarted) {
+            pendingRequest.fail();
+            return null;
+        }
+        return pendingRequest;
+    }
+
+    /**
+     * handler 가 응답 처리 중에 요청을 포기할 때 호출된다. (event loop)
+     * - 다른 요청에 배정된 연결이면 아무것도 하지 않는다.
+     * - 마지막 응답 메시지까지 받았으면 연결은 그대로 풀에 반환된다.
+     * - 아니면 남은 응답을 버리기 위해 연결을 닫는다. (handler 에 실패를 다시 알리지 않음)
+     */
+    void abort(DashHttpMessageHandler messageHandler) {
+        DashHttpConnectionPool.PendingRequest pendingRequest = currentRequest;
+        if (pendingRequest == null || pendingRequest.messageHandler != messageHandler) { return; }
+        if (isResponseFinished) { return; }
+
+        currentRequest = null;
+        pendingRequest.release();
+        close();
+    }
+
+    void close() {
+        Channel curChannel = channel;
+        if (curChannel != null) {
+            curChannel.close();
+        }
+    }
+
+    boolean isActive() {
+        Channel curChannel = channel;
+        return curChannel != null && curChannel.isActive();
+    }
+
+    long getLastUsedTime() {
+        return lastUsedTime;
+    }
+
+    void setLastUsedTime(long lastUsedTime) {
+        this.lastUsedTime = lastUsedTime;
+    }
+
+    int getRequestCount() {
+        return requestCount;
+    }
+    ////////////////////////////////////////////////////////////
+
+}
@@ -0,0 +1,105 @@
+package dash.client.prefetch;
+
+/**
+ * 세그먼트 요청 sliding window (representation 하나)
+ *
+ * - [nextCompleteNumber, nextRequestNumber) 구간의 세그먼트가 window 를 점유한다. (최대 windowSize 개)
+ * - 완료는 순서와 상관없이 받을 수 있지만 (out-of-order), 완료 번호는 앞에서부터 연속된 구간만큼만 전진한다.
+ *      ex) window=3, 요청 [5, 6, 7] > 6 완료 (변화 없음) > 5 완료 (완료 번호 6) > 8 요청 가능
+ * - 여러 event loop 에서 호출되므로 모든 메서드는 synchronized
+ */
+public class SegmentPrefetchWindow {
+
+    ////////////////////////////////////////////////////////////
+    private final int windowSize;
+    private final boolean[] isCompleted; // number % windowSize
+
+    private long nextRequestNumber;
+    private long nextCompleteNumber;
+    ////////////////////////////////////////////////////////////
+
+    ////////////////////////////////////////////////////////////
+    /**
+     * @param startNumber 처음 요청할 세그먼트 번호
+     */
+    public SegmentPrefetchWindow(int windowSize, long startNumber) {
+        this.windowSize = Math.max(windowSize, 1);
+        this.isCompleted = new boolean[this.windowSize];
+        this.nextRequestNumber = startNumber;
+        this.nextCompleteNumber = startNumber;
+    }
+    ////////////////////////////////////////////////////////////
+
+    ////////////////////////////////////////////////////////////
+    public synchronized boolean hasFreeSlot() {
+        return nextRequestNumber - nextCompleteNumber < windowSize;
+    }
+
+    /**
+     * @return 요청할 세그먼트 번호, window 가 가득 찼으면 -1
+     */
+    public synchronized long acquire() {
+        if (nextRequestNumber - nextCompleteNumber >= windowSize) { return -1; }
+
+        long number = nextRequestNumber++;
+        isCompleted[getIndex(number)] = false;
+        return number;
+    }
+
+    /**
+     * @return 연속으로 완료된 마지막 세그먼트 번호 (전진하지 않았으면 -1)
+     */
+    public synchronized long complete(long number) {
+        if (number < nextCompleteNumber || number >= nextRequestNumber) { return -1; } // 중복, 범위 밖
+
+        isCompleted[getIndex(number)] = true;
+        if (number != nextCompleteNumber) { return -1; }
+
+        while (nextCompleteNumber < nextRequestNumber && isCompleted[getIndex(nextCompleteNumber)]) {
+            isCompleted[getIndex(nextCompleteNumber)] = false;
+            nextCompleteNumber++;
+        }
+        return nextCompleteNumber - 1;
+    }
+
+    public synchronized boolean isInFlight(long number) {
+        return number >= nextCompleteNumber && number < nextRequestNumber && !isCompleted[getIndex(number)];
+    }
+
+    public synchronized int getInFlightCount() {
+        int count = 0;
+        for (long number = nextCompleteNumber; number < nextRequestNumber; number++) {
+            if (!isCompleted[getIndex(number)]) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    public synchronized long getNextRequestNumber() {
+        return nextRequestNumber;
+    }
+
+    public synchronized long getNextCompleteNumber() {
+        return nextCompleteNumber;
+    }
+
+    public int getWindowSize() {
+        return windowSize;
+    }
+
+    private int getIndex(long number) {
+        return (int) (number % windowSize);
+    }
+
+    @Override
+    public synchronized String toString() {
+        return "SegmentPrefetchWindow{" +
+                "windowSize=" + windowSize +
+                ", nextCompleteNumber=" + nextCompleteNumber +
+                ", nextRequestNumber=" + nextRequestNumber +
+                '}';
+    }
+    ////////////////////////////////////////////////////////////
+
+}
@@ -0,0 +1,406 @@
+package dash.client.prefetch;
+
+import dash.client.DashClient;
+import dash.client.handler.base.MessageType;
+import dash.client.handler.base.SegmentWriter;
+import dash.client.handler.segment.DashSegmentHttpMessageHandler;
+import dash.mpd.MpdManager;
+import dash.unit.DashUnit;
+import dash.unit.StreamType;
+import dash.unit.segment.MediaSegmentController;
+import io.netty.util.Timeout;
+import io.netty.util.concurrent.EventExecutor;
+import network.socket.netty.NettyEventLoopRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import service.AppInstance;
+import service.ServiceManager;
+import service.scheduler.timer.SharedTimerService;
+import util.module.FileManager;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * representation 하나의 미디어 세그먼트를 최대 windowSize 개까지 동시에 요청한다. (DashHttpConnectionPool 사용 시)
+ *
+ * - 세그먼트 요청 예정 시각은 [이전 예정 시각 + SegmentDuration] 이다. (순차 요청과 동일)
+ * - 예정 시각이 지난 세그먼트는 window 에 빈 자리가 있는 만큼 바로 요청한다.
+ *      > 응답이 늦어져도 다음 세그먼트 요청이 밀리지 않고, 늦어진 만큼 (최대 windowSize 개) 한 번에 따라잡는다.
+ * - 응답은 세그먼트마다 각자의 파일에 쓰므로 도착 순서와 상관없다.
+ *      완료 처리 (MediaSegmentInfo.lastSegmentNumber, MpdManager 의 세그먼트 번호) 는 앞에서부터 연속된 번호까지만 반영한다.
+ * - 실패한 세그먼트만 다시 요청하고 (재시도 중에도 window 안의 다른 세그먼트는 계속 요청), 재시도 횟수를 넘기면 DashUnit 을 종료한다.
+ * - 요청마다 timeout 이 있다. (DashSegmentHttpMessageHandler) 응답이 끝나지 않은 요청은 timeout 후 실패로 처리되어 다시 요청된다.
+ *
+ * DashClient, MpdManager 에 접근하는 부분과 시각, 예약 실행은 protected 메서드로 분리되어 있다. (테스트에서 재정의)
+ */
+public class SegmentPrefetcher {
+
+    ////////////////////////////////////////////////////////////
+    private static final Logger logger = LoggerFactory.getLogger(SegmentPrefetcher.class);
+
+    private final DashClient dashClient;
+    private final String dashUnitId;
+    private final MessageType messageType;
+    private final String contentType;
+    private final String representationId;
+    private final boolean isMainRepresentation; // MediaSegmentController 갱신 대상 (첫 번째 representation)
+    private final SegmentPrefetchWindow window;
+    private final int retryCount;
+    private final long requestTimeout; // ms
+    private final EventExecutor executor;
+    private final FileManager fileManager = new FileManager();
+    private final Map<Long, DashSegmentHttpMessageHandler> inFlightHandlerMap = new ConcurrentHashMap<>(); // 중지 시 쓰던 파일 정리
+
+    private long segmentDuration = 0; // micro-sec
+    private long nextRequestTime = 0; // System.nanoTime()
+    private Future<?> pumpFuture = null;
+    private volatile boolean isStopped = false;
+
+    private final AtomicLong requestedCount = new AtomicLong(0);
+    private final AtomicLong outOfOrderCount = new AtomicLong(0);
+    private final AtomicLong retriedCount = new AtomicLong(0);
+    ////////////////////////////////////////////////////////////
+
+    ////////////////////////////////////////////////////////////
+    public SegmentPrefetcher(DashClient dashClient, MessageType messageType, String representationId,
+                             boolean isMainRepresentation, int windowSize, long startNumber) {
+        this(dashClient, dashClient.getDashUnitId(), messageType, representationId, isMainRepresentation,
+                windowSize, startNumber,
+                AppInstance.getInstance().getConfigManager().getDownloadChunkRetryCount(),
+                DashClient.TIMEOUT,
+                NettyEventLoopRegistry.getInstance().getClientGroup().next()
+        );
+    }
+
+    /**
+     * DashClient 없이 생성 (protected 메서드를 재정의해서 사용)
+     *
+     * @param requestTimeout 요청 하나의 timeout (ms)
+     */
+    protected SegmentPrefetcher(String dashUnitId, MessageType messageType, String representationId,
+                                int windowSize, long startNumber,
+                                int retryCount, long requestTimeout, EventExecutor executor) {
+        this(null, dashUnitId, messageType, representationId, true,
+                windowSize, startNumber, retryCount, requestTimeout, executor
+        );
+    }
+
+    private SegmentPrefetcher(DashClient dashClient, String dashUnitId, MessageType messageType, String representationId,
+                              boolean isMainRepresentation, int windowSize, long startNumber,
+                              int retryCount, long requestTimeout, EventExecutor executor) {
+        this.dashClient = dashClient;
+        this.dashUnitId = dashUnitId;
+        this.messageType = messageType;
+        this.contentType = messageType == MessageType.VIDEO ? MpdManager.CONTENT_VIDEO_TYPE : MpdManager.CONTENT_AUDIO_TYPE;
+        this.representationId = representationId;
+        this.isMainRepresentation = isMainRepresentation;
+        this.window = new SegmentPrefetchWindow(windowSize, startNumber);
+        this.retryCount = retryCount;
+        this.requestTimeout = requestTimeout;
+        this.executor = executor;
+    }
+    ////////////////////////////////////////////////////////////
+
+    ////////////////////////////////////////////////////////////
+    /**
+     * SegmentDuration 후에 첫 세그먼트를 요청한다.
+     */
+    public void start() {
+        segmentDuration = getSegmentDuration();
+
+        synchronized (this) {
+            nextRequestTime = nanoTime() + TimeUnit.MICROSECONDS.toNanos(Math.max(segmentDuration, 0));
+        }
+        pump();
+        logger.debug("[SegmentPrefetcher({})] START ({}, representationId={}, segmentDuration={}us, {})",
+                dashUnitId, messageType, representationId, segmentDuration, window
+        );
+    }
+
+    public void stop() {
+        isStopped = true;
+        synchronized (this) {
+            if (pumpFuture != null) {
+                pumpFuture.cancel(false);
+                pumpFuture = null;
+            }
+        }
+
+        for (DashSegmentHttpMessageHandler messageHandler : inFlightHandlerMap.values()) {
+            messageHandler.close();
+        }
+        inFlightHandlerMap.clear();
+    }
+
+    /**
+     * 예정 시각이 지난 세그먼트를 window 에 빈 자리가 있는 만큼 요청하고, 남은 자리는 다음 예정 시각에 다시 확인한다.
+     * (window 가 가득 차면 세그먼트 완료 시 다시 호출됨)
+     */
+    private void pump() {
+        if (isStopped || isClientStopped()) { return; }
+
+        long firstNumber = -1;
+        int count = 0;
+        synchronized (this) {
+            long now = nanoTime();
+            long durationNanos = TimeUnit.MICROSECONDS.toNanos(Math.max(segmentDuration, 0));
+
+            // window 크기 이상 밀렸으면 예정 시각을 다시 맞춘다. (한 번에 windowSize 개까지만 따라잡음)
+            long maxLagNanos = durationNanos * window.getWindowSize();
+            if (nextRequestTime < now - maxLagNanos) {
+                nextRequestTime = now - maxLagNanos;
+            }
+
+            while (nextRequestTime <= now) {
+                long number = window.acquire();
+                if (number < 0) { break; }
+
+                if (count == 0) { firstNumber = number; }
+                count++;
+                nextRequestTime += durationNanos;
+            }
+
+            if (pumpFuture != null) {
+                pumpFuture.cancel(false);
+                pumpFuture = null;
+            }
+            if (window.hasFreeSlot()) {
+                try {
+                    pumpFuture = schedule(this::pump, nextRequestTime - now, TimeUnit.NANOSECONDS);
+                } catch (RejectedExecutionException e) {
+                    logger.warn("[SegmentPrefetcher({})] Fail to schedule the segment request. Event loop is shut down.", dashUnitId);
+                }
+            }
+        }
+
+        for (int i = 0; i < count; i++) {
+            sendSegmentRequest(firstNumber + i, 1);
+        }
+    }
+
+    private void sendSegmentRequest(long number, int attempt) {
+        if (isStopped || isClientStopped()) { return; }
+
+        String segmentName = getSegmentName(number);
+        if (segmentName == null) {
+            logger.warn("[SegmentPrefetcher({})] [{}] MediaSegment name is not defined. (representationId={}, seq={})",
+                    dashUnitId, messageType, representationId, number
+            );
+            finish();
+            return;
+        }
+
+        DashSegmentHttpMessageHandler messageHandler = new DashSegmentHttpMessageHandler(
+                this, number, attempt, getTargetSegmentPath(segmentName), createSegmentWriter()
+        );
+        inFlightHandlerMap.put(number, messageHandler);
+
+        requestedCount.incrementAndGet();
+        messageHandler.startTimeout(requestTimeout);
+        sendSegmentRequest(segmentName, messageHandler);
+    }
+    ////////////////////////////////////////////////////////////
+
+    ////////////////////////////////////////////////////////////
+    /**
+     * 세그먼트 수신 완료 (순서와 상관없이 호출됨)
+     */
+    public void onSegmentCompleted(long number) {
+        inFlightHandlerMap.remove(number);
+        long lastNumber = window.complete(number);
+        if (lastNumber < 0) {
+            outOfOrderCount.incrementAndGet();
+        } else {
+            updateLastSegmentNumber(lastNumber);
+        }
+
+        pump();
+    }
+
+    /**
+     * 세그먼트 요청 실패 (200 OK 가 아닌 응답)
+     * 세그먼트가 아직 준비되지 않은 경우이므로 ATO 를 적용한 SegmentDuration 을 남은 재시도 횟수로 나눈 만큼 기다렸다가 다시 요청한다.
+     *
+     * @param attempt 실패한 요청의 시도 횟수 (처음 요청 : 1)
+     * @return 재시도 횟수를 넘겼으면 false
+     */
+    public boolean onSegmentFailed(long number, int attempt) {
+        inFlightHandlerMap.remove(number);
+        if (attempt > retryCount) { return false; }
+
+        long retryInterval = 0;
+        if (segmentDuration > 0) {
+            retryInterval = applyAtoIntoDuration(segmentDuration);
+
+            int retryIntervalFactor = retryCount - (attempt - 1);
+            if (retryIntervalFactor <= 0) { retryIntervalFactor = 1; }
+            retryInterval /= retryIntervalFactor;
+        }
+
+        retriedCount.incrementAndGet();
+        try {
+            schedule(() -> sendSegmentRequest(number, attempt + 1), Math.max(retryInterval, 0), TimeUnit.MICROSECONDS);
+        } catch (RejectedExecutionException e) {
+            logger.warn("[SegmentPrefetcher({})] Fail to schedule the segment retry. Event loop is shut down.", dashUnitId);
+        }
+        return true;
+    }
+
+    /**
+     * DashUnit 종료 (static 이면 DashClient 만 중지)
+     * 연결은 다른 DashClient 와 공유하므로 닫지 않는다.
+     */
+    public void finish() {
+        stop();
+        stopDashUnit();
+    }
+    ////////////////////////////////////////////////////////////
+
+    ////////////////////////////////////////////////////////////
+    protected long nanoTime() {
+        return System.nanoTime();
+    }
+
+    /**
+     * 요청 예약, 재시도 예약 (executor 에서 실행)
+     */
+    protected Future<?> schedule(Runnable task, long delay, TimeUnit timeUnit) {
+        return executor.schedule(task, delay, timeUnit);
+    }
+
+    /**
+     * 요청 timeout (연결을 모를 때는 executor 에서 실행)
+     *
+     * @param timeout ms
+     */
+    public Timeout newRequestTimeout(Runnable task, long timeout) {
+        return SharedTimerService.getInstance().newTimeout(
+                dashUnitId, executor, t -> task.run(), timeout, TimeUnit.MILLISECONDS
+        );
+    }
+
+    protected boolean isClientStopped() {
+        return dashClient.isStopped();
+    }
+
+    /**
+     * @return micro-sec
+     */
+    protected long getSegmentDuration() {
+        MpdManager mpdManager = dashClient.getMpdManager();
+        return messageType == MessageType.VIDEO ?
+                mpdManager.getVideoSegmentDuration(representationId) :
+                mpdManager.getAudioSegmentDuration(representationId);
+    }
+
+    protected long applyAtoIntoDuration(long duration) {
+        return dashClient.getMpdManager().applyAtoIntoDuration(representationId, duration, contentType);
+    }
+
+    protected String getSegmentName(long number) {
+        MpdManager mpdManager = dashClient.getMpdManager();
+        return messageType == MessageType.VIDEO ?
+                mpdManager.getVideoMediaSegmentName(representationId, number) :
+                mpdManager.getAudioMediaSegmentName(representationId, number);
+    }
+
+    protected String getTargetSegmentPath(String segmentName) {
+        return fileManager.concatFilePath(dashClient.getTargetBasePath(), segmentName);
+    }
+
+    protected SegmentWriter createSegmentWriter() {
+        return dashClient.createSegmentWriter(messageType + ":" + representationId);
+    }
+
+    protected void sendSegmentRequest(String segmentName, DashSegmentHttpMessageHandler messageHandler) {
+        dashClient.sendSegmentRequest(
+                fileManager.concatFilePath(dashClient.getSrcPath(), segmentName),
+                messageHandler
+        );
+    }
+
+    /**
+     * 앞에서부터 연속으로 완료된 마지막 세그먼트 번호를 반영한다.
+     */
+    protected void updateLastSegmentNumber(long lastNumber) {
+        MpdManager mpdManager = dashClient.getMpdManager();
+        if (messageType == MessageType.VIDEO) {
+            mpdManager.setVideoSegmentSeqNum(representationId, lastNumber + 1);
+        } else {
+            mpdManager.setAudioSegmentSeqNum(representationId, lastNumber + 1);
+        }
+
+        if (isMainRepresentation) {
+            MediaSegmentController segmentController = messageType == MessageType.VIDEO ?
+                    dashClient.getVideoSegmentController() :
+                    dashClient.getAudioSegmentController();
+            if (segmentController != null) {
+                segmentController.getMediaSegmentInfo().setLastSegmentNumber(lastNumber);
+            }
+        }
+    }
+
+    /**
+     * DashUnit 종료 (static 이면 DashClient 만 중지)
+     */
+    protected void stopDashUnit() {
+        DashUnit dashUnit = ServiceManager.getInstance().getDashServer().getDashUnitById(dashUnitId);
+        if (dashUnit != null) {
+            if (dashUnit.getType().equals(StreamType.STATIC)) {
+                dashClient.stop();
+            } else {
+                ServiceManager.getInstance().getDashServer().deleteDashUnit(dashUnitId);
+            }
+        }
+    }
+    ////////////////////////////////////////////////////////////
+
+    ////////////////////////////////////////////////////////////
+    public String getDashUnitId() {
+        return dashUnitId;
+    }
+
+    public MessageType getMessageType() {
+        return messageType;
+    }
+
+    public String getRepresentationId() {
+        return representationId;
+    }
+
+    public int getRetryCount() {
+        return retryCount;
+    }
+
+    public long getRequestedCount() {
+        return requestedCount.get();
+    }
+
+    public long getRetriedCount() {
+        return retriedCount.get();
+    }
+
+    public boolean isStopped() {
+        return isStopped;
+    }
+
+    @Override
+    public String toString() {
+        return "SegmentPrefetcher{" +
+                "type=" + messageType +
+                ", representationId=" + representationId +
+                ", inFlight=" + window.getInFlightCount() +
+                ", " + window +
+                ", requested=" + requestedCount.get() +
+                ", outOfOrder=" + outOfOrderCount.get() +
+                ", retried=" + retriedCount.get() +
+                '}';
+    }
+    ////////////////////////////////////////////////////////////
+
+}
@@ -61,6 +61,12 @@ public class MpdManager {
     private final Map<String, AtomicLong> videoSegmentSeqNumMap = new HashMap<>();
     private final Map<String, AtomicLong> audioSegmentSeqNumMap = new HashMap<>();
 
+    // MPD 파싱할 때마다 SegmentTemplate (media, initialization) 을 컴파일해서 교체한다. (요청 URI 매칭용)
+    private volatile List<SegmentTemplateMatcher> mediaSegmentMatchers = Collections.emptyList();
+    private volatile List<SegmentTemplateMatcher> initSegmentMatchers = Collections.emptyList();
+    // key : 미디어 세그먼트 matcher, value : 그 template 을 사용하는 contentType (audio, video 가 같이 쓰면 null)
+    private volatile Map<SegmentTemplateMatcher, String> mediaMatcherContentTypeMap = Collections.emptyMap();
+
     private final AtomicInteger curVideoIndex = new AtomicInteger(0); // 비디오 Representation List 중 현재 비디오 ID
     private final AtomicInteger curAudioIndex = new AtomicInteger(0); // 오디오 Representation List 중 현재 오디오 ID
 
@@ -151,6 +157,8 @@ public class MpdManager {
                 logger.debug("adaptationSet.getRepresentations(): {}", adaptationSet.getRepresentations());
             }
 
+            compileSegmentTemplateMatchers(adaptationSets);
+
             logger.debug("audioSegmentSeqNumMap: {}", gson.toJson(audioSegmentSeqNumMap));
             logger.debug("videoSegmentSeqNumMap: {}", gson.toJson(videoSegmentSeqNumMap));
 
@@ -197,6 +205,53 @@ public class MpdManager {
         adaptationSet.setRepresentations(newRepresentations);
     }
 
+    private void compileSegmentTemplateMatchers(List<AdaptationSet> adaptationSets) {
+        Map<String, SegmentTemplateMatcher> mediaMatcherMap = new LinkedHashMap<>();
+        Map<String, SegmentTemplateMatcher> initMatcherMap = new LinkedHashMap<>();
+        Map<String, String> mediaContentTypeMap = new HashMap<>(); // key : template
+        for (AdaptationSet adaptationSet : adaptationSets) {
+            if (adaptationSet == null) { continue; }
+
+            for (Representation representation : adaptationSet.getRepresentations()) {
+                SegmentTemplate segmentTemplate = representation.getSegmentTemplate() != null ?
+                        representation.getSegmentTemplate() : adaptationSet.getSegmentTemplate();
+                if (segmentTemplate == null) { continue; }
+
+                compileSegmentTemplateMatcher(segmentTemplate.getMedia(), mediaMatcherMap);
+                compileSegmentTemplateMatcher(segmentTemplate.getInitialization(), initMatcherMap);
+
+                String media = segmentTemplate.getMedia();
+                if (media != null) {
+                    if (!mediaContentTypeMap.containsKey(media)) {
+                        mediaContentTypeMap.put(media, adaptationSet.getContentType());
+                    } else if (!Objects.equals(mediaContentTypeMap.get(media), adaptationSet.getContentType())) {
+                        mediaContentTypeMap.put(media, null);
+                    }
+                }
+            }
+        }
+
+        Map<SegmentTemplateMatcher, String> matcherContentTypeMap = new IdentityHashMap<>();
+        for (Map.Entry<String, SegmentTemplateMatcher> entry : mediaMatcherMap.entrySet()) {
+            matcherContentTypeMap.put(entry.getValue(), mediaContentTypeMap.get(entry.getKey()));
+        }
+        mediaMatcherContentTypeMap = matcherContentTypeMap;
+        mediaSegmentMatchers = new ArrayList<>(mediaMatcherMap.values());
+        initSegmentMatchers = new ArrayList<>(initMatcherMap.values());
+        logger.debug("[MpdManager({})] SegmentTemplate matchers: media={}, init={}", dashUnitId, mediaSegmentMatchers, initSegmentMatchers);
+    }
+
+    private void compileSegmentTemplateMatcher(String template, Map<String, SegmentTemplateMatcher> matcherMap) {
+        if (template == null || matcherMap.containsKey(template)) { return; }
+
+        SegmentTemplateMatcher matcher = SegmentTemplateMatcher.compile(template);
+        if (matcher == null) {
+            logger.warn("[MpdManager({})] Fail to compile the segment template. (template={})", dashUnitId, template);
+            return;
+        }
+        matcherMap.put(template, matcher);
+    }
+
     private void initAudioSegmentSeqNumMap(AdaptationSet adaptationSet) {
         List<Representation> audioRepresentations = adaptationSet.getRepresentations();
         audioRepresentations.forEach(
@@ -289,18 +344,6 @@ public class MpdManager {
     ////////////////////////////////////////////////////////////
 
     ////////////////////////////////////////////////////////////
-    public void makeMpd(FileManager fileManager, String targetMpdPath, byte[] content) {
-        boolean isMpdDone = getIsMpdDone();
-        fileManager.writeBytes(
-                targetMpdPath,
-                content,
-                !isMpdDone
-        );
-        if (isMpdDone) {
-            setIsMpdDone(false);
-        }
-    }
-
     private void writeMpd() {
         try {
             String mpdString = writeAsString();
@@ -320,33 +363,6 @@ public class MpdManager {
         logger.debug("### mpd: {}", gson.toJson(mpd));
         return mpdParser.writeAsString(mpd);
     }
-
-    public void makeInitSegment(FileManager fileManager, String targetInitSegPath, byte[] content) {
-        if (targetInitSegPath == null) {
-            return;
-        }
-
-        logger.debug("[MpdManager({})] [makeInitSegment] > [targetInitSegPath: {}]", dashUnitId, targetInitSegPath);
-        fileManager.mkdirs(fileManager.getParentPathFromUri(targetInitSegPath));
-
-        fileManager.writeBytes(
-                targetInitSegPath,
-                content,
-                true
-        );
-    }
-
-    public void makeMediaSegment(FileManager fileManager, String targetMediaSegPath, byte[] content) {
-        if (targetMediaSegPath == null) {
-            return;
-        }
-
-        fileManager.writeBytes(
-                targetMediaSegPath,
-                content,
-                true
-        );
-    }
     ////////////////////////////////////////////////////////////
 
     ////////////////////////////////////////////////////////////
@@ -374,6 +390,74 @@ public class MpdManager {
         return bitRates;
     }
 
+    /**
+     * @return 요청 경로가 MPD 의 미디어 세그먼트 템플릿과 일치하면 true (식별자는 result 에 기록)
+     */
+    public boolean matchMediaSegment(String path, SegmentTemplateMatcher.MatchResult result) {
+        return matchSegment(mediaSegmentMatchers, path, result);
+    }
+
+    /**
+     * @return 요청 경로가 MPD 의 초기화 세그먼트 템플릿과 일치하면 true
+     */
+    public boolean matchInitSegment(String path, SegmentTemplateMatcher.MatchResult result) {
+        return matchSegment(initSegmentMatchers, path, result);
+    }
+
+    private boolean matchSegment(List<SegmentTemplateMatcher> matchers, String path, SegmentTemplateMatcher.MatchResult result) {
+        for (int i = 0; i < matchers.size(); i++) {
+            if (matchers.get(i).matchPath(path, result)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * matchMediaSegment() 로 일치한 미디어 세그먼트의 contentType 을 찾는다.
+     *
+     * - RepresentationID 가 있으면 MPD 의 Representation id 와 문자열로 비교한다. (v_1, video_1080p 등 숫자가 아닌 id 포함)
+     * - 없으면 일치한 template 을 사용하는 AdaptationSet 의 contentType (audio, video 가 같은 template 을 쓰면 알 수 없음)
+     *
+     * @return CONTENT_AUDIO_TYPE, CONTENT_VIDEO_TYPE, 알 수 없으면 null
+     */
+    public String getMediaSegmentContentType(SegmentTemplateMatcher.MatchResult result) {
+        if (result == null || result.getMatcher() == null) { return null; }
+
+        if (result.hasRepresentationId()) {
+            if (hasRepresentation(CONTENT_AUDIO_TYPE, result)) { return CONTENT_AUDIO_TYPE; }
+            if (hasRepresentation(CONTENT_VIDEO_TYPE, result)) { return CONTENT_VIDEO_TYPE; }
+            return null;
+        }
+
+        String contentType = mediaMatcherContentTypeMap.get(result.getMatcher());
+        if (CONTENT_AUDIO_TYPE.equals(contentType) || CONTENT_VIDEO_TYPE.equals(contentType)) {
+            return contentType;
+        }
+        return null;
+    }
+
+    private boolean hasRepresentation(String contentType, SegmentTemplateMatcher.MatchResult result) {
+        List<Representation> representations = getRepresentations(contentType);
+        for (int i = 0; i < representations.size(); i++) {
+            if (result.representationIdEquals(representations.get(i).getId())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return 마지막으로 파싱한 MPD 의 초기화 세그먼트 템플릿 (파싱할 때마다 새 목록으로 교체, 수정하지 않음)
+     */
+    public List<SegmentTemplateMatcher> getInitSegmentMatchers() {
+        return Collections.unmodifiableList(initSegmentMatchers);
+    }
+
+    public boolean hasSegmentTemplateMatchers() {
+        return !mediaSegmentMatchers.isEmpty();
+    }
+
     public String getRawInitializationSegmentName(Representation representation) {
         return representation.getSegmentTemplate().getInitialization();
     }
@@ -0,0 +1,318 @@
+package dash.mpd;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * SegmentTemplate (media, initialization) 패턴을 미리 컴파일해서 요청 URI 에서 식별자를 추출한다.
+ *
+ * - 지원 식별자 : $RepresentationID$, $Number$, $Time$, $Bandwidth$ (+ 형식 태그 %0Nd), $$
+ * - 매칭 중에는 객체를 만들지 않는다. (결과는 호출자가 준비한 MatchResult 에 기록)
+ * - 숫자 식별자는 숫자를 최대한 길게, RepresentationID 는 다음 고정 문자열이 나올 때까지 짧게 매칭한다.
+ *      (RepresentationID 안에 다음 고정 문자열이 포함된 경우에만 뒤로 물러나서 다시 시도)
+ *
+ * ex) Seoul_chunk$RepresentationID$_$Number%05d$.m4s
+ *      > Seoul_chunk12_00008.m4s : RepresentationID=12, Number=8
+ */
+public class SegmentTemplateMatcher {
+
+    ////////////////////////////////////////////////////////////
+    private static final int TOKEN_LITERAL = 0;
+    private static final int TOKEN_REPRESENTATION_ID = 1;
+    private static final int TOKEN_NUMBER = 2;
+    private static final int TOKEN_TIME = 3;
+    private static final int TOKEN_BANDWIDTH = 4;
+
+    private static final int MAX_DIGITS = 18; // long 범위
+
+    private final String template;
+    private final int[] tokenTypes;
+    private final String[] literals; // TOKEN_LITERAL 인 경우만
+    private final int pathDepth; // template 에 포함된 '/' 개수
+    ////////////////////////////////////////////////////////////
+
+    ////////////////////////////////////////////////////////////
+    private SegmentTemplateMatcher(String template, int[] tokenTypes, String[] literals) {
+        this.template = template;
+        this.tokenTypes = tokenTypes;
+        this.literals = literals;
+
+        int depth = 0;
+        for (int i = 0; i < template.length(); i++) {
+            if (template.charAt(i) == '/') { depth++; }
+        }
+        this.pathDepth = depth;
+    }
+
+    /**
+     * @return 지원하지 않는 형식이면 null
+     *          (식별자끼리 바로 붙어 있으면 경계를 알 수 없으므로 지원하지 않는다.)
+     */
+    public static SegmentTemplateMatcher compile(String template) {
+        if (template == null || template.isEmpty()) { return null; }
+
+        List<Integer> tokenTypeList = new ArrayList<>();
+        List<String> literalList = new ArrayList<>();
+        StringBuilder literal = new StringBuilder();
+
+        int index = 0;
+        while (index < template.length()) {
+            char c = template.charAt(index);
+            if (c != '$') {
+                literal.append(c);
+                index++;
+                continue;
+            }
+
+            int endIndex = template.indexOf('$', index + 1);
+            if (endIndex < 0) { return null; }
+
+            if (endIndex == index + 1) { // $$ > '$'
+                literal.append('$');
+                index = endIndex + 1;
+                continue;
+            }
+
+            String identifier = template.substring(index + 1, endIndex);
+            int formatIndex = identifier.indexOf('%');
+            String name = formatIndex >= 0 ? identifier.substring(0, formatIndex) : identifier;
+
+            int tokenType;
+            switch (name) {
+                case "RepresentationID": tokenType = TOKEN_REPRESENTATION_ID; break;
+                case "Number": tokenType = TOKEN_NUMBER; break;
+                case "Time": tokenType = TOKEN_TIME; break;
+                case "Bandwidth": tokenType = TOKEN_BANDWIDTH; break;
+                default: return null;
+            }
+            if (formatIndex >= 0 && tokenType == TOKEN_REPRESENTATION_ID) { return null; } // 형식 태그는 숫자 식별자만 허용
+
+            if (literal.length() > 0) {
+                tokenTypeList.add(TOKEN_LITERAL);
+                literalList.add(literal.toString());
+                literal.setLength(0);
+            } else if (!tokenTypeList.isEmpty() && tokenTypeList.get(tokenTypeList.size() - 1) != TOKEN_LITERAL) {
+                return null;
+            }
+
+            tokenTypeList.add(tokenType);
+            literalList.add(null);
+            index = endIndex + 1;
+        }
+
+        if (literal.length() > 0) {
+            tokenTypeList.add(TOKEN_LITERAL);
+            literalList.add(literal.toString());
+        }
+
+        int[] tokenTypes = new int[tokenTypeList.size()];
+        for (int i = 0; i < tokenTypes.length; i++) {
+            tokenTypes[i] = tokenTypeList.get(i);
+        }
+        return new SegmentTemplateMatcher(template, tokenTypes, literalList.toArray(new String[0]));
+    }
+    ////////////////////////////////////////////////////////////
+
+    ////////////////////////////////////////////////////////////
+    /**
+     * 요청 경로의 끝부분 (template 과 같은 깊이의 경로) 을 매칭한다.
+     * ex) template=Seoul_chunk$RepresentationID$_$Number%05d$.m4s, path=/media/live/Seoul/Seoul_chunk0_00008.m4s
+     *      > [Seoul_chunk0_00008.m4s] 매칭
+     */
+    public boolean matchPath(String path, MatchResult result) {
+        if (path == null) { return false; }
+
+        int start = path.length();
+        for (int depth = 0; depth <= pathDepth; depth++) {
+            start = path.lastIndexOf('/', start - 1);
+            if (start < 0) { break; }
+        }
+        return match(path, start + 1, path.length(), result);
+    }
+
+    /**
+     * input[start, end) 전체가 template 과 일치하는지 확인한다.
+     */
+    public boolean match(CharSequence input, int start, int end, MatchResult result) {
+        result.clear();
+        if (start < 0 || end > input.length() || start > end) { return false; }
+
+        if (matchTokens(input, 0, start, end, result)) {
+            result.matcher = this;
+            result.input = input;
+            return true;
+        }
+        result.clear();
+        return false;
+    }
+
+    private boolean matchTokens(CharSequence input, int tokenIndex, int position, int end, MatchResult result) {
+        while (tokenIndex < tokenTypes.length) {
+            switch (tokenTypes[tokenIndex]) {
+                case TOKEN_LITERAL: {
+                    String literal = literals[tokenIndex];
+                    if (!regionMatches(input, position, end, literal)) { return false; }
+                    position += literal.length();
+                    break;
+                }
+                case TOKEN_REPRESENTATION_ID: {
+                    return matchRepresentationId(input, tokenIndex, position, end, result);
+                }
+                default: { // 숫자 식별자
+                    long value = 0;
+                    int digitEnd = position;
+                    while (digitEnd < end && digitEnd - position < MAX_DIGITS) {
+                        char c = input.charAt(digitEnd);
+                        if (c < '0' || c > '9') { break; }
+                        value = value * 10 + (c - '0');
+                        digitEnd++;
+                    }
+                    if (digitEnd == position) { return false; }
+
+                    setNumericValue(tokenTypes[tokenIndex], value, result);
+                    position = digitEnd;
+                    break;
+                }
+            }
+            tokenIndex++;
+        }
+
+        return position == end;
+    }
+
+    private boolean matchRepresentationId(CharSequence input, int tokenIndex, int position, int end, MatchResult result) {
+        // 마지막 토큰이면 나머지 전체
+        if (tokenIndex + 1 >= tokenTypes.length) {
+            if (position >= end) { return false; }
+            result.representationIdStart = position;
+            result.representationIdEnd = end;
+            return true;
+        }
+
+        // 다음 토큰은 항상 고정 문자열 (compile 에서 보장)
+        String nextLiteral = literals[tokenIndex + 1];
+        for (int idEnd = position + 1; idEnd + nextLiteral.length() <= end; idEnd++) {
+            if (!regionMatches(input, idEnd, end, nextLiteral)) { continue; }
+
+            result.representationIdStart = position;
+            result.representationIdEnd = idEnd;
+            if (matchTokens(input, tokenIndex + 1, idEnd, end, result)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean regionMatches(CharSequence input, int position, int end, String literal) {
+        if (position + literal.length() > end) { return false; }
+        for (int i = 0; i < literal.length(); i++) {
+            if (input.charAt(position + i) != literal.charAt(i)) { return false; }
+        }
+        return true;
+    }
+
+    private static void setNumericValue(int tokenType, long value, MatchResult result) {
+        if (tokenType == TOKEN_NUMBER) {
+            result.number = value;
+        } else if (tokenType == TOKEN_TIME) {
+            result.time = value;
+        } else {
+            result.bandwidth = value;
+        }
+    }
+
+    public String getTemplate() {
+        return template;
+    }
+
+    @Override
+    public String toString() {
+        return template;
+    }
+    ////////////////////////////////////////////////////////////
+
+    ////////////////////////////////////////////////////////////
+    /**
+     * 매칭 결과 (재사용 가능, 스레드 간 공유 불가)
+     * 없는 식별자는 -1
+     */
+    public static class MatchResult {
+
+        private SegmentTemplateMatcher matcher = null; // 일치한 template
+        private CharSequence input = null;
+        private int representationIdStart = -1;
+        private int representationIdEnd = -1;
+        private long number = -1;
+        private long time = -1;
+        private long bandwidth = -1;
+
+        public void clear() {
+            matcher = null;
+            input = null;
+            representationIdStart = -1;
+            representationIdEnd = -1;
+            number = -1;
+            time = -1;
+            bandwidth = -1;
+        }
+
+        public boolean hasRepresentationId() {
+            return input != null && representationIdStart >= 0;
+        }
+
+        /**
+         * @return 숫자로만 된 RepresentationID 의 값, 아니면 -1
+         */
+        public int getRepresentationIdAsInt() {
+            if (!hasRepresentationId()) { return -1; }
+
+            int length = representationIdEnd - representationIdStart;
+            if (length <= 0 || length > 9) { return -1; }
+
+            int value = 0;
+            for (int i = representationIdStart; i < representationIdEnd; i++) {
+                char c = input.charAt(i);
+                if (c < '0' || c > '9') { return -1; }
+                value = value * 10 + (c - '0');
+            }
+            return value;
+        }
+
+        public boolean representationIdEquals(CharSequence representationId) {
+            if (!hasRepresentationId() || representationId == null) { return false; }
+            if (representationId.length() != representationIdEnd - representationIdStart) { return false; }
+
+            for (int i = 0; i < representationId.length(); i++) {
+                if (input.charAt(representationIdStart + i) != representationId.charAt(i)) { return false; }
+            }
+            return true;
+        }
+
+        /**
+         * 로그 출력용 (새 문자열 생성)
+         */
+        public String getRepresentationId() {
+            if (!hasRepresentationId()) { return null; }
+            return input.subSequence(representationIdStart, representationIdEnd).toString();
+        }
+
+        public SegmentTemplateMatcher getMatcher() {
+            return matcher;
+        }
+
+        public long getNumber() {
+            return number;
+        }
+
+        public long getTime() {
+            return time;
+        }
+
+        public long getBandwidth() {
+            return bandwidth;
+        }
+
+    }
+    ////////////////////////////////////////////////////////////
+
+}
@@ -11,22 +11,38 @@ import dash.server.dynamic.message.StreamingStopRequest;
 import dash.server.dynamic.message.base.MessageHeader;
 import dash.server.dynamic.message.base.MessageType;
 import dash.server.handler.DashMessageHandler;
+import dash.server.handler.DashPackagingExecutor;
 import dash.server.handler.HttpMessageManager;
+import dash.server.handler.HttpResponseHeaderCache;
+import dash.server.handler.definition.HttpByteRange;
+import dash.server.handler.definition.HttpCacheInfo;
+import dash.server.handler.definition.HttpMessageRoute;
 import dash.server.network.DashLocalAddressManager;
 import dash.unit.DashUnit;
 import dash.unit.StreamType;
+import dash.unit.segment.SegmentCache;
+import dash.unit.segment.RelaySegmentStore;
 import instance.BaseEnvironment;
 import instance.DebugLevel;
 import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufUtil;
 import io.netty.buffer.Unpooled;
+import io.netty.channel.ChannelFuture;
 import io.netty.channel.ChannelFutureListener;
 import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.DefaultFileRegion;
+import io.netty.handler.codec.AsciiString;
 import io.netty.handler.codec.http.*;
+import io.netty.handler.codec.http2.HttpUtil;
+import io.netty.handler.ssl.SslHandler;
+import io.netty.handler.stream.ChunkedNioFile;
 import media.MediaInfo;
 import media.MediaManager;
 import network.definition.DestinationRecord;
 import network.socket.GroupSocket;
 import network.socket.SocketManager;
+import network.socket.netty.NettyEventLoopRegistry;
+import network.socket.netty.NettyTransport;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import service.AppInstance;
@@ -35,18 +51,21 @@ import service.ServiceManager;
 import service.scheduler.job.Job;
 import service.scheduler.job.JobBuilder;
 import service.scheduler.schedule.ScheduleManager;
+import service.scheduler.timer.SharedTimerService;
 import service.system.ResourceManager;
 import stream.LocalStreamService;
 import stream.StreamConfigManager;
 import util.module.FileManager;
 
 import java.io.File;
+import java.io.RandomAccessFile;
+import java.nio.CharBuffer;
 import java.nio.charset.StandardCharsets;
-import java.time.ZonedDateTime;
-import java.time.format.DateTimeFormatter;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
-import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 public class DashServer {
 
@@ -54,6 +73,8 @@ public class DashServer {
     private static final Logger logger = LoggerFactory.getLogger(DashServer.class);
 
     public static final String DASH_SCHEDULE_JOB = "DASH_SCHEDULE_JOB";
+    private static final int FILE_CHUNK_SIZE = 8192;
+    private static final AsciiString HTTP2_STREAM_ID = HttpUtil.ExtensionHeaderNames.STREAM_ID.text();
 
     private final BaseEnvironment baseEnvironment;
     private final SocketManager httpSocketManager;
@@ -63,12 +84,15 @@ public class DashServer {
     private final DynamicMediaManager dynamicMediaManager;
     private final FileManager fileManager = new FileManager();
     private LocalStreamService localStreamService = null;
+    private List<HttpMessageRoute> mediaRoutes = Collections.emptyList(); // 화이트리스트(MEDIA_LIST_PATH) route
 
     private final MpdManager mpdManager;
     private final DashLocalAddressManager dashLocalAddressManager;
 
-    private final HashMap<String, DashUnit> dashUnitMap = new HashMap<>();
-    private final ReentrantLock dashUnitMapLock = new ReentrantLock();
+    private final ConcurrentHashMap<String, DashUnit> dashUnitMap = new ConcurrentHashMap<>();
+    private final AtomicInteger dashUnitCount = new AtomicInteger(0);
+    private final EnumMap<StreamType, AtomicLong> dashUnitCountByType = new EnumMap<>(StreamType.class);
+    private final DashUnitPathIndex dashUnitPathIndex = new DashUnitPathIndex();
     private final int maxDashUnitLimit;
 
     private final Gson gson = new GsonBuilder().setPrettyPrinting().create();
@@ -76,11 +100,27 @@ public class DashServer {
     private final ConfigManager configManager = AppInstance.getInstance().getConfigManager();
 
     private final DashUnit localDashUnit;
+
+    private final SegmentCache segmentCache;
+    private final DashPackagingExecutor dashPackagingExecutor;
+    private final HttpResponseHeaderCache responseHeaderCache;
     ////////////////////////////////////////////////////////////
 
     ////////////////////////////////////////////////////////////
     public DashServer() {
         maxDashUnitLimit = configManager.getMaxDashUnitLimit();
+        for (StreamType streamType : StreamType.values()) {
+            dashUnitCountByType.put(streamType, new AtomicLong(0));
+        }
+        segmentCache = configManager.isEnableSegmentCache() ? new SegmentCache(configManager.getSegmentCacheSize()) : null;
+        dashPackagingExecutor = new DashPackagingExecutor(configManager.getPackagingThreadCount(), configManager.getPackagingQueueLimit());
+
+        ///////////////////////////
+        // Netty transport 선택 (SocketManager 생성 전)
+        NettyTransport.configure(configManager.isEnableEpoll(), configManager.isEpollEdgeTriggered());
+        SharedTimerService.getInstance().configure(configManager.getTimerShardCount(), configManager.getTimerTickDuration(), configManager.getTimerTicksPerWheel());
+        RelaySegmentStore.configure(configManager.getMemoryRelayMaxSize());
+        ///////////////////////////
 
         ///////////////////////////
         // 인스턴스 생성
@@ -104,7 +144,6 @@ public class DashServer {
         httpSocketManager = new SocketManager(
                 baseEnvironment,
                 true, true,
-                configManager.getThreadCount(),
                 configManager.getSendBufSize(),
                 configManager.getRecvBufSize()
         ); // eager initialization
@@ -112,7 +151,6 @@ public class DashServer {
         udpSocketManager = new SocketManager(
                 baseEnvironment,
                 false, false,
-                configManager.getThreadCount(),
                 configManager.getSendBufSize(),
                 configManager.getRecvBufSize()
         ); // eager initialization
@@ -121,6 +159,7 @@ public class DashServer {
         ///////////////////////////
         // HttpMessageManager 생성
         httpMessageManager = new HttpMessageManager(baseEnvironment);
+        responseHeaderCache = new HttpResponseHeaderCache(httpMessageManager.getServiceName());
         ///////////////////////////
 
         ///////////////////////////
@@ -237,8 +276,7 @@ public class DashServer {
                 logger.debug("[DashServer] Success to run the streaming. (id={}, localMpdPath={}, streamUri={}, sourceUri={})",
                         localDashUnit.getId(), mpdPath, configManager.getCameraPath(), sourceUri
                 );
-                getHttpMessageManager().get(localDashUnit.getMpdParentPath(), new DashMessageHandler(localDashUnit.getMpdParentPath()));
-                getHttpMessageManager().get(localDashUnit.getOutputFilePath(), new DashMessageHandler(localDashUnit.getOutputFilePath()));
+                registerDashUnitRoutes(localDashUnit);
             } else {
                 logger.warn("[DashServer] Fail to run the streaming. (id={}, localMpdPath={}, streamUri={}, sourceUri={})",
                         localDashUnit.getId(), mpdPath, configManager.getCameraPath(), sourceUri
@@ -287,19 +325,30 @@ public class DashServer {
         dashLocalAddressManager.stop();
         dynamicMediaManager.stop();
         httpMessageManager.stop();
+        dashPackagingExecutor.stop();
         baseEnvironment.stop();
+        NettyEventLoopRegistry.getInstance().shutdown();
+        SharedTimerService.getInstance().shutdown();
+
+        if (segmentCache != null) {
+            segmentCache.clear();
+        }
     }
 
-    public void loadMediaUriList() {
+    public synchronized void loadMediaUriList() {
         try {
             if (mediaManager.loadUriList()) {
-                httpMessageManager.clear();
+                // 화이트리스트 route 만 한 번에 교체 (다른 DashUnit 의 route 는 유지)
+                List<HttpMessageRoute> newMediaRoutes = new ArrayList<>();
                 for (MediaInfo mediaInfo : mediaManager.getMediaInfoList()) {
-                    httpMessageManager.get(
+                    newMediaRoutes.add(new HttpMessageRoute(
+                            HttpMethod.GET,
                             mediaInfo.getUri(),
                             new DashMessageHandler(mediaInfo.getUri())
-                    );
+                    ));
                 }
+                httpMessageManager.replaceRoutes(mediaRoutes, newMediaRoutes);
+                mediaRoutes = newMediaRoutes;
 
                 logger.debug("[MediaManager] Success to load the uri list. \n{}", gson.toJson(httpMessageManager.getAllUris()));
             } else {
@@ -351,30 +400,49 @@ public class DashServer {
     public DashLocalAddressManager getDashLocalAddressManager() {
         return dashLocalAddressManager;
     }
+
+    public SegmentCache getSegmentCache() {
+        return segmentCache;
+    }
+
+    public DashPackagingExecutor getDashPackagingExecutor() {
+        return dashPackagingExecutor;
+    }
     ////////////////////////////////////////////////////////////
 
     ////////////////////////////////////////////////////////////
     public DashUnit addDashUnit(StreamType type, String dashUnitId, MPD mpd, long expires, boolean isDynamic) {
         DashUnit dashUnit = getDashUnitById(dashUnitId);
         if (dashUnit != null) { return dashUnit; }
-        if (dashUnitMap.size() == maxDashUnitLimit) {
-            logger.warn("[DashServer] Fail to add a dash unit. List is full. (id={})", dashUnitId);
-            return null;
-        }
 
-        try {
-            dashUnitMapLock.lock();
+        // 생성 전에 자리를 먼저 예약한다. (동시에 추가되어도 maxDashUnitLimit 를 넘지 않음)
+        int curCount;
+        do {
+            curCount = dashUnitCount.get();
+            if (curCount >= maxDashUnitLimit) {
+                logger.warn("[DashServer] Fail to add a dash unit. List is full. (id={})", dashUnitId);
+                return null;
+            }
+        } while (!dashUnitCount.compareAndSet(curCount, curCount + 1));
 
+        try {
             dashUnit = new DashUnit(type, dashUnitId, mpd, expires, isDynamic);
-            dashUnitMap.putIfAbsent(dashUnitId, dashUnit);
-            logger.debug("[DashServer] [(+)CREATED] \n{}", dashUnit);
-            return dashUnit;
         } catch (Exception e) {
+            dashUnitCount.decrementAndGet();
             logger.warn("[DashServer] Fail to open the dash unit. (id={})", dashUnitId, e);
             return null;
-        } finally {
-            dashUnitMapLock.unlock();
         }
+
+        DashUnit prevDashUnit = dashUnitMap.putIfAbsent(dashUnitId, dashUnit);
+        if (prevDashUnit != null) { // 다른 스레드가 먼저 추가함
+            dashUnitCount.decrementAndGet();
+            dashUnit.stop();
+            return prevDashUnit;
+        }
+
+        dashUnitCountByType.get(type).incrementAndGet();
+        logger.debug("[DashServer] [(+)CREATED] \n{}", dashUnit);
+        return dashUnit;
     }
 
     public void deleteDashUnit(String dashUnitId) {
@@ -382,48 +450,72 @@ public class DashServer {
         if (dashUnit == null) { return; }
 
         try {
-            dashUnitMapLock.lock();
-
             dashUnit.finishLiveStreaming();
             dashUnit.stop();
+            if (segmentCache != null) { // pinned init segment 포함
+                segmentCache.invalidateByPrefix(fileManager.getParentPathFromUri(dashUnit.getOutputFilePath()));
+            }
+            unregisterDashUnitRoutes(dashUnit); // 스트리밍이 끝난 MPD 경로 (NONE 타입 DashUnit 도 다시 시작하면 새로 등록)
             logger.debug("[DashServer] [(*)STOPPED] \n{}", dashUnit);
 
-            if (dashUnit.getType() != StreamType.NONE) {
+            if (dashUnit.getType() != StreamType.NONE && removeDashUnit(dashUnit)) {
                 logger.debug("[DashServer] [(-)DELETED] \n{}", dashUnit);
-                dashUnitMap.remove(dashUnitId);
             }
         } catch (Exception e) {
             logger.warn("Fail to close the dash unit. (id={})", dashUnitId, e);
-        } finally {
-            dashUnitMapLock.unlock();
         }
     }
 
-    public HashMap<String, DashUnit> getCloneDashMap( ) {
-        HashMap<String, DashUnit> cloneMap;
+    private boolean removeDashUnit(DashUnit dashUnit) {
+        if (!dashUnitMap.remove(dashUnit.getId(), dashUnit)) { return false; }
 
-        try {
-            dashUnitMapLock.lock();
+        dashUnitCount.decrementAndGet();
+        dashUnitCountByType.get(dashUnit.getType()).decrementAndGet();
+        dashUnitPathIndex.remove(makeDashUnitIndexPath(dashUnit.getMpdParentPath()), dashUnit);
+        unregisterDashUnitRoutes(dashUnit);
+        return true;
+    }
 
-            cloneMap = (HashMap<String, DashUnit>) dashUnitMap.clone();
-        } catch (Exception e) {
-            logger.warn("Fail to clone the dash unit map.", e);
-            cloneMap = dashUnitMap;
-        } finally {
-            dashUnitMapLock.unlock();
+    /**
+     * 라이브 스트리밍을 시작한 DashUnit 의 MPD route 를 등록한다.
+     * 같은 DashUnit 을 다시 시작하면 이전 route 를 교체한다. (중복 등록 X)
+     */
+    public void registerDashUnitRoutes(DashUnit dashUnit) {
+        if (dashUnit == null) { return; }
+
+        List<HttpMessageRoute> unitRoutes = Arrays.asList(
+                new HttpMessageRoute(HttpMethod.GET, dashUnit.getMpdParentPath(), new DashMessageHandler(dashUnit.getMpdParentPath())),
+                new HttpMessageRoute(HttpMethod.GET, dashUnit.getOutputFilePath(), new DashMessageHandler(dashUnit.getOutputFilePath()))
+        );
+        httpMessageManager.replaceRoutes(dashUnit.exchangeRoutes(unitRoutes), unitRoutes);
+
+        // 등록 중에 삭제된 경우 되돌린다.
+        if (dashUnitMap.get(dashUnit.getId()) != dashUnit) {
+            unregisterDashUnitRoutes(dashUnit);
         }
+    }
+
+    private void unregisterDashUnitRoutes(DashUnit dashUnit) {
+        List<HttpMessageRoute> unitRoutes = dashUnit.exchangeRoutes(Collections.emptyList());
+        if (!unitRoutes.isEmpty()) {
+            httpMessageManager.replaceRoutes(unitRoutes, Collections.emptyList());
+        }
+    }
 
-        return cloneMap;
+    /**
+     * 복사본 없이 순회 가능한 view (weakly consistent)
+     */
+    public Collection<DashUnit> getDashUnits() {
+        return dashUnitMap.values();
     }
 
     public void deleteAllDashUnits() {
         try {
-            dashUnitMapLock.lock();
-            dashUnitMap.entrySet().removeIf(Objects::nonNull);
+            for (DashUnit dashUnit : dashUnitMap.values()) {
+                removeDashUnit(dashUnit);
+            }
         } catch (Exception e) {
             logger.warn("Fail to close all dash units.", e);
-        } finally {
-            dashUnitMapLock.unlock();
         }
     }
 
@@ -431,11 +523,7 @@ public class DashServer {
         List<String> streamKeys = new ArrayList<>();
 
         try {
-            dashUnitMapLock.lock();
-            for (Map.Entry<String, DashUnit> entry : dashUnitMap.entrySet()) {
-                if (entry == null) { continue; }
-
-                DashUnit dashUnit = entry.getValue();
+            for (DashUnit dashUnit : dashUnitMap.values()) {
                 if (dashUnit == null) { continue; }
                 if (!dashUnit.getType().equals(StreamType.DYNAMIC)) { continue; }
 
@@ -446,8 +534,6 @@ public class DashServer {
             }
         } catch (Exception e) {
             logger.warn("[DashServer] Fail to get the stream keys.", e);
-        } finally {
-            dashUnitMapLock.unlock();
         }
 
         return streamKeys;
@@ -455,20 +541,61 @@ public class DashServer {
 
     public void deleteDashUnitsByType(StreamType type) {
         try {
-            dashUnitMapLock.lock();
-            dashUnitMap.entrySet().removeIf(entry -> entry.getValue().getType() == type);
+            for (DashUnit dashUnit : dashUnitMap.values()) {
+                if (dashUnit.getType() == type) {
+                    removeDashUnit(dashUnit);
+                }
+            }
         } catch (Exception e) {
             logger.warn("Fail to close all dash units.", e);
-        } finally {
-            dashUnitMapLock.unlock();
         }
     }
 
     public long getDashUnitMapSizeWithStreamType(StreamType streamType) {
-        return dashUnitMap.values().stream().filter(
-                dashUnit -> (dashUnit != null) && (dashUnit.getType() == streamType)
-                        && (!dashUnit.getId().equals(AppInstance.getInstance().getConfigManager().getId()))
-        ).count();
+        long count = dashUnitCountByType.get(streamType).get();
+
+        // 설정된 ID 의 DashUnit 은 제외
+        DashUnit configDashUnit = dashUnitMap.get(configManager.getId());
+        if (configDashUnit != null && configDashUnit.getType() == streamType) {
+            count--;
+        }
+        return count;
+    }
+
+    /**
+     * DashUnit 의 MPD 경로가 바뀌면 인덱스를 갱신한다. (DashUnit.setMpdParentPath 에서 호출)
+     */
+    public void updateDashUnitPath(DashUnit dashUnit, String prevMpdParentPath) {
+        if (dashUnit == null) { return; }
+
+        try {
+            if (prevMpdParentPath != null) {
+                dashUnitPathIndex.remove(makeDashUnitIndexPath(prevMpdParentPath), dashUnit);
+            }
+
+            String indexPath = makeDashUnitIndexPath(dashUnit.getMpdParentPath());
+            if (indexPath != null && dashUnitMap.get(dashUnit.getId()) == dashUnit) {
+                dashUnitPathIndex.put(indexPath, dashUnit);
+                // 등록 중에 삭제된 경우 되돌린다.
+                if (dashUnitMap.get(dashUnit.getId()) != dashUnit) {
+                    dashUnitPathIndex.remove(indexPath, dashUnit);
+                }
+            }
+        } catch (Exception e) {
+            logger.warn("[DashServer] Fail to update the dash unit path. (id={})", dashUnit.getId(), e);
+        }
+    }
+
+    /**
+     * [/live/test/test.mpd] or [/live/test/test_chunk0_00001.m4s] > DashUnit([/live/test])
+     */
+    public DashUnit findDashUnitByUri(String uri) {
+        return dashUnitPathIndex.find(uri);
+    }
+
+    private String makeDashUnitIndexPath(String mpdParentPath) {
+        if (mpdParentPath == null) { return null; }
+        return fileManager.removeString(configManager.getMediaBasePath(), mpdParentPath);
     }
 
     public DashUnit getDashUnitById(String dashUnitId) { // dashUnitId > MEDIA URI
@@ -476,7 +603,7 @@ public class DashServer {
     }
 
     public int getDashUnitMapSize() {
-        return dashUnitMap.size();
+        return dashUnitCount.get();
     }
     ////////////////////////////////////////////////////////////
 
@@ -501,12 +628,48 @@ public class DashServer {
         writeErrorResponse(ctx, request, HttpResponseStatus.BAD_REQUEST);
     }
 
+    /**
+     * 과부하 상태 (Retry-After 초 후에 다시 요청)
+     */
+    public void writeServiceUnavailable(
+            final ChannelHandlerContext ctx,
+            final FullHttpRequest request,
+            final long retryAfterSec) {
+
+        writeErrorResponse(ctx, request, HttpResponseStatus.SERVICE_UNAVAILABLE, retryAfterSec);
+    }
+
+    public void writeTooManyRequests(
+            final ChannelHandlerContext ctx,
+            final FullHttpRequest request,
+            final long retryAfterSec) {
+
+        writeErrorResponse(ctx, request, HttpResponseStatus.TOO_MANY_REQUESTS, retryAfterSec);
+    }
+
     private void writeErrorResponse(
             final ChannelHandlerContext ctx,
             final FullHttpRequest request,
             final HttpResponseStatus status) {
 
-        writeResponse(ctx, request, status, HttpMessageManager.TYPE_PLAIN, status.reasonPhrase().toString());
+        sendResponse(ctx, request, makeErrorResponse(ctx, status));
+    }
+
+    private void writeErrorResponse(
+            final ChannelHandlerContext ctx,
+            final FullHttpRequest request,
+            final HttpResponseStatus status,
+            final long retryAfterSec) {
+        final FullHttpResponse response = makeErrorResponse(ctx, status);
+        response.headers().setLong(HttpHeaderNames.RETRY_AFTER, retryAfterSec);
+        sendResponse(ctx, request, response);
+    }
+
+    private FullHttpResponse makeErrorResponse(
+            final ChannelHandlerContext ctx,
+            final HttpResponseStatus status) {
+        final ByteBuf buf = ByteBufUtil.encodeString(ctx.alloc(), CharBuffer.wrap(status.reasonPhrase()), StandardCharsets.UTF_8);
+        return makeResponse(status, buf, HttpMessageManager.TYPE_PLAIN, buf.readableBytes());
     }
 
     public void writeResponse(
@@ -515,9 +678,8 @@ public class DashServer {
             final HttpResponseStatus status,
             final CharSequence contentType,
             final String content) {
-        final byte[] bytes = content.getBytes(StandardCharsets.UTF_8);
-        final ByteBuf entity = Unpooled.wrappedBuffer(bytes);
-        writeResponse(ctx, request, status, entity, contentType, bytes.length);
+        final ByteBuf entity = ByteBufUtil.encodeString(ctx.alloc(), CharBuffer.wrap(content), StandardCharsets.UTF_8);
+        writeResponse(ctx, request, status, entity, contentType, entity.readableBytes());
     }
 
     public void writeResponse(
@@ -526,8 +688,40 @@ public class DashServer {
             final HttpResponseStatus status,
             final CharSequence contentType,
             final byte[] bytes) {
+        writeResponse(ctx, request, status, contentType, bytes, null);
+    }
+
+    public void writeResponse(
+            final ChannelHandlerContext ctx,
+            final FullHttpRequest request,
+            final HttpResponseStatus status,
+            final CharSequence contentType,
+            final byte[] bytes,
+            final HttpCacheInfo cacheInfo) {
         final ByteBuf entity = Unpooled.wrappedBuffer(bytes);
-        writeResponse(ctx, request, status, entity, contentType, bytes.length);
+        writeResponse(ctx, request, status, entity, contentType, bytes.length, cacheInfo);
+    }
+
+    /**
+     * buf 의 소유권은 응답으로 넘어간다. (전송 후 release)
+     */
+    public void writeResponse(
+            final ChannelHandlerContext ctx,
+            final FullHttpRequest request,
+            final HttpResponseStatus status,
+            final CharSequence contentType,
+            final ByteBuf buf) {
+        writeResponse(ctx, request, status, contentType, buf, null);
+    }
+
+    public void writeResponse(
+            final ChannelHandlerContext ctx,
+            final FullHttpRequest request,
+            final HttpResponseStatus status,
+            final CharSequence contentType,
+            final ByteBuf buf,
+            final HttpCacheInfo cacheInfo) {
+        writeResponse(ctx, request, status, buf, contentType, buf.readableBytes(), cacheInfo);
     }
 
     private void writeResponse(
@@ -537,9 +731,49 @@ public class DashServer {
             final ByteBuf buf,
             final CharSequence contentType,
             final int contentLength) {
-        // Decide whether to close the connection or not.
-        final boolean keepAlive = HttpHeaderUtil.isKeepAlive(request);
+        writeResponse(ctx, request, status, buf, contentType, contentLength, null);
+    }
+
+    private void writeResponse(
+            final ChannelHandlerContext ctx,
+            final FullHttpRequest request,
+            final HttpResponseStatus status,
+            final ByteBuf buf,
+            final CharSequence contentType,
+            final int contentLength,
+            final HttpCacheInfo cacheInfo) {
+        final FullHttpResponse response = makeResponse(status, buf, contentType, contentLength);
+        if (cacheInfo != null) {
+            cacheInfo.apply(response.headers());
+        }
+        sendResponse(ctx, request, response);
+    }
+
+    /**
+     * 조건부 요청(If-None-Match, If-Modified-Since)의 검증자가 일치 > 본문 없이 304
+     */
+    public void writeNotModified(
+            final ChannelHandlerContext ctx,
+            final FullHttpRequest request,
+            final HttpCacheInfo cacheInfo) {
+        final FullHttpResponse response = new DefaultFullHttpResponse(
+                HttpVersion.HTTP_1_1,
+                HttpResponseStatus.NOT_MODIFIED,
+                Unpooled.EMPTY_BUFFER,
+                false
+        );
 
+        final HttpHeaders headers = response.headers();
+        responseHeaderCache.setCommonHeaders(headers, null, -1);
+        cacheInfo.apply(headers);
+        sendResponse(ctx, request, response);
+    }
+
+    private FullHttpResponse makeResponse(
+            final HttpResponseStatus status,
+            final ByteBuf buf,
+            final CharSequence contentType,
+            final int contentLength) {
         // Build the response object.
         final FullHttpResponse response = new DefaultFullHttpResponse(
                 HttpVersion.HTTP_1_1,
@@ -548,16 +782,22 @@ public class DashServer {
                 false
         );
 
-        final ZonedDateTime dateTime = ZonedDateTime.now();
-        final DateTimeFormatter formatter = DateTimeFormatter.RFC_1123_DATE_TIME;
+        responseHeaderCache.setCommonHeaders(response.headers(), contentType, contentLength);
+        return response;
+    }
 
-        final DefaultHttpHeaders headers = (DefaultHttpHeaders) response.headers();
+    private void sendResponse(
+            final ChannelHandlerContext ctx,
+            final FullHttpRequest request,
+            final FullHttpResponse response) {
+        // HTTP/2 : 요청과 같은 stream 으로 응답하도록 stream id 를 그대로 돌려준다.
+        final CharSequence streamId = request.headers().get(HTTP2_STREAM_ID);
+        if (streamId != null) {
+            response.headers().set(HTTP2_STREAM_ID, streamId);
+        }
 
-        headers.set(HttpHeaderNames.SERVER, getServiceName());
-        headers.set(HttpHeaderNames.DATE, dateTime.format(formatter));
-        headers.set(HttpHeaderNames.CONTENT_TYPE, contentType);
-        headers.set(HttpHeaderNames.CONTENT_LENGTH, Integer.toString(contentLength));
-        headers.set(HttpHeaderNames.ACCESS_CONTROL_ALLOW_ORIGIN, "*");
+        // Decide whether to close the connection or not.
+        final boolean keepAlive = HttpHeaderUtil.isKeepAlive(request);
 
         // Close the non-keep-alive connection after the write operation is done.
         if (!keepAlive) {
@@ -569,6 +809,284 @@ public class DashServer {
         logger.debug("[DashServer] RESPONSE: {}", response);
     }
 
+    /**
+     * 파일 내용을 heap 으로 복사하지 않고 그대로 전송한다.
+     * - SSL 미사용 : DefaultFileRegion (sendfile)
+     * - SSL 사용 : ChunkedNioFile (pipeline 에 ChunkedWriteHandler 필요)
+     * Content-Length 는 파일 메타데이터에서 가져온다.
+     *
+     * @return 전송 시작 성공 여부 (false 면 호출자가 에러 응답을 보내야 한다.)
+     */
+    public boolean writeFileResponse(
+            final ChannelHandlerContext ctx,
+            final FullHttpRequest request,
+            final CharSequence contentType,
+            final File file,
+            final HttpCacheInfo cacheInfo) {
+        final RandomAccessFile randomAccessFile = openFile(file);
+        if (randomAccessFile == null) { return false; }
+
+        final long fileLength = file.length();
+        final HttpResponse response = makeFileResponseHeader(HttpResponseStatus.OK, contentType, fileLength, cacheInfo);
+
+        ctx.write(response, ctx.voidPromise());
+        try {
+            writeFileRegion(ctx, randomAccessFile, 0, fileLength);
+        } catch (Exception e) {
+            abortFileResponse(ctx, randomAccessFile, file, e);
+            return true;
+        }
+        finishFileResponse(ctx, request);
+
+        logger.debug("[DashServer] RESPONSE (FILE): {} (path={}, len={})", response, file.getAbsolutePath(), fileLength);
+        return true;
+    }
+
+    /**
+     * Range 요청에 대한 206 Partial Content 응답 (zero-copy)
+     * - 범위 1개 : Content-Range 헤더 + 해당 영역
+     * - 범위 여러 개 : multipart/byteranges (part 마다 Content-Type, Content-Range)
+     *
+     * @param ranges HttpByteRange.parse 결과 (비어 있지 않아야 한다.)
+     * @return 전송 시작 성공 여부 (false 면 호출자가 에러 응답을 보내야 한다.)
+     */
+    public boolean writeFileRangeResponse(
+            final ChannelHandlerContext ctx,
+            final FullHttpRequest request,
+            final CharSequence contentType,
+            final File file,
+            final List<HttpByteRange> ranges,
+            final HttpCacheInfo cacheInfo) {
+        final long fileLength = file.length();
+        if (ranges.size() == 1) {
+            final HttpByteRange range = ranges.get(0);
+            final RandomAccessFile randomAccessFile = openFile(file);
+            if (randomAccessFile == null) { return false; }
+
+            final HttpResponse response = makeFileResponseHeader(HttpResponseStatus.PARTIAL_CONTENT, contentType, range.getLength(), cacheInfo);
+            response.headers().set(HttpHeaderNames.CONTENT_RANGE, range.makeContentRange(fileLength));
+
+            ctx.write(response, ctx.voidPromise());
+            try {
+                writeFileRegion(ctx, randomAccessFile, range.getStart(), range.getLength());
+            } catch (Exception e) {
+                abortFileResponse(ctx, randomAccessFile, file, e);
+                return true;
+            }
+            finishFileResponse(ctx, request);
+
+            logger.debug("[DashServer] RESPONSE (FILE RANGE): {} (path={}, range={})", response, file.getAbsolutePath(), range);
+            return true;
+        }
+
+        // MULTIPART : part 헤더를 미리 만들어서 전체 Content-Length 를 계산
+        final String boundary = Long.toHexString(System.nanoTime()) + Long.toHexString(fileLength);
+        final List<byte[]> partHeaders = new ArrayList<>(ranges.size());
+        long contentLength = 0;
+        for (HttpByteRange range : ranges) {
+            final byte[] partHeader = makePartHeader(boundary, contentType, range, fileLength);
+            partHeaders.add(partHeader);
+            contentLength += partHeader.length + range.getLength();
+        }
+        final byte[] closeDelimiter = makeCloseDelimiter(boundary);
+        contentLength += closeDelimiter.length;
+
+        // part 마다 파일을 따로 연다. (FileRegion 은 전송 후 채널을 닫는다.)
+        final List<RandomAccessFile> randomAccessFiles = new ArrayList<>(ranges.size());
+        for (int i = 0; i < ranges.size(); i++) {
+            final RandomAccessFile randomAccessFile = openFile(file);
+            if (randomAccessFile == null) {
+                for (RandomAccessFile opened : randomAccessFiles) {
+                    closeFile(opened);
+                }
+                return false;
+            }
+            randomAccessFiles.add(randomAccessFile);
+        }
+
+        final HttpResponse response = makeFileResponseHeader(
+                HttpResponseStatus.PARTIAL_CONTENT,
+                HttpMessageManager.TYPE_MULTIPART_BYTERANGES + "; boundary=" + boundary,
+                contentLength,
+                cacheInfo
+        );
+
+        ctx.write(response, ctx.voidPromise());
+        for (int i = 0; i < ranges.size(); i++) {
+            final HttpByteRange range = ranges.get(i);
+            try {
+                ctx.write(Unpooled.wrappedBuffer(partHeaders.get(i)), ctx.voidPromise());
+                writeFileRegion(ctx, randomAccessFiles.get(i), range.getStart(), range.getLength());
+            } catch (Exception e) {
+                for (int j = i + 1; j < randomAccessFiles.size(); j++) {
+                    closeFile(randomAccessFiles.get(j));
+                }
+                abortFileResponse(ctx, randomAccessFiles.get(i), file, e);
+                return true;
+            }
+        }
+        ctx.write(Unpooled.wrappedBuffer(closeDelimiter), ctx.voidPromise());
+        finishFileResponse(ctx, request);
+
+        logger.debug("[DashServer] RESPONSE (FILE MULTI-RANGE): {} (path={}, ranges={})", response, file.getAbsolutePath(), ranges);
+        return true;
+    }
+
+    /**
+     * 메모리에 있는 세그먼트 (relay) 의 Range 요청에 대한 206 Partial Content 응답
+     * 본문을 복사하지 않고 buf 의 slice 로 응답한다. (FullHttpResponse 이므로 HTTP/2 도 동일)
+     * buf 의 소유권은 응답으로 넘어간다. (전송 후 release)
+     *
+     * @param ranges HttpByteRange.parse 결과 (비어 있지 않아야 한다.)
+     */
+    public void writeBufferRangeResponse(
+            final ChannelHandlerContext ctx,
+            final FullHttpRequest request,
+            final CharSequence contentType,
+            final ByteBuf buf,
+            final List<HttpByteRange> ranges,
+            final HttpCacheInfo cacheInfo) {
+        final long length = buf.readableBytes();
+        if (ranges.size() == 1) {
+            final HttpByteRange range = ranges.get(0);
+            // slice 는 buf 와 참조 카운트를 공유 > 응답이 release 하면 buf 도 release
+            final ByteBuf slice = buf.slice(buf.readerIndex() + (int) range.getStart(), (int) range.getLength());
+            final FullHttpResponse response = makeResponse(HttpResponseStatus.PARTIAL_CONTENT, slice, contentType, slice.readableBytes());
+            response.headers().set(HttpHeaderNames.CONTENT_RANGE, range.makeContentRange(length));
+            if (cacheInfo != null) {
+                cacheInfo.apply(response.headers());
+            }
+            sendResponse(ctx, request, response);
+            return;
+        }
+
+        // MULTIPART : part 헤더 + buf 의 slice 를 하나의 본문으로 묶는다. (part 마다 buf 를 retain)
+        final String boundary = Long.toHexString(System.nanoTime()) + Long.toHexString(length);
+        final ByteBuf[] components = new ByteBuf[ranges.size() * 2 + 1];
+        int index = 0;
+        for (HttpByteRange range : ranges) {
+            components[index++] = Unpooled.wrappedBuffer(makePartHeader(boundary, contentType, range, length));
+            components[index++] = buf.slice(buf.readerIndex() + (int) range.getStart(), (int) range.getLength()).retain();
+        }
+        components[index] = Unpooled.wrappedBuffer(makeCloseDelimiter(boundary));
+        buf.release();
+
+        final ByteBuf body = Unpooled.wrappedBuffer(components);
+        final FullHttpResponse response = makeResponse(
+                HttpResponseStatus.PARTIAL_CONTENT,
+                body,
+                HttpMessageManager.TYPE_MULTIPART_BYTERANGES + "; boundary=" + boundary,
+                body.readableBytes()
+        );
+        if (cacheInfo != null) {
+            cacheInfo.apply(response.headers());
+        }
+        sendResponse(ctx, request, response);
+    }
+
+    private static byte[] makePartHeader(
+            final String boundary,
+            final CharSequence contentType,
+            final HttpByteRange range,
+            final long length) {
+        return ("\r\n--" + boundary + "\r\n"
+                + HttpHeaderNames.CONTENT_TYPE + ": " + contentType + "\r\n"
+                + HttpHeaderNames.CONTENT_RANGE + ": " + range.makeContentRange(length) + "\r\n\r\n"
+        ).getBytes(StandardCharsets.US_ASCII);
+    }
+
+    private static byte[] makeCloseDelimiter(final String boundary) {
+        return ("\r\n--" + boundary + "--\r\n").getBytes(StandardCharsets.US_ASCII);
+    }
+
+    /**
+     * 만족하는 범위가 없는 Range 요청 (Content-Range: bytes * /length)
+     */
+    public void writeRangeNotSatisfiable(
+            final ChannelHandlerContext ctx,
+            final FullHttpRequest request,
+            final long length) {
+        final FullHttpResponse response = makeErrorResponse(ctx, HttpResponseStatus.REQUESTED_RANGE_NOT_SATISFIABLE);
+        response.headers().set(HttpHeaderNames.CONTENT_RANGE, HttpByteRange.makeUnsatisfiedContentRange(length));
+        sendResponse(ctx, request, response);
+    }
+
+    /**
+     * 길이를 모르는 응답 헤더 (Transfer-Encoding: chunked, 생성 중인 내용이므로 캐시 금지)
+     */
+    public HttpResponse makeChunkedResponseHeader(final CharSequence contentType) {
+        final HttpResponse response = new DefaultHttpResponse(HttpVersion.HTTP_1_1, HttpResponseStatus.OK);
+        final HttpHeaders headers = response.headers();
+        responseHeaderCache.setCommonHeaders(headers, contentType, -1);
+        headers.set(HttpHeaderNames.TRANSFER_ENCODING, HttpHeaderValues.CHUNKED);
+        headers.set(HttpHeaderNames.CACHE_CONTROL, HttpCacheInfo.NO_CACHE);
+        return response;
+    }
+
+    private HttpResponse makeFileResponseHeader(
+            final HttpResponseStatus status,
+            final CharSequence contentType,
+            final long contentLength,
+            final HttpCacheInfo cacheInfo) {
+        final HttpResponse response = new DefaultHttpResponse(HttpVersion.HTTP_1_1, status);
+        final HttpHeaders headers = response.headers();
+        responseHeaderCache.setCommonHeaders(headers, contentType, contentLength);
+        headers.set(HttpHeaderNames.ACCEPT_RANGES, HttpResponseHeaderCache.BYTES);
+        if (cacheInfo != null) {
+            cacheInfo.apply(headers);
+        }
+        return response;
+    }
+
+    private void writeFileRegion(
+            final ChannelHandlerContext ctx,
+            final RandomAccessFile randomAccessFile,
+            final long position,
+            final long count) throws Exception {
+        if (ctx.pipeline().get(SslHandler.class) == null) {
+            ctx.write(new DefaultFileRegion(randomAccessFile.getChannel(), position, count), ctx.voidPromise());
+        } else {
+            ctx.write(new ChunkedNioFile(randomAccessFile.getChannel(), position, count, FILE_CHUNK_SIZE), ctx.voidPromise());
+        }
+    }
+
+    private void finishFileResponse(
+            final ChannelHandlerContext ctx,
+            final FullHttpRequest request) {
+        final ChannelFuture lastContentFuture = ctx.writeAndFlush(LastHttpContent.EMPTY_LAST_CONTENT);
+        if (!HttpHeaderUtil.isKeepAlive(request)) {
+            lastContentFuture.addListener(ChannelFutureListener.CLOSE);
+        }
+    }
+
+    private void abortFileResponse(
+            final ChannelHandlerContext ctx,
+            final RandomAccessFile randomAccessFile,
+            final File file,
+            final Exception e) {
+        // 헤더는 이미 나갔으므로 연결을 끊어서 클라이언트가 잘못된 본문을 받지 않도록 한다.
+        logger.warn("[DashServer] Fail to write the file. (path={})", file.getAbsolutePath(), e);
+        closeFile(randomAccessFile);
+        ctx.close();
+    }
+
+    private RandomAccessFile openFile(final File file) {
+        try {
+            return new RandomAccessFile(file, "r");
+        } catch (Exception e) {
+            logger.warn("[DashServer] Fail to open the file. (path={})", file.getAbsolutePath(), e);
+            return null;
+        }
+    }
+
+    private void closeFile(final RandomAccessFile randomAccessFile) {
+        try {
+            randomAccessFile.close();
+        } catch (Exception e) {
+            // ignore
+        }
+    }
+
     public void send100Continue(final ChannelHandlerContext ctx) {
         ctx.write(new DefaultFullHttpResponse(
                 HttpVersion.HTTP_1_1,
@@ -0,0 +1,137 @@
+package dash.server;
+
+import dash.unit.DashUnit;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * DashUnit 의 MPD 경로(mpdParentPath - mediaBasePath)를 path segment 단위로 저장하는 trie
+ * 요청 URI 에서 가장 길게 일치하는 경로의 DashUnit 을 O(path depth) 로 찾는다.
+ *
+ * ex) [/live/test] 등록 > [/live/test/test.mpd], [/live/test/test_chunk0_00001.m4s] 모두 매칭
+ *
+ * - 조회 : lock 없음 (ConcurrentHashMap)
+ * - 등록/삭제 : lock
+ */
+public class DashUnitPathIndex {
+
+    ////////////////////////////////////////////////////////////
+    private static final char PATH_SEPARATOR = '/';
+
+    private final Node root = new Node();
+    private final ReentrantLock updateLock = new ReentrantLock();
+    ////////////////////////////////////////////////////////////
+
+    ////////////////////////////////////////////////////////////
+    public void put(String path, DashUnit dashUnit) {
+        if (path == null || dashUnit == null) { return; }
+
+        updateLock.lock();
+        try {
+            Node node = root;
+            int index = 0;
+            int length = path.length();
+            while (index < length) {
+                int end = path.indexOf(PATH_SEPARATOR, index);
+                if (end < 0) { end = length; }
+                if (end > index) {
+                    node = node.children.computeIfAbsent(path.substring(index, end), key -> new Node());
+                }
+                index = end + 1;
+            }
+            node.dashUnit = dashUnit;
+        } finally {
+            updateLock.unlock();
+        }
+    }
+
+    /**
+     * 지정한 경로에 등록된 DashUnit 이 같은 경우에만 삭제한다.
+     */
+    public void remove(String path, DashUnit dashUnit) {
+        if (path == null || dashUnit == null) { return; }
+
+        updateLock.lock();
+        try {
+            remove(root, path, 0, dashUnit);
+        } finally {
+            updateLock.unlock();
+        }
+    }
+
+    private boolean remove(Node node, String path, int index, DashUnit dashUnit) {
+        int length = path.length();
+        while (index < length && path.charAt(index) == PATH_SEPARATOR) { index++; }
+
+        if (index >= length) {
+            if (node.dashUnit == dashUnit) {
+                node.dashUnit = null;
+            }
+        } else {
+            int end = path.indexOf(PATH_SEPARATOR, index);
+            if (end < 0) { end = length; }
+
+            String key = path.substring(index, end);
+            Node child = node.children.get(key);
+            if (child != null && remove(child, path, end, dashUnit)) {
+                node.children.remove(key);
+            }
+        }
+
+        // 빈 노드는 부모에서 제거
+        return node.dashUnit == null && node.children.isEmpty();
+    }
+
+    public void clear() {
+        updateLock.lock();
+        try {
+            root.children.clear();
+            root.dashUnit = null;
+        } finally {
+            updateLock.unlock();
+        }
+    }
+
+    /**
+     * @param uri 요청 URI (query string 은 무시)
+     * @return 가장 길게 일치하는 경로의 DashUnit, 없으면 null
+     */
+    public DashUnit find(String uri) {
+        if (uri == null) { return null; }
+
+        int length = uri.indexOf('?');
+        if (length < 0) { length = uri.length(); }
+
+        Node node = root;
+        DashUnit matched = node.dashUnit;
+        int index = 0;
+        while (index < length) {
+            int end = uri.indexOf(PATH_SEPARATOR, index);
+            if (end < 0 || end > length) { end = length; }
+            if (end > index) {
+                node = node.children.get(uri.substring(index, end));
+                if (node == null) { break; }
+
+                DashUnit dashUnit = node.dashUnit;
+                if (dashUnit != null) {
+                    matched = dashUnit;
+                }
+            }
+            index = end + 1;
+        }
+
+        return matched;
+    }
+    ////////////////////////////////////////////////////////////
+
+    ////////////////////////////////////////////////////////////
+    private static class Node {
+
+        private final ConcurrentHashMap<String, Node> children = new ConcurrentHashMap<>();
+        private volatile DashUnit dashUnit = null;
+
+    }
+    ////////////////////////////////////////////////////////////
+
+}
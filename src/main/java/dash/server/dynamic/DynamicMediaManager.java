@@ -5,7 +5,7 @@ import dash.server.dynamic.handler.PreProcessServerChannelHandler;
 import dash.unit.DashUnit;
 import io.netty.channel.ChannelInitializer;
 import io.netty.channel.ChannelPipeline;
-import io.netty.channel.socket.nio.NioDatagramChannel;
+import io.netty.channel.socket.DatagramChannel;
 import network.definition.NetAddress;
 import network.socket.GroupSocket;
 import network.socket.SocketManager;
@@ -123,24 +123,24 @@ public class DynamicMediaManager {
     ////////////////////////////////////////////////////////////
 
     ////////////////////////////////////////////////////////////
-    private static class PreProcessClientChannelHandlerInitializer extends ChannelInitializer<NioDatagramChannel> {
+    private static class PreProcessClientChannelHandlerInitializer extends ChannelInitializer<DatagramChannel> {
 
         public PreProcessClientChannelHandlerInitializer() {}
 
         @Override
-        public void initChannel(NioDatagramChannel nioDatagramChannel) {
-            final ChannelPipeline p = nioDatagramChannel.pipeline();
+        public void initChannel(DatagramChannel datagramChannel) {
+            final ChannelPipeline p = datagramChannel.pipeline();
             p.addLast("client_handler", new PreProcessClientChannelHandler());
         }
     }
 
-    private static class PreProcessServerChannelHandlerInitializer extends ChannelInitializer<NioDatagramChannel> {
+    private static class PreProcessServerChannelHandlerInitializer extends ChannelInitializer<DatagramChannel> {
 
         public PreProcessServerChannelHandlerInitializer() {}
 
         @Override
-        public void initChannel(NioDatagramChannel nioDatagramChannel) {
-            final ChannelPipeline p = nioDatagramChannel.pipeline();
+        public void initChannel(DatagramChannel datagramChannel) {
+            final ChannelPipeline p = datagramChannel.pipeline();
             p.addLast("server_handler", new PreProcessServerChannelHandler());
         }
     }
@@ -10,7 +10,6 @@ import dash.server.dynamic.message.StreamingStopResponse;
 import dash.server.dynamic.message.base.MessageHeader;
 import dash.server.dynamic.message.base.MessageType;
 import dash.server.dynamic.message.base.ResponseType;
-import dash.server.handler.DashMessageHandler;
 import dash.unit.DashUnit;
 import dash.unit.StreamType;
 import io.netty.buffer.ByteBuf;
@@ -275,8 +274,7 @@ public class PreProcessServerChannelHandler extends SimpleChannelInboundHandler<
             logger.debug("[PreProcessServerChannelHandler] Success to run the streaming. (id={}, localMpdPath={}, streamUri={}, sourceUri={})",
                     dashUnit.getId(), mpdPath, streamUri, sourceUri
             );
-            ServiceManager.getInstance().getDashServer().getHttpMessageManager().get(dashUnit.getMpdParentPath(), new DashMessageHandler(dashUnit.getMpdParentPath()));
-            ServiceManager.getInstance().getDashServer().getHttpMessageManager().get(dashUnit.getOutputFilePath(), new DashMessageHandler(dashUnit.getOutputFilePath()));
+            ServiceManager.getInstance().getDashServer().registerDashUnitRoutes(dashUnit);
             return true;
         } else {
             logger.warn("[PreProcessServerChannelHandler] Fail to run the streaming. (id={}, localMpdPath={}, streamUri={}, sourceUri={})",
@@ -0,0 +1,395 @@
+package dash.server.handler;
+
+import io.netty.handler.codec.http.HttpMethod;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * HTTP 요청별 접근 기록 (CSV)
+ *
+ * - event loop 는 미리 만들어 둔 고정 크기 record 에 값만 채운다. (lock, 객체 생성 없음)
+ * - 기록 스레드 하나가 주기적으로 버퍼를 비워서 파일에 쓴다.
+ * - 버퍼가 가득 차면 기록을 버린다. (요청 처리를 기다리게 하지 않음, droppedCount 로 확인)
+ * - record 에는 URI 대신 URI 번호만 넣는다. (같은 URI 는 URI 표의 문자열 하나를 같이 사용)
+ *      URI 표는 버퍼의 2 배 크기이고, 버퍼 크기 이상 새 URI 가 등록되는 동안 다시 쓰이지 않은 번호는 새로 발급한다.
+ *      (기록 대기 중인 record 의 URI 가 덮어써지지 않음)
+ * - 파일이 maxFileSize 를 넘으면 path.1, path.2 ... 로 교체한다. (maxFileCount 개까지 보관)
+ *
+ * CSV : time(ms),method,uri,status,bytes,latency(us),dashUnitId
+ *      (status 0 : 응답 전에 연결 종료)
+ */
+public class DashAccessLog {
+
+    ////////////////////////////////////////////////////////////
+    private static final Logger logger = LoggerFactory.getLogger(DashAccessLog.class);
+
+    private static final String CSV_HEADER = "time,method,uri,status,bytes,latency_us,dash_unit_id";
+    private static final long DRAIN_INTERVAL_MS = 100;
+    private static final int MAX_BUFFER_SIZE = 1 << 24;
+
+    private final String path;
+    private final long maxFileSize;
+    private final int maxFileCount;
+
+    // Bounded MPSC ring : sequences[i] == pos 이면 pos 번째 기록 가능, pos + 1 이면 읽기 가능
+    private final AccessLogRecord[] records;
+    private final AtomicLongArray sequences;
+    private final int mask;
+    private final AtomicLong tail = new AtomicLong(0);
+    private long head = 0; // 기록 스레드에서만 접근
+
+    // URI 표 : uriEntries[uriSeq & uriMask] (uriSeq 가 다르면 이미 다른 URI 로 교체됨)
+    private final Map<String, Long> uriSeqMap = new ConcurrentHashMap<>();
+    private final AtomicReferenceArray<UriEntry> uriEntries;
+    private final int uriMask;
+    private final AtomicLong uriSeq = new AtomicLong(0);
+
+    private final AtomicLong writtenCount = new AtomicLong(0);
+    private final AtomicLong droppedCount = new AtomicLong(0);
+
+    private Thread writerThread = null;
+    private volatile boolean isRunning = false;
+
+    // 기록 스레드에서만 접근
+    private BufferedWriter writer = null;
+    private long fileSize = 0;
+    private final StringBuilder lineBuilder = new StringBuilder(256);
+    ////////////////////////////////////////////////////////////
+
+    ////////////////////////////////////////////////////////////
+    /**
+     * @param bufferSize 기록 대기 버퍼 크기 (2 의 거듭제곱으로 올림)
+     * @param maxFileSize 파일 최대 크기 (bytes)
+     * @param maxFileCount 보관할 이전 파일 수 (0 이면 교체 시 삭제)
+     */
+    public DashAccessLog(String path, int bufferSize, long maxFileSize, int maxFileCount) {
+        this.path = path;
+        this.maxFileSize = maxFileSize;
+        this.maxFileCount = maxFileCount;
+
+        int capacity = 1;
+        while (capacity < bufferSize && capacity < MAX_BUFFER_SIZE) {
+            capacity <<= 1;
+        }
+
+        this.records = new AccessLogRecord[capacity];
+        this.sequences = new AtomicLongArray(capacity);
+        for (int i = 0; i < capacity; i++) {
+            records[i] = new AccessLogRecord();
+            sequences.set(i, i);
+        }
+        this.mask = capacity - 1;
+
+        this.uriEntries = new AtomicReferenceArray<>(capacity << 1);
+        this.uriMask = (capacity << 1) - 1;
+    }
+    ////////////////////////////////////////////////////////////
+
+    ////////////////////////////////////////////////////////////
+    public boolean start() {
+        if (isRunning) { return true; }
+
+        try {
+            openFile();
+        } catch (IOException e) {
+            logger.warn("[DashAccessLog] Fail to open the access log file. (path={})", path, e);
+            return false;
+        }
+
+        isRunning = true;
+        writerThread = new Thread(this::runWriter, "DashAccessLogWriter");
+        writerThread.setDaemon(true);
+        writerThread.start();
+        logger.debug("[DashAccessLog] START (path={}, bufferSize={})", path, records.length);
+        return true;
+    }
+
+    public void stop() {
+        if (!isRunning) { return; }
+
+        isRunning = false;
+        if (writerThread != null) {
+            writerThread.interrupt();
+            try {
+                writerThread.join(TimeUnit.SECONDS.toMillis(5));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            writerThread = null;
+        }
+        logger.debug("[DashAccessLog] STOP ({})", this);
+    }
+
+    /**
+     * 요청 하나의 기록을 버퍼에 넣는다. (여러 event loop 에서 동시 호출 가능)
+     *
+     * @return 버퍼가 가득 차서 버렸으면 false
+     */
+    public boolean publish(HttpMethod method, String uri, int status, long bytes, long latencyNanos, String dashUnitId) {
+        long pos = tail.get();
+        int index;
+        while (true) {
+            index = (int) (pos & mask);
+            long diff = sequences.get(index) - pos;
+            if (diff == 0) {
+                if (tail.compareAndSet(pos, pos + 1)) { break; }
+                pos = tail.get();
+            } else if (diff < 0) { // 기록 스레드가 아직 비우지 못함
+                droppedCount.incrementAndGet();
+                return false;
+            } else { // 다른 event loop 가 먼저 가져감
+                pos = tail.get();
+            }
+        }
+
+        AccessLogRecord record = records[index];
+        record.time = System.currentTimeMillis();
+        record.method = method;
+        record.uriSeq = internUri(uri);
+        record.status = status;
+        record.bytes = bytes;
+        record.latencyNanos = latencyNanos;
+        record.dashUnitId = dashUnitId;
+        sequences.lazySet(index, pos + 1);
+        return true;
+    }
+
+    /**
+     * @return URI 번호 (uri 가 null 이면 -1)
+     */
+    private long internUri(String uri) {
+        if (uri == null) { return -1; }
+
+        Long seq = uriSeqMap.get(uri);
+        if (seq != null && uriSeq.get() - seq < records.length) {
+            return seq;
+        }
+
+        long newSeq = uriSeq.getAndIncrement();
+        UriEntry prevEntry = uriEntries.getAndSet((int) (newSeq & uriMask), new UriEntry(uri, newSeq));
+        if (prevEntry != null) {
+            uriSeqMap.remove(prevEntry.uri, prevEntry.seq);
+        }
+        uriSeqMap.put(uri, newSeq);
+        return newSeq;
+    }
+
+    private String findUri(long seq) {
+        if (seq < 0) { return null; }
+
+        UriEntry entry = uriEntries.get((int) (seq & uriMask));
+        return entry != null && entry.seq == seq ? entry.uri : null;
+    }
+    ////////////////////////////////////////////////////////////
+
+    ////////////////////////////////////////////////////////////
+    private void runWriter() {
+        while (isRunning) {
+            try {
+                if (drain() == 0) {
+                    writer.flush();
+                    Thread.sleep(DRAIN_INTERVAL_MS);
+                }
+            } catch (InterruptedException e) {
+                // stop()
+            } catch (Exception e) {
+                logger.warn("[DashAccessLog] Fail to write the access log. (path={})", path, e);
+                try {
+                    Thread.sleep(DRAIN_INTERVAL_MS);
+                } catch (InterruptedException e2) {
+                    // stop()
+                }
+            }
+        }
+
+        // 남은 기록을 모두 쓰고 종료
+        try {
+            drain();
+            writer.close();
+        } catch (IOException e) {
+            logger.warn("[DashAccessLog] Fail to close the access log file. (path={})", path, e);
+        }
+        writer = null;
+    }
+
+    /**
+     * @return 파일에 쓴 기록 수
+     */
+    private int drain() throws IOException {
+        int count = 0;
+        while (true) {
+            int index = (int) (head & mask);
+            if (sequences.get(index) != head + 1) { break; }
+
+            writeRecord(records[index]);
+            records[index].clear();
+            sequences.lazySet(index, head + records.length);
+            head++;
+            count++;
+        }
+
+        if (count > 0) {
+            writtenCount.addAndGet(count);
+        }
+        return count;
+    }
+
+    private void writeRecord(AccessLogRecord record) throws IOException {
+        lineBuilder.setLength(0);
+        lineBuilder.append(record.time).append(',')
+                .append(record.method).append(',');
+        appendCsvField(findUri(record.uriSeq));
+        lineBuilder.append(',').append(record.status)
+                .append(',').append(record.bytes)
+                .append(',').append(TimeUnit.NANOSECONDS.toMicros(record.latencyNanos))
+                .append(',');
+        appendCsvField(record.dashUnitId);
+        lineBuilder.append('\n');
+
+        if (fileSize + lineBuilder.length() > maxFileSize) {
+            rollFile();
+        }
+        writer.append(lineBuilder);
+        fileSize += lineBuilder.length();
+    }
+
+    private void appendCsvField(String value) {
+        if (value == null) { return; }
+
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0) {
+            lineBuilder.append(value);
+            return;
+        }
+
+        lineBuilder.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"') {
+                lineBuilder.append('"');
+            }
+            lineBuilder.append(c);
+        }
+        lineBuilder.append('"');
+    }
+
+    private void openFile() throws IOException {
+        File file = new File(path);
+        File parentFile = file.getAbsoluteFile().getParentFile();
+        if (parentFile != null && !parentFile.exists() && !parentFile.mkdirs()) {
+            throw new IOException("Fail to make the directory. (" + parentFile + ")");
+        }
+
+        fileSize = file.length();
+        writer = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(file, true), StandardCharsets.UTF_8), 64 * 1024);
+        if (fileSize == 0) {
+            writer.write(CSV_HEADER);
+            writer.write('\n');
+            fileSize = CSV_HEADER.length() + 1;
+        }
+    }
+
+    /**
+     * path > path.1 > path.2 ... > path.{maxFileCount} (마지막 파일은 삭제)
+     */
+    private void rollFile() throws IOException {
+        writer.close();
+
+        File lastFile = new File(path + "." + maxFileCount);
+        if (lastFile.exists() && !lastFile.delete()) {
+            logger.warn("[DashAccessLog] Fail to delete the old access log file. (path={})", lastFile);
+        }
+        for (int i = maxFileCount - 1; i >= 1; i--) {
+            File file = new File(path + "." + i);
+            if (file.exists() && !file.renameTo(new File(path + "." + (i + 1)))) {
+                logger.warn("[DashAccessLog] Fail to rename the access log file. (path={})", file);
+            }
+        }
+
+        File curFile = new File(path);
+        if (maxFileCount > 0) {
+            if (!curFile.renameTo(new File(path + ".1"))) {
+                logger.warn("[DashAccessLog] Fail to rename the access log file. (path={})", curFile);
+            }
+        } else if (!curFile.delete()) {
+            logger.warn("[DashAccessLog] Fail to delete the access log file. (path={})", curFile);
+        }
+
+        openFile();
+    }
+    ////////////////////////////////////////////////////////////
+
+    ////////////////////////////////////////////////////////////
+    public String getPath() {
+        return path;
+    }
+
+    public boolean isRunning() {
+        return isRunning;
+    }
+
+    public long getWrittenCount() {
+        return writtenCount.get();
+    }
+
+    public long getDroppedCount() {
+        return droppedCount.get();
+    }
+
+    @Override
+    public String toString() {
+        return "DashAccessLog{" +
+                "written=" + writtenCount.get() +
+                ", dropped=" + droppedCount.get() +
+                ", pending=" + Math.max(tail.get() - writtenCount.get(), 0) +
+                ", bufferSize=" + records.length +
+                ", uriCount=" + uriSeqMap.size() +
+                '}';
+    }
+    ////////////////////////////////////////////////////////////
+
+    ////////////////////////////////////////////////////////////
+    private static class AccessLogRecord {
+
+        private long time = 0; // epoch ms
+        private HttpMethod method = null;
+        private long uriSeq = -1;
+        private int status = 0;
+        private long bytes = 0;
+        private long latencyNanos = 0;
+        private String dashUnitId = null;
+
+        private void clear() {
+            method = null;
+            uriSeq = -1;
+            dashUnitId = null;
+        }
+
+    }
+
+    private static class UriEntry {
+
+        private final String uri;
+        private final long seq;
+
+        private UriEntry(String uri, long seq) {
+            this.uri = uri;
+            this.seq = seq;
+        }
+
+    }
+    ////////////////////////////////////////////////////////////
+
+}
@@ -0,0 +1,243 @@
+package dash.server.handler;
+
+import dash.server.handler.definition.TokenBucket;
+import io.netty.util.concurrent.EventExecutor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * HTTP 요청 수락 제어 (모든 연결이 공유)
+ *
+ * - 클라이언트 IP 별, DashUnit 별 token bucket (초과 시 429)
+ * - 전체 동시 처리 요청 수 제한 (초과 시 503)
+ * - event loop 지연 (예약한 작업이 늦게 실행되는 시간) 이 목표치를 넘으면 바로 거절 (503)
+ * 각 값이 0 이면 해당 제한은 사용하지 않는다.
+ */
+public class DashAdmissionController {
+
+    ////////////////////////////////////////////////////////////
+    private static final Logger logger = LoggerFactory.getLogger(DashAdmissionController.class);
+
+    public static final long OVERLOAD_RETRY_AFTER_SEC = 1;
+
+    private static final long IDLE_SWEEP_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(10);
+    private static final long LATENCY_PROBE_INTERVAL_NANOS = TimeUnit.MILLISECONDS.toNanos(50);
+
+    private final int clientRate;
+    private final int clientBurst;
+    private final int dashUnitRate;
+    private final int dashUnitBurst;
+    private final int maxConcurrentRequests;
+    private final long latencyTargetNanos;
+
+    private final ConcurrentHashMap<String, TokenBucket> clientBucketMap = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, TokenBucket> dashUnitBucketMap = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<EventExecutor, EventLoopLatencyProbe> latencyProbeMap = new ConcurrentHashMap<>();
+    private final AtomicInteger concurrentRequests = new AtomicInteger(0);
+    private final AtomicLong lastSweepTime = new AtomicLong(System.nanoTime());
+
+    private final AtomicLong admittedCount = new AtomicLong(0);
+    private final AtomicLong clientShedCount = new AtomicLong(0);
+    private final AtomicLong dashUnitShedCount = new AtomicLong(0);
+    private final AtomicLong concurrencyShedCount = new AtomicLong(0);
+    private final AtomicLong latencyShedCount = new AtomicLong(0);
+    ////////////////////////////////////////////////////////////
+
+    ////////////////////////////////////////////////////////////
+    /**
+     * @param clientRate 클라이언트 IP 별 초당 요청 수
+     * @param dashUnitRate DashUnit 별 초당 요청 수
+     * @param latencyTargetMs event loop 지연 목표치 (ms)
+     */
+    public DashAdmissionController(int clientRate, int clientBurst,
+                                   int dashUnitRate, int dashUnitBurst,
+                                   int maxConcurrentRequests, long latencyTargetMs) {
+        this.clientRate = clientRate;
+        this.clientBurst = clientBurst;
+        this.dashUnitRate = dashUnitRate;
+        this.dashUnitBurst = dashUnitBurst;
+        this.maxConcurrentRequests = maxConcurrentRequests;
+        this.latencyTargetNanos = TimeUnit.MILLISECONDS.toNanos(latencyTargetMs);
+    }
+    ////////////////////////////////////////////////////////////
+
+    ////////////////////////////////////////////////////////////
+    /**
+     * @return 요청을 처리하는 event loop 의 지연이 목표치를 넘었는지 여부
+     */
+    public boolean isOverloaded(EventExecutor executor) {
+        if (latencyTargetNanos <= 0) { return false; }
+
+        EventLoopLatencyProbe latencyProbe = latencyProbeMap.get(executor);
+        if (latencyProbe == null) {
+            latencyProbe = latencyProbeMap.computeIfAbsent(executor, EventLoopLatencyProbe::new);
+            latencyProbe.start();
+        }
+
+        if (latencyProbe.getLagNanos() > latencyTargetNanos) {
+            latencyShedCount.incrementAndGet();
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * @return 0 이면 허용, 아니면 다시 요청할 수 있을 때까지 남은 시간 (ns)
+     */
+    public long tryAcquireClient(String clientIp, long now) {
+        if (clientRate <= 0 || clientIp == null) { return 0; }
+
+        sweepIdleBuckets(now);
+        long waitNanos = clientBucketMap.computeIfAbsent(clientIp, key -> new TokenBucket(clientRate, clientBurst, now)).tryAcquire(now);
+        if (waitNanos > 0) {
+            clientShedCount.incrementAndGet();
+        }
+        return waitNanos;
+    }
+
+    /**
+     * @return 0 이면 허용, 아니면 다시 요청할 수 있을 때까지 남은 시간 (ns)
+     */
+    public long tryAcquireDashUnit(String dashUnitId, long now) {
+        if (dashUnitRate <= 0 || dashUnitId == null) { return 0; }
+
+        sweepIdleBuckets(now);
+        long waitNanos = dashUnitBucketMap.computeIfAbsent(dashUnitId, key -> new TokenBucket(dashUnitRate, dashUnitBurst, now)).tryAcquire(now);
+        if (waitNanos > 0) {
+            dashUnitShedCount.incrementAndGet();
+        }
+        return waitNanos;
+    }
+
+    public boolean isDashUnitRateLimited() {
+        return dashUnitRate > 0;
+    }
+
+    /**
+     * 동시 처리 요청 수 하나를 점유한다. (응답 완료 시 releaseSlot())
+     */
+    public boolean tryAcquireSlot() {
+        int count = concurrentRequests.incrementAndGet();
+        if (maxConcurrentRequests > 0 && count > maxConcurrentRequests) {
+            concurrentRequests.decrementAndGet();
+            concurrencyShedCount.incrementAndGet();
+            return false;
+        }
+
+        admittedCount.incrementAndGet();
+        return true;
+    }
+
+    public void releaseSlot() {
+        concurrentRequests.decrementAndGet();
+    }
+
+    public static long toRetryAfterSec(long waitNanos) {
+        return Math.max(1, (waitNanos + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1));
+    }
+
+    // 두 token bucket map 을 함께 정리 (어느 제한만 사용해도 삭제된 DashUnit, 떠난 클라이언트의 bucket 이 남지 않음)
+    private void sweepIdleBuckets(long now) {
+        long prevSweepTime = lastSweepTime.get();
+        if (now - prevSweepTime < IDLE_SWEEP_INTERVAL_NANOS) { return; }
+        if (!lastSweepTime.compareAndSet(prevSweepTime, now)) { return; }
+
+        clientBucketMap.values().removeIf(tokenBucket -> tokenBucket.isIdle(now));
+        dashUnitBucketMap.values().removeIf(tokenBucket -> tokenBucket.isIdle(now));
+    }
+    ////////////////////////////////////////////////////////////
+
+    ////////////////////////////////////////////////////////////
+    public int getConcurrentRequests() {
+        return concurrentRequests.get();
+    }
+
+    public long getAdmittedCount() {
+        return admittedCount.get();
+    }
+
+    public long getClientShedCount() {
+        return clientShedCount.get();
+    }
+
+    public long getDashUnitShedCount() {
+        return dashUnitShedCount.get();
+    }
+
+    public long getConcurrencyShedCount() {
+        return concurrencyShedCount.get();
+    }
+
+    public long getLatencyShedCount() {
+        return latencyShedCount.get();
+    }
+
+    @Override
+    public String toString() {
+        return "DashAdmissionController{" +
+                "concurrent=" + concurrentRequests.get() +
+                ", admitted=" + admittedCount.get() +
+                ", shed(client=" + clientShedCount.get() +
+                ", dashUnit=" + dashUnitShedCount.get() +
+                ", concurrency=" + concurrencyShedCount.get() +
+                ", latency=" + latencyShedCount.get() +
+                "), clients=" + clientBucketMap.size() +
+                ", dashUnits=" + dashUnitBucketMap.size() +
+                '}';
+    }
+    ////////////////////////////////////////////////////////////
+
+    ////////////////////////////////////////////////////////////
+    /**
+     * event loop 에 주기적으로 작업을 예약하고, 예정 시각보다 늦게 실행된 시간을 지연으로 기록한다.
+     * (event loop 의 작업 큐에서 요청이 기다리는 시간)
+     */
+    private static class EventLoopLatencyProbe implements Runnable {
+
+        private final EventExecutor executor;
+        private final AtomicBoolean started = new AtomicBoolean(false);
+        private long expectedTime = 0;
+        private volatile long lagNanos = 0;
+
+        private EventLoopLatencyProbe(EventExecutor executor) {
+            this.executor = executor;
+        }
+
+        private void start() {
+            if (started.compareAndSet(false, true)) {
+                executor.execute(this::schedule);
+            }
+        }
+
+        private void schedule() {
+            expectedTime = System.nanoTime() + LATENCY_PROBE_INTERVAL_NANOS;
+            try {
+                executor.schedule(this, LATENCY_PROBE_INTERVAL_NANOS, TimeUnit.NANOSECONDS);
+            } catch (RejectedExecutionException e) {
+                logger.debug("[DashAdmissionController] Event loop is shut down. Latency probe is stopped.");
+            }
+        }
+
+        @Override
+        public void run() {
+            lagNanos = Math.max(System.nanoTime() - expectedTime, 0);
+            if (!executor.isShuttingDown()) {
+                schedule();
+            }
+        }
+
+        private long getLagNanos() {
+            return lagNanos;
+        }
+
+    }
+    ////////////////////////////////////////////////////////////
+
+}
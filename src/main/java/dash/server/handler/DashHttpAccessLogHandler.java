@@ -0,0 +1,236 @@
+package dash.server.handler;
+
+import dash.server.DashServer;
+import dash.unit.DashUnit;
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.ChannelHandlerAdapter;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelPromise;
+import io.netty.channel.FileRegion;
+import io.netty.handler.codec.http.HttpContent;
+import io.netty.handler.codec.http.HttpMethod;
+import io.netty.handler.codec.http.HttpRequest;
+import io.netty.handler.codec.http.HttpResponse;
+import io.netty.handler.codec.http.HttpResponseStatus;
+import io.netty.handler.codec.http.LastHttpContent;
+import io.netty.handler.codec.http2.HttpUtil;
+import service.ServiceManager;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * 요청별 접근 기록 (연결당 하나)
+ *
+ * - HTTP/1.1 : 요청이 들어온 순서대로 응답을 짝지어서 (pipelining) 마지막 응답 메시지가 나갈 때 DashAccessLog 에 넘긴다.
+ * - HTTP/2 : stream 별 응답이 순서와 상관없이 나가므로 stream id (확장 헤더, DashServer 가 응답에 그대로 복사) 로 짝짓는다.
+ * - encoder 바로 앞 (chunkedWriter 뒤) 에 두어야 전송되는 본문 크기를 셀 수 있다.
+ * - latency : 요청 수신 ~ 마지막 응답 메시지 write
+ */
+public class DashHttpAccessLogHandler extends ChannelHandlerAdapter {
+
+    ////////////////////////////////////////////////////////////
+    private static final int INITIAL_PENDING_CAPACITY = 4;
+    private static final CharSequence HTTP2_STREAM_ID = HttpUtil.ExtensionHeaderNames.STREAM_ID.text();
+
+    private final DashAccessLog accessLog;
+    private final DashServer dashServer;
+
+    // 응답 대기 중인 요청 (event loop 에서만 접근)
+    private HttpMethod[] pendingMethods = new HttpMethod[INITIAL_PENDING_CAPACITY];
+    private String[] pendingUris = new String[INITIAL_PENDING_CAPACITY];
+    private String[] pendingDashUnitIds = new String[INITIAL_PENDING_CAPACITY];
+    private long[] pendingStartTimes = new long[INITIAL_PENDING_CAPACITY];
+    private int pendingHead = 0;
+    private int pendingCount = 0;
+
+    // HTTP/2 : key = stream id (event loop 에서만 접근)
+    private final Map<String, Http2PendingRequest> http2PendingMap = new HashMap<>();
+    private Http2PendingRequest curHttp2Pending = null; // 현재 전송 중인 HTTP/2 응답
+
+    // 현재 전송 중인 응답
+    private int curStatus = 0;
+    private long curBytes = 0;
+    ////////////////////////////////////////////////////////////
+
+    ////////////////////////////////////////////////////////////
+    public DashHttpAccessLogHandler(DashAccessLog accessLog) {
+        this.accessLog = accessLog;
+        this.dashServer = ServiceManager.getInstance().getDashServer();
+    }
+    ////////////////////////////////////////////////////////////
+
+    ////////////////////////////////////////////////////////////
+    @Override
+    public void channelRead(ChannelHandlerContext ctx, Object msg) throws Exception {
+        if (msg instanceof HttpRequest) {
+            HttpRequest request = (HttpRequest) msg;
+            DashUnit dashUnit = DashUnitLookup.find(ctx, request, dashServer);
+            String dashUnitId = dashUnit != null ? dashUnit.getId() : null;
+            CharSequence streamId = request.headers().get(HTTP2_STREAM_ID);
+            if (streamId != null) {
+                Http2PendingRequest pending = new Http2PendingRequest(streamId.toString(), request.method(), request.uri(), dashUnitId, System.nanoTime());
+                http2PendingMap.put(pending.streamId, pending);
+            } else {
+                addPending(request.method(), request.uri(), dashUnitId, System.nanoTime());
+            }
+        }
+        ctx.fireChannelRead(msg);
+    }
+
+    @Override
+    public void write(ChannelHandlerContext ctx, Object msg, ChannelPromise promise) throws Exception {
+        if (!http2PendingMap.isEmpty() && writeHttp2(msg)) {
+            ctx.write(msg, promise);
+            return;
+        }
+
+        if (pendingCount > 0) {
+            if (msg instanceof HttpResponse) {
+                curStatus = ((HttpResponse) msg).status().code();
+            }
+
+            if (msg instanceof HttpContent) {
+                curBytes += ((HttpContent) msg).content().readableBytes();
+            } else if (msg instanceof ByteBuf) {
+                curBytes += ((ByteBuf) msg).readableBytes();
+            } else if (msg instanceof FileRegion) {
+                curBytes += ((FileRegion) msg).count();
+            }
+
+            // 100 Continue 는 최종 응답이 아님
+            if (msg instanceof LastHttpContent && curStatus != HttpResponseStatus.CONTINUE.code()) {
+                completePending(curStatus, System.nanoTime());
+            }
+        }
+        ctx.write(msg, promise);
+    }
+
+    @Override
+    public void channelInactive(ChannelHandlerContext ctx) throws Exception {
+        // 응답 전에 연결 종료 > status 0
+        long now = System.nanoTime();
+        while (pendingCount > 0) {
+            completePending(0, now);
+        }
+        curHttp2Pending = null;
+        Iterator<Http2PendingRequest> iterator = http2PendingMap.values().iterator();
+        while (iterator.hasNext()) {
+            Http2PendingRequest pending = iterator.next();
+            accessLog.publish(pending.method, pending.uri, 0, pending.bytes, now - pending.startTime, pending.dashUnitId);
+            iterator.remove();
+        }
+        ctx.fireChannelInactive();
+    }
+
+    /**
+     * @return HTTP/2 응답 메시지로 처리했으면 true
+     */
+    private boolean writeHttp2(Object msg) {
+        if (msg instanceof HttpResponse) {
+            CharSequence streamId = ((HttpResponse) msg).headers().get(HTTP2_STREAM_ID);
+            if (streamId == null) { return false; }
+
+            Http2PendingRequest pending = http2PendingMap.get(streamId.toString());
+            if (pending == null) { return false; }
+
+            pending.status = ((HttpResponse) msg).status().code();
+            if (pending.status == HttpResponseStatus.CONTINUE.code()) { return true; } // 최종 응답이 아님
+
+            curHttp2Pending = pending;
+        } else if (curHttp2Pending == null) {
+            return false;
+        }
+
+        Http2PendingRequest pending = curHttp2Pending;
+        if (msg instanceof HttpContent) {
+            pending.bytes += ((HttpContent) msg).content().readableBytes();
+        }
+        if (msg instanceof LastHttpContent) {
+            accessLog.publish(pending.method, pending.uri, pending.status, pending.bytes,
+                    System.nanoTime() - pending.startTime, pending.dashUnitId
+            );
+            http2PendingMap.remove(pending.streamId);
+            curHttp2Pending = null;
+        }
+        return true;
+    }
+    ////////////////////////////////////////////////////////////
+
+    ////////////////////////////////////////////////////////////
+    private void addPending(HttpMethod method, String uri, String dashUnitId, long startTime) {
+        if (pendingCount == pendingMethods.length) {
+            growPending();
+        }
+
+        int index = (pendingHead + pendingCount) % pendingMethods.length;
+        pendingMethods[index] = method;
+        pendingUris[index] = uri;
+        pendingDashUnitIds[index] = dashUnitId;
+        pendingStartTimes[index] = startTime;
+        pendingCount++;
+    }
+
+    private void completePending(int status, long now) {
+        int index = pendingHead;
+        accessLog.publish(
+                pendingMethods[index], pendingUris[index], status, curBytes,
+                now - pendingStartTimes[index], pendingDashUnitIds[index]
+        );
+
+        pendingMethods[index] = null;
+        pendingUris[index] = null;
+        pendingDashUnitIds[index] = null;
+        pendingHead = (pendingHead + 1) % pendingMethods.length;
+        pendingCount--;
+
+        curStatus = 0;
+        curBytes = 0;
+    }
+
+    private void growPending() {
+        int capacity = pendingMethods.length * 2;
+        HttpMethod[] methods = new HttpMethod[capacity];
+        String[] uris = new String[capacity];
+        String[] dashUnitIds = new String[capacity];
+        long[] startTimes = new long[capacity];
+        for (int i = 0; i < pendingCount; i++) {
+            int index = (pendingHead + i) % pendingMethods.length;
+            methods[i] = pendingMethods[index];
+            uris[i] = pendingUris[index];
+            dashUnitIds[i] = pendingDashUnitIds[index];
+            startTimes[i] = pendingStartTimes[index];
+        }
+
+        pendingMethods = methods;
+        pendingUris = uris;
+        pendingDashUnitIds = dashUnitIds;
+        pendingStartTimes = startTimes;
+        pendingHead = 0;
+    }
+    ////////////////////////////////////////////////////////////
+
+    ////////////////////////////////////////////////////////////
+    private static class Http2PendingRequest {
+
+        private final String streamId;
+        private final HttpMethod method;
+        private final String uri;
+        private final String dashUnitId;
+        private final long startTime;
+        private int status = 0;
+        private long bytes = 0;
+
+        private Http2PendingRequest(String streamId, HttpMethod method, String uri, String dashUnitId, long startTime) {
+            this.streamId = streamId;
+            this.method = method;
+            this.uri = uri;
+            this.dashUnitId = dashUnitId;
+            this.startTime = startTime;
+        }
+
+    }
+    ////////////////////////////////////////////////////////////
+
+}
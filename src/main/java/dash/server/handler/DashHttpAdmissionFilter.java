@@ -0,0 +1,147 @@
+package dash.server.handler;
+
+import dash.server.DashServer;
+import dash.unit.DashUnit;
+import io.netty.channel.ChannelHandlerAdapter;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelPromise;
+import io.netty.handler.codec.http.FullHttpRequest;
+import io.netty.handler.codec.http.HttpResponse;
+import io.netty.handler.codec.http.HttpResponseStatus;
+import io.netty.handler.codec.http.LastHttpContent;
+import io.netty.util.ReferenceCountUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import service.ServiceManager;
+
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+
+/**
+ * DashHttpMessageFilter 앞단의 수락 제어 (연결당 하나)
+ *
+ * - 거절된 요청은 DashHttpMessageFilter 로 넘기지 않고 바로 429/503 + Retry-After 로 응답한다.
+ * - 수락된 요청은 응답의 마지막 메시지 (FullHttpResponse, LastHttpContent) 가 나갈 때까지 동시 처리 수를 점유한다.
+ *      (응답 없이 연결이 끊기면 channelInactive 에서 반환)
+ */
+public class DashHttpAdmissionFilter extends ChannelHandlerAdapter {
+
+    ////////////////////////////////////////////////////////////
+    private static final Logger logger = LoggerFactory.getLogger(DashHttpAdmissionFilter.class);
+
+    private final DashAdmissionController admissionController;
+    private final DashServer dashServer;
+
+    private String clientIp = null;
+    private int pendingResponseCount = 0; // event loop 에서만 접근
+    ////////////////////////////////////////////////////////////
+
+    ////////////////////////////////////////////////////////////
+    public DashHttpAdmissionFilter(DashAdmissionController admissionController) {
+        this.admissionController = admissionController;
+        this.dashServer = ServiceManager.getInstance().getDashServer();
+    }
+    ////////////////////////////////////////////////////////////
+
+    ////////////////////////////////////////////////////////////
+    @Override
+    public void channelRead(ChannelHandlerContext ctx, Object msg) throws Exception {
+        if (!(msg instanceof FullHttpRequest)) {
+            ctx.fireChannelRead(msg);
+            return;
+        }
+
+        FullHttpRequest request = (FullHttpRequest) msg;
+        try {
+            if (!admit(ctx, request)) {
+                // 거절된 요청은 DashHttpMessageFilter 에서 remove() 되지 않으므로 여기서 지운다.
+                DashUnitLookup.clear(ctx);
+                ReferenceCountUtil.release(request);
+                return;
+            }
+        } catch (Exception e) {
+            DashUnitLookup.clear(ctx);
+            ReferenceCountUtil.release(request);
+            throw e;
+        }
+
+        pendingResponseCount++;
+        ctx.fireChannelRead(request);
+    }
+
+    private boolean admit(ChannelHandlerContext ctx, FullHttpRequest request) {
+        // 1) event loop 지연 > 처리해도 제때 응답할 수 없으므로 바로 거절
+        if (admissionController.isOverloaded(ctx.executor())) {
+            logger.debug("[DashHttpAdmissionFilter] Event loop is overloaded. (remote={}, uri={})", clientIp, request.uri());
+            dashServer.writeServiceUnavailable(ctx, request, DashAdmissionController.OVERLOAD_RETRY_AFTER_SEC);
+            return false;
+        }
+
+        // 2) 클라이언트 IP 별 속도 제한
+        long now = System.nanoTime();
+        long waitNanos = admissionController.tryAcquireClient(getClientIp(ctx), now);
+        if (waitNanos > 0) {
+            logger.debug("[DashHttpAdmissionFilter] Too many requests from the client. (remote={}, uri={})", clientIp, request.uri());
+            dashServer.writeTooManyRequests(ctx, request, DashAdmissionController.toRetryAfterSec(waitNanos));
+            return false;
+        }
+
+        // 3) DashUnit 별 속도 제한
+        if (admissionController.isDashUnitRateLimited()) {
+            DashUnit dashUnit = DashUnitLookup.find(ctx, request, dashServer);
+            if (dashUnit != null) {
+                waitNanos = admissionController.tryAcquireDashUnit(dashUnit.getId(), now);
+                if (waitNanos > 0) {
+                    logger.debug("[DashHttpAdmissionFilter] Too many requests for the dash unit. (remote={}, dashUnitId={})", clientIp, dashUnit.getId());
+                    dashServer.writeTooManyRequests(ctx, request, DashAdmissionController.toRetryAfterSec(waitNanos));
+                    return false;
+                }
+            }
+        }
+
+        // 4) 전체 동시 처리 수
+        if (!admissionController.tryAcquireSlot()) {
+            logger.debug("[DashHttpAdmissionFilter] Too many concurrent requests. (remote={}, uri={})", clientIp, request.uri());
+            dashServer.writeServiceUnavailable(ctx, request, DashAdmissionController.OVERLOAD_RETRY_AFTER_SEC);
+            return false;
+        }
+
+        return true;
+    }
+
+    @Override
+    public void write(ChannelHandlerContext ctx, Object msg, ChannelPromise promise) throws Exception {
+        if (pendingResponseCount > 0 && isLastResponseMessage(msg)) {
+            pendingResponseCount--;
+            admissionController.releaseSlot();
+        }
+        ctx.write(msg, promise);
+    }
+
+    private boolean isLastResponseMessage(Object msg) {
+        if (!(msg instanceof LastHttpContent)) { return false; }
+        // 100 Continue 는 최종 응답이 아님
+        return !(msg instanceof HttpResponse) || ((HttpResponse) msg).status().code() != HttpResponseStatus.CONTINUE.code();
+    }
+
+    @Override
+    public void channelInactive(ChannelHandlerContext ctx) throws Exception {
+        while (pendingResponseCount > 0) {
+            pendingResponseCount--;
+            admissionController.releaseSlot();
+        }
+        ctx.fireChannelInactive();
+    }
+
+    private String getClientIp(ChannelHandlerContext ctx) {
+        if (clientIp == null) {
+            SocketAddress remoteAddress = ctx.channel().remoteAddress();
+            if (remoteAddress instanceof InetSocketAddress) {
+                clientIp = ((InetSocketAddress) remoteAddress).getAddress().getHostAddress();
+            }
+        }
+        return clientIp;
+    }
+    ////////////////////////////////////////////////////////////
+
+}
@@ -3,15 +3,23 @@ package dash.server.handler;
 import config.ConfigManager;
 import dash.client.DashClient;
 import dash.mpd.MpdManager;
+import dash.mpd.SegmentTemplateMatcher;
 import dash.server.DashServer;
+import dash.server.handler.definition.HttpByteRange;
+import dash.server.handler.definition.HttpCacheInfo;
 import dash.server.handler.definition.HttpMessageRoute;
 import dash.server.handler.definition.HttpMessageRouteTable;
 import dash.server.handler.definition.HttpRequest;
 import dash.unit.DashUnit;
+import dash.unit.StreamType;
 import dash.unit.segment.MediaSegmentController;
+import dash.unit.segment.RelaySegmentStore;
+import dash.unit.segment.SegmentCache;
+import io.netty.buffer.ByteBuf;
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.channel.SimpleChannelInboundHandler;
 import io.netty.handler.codec.http.FullHttpRequest;
+import io.netty.handler.codec.http.HttpHeaderNames;
 import io.netty.handler.codec.http.HttpHeaderUtil;
 import io.netty.handler.codec.http.HttpResponseStatus;
 import org.slf4j.Logger;
@@ -21,13 +29,18 @@ import service.ServiceManager;
 import stream.StreamConfigManager;
 import util.module.FileManager;
 
-import java.util.Map;
+import java.io.File;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
 
 public class DashHttpMessageFilter extends SimpleChannelInboundHandler<Object> {
 
     ////////////////////////////////////////////////////////////
     private static final Logger logger = LoggerFactory.getLogger(DashHttpMessageFilter.class);
 
+    private static final long PACKAGING_RETRY_AFTER_SEC = 5;
+
     private final FileManager fileManager = new FileManager();
 
     private final DashServer dashServer;
@@ -35,6 +48,11 @@ public class DashHttpMessageFilter extends SimpleChannelInboundHandler<Object> {
     private final HttpMessageRouteTable uriRouteTable;
 
     private final ConfigManager configManager;
+    private final String segmentCacheControl; // STATIC
+    private final String liveSegmentCacheControl; // DYNAMIC (라이브 윈도우 이내)
+    private final long lowLatencyMaxIdleMs;
+
+    private final SegmentTemplateMatcher.MatchResult segmentMatchResult = new SegmentTemplateMatcher.MatchResult(); // 연결당 하나 (event loop 에서만 접근)
     ////////////////////////////////////////////////////////////
 
     ////////////////////////////////////////////////////////////
@@ -43,6 +61,12 @@ public class DashHttpMessageFilter extends SimpleChannelInboundHandler<Object> {
         this.uriRouteTable = routeTable;
         this.basePath = AppInstance.getInstance().getConfigManager().getMediaBasePath();
         this.configManager = AppInstance.getInstance().getConfigManager();
+        this.segmentCacheControl = HttpCacheInfo.makeCacheControl(configManager.getSegmentMaxAge());
+        // 라이브 세그먼트는 윈도우를 벗어나면 지워지고, 스트림이 다시 시작되면 같은 이름으로 다시 만들어진다.
+        long liveWindowSec = (long) Math.ceil(configManager.getWindowSize() * configManager.getSegmentDuration());
+        this.liveSegmentCacheControl = HttpCacheInfo.makeCacheControl(Math.min(configManager.getSegmentMaxAge(), liveWindowSec));
+        // 세그먼트 하나가 만들어지는 시간의 2배 동안 진행이 없으면 중단
+        this.lowLatencyMaxIdleMs = (long) (configManager.getSegmentDuration() * 2000);
     }
     ////////////////////////////////////////////////////////////
 
@@ -77,7 +101,6 @@ public class DashHttpMessageFilter extends SimpleChannelInboundHandler<Object> {
 
         // GET DASH UNIT
         boolean isRegistered = false;
-        DashUnit dashUnit = null;
         String uriFileName = fileManager.getFileNameFromUri(requestedOriginUri); // [Seoul] or [Seoul_chunk_1_00001]
         if (uriFileName == null) {
             logger.warn("[DashHttpMessageFilter] URI is wrong. (uri={})", requestedOriginUri);
@@ -85,34 +108,12 @@ public class DashHttpMessageFilter extends SimpleChannelInboundHandler<Object> {
         }
         logger.debug("[DashHttpMessageFilter] uriFileName: {}", uriFileName);
 
-        for (Map.Entry<String, DashUnit> entry : dashServer.getCloneDashMap().entrySet()) {
-            if (entry == null) { continue; }
-
-            DashUnit curDashUnit = entry.getValue();
-            if (curDashUnit == null) { continue; }
-
-            String baseOriginUri = fileManager.removeString(configManager.getMediaBasePath(), curDashUnit.getMpdParentPath());
-            //logger.debug("baseOriginUri: {}", baseOriginUri);
-
-            //String curDashUnitUriFileName = fileManager.getFileNameFromUri(curDashUnit.getInputFilePath());
-            if (baseOriginUri != null) {
-                logger.debug("[DashHttpMessageFilter] requestedOriginUri:[{}], baseOriginUri: [{}]", requestedOriginUri, baseOriginUri);
-
-                /*if (requestedOriginUri.equals(baseOriginUri)) {
-                    dashUnit = curDashUnit;
-                    logger.debug("[DashHttpMessageFilter] RE-DEMANDED! [{}] <> [{}] (dashUnitId={})", requestedOriginUri, baseOriginUri, dashUnit.getId());
-                    break;
-                }*/
-
-                if (requestedOriginUri.contains(baseOriginUri)) {
-                    dashUnit = curDashUnit;
-                    if (!requestedOriginUri.contains(StreamConfigManager.DASH_POSTFIX)) {
-                        isRegistered = true;
-                    }
-                    logger.debug("[DashHttpMessageFilter] MATCHED! [{}] <> [{}] (dashUnitId={})", requestedOriginUri, baseOriginUri, dashUnit.getId());
-                    break;
-                }
+        DashUnit dashUnit = DashUnitLookup.remove(channelHandlerContext, httpRequest, dashServer);
+        if (dashUnit != null) {
+            if (!requestedOriginUri.contains(StreamConfigManager.DASH_POSTFIX)) {
+                isRegistered = true;
             }
+            logger.debug("[DashHttpMessageFilter] MATCHED! [{}] (dashUnitId={})", requestedOriginUri, dashUnit.getId());
         }
 
         if (dashUnit == null) {
@@ -162,118 +163,271 @@ public class DashHttpMessageFilter extends SimpleChannelInboundHandler<Object> {
                 channelHandlerContext, dashUnit
         );
 
+        if (obj instanceof CompletableFuture) { // 패키징 대기 중 > 완료되면 응답
+            // messageReceived 이후 request 가 release 되므로 응답할 때까지 유지
+            httpRequest.retain();
+            ((CompletableFuture<?>) obj).whenComplete((result, throwable) ->
+                    channelHandlerContext.executor().execute(() -> {
+                        try {
+                            if (throwable == null) {
+                                writeMpdResponse(channelHandlerContext, httpRequest, result);
+                            } else if (throwable instanceof RejectedExecutionException
+                                    || throwable.getCause() instanceof RejectedExecutionException) {
+                                dashServer.writeServiceUnavailable(channelHandlerContext, httpRequest, PACKAGING_RETRY_AFTER_SEC);
+                            } else {
+                                logger.warn("[DashHttpMessageFilter] Fail to package the media. (uri={})", originUri, throwable);
+                                dashServer.writeInternalServerError(channelHandlerContext, httpRequest);
+                            }
+                        } finally {
+                            httpRequest.release();
+                        }
+                    })
+            );
+            return;
+        }
+
+        writeMpdResponse(channelHandlerContext, httpRequest, obj);
+    }
+
+    private void writeMpdResponse(ChannelHandlerContext channelHandlerContext, FullHttpRequest httpRequest, Object obj) {
         if (obj == null) {
             dashServer.writeNotFound(channelHandlerContext, httpRequest);
+        } else if (obj instanceof MpdResponse) { // 직렬화된 MPD
+            MpdResponse mpdResponse = (MpdResponse) obj;
+            HttpCacheInfo cacheInfo = mpdResponse.getCacheInfo();
+            if (cacheInfo != null && cacheInfo.isNotModified(httpRequest)) {
+                dashServer.writeNotModified(channelHandlerContext, httpRequest, cacheInfo);
+            } else {
+                dashServer.writeResponse(channelHandlerContext, httpRequest, HttpResponseStatus.OK, HttpMessageManager.TYPE_DASH_XML, mpdResponse.getContent(), cacheInfo);
+            }
         } else {
             String content = obj.toString();
             dashServer.writeResponse(channelHandlerContext, httpRequest, HttpResponseStatus.OK, HttpMessageManager.TYPE_DASH_XML, content);
         }
     }
 
+    private boolean processRelaySegmentRequest(ChannelHandlerContext channelHandlerContext, FullHttpRequest httpRequest,
+                                               DashUnit dashUnit, String localUri) {
+        DashClient dashClient = dashUnit.getDashClient();
+        if (dashClient == null) { return false; }
+
+        RelaySegmentStore relaySegmentStore = dashClient.getRelaySegmentStore();
+        if (relaySegmentStore == null) { return false; }
+
+        // 버퍼와 검증자를 한 번에 가져온다. (그 사이에 ring 에서 빠지거나 교체될 수 있음)
+        RelaySegmentStore.RelaySegment relaySegment = relaySegmentStore.get(localUri, getSegmentCacheControl(dashUnit));
+        if (relaySegment == null) { return false; } // ring 에서 이미 빠진 세그먼트 > 디스크 경로로 처리
+
+        processBufferedSegmentRequest(channelHandlerContext, httpRequest, dashUnit, localUri,
+                relaySegment.getBuf(), relaySegment.getCacheInfo(), "RELAY"
+        );
+        return true;
+    }
+
+    /**
+     * 메모리에 있는 세그먼트 (relay, SegmentCache) 응답 : 304 / 206 / 416 / 200
+     * FullHttpResponse 로만 응답하므로 HTTP/2 도 Range 요청을 처리한다.
+     * segmentBuf 의 소유권은 응답으로 넘어간다.
+     */
+    private void processBufferedSegmentRequest(ChannelHandlerContext channelHandlerContext, FullHttpRequest httpRequest,
+                                               DashUnit dashUnit, String localUri,
+                                               ByteBuf segmentBuf, HttpCacheInfo cacheInfo, String source) {
+        long segmentLength = segmentBuf.readableBytes();
+        if (!parseSegmentInfoForDash(channelHandlerContext, httpRequest, dashUnit, localUri)) {
+            segmentBuf.release();
+            return;
+        }
+
+        if (cacheInfo.isNotModified(httpRequest)) {
+            segmentBuf.release();
+            logger.debug("[DashHttpMessageFilter] SEGMENT ({}, NOT MODIFIED) [{}] [{}]", source, localUri, cacheInfo);
+            dashServer.writeNotModified(channelHandlerContext, httpRequest, cacheInfo);
+            return;
+        }
+
+        // RANGE 요청 > 디스크 경로와 동일하게 206 / 416
+        CharSequence rangeHeader = httpRequest.headers().get(HttpHeaderNames.RANGE);
+        if (rangeHeader != null) {
+            List<HttpByteRange> ranges = HttpByteRange.parse(rangeHeader.toString(), segmentLength);
+            if (ranges == null) {
+                logger.debug("[DashHttpMessageFilter] Range header is ignored. (uri={}, range={})", localUri, rangeHeader);
+            } else if (ranges.isEmpty()) {
+                segmentBuf.release();
+                logger.warn("[DashHttpMessageFilter] Range is not satisfiable. (uri={}, range={}, len={})", localUri, rangeHeader, segmentLength);
+                dashServer.writeRangeNotSatisfiable(channelHandlerContext, httpRequest, segmentLength);
+                return;
+            } else {
+                logger.debug("[DashHttpMessageFilter] SEGMENT ({}, RANGE) [{}] [range={}, len={}]", source, localUri, ranges, segmentLength);
+                dashServer.writeBufferRangeResponse(channelHandlerContext, httpRequest, HttpMessageManager.TYPE_PLAIN, segmentBuf, ranges, cacheInfo);
+                return;
+            }
+        }
+
+        logger.debug("[DashHttpMessageFilter] SEGMENT ({}) [{}] [len={}]", source, localUri, segmentLength);
+        dashServer.writeResponse(channelHandlerContext, httpRequest, HttpResponseStatus.OK, HttpMessageManager.TYPE_PLAIN, segmentBuf, cacheInfo);
+    }
+
+    private String getSegmentCacheControl(DashUnit dashUnit) {
+        return StreamType.DYNAMIC.equals(dashUnit.getType()) ? liveSegmentCacheControl : segmentCacheControl;
+    }
+
     private void processSegmentRequest(ChannelHandlerContext channelHandlerContext, FullHttpRequest httpRequest,
                                        DashUnit dashUnit, String localUri) {
+        // HTTP/2 stream 은 FullHttpResponse 로만 응답 (FileRegion, chunked 전송 불가)
+        boolean isHttp2 = HttpProtocolSelector.isHttp2Request(httpRequest);
+
+        // 메모리 relay 모드 > 디스크를 거치지 않고 DashClient 가 받은 세그먼트를 바로 전송
+        if (processRelaySegmentRequest(channelHandlerContext, httpRequest, dashUnit, localUri)) { return; }
+
+        File segmentFile = dashUnit.getSegmentFile(localUri);
+        if (segmentFile == null && configManager.isEnableLowLatency() && !isHttp2) {
+            // LL-DASH : 아직 생성 중인 세그먼트 > 기록되는 대로 chunked 전송
+            File partialFile = new File(localUri + LowLatencySegmentWriter.PARTIAL_POSTFIX);
+            if (partialFile.isFile()) {
+                if (!parseSegmentInfoForDash(channelHandlerContext, httpRequest, dashUnit, localUri)) { return; }
+
+                LowLatencySegmentWriter lowLatencySegmentWriter = new LowLatencySegmentWriter(
+                        channelHandlerContext, HttpHeaderUtil.isKeepAlive(httpRequest),
+                        new File(localUri), lowLatencyMaxIdleMs
+                );
+                if (lowLatencySegmentWriter.start(dashServer.makeChunkedResponseHeader(HttpMessageManager.TYPE_PLAIN))) {
+                    logger.debug("[DashHttpMessageFilter] SEGMENT (IN-PROGRESS) [{}]", localUri);
+                    return;
+                }
+                segmentFile = dashUnit.getSegmentFile(localUri); // 그 사이에 완료됨
+            }
+        }
+
+        if (segmentFile == null) {
+            logger.warn("[DashHttpMessageFilter] The segment file is not exist. (uri={})", localUri);
+            dashServer.writeNotFound(channelHandlerContext, httpRequest);
+            return;
+        }
+
+        // 파일 버전마다 캐시된 데이터와 검증자를 재사용 (요청마다 검증자를 만들지 않음)
+        SegmentCache segmentCache = dashServer.getSegmentCache();
+        if (segmentCache != null) {
+            SegmentCache.CachedSegment cachedSegment = segmentCache.get(
+                    localUri, getSegmentCacheControl(dashUnit), dashUnit.isInitSegment(localUri, segmentMatchResult)
+            );
+            if (cachedSegment != null) {
+                processBufferedSegmentRequest(channelHandlerContext, httpRequest, dashUnit, localUri,
+                        cachedSegment.getBuf(), cachedSegment.getCacheInfo(), "CACHE"
+                );
+                return;
+            }
+            // 캐시할 수 없는 세그먼트 (크기 제한 초과, 읽기 실패 등) > 파일에서 직접 전송
+        }
+
+        // CONDITIONAL GET > 304
+        HttpCacheInfo cacheInfo = HttpCacheInfo.fromFile(segmentFile, getSegmentCacheControl(dashUnit));
+        if (cacheInfo != null && cacheInfo.isNotModified(httpRequest)) {
+            if (!parseSegmentInfoForDash(channelHandlerContext, httpRequest, dashUnit, localUri)) { return; }
+
+            logger.debug("[DashHttpMessageFilter] SEGMENT (NOT MODIFIED) [{}] [{}]", localUri, cacheInfo);
+            dashServer.writeNotModified(channelHandlerContext, httpRequest, cacheInfo);
+            return;
+        }
+
+        // RANGE 요청 > 파일에서 요청한 영역만 전송 (SegmentBase, 이어받기)
+        CharSequence rangeHeader = httpRequest.headers().get(HttpHeaderNames.RANGE);
+        if (rangeHeader != null && !isHttp2 && processSegmentRangeRequest(channelHandlerContext, httpRequest, dashUnit, localUri, segmentFile, cacheInfo, rangeHeader.toString())) {
+            return;
+        }
+
+        if (configManager.isEnableZeroCopy() && !isHttp2) {
+            if (!parseSegmentInfoForDash(channelHandlerContext, httpRequest, dashUnit, localUri)) { return; }
+
+            logger.debug("[DashHttpMessageFilter] SEGMENT (ZERO-COPY) [{}] [len={}]", localUri, segmentFile.length());
+            if (!dashServer.writeFileResponse(channelHandlerContext, httpRequest, HttpMessageManager.TYPE_PLAIN, segmentFile, cacheInfo)) {
+                dashServer.writeNotFound(channelHandlerContext, httpRequest);
+            }
+            return;
+        }
+
         byte[] segmentBytes = dashUnit.getSegmentByteData(localUri);
         if (segmentBytes != null && segmentBytes.length > 0) {
             if (!parseSegmentInfoForDash(channelHandlerContext, httpRequest, dashUnit, localUri)) { return; }
 
             logger.debug("[DashHttpMessageFilter] SEGMENT [{}] [len={}]", localUri, segmentBytes.length);
-            dashServer.writeResponse(channelHandlerContext, httpRequest, HttpResponseStatus.OK, HttpMessageManager.TYPE_PLAIN, segmentBytes);
+            dashServer.writeResponse(channelHandlerContext, httpRequest, HttpResponseStatus.OK, HttpMessageManager.TYPE_PLAIN, segmentBytes, cacheInfo);
         } else {
             logger.warn("[DashHttpMessageFilter] The segment file is not exist. (uri={})", localUri);
             dashServer.writeNotFound(channelHandlerContext, httpRequest);
         }
     }
 
+    /**
+     * @return 응답 처리 여부 (false 면 Range 헤더를 무시하고 전체 응답)
+     */
+    private boolean processSegmentRangeRequest(ChannelHandlerContext channelHandlerContext, FullHttpRequest httpRequest,
+                                               DashUnit dashUnit, String localUri, File segmentFile,
+                                               HttpCacheInfo cacheInfo, String rangeHeader) {
+        long fileLength = segmentFile.length();
+        List<HttpByteRange> ranges = HttpByteRange.parse(rangeHeader, fileLength);
+        if (ranges == null) {
+            logger.debug("[DashHttpMessageFilter] Range header is ignored. (uri={}, range={})", localUri, rangeHeader);
+            return false;
+        }
+
+        if (!parseSegmentInfoForDash(channelHandlerContext, httpRequest, dashUnit, localUri)) { return true; }
+
+        if (ranges.isEmpty()) {
+            logger.warn("[DashHttpMessageFilter] Range is not satisfiable. (uri={}, range={}, len={})", localUri, rangeHeader, fileLength);
+            dashServer.writeRangeNotSatisfiable(channelHandlerContext, httpRequest, fileLength);
+            return true;
+        }
+
+        logger.debug("[DashHttpMessageFilter] SEGMENT (RANGE) [{}] [range={}, len={}]", localUri, ranges, fileLength);
+        if (!dashServer.writeFileRangeResponse(channelHandlerContext, httpRequest, HttpMessageManager.TYPE_PLAIN, segmentFile, ranges, cacheInfo)) {
+            dashServer.writeNotFound(channelHandlerContext, httpRequest);
+        }
+        return true;
+    }
+
     private boolean parseSegmentInfoForDash(ChannelHandlerContext channelHandlerContext, FullHttpRequest httpRequest, DashUnit dashUnit, String localUri) {
-        if (configManager.getStreaming().equals(StreamConfigManager.STREAMING_WITH_DASH)) { // Dash 스트리밍일 때만 수행, 아니면 통과
-            int initStringIndex = localUri.indexOf("init");
-            if (initStringIndex < 0) { // 초기화 세그먼트는 파싱하지 않고 통과
-                // URI 에서 비디오인지 오디오인지 판별해서 요청된 세그먼트 번호를 저장해야 한다.
-                // RequestedUri : cgTnoWWP_chunk0_00008.m4s > RepresentationID : 0, SegmentNumber : 8
-                // UDashUri : cgTnoWWP_chunk$RepresentationID$_$Number%05d$.m4s
-                // 1) Parse Representation ID
-                int representationId;
-                int segmentNumber;
-                int chunkStringIndex = localUri.indexOf("chunk");
-                if (chunkStringIndex >= 0) { // 미디어 세그먼트만 파싱
-                    int chunkStringLength = "chunk".length();
-                    int representationIdIndex = chunkStringIndex + chunkStringLength;
-                    if (representationIdIndex + 1 >= localUri.length()) {
-                        logger.warn("[DashHttpMessageFilter({})] Fail to get a representation id. (uri={})", dashUnit.getId(), localUri);
-                        dashServer.writeBadRequestError(channelHandlerContext, httpRequest);
-                        return false;
-                    }
-
-                    String representationIdString = localUri.substring(representationIdIndex, representationIdIndex + 1);
-                    try {
-                        // 2) Parse Segment Number
-                        int segmentNumberIndex = localUri.lastIndexOf("_"); // _00008.m4s
-                        if (segmentNumberIndex < 0) {
-                            logger.warn("[DashHttpMessageFilter({})] Fail to find the segment number index. (uri={})", dashUnit.getId(), localUri);
-                            dashServer.writeBadRequestError(channelHandlerContext, httpRequest);
-                            return false;
-                        }
+        if (!configManager.getStreaming().equals(StreamConfigManager.STREAMING_WITH_DASH)) { // Dash 스트리밍일 때만 수행, 아니면 통과
+            return true;
+        }
 
-                        int fileExtensionIndex = localUri.lastIndexOf("."); // .m4s
-                        if (fileExtensionIndex < 0) {
-                            logger.warn("[DashHttpMessageFilter({})] Fail to find the file extension index. (uri={})", dashUnit.getId(), localUri);
-                            dashServer.writeBadRequestError(channelHandlerContext, httpRequest);
-                            return false;
-                        }
+        // DashClient 는 Dash 스트리밍인 경우에만 활성화된다. (세그먼트 번호를 등록할 대상이 없으면 통과)
+        DashClient dashClient = dashUnit.getDashClient();
+        if (dashClient == null) { return true; }
+
+        // URI 에서 비디오인지 오디오인지 판별해서 요청된 세그먼트 번호를 저장해야 한다.
+        // RequestedUri : cgTnoWWP_chunk0_00008.m4s > RepresentationID : 0, SegmentNumber : 8
+        // UDashUri : cgTnoWWP_chunk$RepresentationID$_$Number%05d$.m4s
+        // > MPD 파싱 시 컴파일된 SegmentTemplate 으로 매칭 (MpdManager)
+        MpdManager mpdManager = dashClient.getMpdManager();
+        if (mpdManager.matchInitSegment(localUri, segmentMatchResult)) { // 초기화 세그먼트는 통과
+            return true;
+        }
+        if (!mpdManager.matchMediaSegment(localUri, segmentMatchResult)) { // 미디어 세그먼트만 파싱
+            return true;
+        }
 
-                        String segmentNumberString = localUri.substring(segmentNumberIndex + 1, fileExtensionIndex); // 00008
-                        try {
-                            segmentNumber = Integer.parseInt(segmentNumberString); // 8
-                        } catch (NumberFormatException e) {
-                            logger.warn("[DashHttpMessageFilter({})] Fail to parse integer. (SegmentNumber) (value={}, uri={})", dashUnit.getId(), segmentNumberString, localUri);
-                            dashServer.writeBadRequestError(channelHandlerContext, httpRequest);
-                            return false;
-                        }
+        // $Time$ 만 사용하는 템플릿은 세그먼트 번호가 없으므로 통과
+        long segmentNumber = segmentMatchResult.getNumber();
+        if (segmentNumber < 0) { return true; }
 
-                        DashClient dashClient = dashUnit.getDashClient();
-                        if (dashClient != null) { // DashClient 는 Dash 스트리밍인 경우에만 활성화된다.
-                            MpdManager mpdManager = dashClient.getMpdManager();
-
-                            int curAudioIndex = mpdManager.getCurAudioIndex();
-                            int curVideoIndex = mpdManager.getCurVideoIndex();
-                            representationId = Integer.parseInt(representationIdString);
-
-                            if (representationId == curAudioIndex) { // 요청된 오디오 세그먼트 번호 등록 > 통과
-                                MediaSegmentController audioSegmentController = dashClient.getAudioSegmentController();
-                                if (audioSegmentController != null) {
-                                    audioSegmentController.getMediaSegmentInfo().setRequestedSegmentNumber(segmentNumber);
-                                }
-                            } else if (representationId == curVideoIndex) { // 요청된 비디오 세그먼트 번호 등록 > 통과
-                                MediaSegmentController videoSegmentController = dashClient.getVideoSegmentController();
-                                if (videoSegmentController != null) {
-                                    videoSegmentController.getMediaSegmentInfo().setRequestedSegmentNumber(segmentNumber);
-                                }
-                            } else { // 전달받은 MPD 정보와 일치하지 않음 (RepresentationID for audio, video)
-                                logger.warn("[DashHttpMessageFilter({})] Fail to match with the mpd manager. (value={}, audioIndex={}, videoIndex={}, segmentNumber={})",
-                                        dashUnit.getId(), representationId, curAudioIndex, curVideoIndex, segmentNumber
-                                );
-                                dashServer.writeBadRequestError(channelHandlerContext, httpRequest);
-                                return false;
-                            }
-                        } else {
-                            logger.warn("[DashHttpMessageFilter({})] Fail to get the dash client. (segmentNumber={})", dashUnit.getId(), segmentNumber);
-                            dashServer.writeBadRequestError(channelHandlerContext, httpRequest);
-                            return false;
-                        }
-                    } catch(NumberFormatException e) {
-                        logger.warn("[DashHttpMessageFilter({})] Fail to parse integer. (RepresentationID) (value={}, uri={})", dashUnit.getId(), representationIdString, localUri);
-                        dashServer.writeBadRequestError(channelHandlerContext, httpRequest);
-                        return false;
-                    }
-                } else {
-                    /*logger.warn("[DashHttpMessageFilter({})] Uri is wrong. Fail to find the chunk info from the uri. (uri={})", dashUnit.getId(), localUri);
-                    dashServer.writeBadRequestError(channelHandlerContext, httpRequest);
-                    return false;*/
-                    return true;
-                }
-            } else {
-                return true;
+        // RepresentationID 를 MPD 의 Representation id 와 비교해서 오디오인지 비디오인지 판별 (숫자가 아닌 id 도 가능)
+        String contentType = mpdManager.getMediaSegmentContentType(segmentMatchResult);
+        if (MpdManager.CONTENT_AUDIO_TYPE.equals(contentType)) { // 요청된 오디오 세그먼트 번호 등록 > 통과
+            MediaSegmentController audioSegmentController = dashClient.getAudioSegmentController();
+            if (audioSegmentController != null) {
+                audioSegmentController.getMediaSegmentInfo().setRequestedSegmentNumber(segmentNumber);
+            }
+        } else if (MpdManager.CONTENT_VIDEO_TYPE.equals(contentType)) { // 요청된 비디오 세그먼트 번호 등록 > 통과
+            MediaSegmentController videoSegmentController = dashClient.getVideoSegmentController();
+            if (videoSegmentController != null) {
+                videoSegmentController.getMediaSegmentInfo().setRequestedSegmentNumber(segmentNumber);
             }
+        } else { // 전달받은 MPD 정보와 일치하지 않음 (RepresentationID for audio, video)
+            logger.warn("[DashHttpMessageFilter({})] Fail to match with the mpd manager. (value={}, uri={}, segmentNumber={})",
+                    dashUnit.getId(), segmentMatchResult.getRepresentationId(), localUri, segmentNumber
+            );
+            dashServer.writeBadRequestError(channelHandlerContext, httpRequest);
+            return false;
         }
 
         return true;
@@ -0,0 +1,136 @@
+package dash.server.handler;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.CompositeByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.ChannelFutureListener;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.SimpleChannelInboundHandler;
+import io.netty.handler.codec.http.*;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * HttpObjectAggregator 대체
+ * 요청 헤더만 보고 바로 FullHttpRequest 를 만들어 넘긴다. (GET/HEAD 는 본문이 없으므로 복사 없음)
+ *
+ * - 본문은 maxBodySize 까지만 허용 (Content-Length 또는 누적 크기 초과 시 413 + 연결 종료)
+ * - 연결당 버퍼는 처리 중인 요청 하나의 본문 (최대 maxBodySize) 뿐이다.
+ * - 디코딩 실패 시 400 + 연결 종료
+ */
+public class DashHttpRequestLimiter extends SimpleChannelInboundHandler<HttpObject> {
+
+    ////////////////////////////////////////////////////////////
+    private static final Logger logger = LoggerFactory.getLogger(DashHttpRequestLimiter.class);
+
+    private final int maxBodySize;
+
+    private HttpRequest curRequest = null;
+    private CompositeByteBuf curBody = null;
+    ////////////////////////////////////////////////////////////
+
+    ////////////////////////////////////////////////////////////
+    public DashHttpRequestLimiter(int maxBodySize) {
+        this.maxBodySize = maxBodySize;
+    }
+    ////////////////////////////////////////////////////////////
+
+    ////////////////////////////////////////////////////////////
+    @Override
+    protected void messageReceived(ChannelHandlerContext ctx, HttpObject msg) {
+        if (msg instanceof HttpRequest) {
+            HttpRequest request = (HttpRequest) msg;
+            releaseBody();
+
+            if (request.decoderResult().isFailure()) {
+                logger.warn("[DashHttpRequestLimiter] Fail to decode the request. (remote={})", ctx.channel().remoteAddress(), request.decoderResult().cause());
+                reject(ctx, HttpResponseStatus.BAD_REQUEST);
+                return;
+            }
+
+            long contentLength = HttpHeaderUtil.getContentLength(request, -1L);
+            if (contentLength > maxBodySize) {
+                logger.warn("[DashHttpRequestLimiter] Request body is too large. (remote={}, uri={}, contentLength={}, limit={})",
+                        ctx.channel().remoteAddress(), request.uri(), contentLength, maxBodySize
+                );
+                reject(ctx, HttpResponseStatus.REQUEST_ENTITY_TOO_LARGE);
+                return;
+            }
+
+            if (HttpHeaderUtil.is100ContinueExpected(request)) {
+                ctx.writeAndFlush(new DefaultFullHttpResponse(HttpVersion.HTTP_1_1, HttpResponseStatus.CONTINUE), ctx.voidPromise());
+                HttpHeaderUtil.set100ContinueExpected(request, false);
+            }
+
+            curRequest = request;
+        }
+
+        if (msg instanceof HttpContent) {
+            if (curRequest == null) { return; } // 거절된 요청의 나머지 본문
+
+            ByteBuf content = ((HttpContent) msg).content();
+            if (content.isReadable()) {
+                int bodySize = curBody == null ? 0 : curBody.readableBytes();
+                if (bodySize + content.readableBytes() > maxBodySize) {
+                    logger.warn("[DashHttpRequestLimiter] Request body is too large. (remote={}, uri={}, limit={})",
+                            ctx.channel().remoteAddress(), curRequest.uri(), maxBodySize
+                    );
+                    releaseBody();
+                    reject(ctx, HttpResponseStatus.REQUEST_ENTITY_TOO_LARGE);
+                    return;
+                }
+
+                if (curBody == null) {
+                    curBody = ctx.alloc().compositeBuffer();
+                }
+                curBody.addComponent(content.retain());
+                curBody.writerIndex(curBody.writerIndex() + content.readableBytes());
+            }
+
+            if (msg instanceof LastHttpContent) {
+                HttpRequest request = curRequest;
+                ByteBuf body = curBody == null ? Unpooled.EMPTY_BUFFER : curBody;
+                curRequest = null;
+                curBody = null;
+
+                FullHttpRequest fullHttpRequest = new DefaultFullHttpRequest(
+                        request.protocolVersion(), request.method(), request.uri(), body
+                );
+                fullHttpRequest.headers().set(request.headers());
+                ctx.fireChannelRead(fullHttpRequest);
+            }
+        }
+    }
+
+    private void reject(ChannelHandlerContext ctx, HttpResponseStatus status) {
+        curRequest = null;
+
+        FullHttpResponse response = new DefaultFullHttpResponse(HttpVersion.HTTP_1_1, status, Unpooled.EMPTY_BUFFER, false);
+        response.headers().setInt(HttpHeaderNames.CONTENT_LENGTH, 0);
+        response.headers().set(HttpHeaderNames.CONNECTION, HttpHeaderValues.CLOSE);
+        ctx.writeAndFlush(response).addListener(ChannelFutureListener.CLOSE);
+    }
+
+    private void releaseBody() {
+        if (curBody != null) {
+            curBody.release();
+            curBody = null;
+        }
+    }
+
+    @Override
+    public void channelInactive(ChannelHandlerContext ctx) throws Exception {
+        curRequest = null;
+        releaseBody();
+        super.channelInactive(ctx);
+    }
+
+    @Override
+    public void handlerRemoved(ChannelHandlerContext ctx) throws Exception {
+        curRequest = null;
+        releaseBody();
+        super.handlerRemoved(ctx);
+    }
+    ////////////////////////////////////////////////////////////
+
+}
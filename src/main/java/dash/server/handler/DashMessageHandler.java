@@ -1,7 +1,12 @@
 package dash.server.handler;
 
 import config.ConfigManager;
+import dash.mpd.MpdManager;
+import dash.mpd.SegmentTemplateMatcher;
+import dash.mpd.parser.mpd.MPD;
+import dash.mpd.parser.mpd.PresentationType;
 import dash.server.DashServer;
+import dash.server.handler.definition.HttpCacheInfo;
 import dash.server.handler.definition.HttpMessageHandler;
 import dash.server.handler.definition.HttpRequest;
 import dash.server.handler.definition.HttpResponse;
@@ -19,6 +24,9 @@ import stream.StreamConfigManager;
 import util.module.FileManager;
 
 import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
 
 public class DashMessageHandler implements HttpMessageHandler {
 
@@ -29,6 +37,9 @@ public class DashMessageHandler implements HttpMessageHandler {
     private final FileManager fileManager = new FileManager();
 
     private final String uri;
+
+    // 마지막으로 만든 MPD 응답 (파일 수정 시간, 크기가 같으면 재사용)
+    private volatile MpdResponse mpdResponse = null;
     ////////////////////////////////////////////////////////////////////////////////
 
     ////////////////////////////////////////////////////////////////////////////////
@@ -56,7 +67,7 @@ public class DashMessageHandler implements HttpMessageHandler {
         }
 
         // DASH PROCESSING
-        return dashProcessing(uriFileName, uriFileNameWithExtension);
+        return dashProcessing(uriFileName, uriFileNameWithExtension, dashUnit);
     }
     ////////////////////////////////////////////////////////////////////////////////
 
@@ -70,7 +81,7 @@ public class DashMessageHandler implements HttpMessageHandler {
         return false;
     }
 
-    private String dashProcessing(String uriFileName, String uriFileNameWithExtension) {
+    private Object dashProcessing(String uriFileName, String uriFileNameWithExtension, DashUnit dashUnit) {
         // GENERATE MPD FROM MP4 BY GPAC
         String mp4Path; // Absolute path
         String mpdPath = null; // Absolute path
@@ -88,37 +99,101 @@ public class DashMessageHandler implements HttpMessageHandler {
                     return null;
                 }
 
-                if (!getMediaStream(mpdPath, mp4Path, uriFileName)) {
-                    return null;
+                // 패키징이 필요하면 (MPD 가 없거나 생성 중) I/O 스레드를 막지 않도록 별도 실행기에서 수행한다.
+                // 같은 MP4 에 대한 요청은 하나의 작업으로 합치고, 완료되면 응답한다.
+                DashPackagingExecutor dashPackagingExecutor = ServiceManager.getInstance().getDashServer().getDashPackagingExecutor();
+                if (!new File(mpdPath).exists() || dashPackagingExecutor.isPackaging(mp4Path)) {
+                    final String targetMp4Path = mp4Path;
+                    final String targetMpdPath = mpdPath;
+                    return dashPackagingExecutor.submit(
+                            mp4Path,
+                            () -> getMediaStream(targetMpdPath, targetMp4Path, uriFileName)
+                    ).thenApply(result -> result ? makeMpdResponse(targetMpdPath, dashUnit) : null);
                 }
             } else {
                 mpdPath = fileManager.concatFilePath(uri, uriFileName + StreamConfigManager.DASH_POSTFIX);
             }
 
-            // GET MPD
-            DashServer dashServer = ServiceManager.getInstance().getDashServer();
-            if (!dashServer.getMpdManager().parseMpd(mpdPath, false)) {
-                logger.warn("[DashMessageHandler(uri={})] Fail to parse the mpd. (uri={}, mpdPath={})", this.uri, uri, mpdPath);
-                return null;
+            return makeMpdResponse(mpdPath, dashUnit);
+        } catch (Exception e) {
+            logger.warn("DashMessageHandler(uri={}).handle.Exception (uri={}, mpdPath={})\n", this.uri, uri, mpdPath, e);
+            return null;
+        }
+    }
+
+    private MpdResponse makeMpdResponse(String mpdPath, DashUnit dashUnit) {
+        try {
+            // CHECK CACHED MPD (파일이 바뀌지 않았으면 다시 파싱하지 않는다.)
+            long readTime = System.currentTimeMillis();
+            File mpdFile = new File(mpdPath);
+            long mpdLastModified = mpdFile.lastModified();
+            long mpdLength = mpdFile.length();
+            MpdResponse curMpdResponse = mpdResponse;
+            if (curMpdResponse != null && curMpdResponse.isSameVersion(mpdPath, mpdLastModified, mpdLength)) {
+                return curMpdResponse;
             }
 
-            // VALIDATE MPD
-            if (configManager.isEnableValidation()) {
-                if (dashServer.getMpdManager().validate()) {
-                    logger.debug("[DashMessageHandler(uri={})] Success to validate the mpd.", this.uri);
-                } else {
-                    logger.warn("[DashMessageHandler(uri={})] Fail to validate the mpd.", this.uri);
+            // GET MPD
+            DashServer dashServer = ServiceManager.getInstance().getDashServer();
+            MpdManager mpdManager = dashServer.getMpdManager();
+            String mpdString;
+            String cacheControl;
+            List<SegmentTemplateMatcher> initSegmentMatchers;
+            synchronized (mpdManager) { // 공유 MpdManager : parse > validate > write 를 한 번에 수행
+                if (!mpdManager.parseMpd(mpdPath, false)) {
+                    logger.warn("[DashMessageHandler(uri={})] Fail to parse the mpd. (uri={}, mpdPath={})", this.uri, uri, mpdPath);
                     return null;
                 }
+
+                // VALIDATE MPD
+                if (configManager.isEnableValidation()) {
+                    if (mpdManager.validate()) {
+                        logger.debug("[DashMessageHandler(uri={})] Success to validate the mpd.", this.uri);
+                    } else {
+                        logger.warn("[DashMessageHandler(uri={})] Fail to validate the mpd.", this.uri);
+                        return null;
+                    }
+                }
+
+                mpdString = mpdManager.writeAsString();
+                cacheControl = makeMpdCacheControl(mpdManager.getMpd());
+                initSegmentMatchers = mpdManager.getInitSegmentMatchers();
+            }
+            if (mpdString == null) { return null; }
+
+            // 초기화 세그먼트 판별용 (SegmentCache pinned)
+            if (dashUnit != null) {
+                dashUnit.setInitSegmentMatchers(initSegmentMatchers);
             }
 
-            return dashServer.getMpdManager().writeAsString();
+            byte[] content = mpdString.getBytes(StandardCharsets.UTF_8);
+            MpdResponse newMpdResponse = new MpdResponse(mpdPath, mpdLastModified, mpdLength, readTime, content, cacheControl);
+            if (mpdLastModified > 0) {
+                mpdResponse = newMpdResponse;
+            }
+            return newMpdResponse;
         } catch (Exception e) {
-            logger.warn("DashMessageHandler(uri={}).handle.Exception (uri={}, mpdPath={})\n", this.uri, uri, mpdPath, e);
+            logger.warn("DashMessageHandler(uri={}).makeMpdResponse.Exception (uri={}, mpdPath={})\n", this.uri, uri, mpdPath, e);
             return null;
         }
     }
 
+    /**
+     * static : STATIC_MPD_MAX_AGE
+     * dynamic : minimumUpdatePeriod 의 절반 (최소 1초), 갱신 주기가 없으면 매번 재검증
+     */
+    private String makeMpdCacheControl(MPD mpd) {
+        if (mpd == null || mpd.getType() != PresentationType.DYNAMIC) {
+            return HttpCacheInfo.makeCacheControl(configManager.getStaticMpdMaxAge());
+        }
+
+        Duration minimumUpdatePeriod = mpd.getMinimumUpdatePeriod();
+        if (minimumUpdatePeriod == null) {
+            return HttpCacheInfo.NO_CACHE;
+        }
+        return HttpCacheInfo.makeCacheControl(Math.max(1, minimumUpdatePeriod.getSeconds() / 2));
+    }
+
     private boolean getMediaStream(String mpdPath, String mp4Path, String uriFileName) {
         File mpdFile = new File(mpdPath);
         if (!mpdFile.exists()) {
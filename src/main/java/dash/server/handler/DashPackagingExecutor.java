@@ -0,0 +1,131 @@
+package dash.server.handler;
+
+import org.apache.commons.lang3.concurrent.BasicThreadFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * MP4 > DASH 패키징(FFmpeg 트랜스코딩)을 Netty I/O 스레드 밖에서 수행하는 실행기
+ *
+ * - 스레드 수, 대기 큐 크기 제한 (큐가 가득 차면 RejectedExecutionException 으로 완료 > 503)
+ * - 같은 MP4 경로에 대한 동시 요청은 하나의 작업으로 합친다. (single-flight)
+ */
+public class DashPackagingExecutor {
+
+    ////////////////////////////////////////////////////////////
+    private static final Logger logger = LoggerFactory.getLogger(DashPackagingExecutor.class);
+
+    private final ThreadPoolExecutor executor;
+    private final ConcurrentHashMap<String, CompletableFuture<Boolean>> inflightMap = new ConcurrentHashMap<>();
+
+    private final AtomicLong submittedCount = new AtomicLong(0);
+    private final AtomicLong coalescedCount = new AtomicLong(0);
+    private final AtomicLong rejectedCount = new AtomicLong(0);
+    ////////////////////////////////////////////////////////////
+
+    ////////////////////////////////////////////////////////////
+    public DashPackagingExecutor(int threadCount, int queueLimit) {
+        ThreadFactory threadFactory = new BasicThreadFactory.Builder()
+                .namingPattern("DashPackagingExecutor-%d")
+                .daemon(true)
+                .build();
+        executor = new ThreadPoolExecutor(
+                threadCount, threadCount,
+                0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueLimit),
+                threadFactory,
+                new ThreadPoolExecutor.AbortPolicy()
+        );
+    }
+    ////////////////////////////////////////////////////////////
+
+    ////////////////////////////////////////////////////////////
+    /**
+     * @param key MP4 경로
+     * @param task 패키징 작업 (성공 시 true)
+     * @return 작업 결과 future, 같은 key 의 작업이 진행 중이면 그 future
+     */
+    public CompletableFuture<Boolean> submit(String key, Supplier<Boolean> task) {
+        CompletableFuture<Boolean> future = inflightMap.get(key);
+        if (future != null) {
+            coalescedCount.incrementAndGet();
+            return future;
+        }
+
+        CompletableFuture<Boolean> newFuture = new CompletableFuture<>();
+        future = inflightMap.putIfAbsent(key, newFuture);
+        if (future != null) {
+            coalescedCount.incrementAndGet();
+            return future;
+        }
+
+        try {
+            executor.execute(() -> {
+                boolean result = false;
+                try {
+                    result = task.get();
+                } catch (Exception e) {
+                    logger.warn("[DashPackagingExecutor] Fail to package the media. (key={})", key, e);
+                } finally {
+                    newFuture.complete(result);
+                    inflightMap.remove(key, newFuture);
+                }
+            });
+            submittedCount.incrementAndGet();
+        } catch (RejectedExecutionException e) {
+            rejectedCount.incrementAndGet();
+            logger.warn("[DashPackagingExecutor] Packaging queue is full. (key={}, queueSize={})", key, executor.getQueue().size());
+            newFuture.completeExceptionally(e);
+            inflightMap.remove(key, newFuture);
+        }
+
+        return newFuture;
+    }
+
+    public boolean isPackaging(String key) {
+        return inflightMap.containsKey(key);
+    }
+
+    public void stop() {
+        executor.shutdownNow();
+        for (CompletableFuture<Boolean> future : inflightMap.values()) {
+            future.complete(false);
+        }
+        inflightMap.clear();
+    }
+    ////////////////////////////////////////////////////////////
+
+    ////////////////////////////////////////////////////////////
+    public long getSubmittedCount() {
+        return submittedCount.get();
+    }
+
+    public long getCoalescedCount() {
+        return coalescedCount.get();
+    }
+
+    public long getRejectedCount() {
+        return rejectedCount.get();
+    }
+
+    public int getQueueSize() {
+        return executor.getQueue().size();
+    }
+
+    @Override
+    public String toString() {
+        return "DashPackagingExecutor{" +
+                "active=" + executor.getActiveCount() +
+                ", queued=" + executor.getQueue().size() +
+                ", submitted=" + submittedCount.get() +
+                ", coalesced=" + coalescedCount.get() +
+                ", rejected=" + rejectedCount.get() +
+                '}';
+    }
+    ////////////////////////////////////////////////////////////
+
+}
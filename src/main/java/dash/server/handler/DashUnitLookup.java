@@ -0,0 +1,68 @@
+package dash.server.handler;
+
+import dash.server.DashServer;
+import dash.unit.DashUnit;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.handler.codec.http.HttpRequest;
+import io.netty.util.Attribute;
+import io.netty.util.AttributeKey;
+
+/**
+ * 요청 URI 에 해당하는 DashUnit 을 요청마다 한 번만 조회한다.
+ *
+ * - access log, 수락 제어, DashHttpMessageFilter 가 같은 요청 객체로 조회하면 채널에 보관한 결과를 재사용한다.
+ * - 요청은 event loop 에서 파이프라인을 순서대로 지나가므로 채널마다 마지막 요청 하나만 보관하면 된다.
+ * - 마지막 handler (DashHttpMessageFilter) 는 remove() 로 가져가서 요청 객체를 채널에 남기지 않는다.
+ *      (수락 제어에서 거절된 요청은 clear() 로 지운다.)
+ */
+public final class DashUnitLookup {
+
+    ////////////////////////////////////////////////////////////
+    private static final AttributeKey<DashUnitLookup> DASH_UNIT_LOOKUP_KEY = AttributeKey.valueOf("dashUnitLookup");
+
+    private final HttpRequest request;
+    private final DashUnit dashUnit;
+    ////////////////////////////////////////////////////////////
+
+    ////////////////////////////////////////////////////////////
+    private DashUnitLookup(HttpRequest request, DashUnit dashUnit) {
+        this.request = request;
+        this.dashUnit = dashUnit;
+    }
+    ////////////////////////////////////////////////////////////
+
+    ////////////////////////////////////////////////////////////
+    /**
+     * @return 요청 URI 의 DashUnit, 없으면 null
+     */
+    public static DashUnit find(ChannelHandlerContext ctx, HttpRequest request, DashServer dashServer) {
+        Attribute<DashUnitLookup> attribute = ctx.channel().attr(DASH_UNIT_LOOKUP_KEY);
+        DashUnitLookup lookup = attribute.get();
+        if (lookup != null && lookup.request == request) {
+            return lookup.dashUnit;
+        }
+
+        String uri = request.uri();
+        DashUnit dashUnit = uri != null ? dashServer.findDashUnitByUri(uri.trim()) : null;
+        attribute.set(new DashUnitLookup(request, dashUnit));
+        return dashUnit;
+    }
+
+    /**
+     * find() 와 같고, 보관한 결과는 지운다. (같은 요청에 대한 마지막 조회)
+     */
+    public static DashUnit remove(ChannelHandlerContext ctx, HttpRequest request, DashServer dashServer) {
+        DashUnit dashUnit = find(ctx, request, dashServer);
+        clear(ctx);
+        return dashUnit;
+    }
+
+    /**
+     * 보관한 결과를 지운다. (DashHttpMessageFilter 까지 가지 않고 끝난 요청)
+     */
+    public static void clear(ChannelHandlerContext ctx) {
+        ctx.channel().attr(DASH_UNIT_LOOKUP_KEY).set(null);
+    }
+    ////////////////////////////////////////////////////////////
+
+}
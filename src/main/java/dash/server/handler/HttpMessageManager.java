@@ -8,21 +8,31 @@ import instance.BaseEnvironment;
 import io.netty.channel.ChannelInitializer;
 import io.netty.channel.ChannelPipeline;
 import io.netty.channel.socket.SocketChannel;
+import io.netty.handler.codec.AsciiString;
 import io.netty.handler.codec.http.HttpMethod;
-import io.netty.handler.codec.http.HttpObjectAggregator;
 import io.netty.handler.codec.http.HttpRequestDecoder;
 import io.netty.handler.codec.http.HttpResponseEncoder;
+import io.netty.handler.codec.http2.DefaultHttp2Connection;
+import io.netty.handler.codec.http2.Http2Connection;
+import io.netty.handler.codec.http2.HttpToHttp2ConnectionHandler;
+import io.netty.handler.codec.http2.InboundHttp2ToHttpAdapter;
 import io.netty.handler.ssl.SslContext;
 import io.netty.handler.ssl.util.SelfSignedCertificate;
+import io.netty.handler.stream.ChunkedWriteHandler;
 import network.definition.NetAddress;
 import network.socket.GroupSocket;
 import network.socket.SocketManager;
 import network.socket.SocketProtocol;
+import network.socket.netty.NettyChannel;
+import network.socket.netty.NettyEventLoopRegistry;
+import network.socket.netty.tcp.NettyTcpListenerStats;
+import network.socket.netty.tcp.NettyTcpServerChannel;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import service.AppInstance;
 import service.scheduler.schedule.ScheduleManager;
 
+import java.util.Collections;
 import java.util.List;
 
 public class HttpMessageManager {
@@ -41,29 +51,57 @@ public class HttpMessageManager {
     static final boolean SSL = false;
 
     public final String serviceName;
-    public static final String TYPE_PLAIN = "text/plain; charset=UTF-8";
-    public static final String TYPE_DASH_XML = "application/dash+xml; charset=UTF-8";
+    public static final AsciiString TYPE_PLAIN = new AsciiString("text/plain; charset=UTF-8");
+    public static final AsciiString TYPE_DASH_XML = new AsciiString("application/dash+xml; charset=UTF-8");
+    public static final String TYPE_MULTIPART_BYTERANGES = "multipart/byteranges";
     public static final String HTTP_SCHEDULE_KEY = "HTTP_MESSAGE_HANDLE";
+    private static final int HTTP2_MIN_CONTENT_LENGTH = 1024;
 
     private final ScheduleManager scheduleManager;
     private final SocketManager socketManager;
     private final HttpMessageRouteTable routeTable;
 
     private final NetAddress localListenAddress;
+    private final int maxBodySize;
+    private final boolean enableHttp2;
+    private final DashAdmissionController admissionController;
+    private final DashAccessLog accessLog; // null : 사용 안함
     ////////////////////////////////////////////////////////////
 
     ////////////////////////////////////////////////////////////
     public HttpMessageManager(BaseEnvironment baseEnvironment) {
         ConfigManager configManager = AppInstance.getInstance().getConfigManager();
         this.serviceName = configManager.getServiceName();
+        this.maxBodySize = configManager.getHttpMaxBodySize();
+        this.enableHttp2 = configManager.isEnableHttp2();
+        this.admissionController = new DashAdmissionController(
+                configManager.getAdmissionClientRate(), configManager.getAdmissionClientBurst(),
+                configManager.getAdmissionDashUnitRate(), configManager.getAdmissionDashUnitBurst(),
+                configManager.getAdmissionMaxConcurrentRequests(), configManager.getAdmissionLatencyTarget()
+        );
+
+        if (configManager.isEnableAccessLog()) {
+            this.accessLog = new DashAccessLog(
+                    configManager.getAccessLogPath(), configManager.getAccessLogBufferSize(),
+                    configManager.getAccessLogMaxFileSize(), configManager.getAccessLogMaxFileCount()
+            );
+        } else {
+            this.accessLog = null;
+        }
+
+        int listenerCount = configManager.getHttpListenerCount();
+        if (listenerCount <= 0) {
+            // worker event loop 하나에 listener 하나
+            listenerCount = NettyEventLoopRegistry.getInstance().getWorkerThreadCount();
+        }
 
         this.scheduleManager = baseEnvironment.getScheduleManager();
         this.socketManager = new SocketManager(
                 baseEnvironment,
                 true, true,
-                configManager.getThreadCount(),
                 configManager.getSendBufSize(),
-                configManager.getRecvBufSize()
+                configManager.getRecvBufSize(),
+                listenerCount
         ); // eager initialization
 
         this.routeTable = new HttpMessageRouteTable();
@@ -90,6 +128,10 @@ public class HttpMessageManager {
         } catch (Exception e) {
             logger.warn("[HttpMessageManager] SSL Initialization error.", e);
         }
+        if (accessLog != null && !accessLog.start()) {
+            logger.warn("[HttpMessageManager] Fail to start the access log. Access log is disabled. (path={})", accessLog.getPath());
+        }
+
         socketManager.addSocket(localListenAddress, new HttpMessageServerInitializer(sslContext));
 
         // OPEN LISTEN CHANNEL
@@ -108,6 +150,10 @@ public class HttpMessageManager {
             localGroupSocket.getListenSocket().closeListenChannel();
         }
         logger.debug("[HttpMessageManager] CLOSE [{}]", localGroupSocket);
+
+        if (accessLog != null) {
+            accessLog.stop();
+        }
     }
     ////////////////////////////////////////////////////////////
 
@@ -120,10 +166,24 @@ public class HttpMessageManager {
         this.routeTable.addRoute(new HttpMessageRoute(HttpMethod.POST, path, handler));
     }
 
+    /**
+     * 여러 route 를 한 번에 등록한다. (DashUnit 하나의 route 들)
+     */
+    public void addRoutes(final List<HttpMessageRoute> routes) {
+        this.routeTable.addRoutes(routes);
+    }
+
     public void clear() {
         this.routeTable.clear();
     }
 
+    /**
+     * prevRoutes 를 newRoutes 로 한 번에 교체한다. (교체 중에도 조회 가능)
+     */
+    public void replaceRoutes(final List<HttpMessageRoute> prevRoutes, final List<HttpMessageRoute> newRoutes) {
+        this.routeTable.replaceRoutes(prevRoutes, newRoutes);
+    }
+
     public List<HttpMessageRoute> getAllRoutes() {
         return this.routeTable.getRoutes();
     }
@@ -149,20 +209,77 @@ public class HttpMessageManager {
             // Enable HTTPS if necessary.
             if (sslContext != null) {
                 p.addLast(sslContext.newHandler(ch.alloc()));
+                addHttp1Handlers(p, true);
+            } else if (enableHttp2) {
+                // h2c (prior knowledge) 또는 HTTP/1.1 > 첫 바이트를 보고 결정
+                p.addLast("protocolSelector", new HttpProtocolSelector(HttpMessageManager.this));
+            } else {
+                addHttp1Handlers(p, false);
             }
+        }
+    }
+
+    void addHttp1Handlers(ChannelPipeline p, boolean isSsl) {
+        p.addLast("decoder", new HttpRequestDecoder(4096, 8192, 8192, false));
+        // 요청 본문을 통째로 모으지 않는다. (본문 크기 제한)
+        p.addLast("limiter", new DashHttpRequestLimiter(maxBodySize));
+        p.addLast("encoder", new HttpResponseEncoder());
+        addAccessLogHandler(p);
+        if (isSsl) {
+            // SSL 사용 시 FileRegion(sendfile) 을 쓸 수 없으므로 ChunkedNioFile 로 전송
+            p.addLast("chunkedWriter", new ChunkedWriteHandler());
+        }
+        p.addLast("admission", new DashHttpAdmissionFilter(admissionController));
+        p.addLast("handler", new DashHttpMessageFilter(routeTable));
+    }
 
-            p.addLast("decoder", new HttpRequestDecoder(4096, 8192, 8192, false));
-            p.addLast("aggregator", new HttpObjectAggregator(100 * 1024 * 1024));
-            p.addLast("encoder", new HttpResponseEncoder());
-            p.addLast("handler", new DashHttpMessageFilter(routeTable));
+    private void addAccessLogHandler(ChannelPipeline p) {
+        // encoder 쪽에 가까워야 실제 전송되는 본문 크기를 셀 수 있다.
+        if (accessLog != null && accessLog.isRunning()) {
+            p.addLast("accessLog", new DashHttpAccessLogHandler(accessLog));
         }
     }
+
+    /**
+     * HTTP/2 frame <> FullHttpRequest/FullHttpResponse 변환 후 기존 DashHttpMessageFilter 로 라우팅
+     */
+    void addHttp2Handlers(ChannelPipeline p) {
+        Http2Connection connection = new DefaultHttp2Connection(true);
+        InboundHttp2ToHttpAdapter listener = new InboundHttp2ToHttpAdapter.Builder(connection)
+                .maxContentLength(Math.max(maxBodySize, HTTP2_MIN_CONTENT_LENGTH))
+                .propagateSettings(false)
+                .build();
+        p.addLast("http2", new HttpToHttp2ConnectionHandler(connection, listener));
+        addAccessLogHandler(p);
+        p.addLast("admission", new DashHttpAdmissionFilter(admissionController));
+        p.addLast("handler", new DashHttpMessageFilter(routeTable));
+    }
     ////////////////////////////////////////////////////////////
 
     ////////////////////////////////////////////////////////////
     public String getServiceName() {
         return serviceName;
     }
+
+    public DashAdmissionController getAdmissionController() {
+        return admissionController;
+    }
+
+    public DashAccessLog getAccessLog() {
+        return accessLog;
+    }
+
+    /**
+     * @return listen socket 별 accept 수, 현재 연결 수 (열려 있지 않으면 빈 리스트)
+     */
+    public List<NettyTcpListenerStats> getListenerStatsList() {
+        GroupSocket localGroupSocket = socketManager.getSocket(localListenAddress);
+        if (localGroupSocket == null) { return Collections.emptyList(); }
+
+        NettyChannel nettyChannel = localGroupSocket.getListenSocket().getNettyChannel();
+        if (!(nettyChannel instanceof NettyTcpServerChannel)) { return Collections.emptyList(); }
+        return ((NettyTcpServerChannel) nettyChannel).getListenerStatsList();
+    }
     ////////////////////////////////////////////////////////////
 
 }
\ No newline at end of file
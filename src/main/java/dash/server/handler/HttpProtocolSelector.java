@@ -0,0 +1,61 @@
+package dash.server.handler;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.handler.codec.ByteToMessageDecoder;
+import io.netty.handler.codec.http.HttpRequest;
+import io.netty.handler.codec.http2.HttpUtil;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * 연결의 첫 바이트로 HTTP/1.1 과 HTTP/2 (h2c, prior knowledge) 를 구분해서 pipeline 을 구성한다.
+ * - HTTP/2 connection preface 로 시작하면 HTTP/2 handler
+ * - 아니면 기존 HTTP/1.1 handler
+ * 구성 후 자신은 pipeline 에서 빠지고, 읽은 바이트는 다음 handler 로 넘어간다.
+ */
+public class HttpProtocolSelector extends ByteToMessageDecoder {
+
+    ////////////////////////////////////////////////////////////
+    private static final byte[] HTTP2_PREFACE = "PRI * HTTP/2.0\r\n\r\nSM\r\n\r\n".getBytes(StandardCharsets.US_ASCII);
+
+    private final HttpMessageManager httpMessageManager;
+    ////////////////////////////////////////////////////////////
+
+    ////////////////////////////////////////////////////////////
+    public HttpProtocolSelector(HttpMessageManager httpMessageManager) {
+        this.httpMessageManager = httpMessageManager;
+    }
+    ////////////////////////////////////////////////////////////
+
+    ////////////////////////////////////////////////////////////
+    @Override
+    protected void decode(ChannelHandlerContext ctx, ByteBuf in, List<Object> out) {
+        int readableBytes = Math.min(in.readableBytes(), HTTP2_PREFACE.length);
+        int readerIndex = in.readerIndex();
+        for (int i = 0; i < readableBytes; i++) {
+            if (in.getByte(readerIndex + i) != HTTP2_PREFACE[i]) {
+                httpMessageManager.addHttp1Handlers(ctx.pipeline(), false);
+                ctx.pipeline().remove(this);
+                return;
+            }
+        }
+
+        // preface 를 다 받을 때까지 대기
+        if (readableBytes < HTTP2_PREFACE.length) { return; }
+
+        httpMessageManager.addHttp2Handlers(ctx.pipeline());
+        ctx.pipeline().remove(this);
+    }
+
+    /**
+     * HTTP/2 stream 에서 변환된 요청 여부
+     * (FileRegion, chunked 응답은 HTTP/2 로 변환되지 않으므로 FullHttpResponse 로만 응답해야 한다.)
+     */
+    public static boolean isHttp2Request(HttpRequest request) {
+        return request.headers().contains(HttpUtil.ExtensionHeaderNames.STREAM_ID.text());
+    }
+    ////////////////////////////////////////////////////////////
+
+}
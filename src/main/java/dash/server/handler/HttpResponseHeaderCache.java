@@ -0,0 +1,86 @@
+package dash.server.handler;
+
+import dash.server.handler.definition.HttpByteRange;
+import io.netty.handler.codec.AsciiString;
+import io.netty.handler.codec.http.HttpHeaderNames;
+import io.netty.handler.codec.http.HttpHeaders;
+
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * 응답마다 같은 값을 쓰는 공통 헤더 값 캐시
+ *
+ * - Server, Access-Control-Allow-Origin, Accept-Ranges : 미리 만든 AsciiString
+ * - Date : 초 단위로 한 번만 포맷
+ * - Content-Length : 문자열 변환 없이 long 으로 설정
+ */
+public class HttpResponseHeaderCache {
+
+    ////////////////////////////////////////////////////////////
+    public static final AsciiString ALLOW_ORIGIN_ALL = new AsciiString("*");
+    public static final AsciiString BYTES = new AsciiString(HttpByteRange.BYTES_UNIT);
+
+    private final AsciiString serverName;
+    private volatile DateValue dateValue = null;
+    ////////////////////////////////////////////////////////////
+
+    ////////////////////////////////////////////////////////////
+    public HttpResponseHeaderCache(String serverName) {
+        this.serverName = new AsciiString(serverName == null ? "" : serverName);
+    }
+    ////////////////////////////////////////////////////////////
+
+    ////////////////////////////////////////////////////////////
+    /**
+     * @param contentLength 0 보다 작으면 설정하지 않는다. (304 등)
+     */
+    public void setCommonHeaders(HttpHeaders headers, CharSequence contentType, long contentLength) {
+        headers.set(HttpHeaderNames.SERVER, serverName);
+        headers.set(HttpHeaderNames.DATE, getDate());
+        if (contentType != null) {
+            headers.set(HttpHeaderNames.CONTENT_TYPE, contentType);
+        }
+        if (contentLength >= 0) {
+            headers.setLong(HttpHeaderNames.CONTENT_LENGTH, contentLength);
+        }
+        headers.set(HttpHeaderNames.ACCESS_CONTROL_ALLOW_ORIGIN, ALLOW_ORIGIN_ALL);
+    }
+
+    /**
+     * RFC 1123 GMT 날짜, 같은 초 안에서는 같은 인스턴스를 반환한다.
+     */
+    public AsciiString getDate() {
+        long second = System.currentTimeMillis() / 1000;
+        DateValue curDateValue = dateValue;
+        if (curDateValue == null || curDateValue.second != second) {
+            curDateValue = new DateValue(second);
+            dateValue = curDateValue;
+        }
+        return curDateValue.value;
+    }
+
+    public AsciiString getServerName() {
+        return serverName;
+    }
+    ////////////////////////////////////////////////////////////
+
+    ////////////////////////////////////////////////////////////
+    private static class DateValue {
+
+        private final long second;
+        private final AsciiString value;
+
+        private DateValue(long second) {
+            this.second = second;
+            this.value = new AsciiString(DateTimeFormatter.RFC_1123_DATE_TIME.format(
+                    ZonedDateTime.ofInstant(Instant.ofEpochSecond(second), ZoneOffset.UTC)
+            ));
+        }
+
+    }
+    ////////////////////////////////////////////////////////////
+
+}
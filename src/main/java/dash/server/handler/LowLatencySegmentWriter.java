@@ -0,0 +1,164 @@
+package dash.server.handler;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.ChannelFutureListener;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.handler.codec.http.DefaultHttpContent;
+import io.netty.handler.codec.http.HttpResponse;
+import io.netty.handler.codec.http.LastHttpContent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.RandomAccessFile;
+import java.nio.channels.FileChannel;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 생성 중인 세그먼트를 chunked 로 전송한다. (LL-DASH)
+ *
+ * FFmpeg dash muxer 는 세그먼트를 [이름.tmp] 로 기록하다가 완료되면 [이름] 으로 rename 한다.
+ * - 열어 둔 FileChannel 은 rename 후에도 같은 파일을 가리키므로 끝까지 이어서 읽는다.
+ * - 새로 기록된 fragment 가 있으면 바로 전송, 없으면 POLL_INTERVAL_MS 후 다시 확인 (채널의 event loop 에서 수행)
+ * - .tmp 가 사라지고 최종 파일이 있으면 완료 (LastHttpContent), 최종 파일도 없거나 maxIdleMs 동안 진행이 없으면 연결 종료
+ */
+public class LowLatencySegmentWriter implements Runnable {
+
+    ////////////////////////////////////////////////////////////
+    private static final Logger logger = LoggerFactory.getLogger(LowLatencySegmentWriter.class);
+
+    public static final String PARTIAL_POSTFIX = ".tmp";
+
+    private static final long POLL_INTERVAL_MS = 20;
+    private static final int MAX_CHUNK_SIZE = 64 * 1024;
+
+    private final ChannelHandlerContext ctx;
+    private final boolean keepAlive;
+    private final File segmentFile;
+    private final File partialFile;
+    private final long maxIdleMs;
+
+    private RandomAccessFile randomAccessFile = null;
+    private FileChannel fileChannel = null;
+    private long position = 0;
+    private long lastProgressTime = 0;
+    ////////////////////////////////////////////////////////////
+
+    ////////////////////////////////////////////////////////////
+    public LowLatencySegmentWriter(ChannelHandlerContext ctx, boolean keepAlive, File segmentFile, long maxIdleMs) {
+        this.ctx = ctx;
+        this.keepAlive = keepAlive;
+        this.segmentFile = segmentFile;
+        this.partialFile = new File(segmentFile.getPath() + PARTIAL_POSTFIX);
+        this.maxIdleMs = maxIdleMs;
+    }
+    ////////////////////////////////////////////////////////////
+
+    ////////////////////////////////////////////////////////////
+    /**
+     * @return false 면 전송하지 않음 (.tmp 가 이미 rename 되었거나 열 수 없음 > 호출자가 일반 응답으로 처리)
+     */
+    public boolean start(HttpResponse responseHeader) {
+        try {
+            randomAccessFile = new RandomAccessFile(partialFile, "r");
+            fileChannel = randomAccessFile.getChannel();
+        } catch (Exception e) {
+            logger.debug("[LowLatencySegmentWriter] Fail to open the partial segment. (path={})", partialFile.getAbsolutePath());
+            closeFile();
+            return false;
+        }
+
+        lastProgressTime = System.currentTimeMillis();
+        ctx.writeAndFlush(responseHeader, ctx.voidPromise());
+        ctx.executor().execute(this);
+        logger.debug("[LowLatencySegmentWriter] START (path={})", partialFile.getAbsolutePath());
+        return true;
+    }
+
+    @Override
+    public void run() {
+        if (!ctx.channel().isActive()) {
+            closeFile();
+            return;
+        }
+
+        // 소켓 버퍼가 가득 차면 읽지 않고 대기 (연결당 메모리 제한)
+        if (!ctx.channel().isWritable()) {
+            ctx.executor().schedule(this, POLL_INTERVAL_MS, TimeUnit.MILLISECONDS);
+            return;
+        }
+
+        try {
+            long size = fileChannel.size();
+            if (size > position) {
+                int length = (int) Math.min(size - position, MAX_CHUNK_SIZE);
+                ByteBuf buf = ctx.alloc().buffer(length);
+                fileChannel.position(position);
+                int readBytes = buf.writeBytes(fileChannel, length);
+                if (readBytes > 0) {
+                    position += readBytes;
+                    lastProgressTime = System.currentTimeMillis();
+                    ctx.writeAndFlush(new DefaultHttpContent(buf), ctx.voidPromise());
+                } else {
+                    buf.release();
+                }
+                ctx.executor().execute(this);
+                return;
+            }
+
+            if (!partialFile.exists()) {
+                if (fileChannel.size() > position) { // rename 직전에 기록된 나머지
+                    ctx.executor().execute(this);
+                } else if (segmentFile.exists()) { // 완료 (rename)
+                    finish();
+                } else { // 삭제됨
+                    abort("The partial segment is deleted.");
+                }
+                return;
+            }
+
+            if (System.currentTimeMillis() - lastProgressTime > maxIdleMs) {
+                abort("The partial segment is not growing.");
+                return;
+            }
+
+            ctx.executor().schedule(this, POLL_INTERVAL_MS, TimeUnit.MILLISECONDS);
+        } catch (Exception e) {
+            logger.warn("[LowLatencySegmentWriter] Fail to write the partial segment. (path={})", partialFile.getAbsolutePath(), e);
+            abort(null);
+        }
+    }
+
+    private void finish() {
+        closeFile();
+        if (keepAlive) {
+            ctx.writeAndFlush(LastHttpContent.EMPTY_LAST_CONTENT, ctx.voidPromise());
+        } else {
+            ctx.writeAndFlush(LastHttpContent.EMPTY_LAST_CONTENT).addListener(ChannelFutureListener.CLOSE);
+        }
+        logger.debug("[LowLatencySegmentWriter] FINISH (path={}, len={})", segmentFile.getAbsolutePath(), position);
+    }
+
+    private void abort(String reason) {
+        // 헤더는 이미 나갔으므로 연결을 끊어서 클라이언트가 잘린 세그먼트를 완료로 받지 않도록 한다.
+        if (reason != null) {
+            logger.warn("[LowLatencySegmentWriter] {} (path={}, len={})", reason, partialFile.getAbsolutePath(), position);
+        }
+        closeFile();
+        ctx.close();
+    }
+
+    private void closeFile() {
+        if (randomAccessFile != null) {
+            try {
+                randomAccessFile.close();
+            } catch (Exception e) {
+                // ignore
+            }
+            randomAccessFile = null;
+            fileChannel = null;
+        }
+    }
+    ////////////////////////////////////////////////////////////
+
+}
@@ -0,0 +1,53 @@
+package dash.server.handler;
+
+import dash.server.handler.definition.HttpCacheInfo;
+
+/**
+ * 직렬화된 MPD 응답
+ * MPD 파일의 수정 시간, 크기가 같으면 재사용한다.
+ * - 수정 시간은 파일 시스템 단위 (최대 1초) 로 기록되므로, 읽은 시점에 수정된 지 1초가 안 된 파일은 재사용하지 않는다.
+ *   > 같은 단위 안에 같은 크기로 다시 쓰여도 이전 내용을 계속 보내지 않음
+ * - ETag 는 직렬화된 내용 기준 (strong)
+ */
+class MpdResponse {
+
+    ////////////////////////////////////////////////////////////
+    private static final long MTIME_GRANULARITY_MS = 1000;
+
+    private final String mpdPath;
+    private final long lastModified;
+    private final long length;
+    private final long readTime; // ms, 파일을 읽기 전 시각
+    private final byte[] content;
+    private final HttpCacheInfo cacheInfo; // 수정 시간을 알 수 없으면 null
+    ////////////////////////////////////////////////////////////
+
+    ////////////////////////////////////////////////////////////
+    MpdResponse(String mpdPath, long lastModified, long length, long readTime, byte[] content, String cacheControl) {
+        this.mpdPath = mpdPath;
+        this.lastModified = lastModified;
+        this.length = length;
+        this.readTime = readTime;
+        this.content = content;
+        this.cacheInfo = lastModified > 0 ? HttpCacheInfo.fromContent(content, lastModified, cacheControl) : null;
+    }
+    ////////////////////////////////////////////////////////////
+
+    ////////////////////////////////////////////////////////////
+    boolean isSameVersion(String mpdPath, long lastModified, long length) {
+        return this.lastModified == lastModified
+                && this.length == length
+                && readTime - lastModified > MTIME_GRANULARITY_MS
+                && this.mpdPath.equals(mpdPath);
+    }
+
+    byte[] getContent() {
+        return content;
+    }
+
+    HttpCacheInfo getCacheInfo() {
+        return cacheInfo;
+    }
+    ////////////////////////////////////////////////////////////
+
+}
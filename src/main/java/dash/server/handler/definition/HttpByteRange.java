@@ -0,0 +1,112 @@
+package dash.server.handler.definition;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * HTTP Range 요청 헤더의 byte range 하나 (RFC 7233)
+ *
+ * ex) [bytes=0-499], [bytes=500-], [bytes=-500], [bytes=0-99,200-299]
+ */
+public class HttpByteRange {
+
+    ////////////////////////////////////////////////////////////
+    public static final String BYTES_UNIT = "bytes";
+    private static final String BYTES_PREFIX = BYTES_UNIT + "=";
+
+    // multipart 응답이 과도하게 쪼개지지 않도록 제한 (초과하면 Range 무시 > 200)
+    public static final int MAX_RANGE_COUNT = 16;
+
+    private final long start; // inclusive
+    private final long end; // inclusive
+    ////////////////////////////////////////////////////////////
+
+    ////////////////////////////////////////////////////////////
+    public HttpByteRange(long start, long end) {
+        this.start = start;
+        this.end = end;
+    }
+    ////////////////////////////////////////////////////////////
+
+    ////////////////////////////////////////////////////////////
+    /**
+     * @param rangeHeader Range 헤더 값
+     * @param length 전체 리소스 길이
+     * @return null : 헤더를 무시하고 전체 응답 (형식 오류, 지원하지 않는 단위, 범위 개수 초과)
+     *         빈 목록 : 만족하는 범위 없음 (416)
+     *         그 외 : 요청 순서대로 전체 길이에 맞게 잘라낸 범위 목록
+     */
+    public static List<HttpByteRange> parse(String rangeHeader, long length) {
+        if (rangeHeader == null) { return null; }
+
+        String value = rangeHeader.trim();
+        if (!value.regionMatches(true, 0, BYTES_PREFIX, 0, BYTES_PREFIX.length())) {
+            return null;
+        }
+
+        String[] specs = value.substring(BYTES_PREFIX.length()).split(",");
+        if (specs.length > MAX_RANGE_COUNT) { return null; }
+
+        List<HttpByteRange> ranges = new ArrayList<>(specs.length);
+        for (String spec : specs) {
+            spec = spec.trim();
+            int dashIndex = spec.indexOf('-');
+            if (dashIndex < 0) { return null; }
+
+            String startString = spec.substring(0, dashIndex).trim();
+            String endString = spec.substring(dashIndex + 1).trim();
+            try {
+                if (startString.isEmpty()) { // suffix : 마지막 N 바이트
+                    if (endString.isEmpty()) { return null; }
+
+                    long suffixLength = Long.parseLong(endString);
+                    if (suffixLength < 0) { return null; }
+                    if (suffixLength == 0 || length <= 0) { continue; }
+
+                    ranges.add(new HttpByteRange(Math.max(0, length - suffixLength), length - 1));
+                } else {
+                    long start = Long.parseLong(startString);
+                    long end = endString.isEmpty() ? Long.MAX_VALUE : Long.parseLong(endString);
+                    if (start < 0 || end < start) { return null; }
+                    if (start >= length) { continue; }
+
+                    ranges.add(new HttpByteRange(start, Math.min(end, length - 1)));
+                }
+            } catch (NumberFormatException e) {
+                return null;
+            }
+        }
+
+        return ranges.isEmpty() ? Collections.emptyList() : ranges;
+    }
+
+    public static String makeUnsatisfiedContentRange(long length) {
+        return BYTES_UNIT + " */" + length;
+    }
+    ////////////////////////////////////////////////////////////
+
+    ////////////////////////////////////////////////////////////
+    public long getStart() {
+        return start;
+    }
+
+    public long getEnd() {
+        return end;
+    }
+
+    public long getLength() {
+        return end - start + 1;
+    }
+
+    public String makeContentRange(long length) {
+        return BYTES_UNIT + " " + start + "-" + end + "/" + length;
+    }
+
+    @Override
+    public String toString() {
+        return start + "-" + end;
+    }
+    ////////////////////////////////////////////////////////////
+
+}
@@ -0,0 +1,161 @@
+package dash.server.handler.definition;
+
+import io.netty.handler.codec.http.HttpHeaderNames;
+import io.netty.handler.codec.http.HttpHeaders;
+
+import java.io.File;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.zip.CRC32;
+
+/**
+ * 응답 검증자(ETag, Last-Modified) + Cache-Control 정책
+ *
+ * - ETag
+ *   - 내용을 알 때 (MPD) : 길이 + 내용의 CRC32 (strong)
+ *   - 파일 정보만 알 때 (세그먼트) : 길이 + 수정 시간 (weak)
+ *     > 같은 크기로 수정 시간 단위 안에 다시 쓰면 구분할 수 없으므로 strong 으로 쓰지 않는다.
+ * - If-None-Match 가 있으면 ETag 로만 비교 (weak 비교), 없으면 If-Modified-Since 로 비교 > 304
+ */
+public class HttpCacheInfo {
+
+    ////////////////////////////////////////////////////////////
+    public static final String NO_CACHE = "no-cache";
+
+    private static final String WEAK_PREFIX = "W/";
+
+    private final String etag;
+    private final String opaqueTag; // W/ 를 뺀 값 (비교용)
+    private final long lastModified; // ms
+    private final String lastModifiedString;
+    private final String cacheControl;
+    ////////////////////////////////////////////////////////////
+
+    ////////////////////////////////////////////////////////////
+    /**
+     * 파일 정보 (길이 + 수정 시간) 기준 > weak ETag
+     */
+    public HttpCacheInfo(long length, long lastModified, String cacheControl) {
+        this(makeOpaqueTag(length, lastModified), true, lastModified, cacheControl);
+    }
+
+    private HttpCacheInfo(String opaqueTag, boolean isWeak, long lastModified, String cacheControl) {
+        this.opaqueTag = opaqueTag;
+        this.etag = isWeak ? WEAK_PREFIX + opaqueTag : opaqueTag;
+        this.lastModified = lastModified;
+        this.lastModifiedString = formatDate(lastModified);
+        this.cacheControl = cacheControl;
+    }
+
+    /**
+     * 내용 기준 > strong ETag (같은 크기, 같은 수정 시간에 다시 써도 내용이 바뀌면 달라짐)
+     */
+    public static HttpCacheInfo fromContent(byte[] content, long lastModified, String cacheControl) {
+        CRC32 crc32 = new CRC32();
+        crc32.update(content, 0, content.length);
+        return new HttpCacheInfo(makeOpaqueTag(content.length, crc32.getValue()), false, lastModified, cacheControl);
+    }
+
+    /**
+     * @return 수정 시간을 알 수 없으면 (파일이 없으면) null
+     */
+    public static HttpCacheInfo fromFile(File file, String cacheControl) {
+        if (file == null) { return null; }
+
+        long lastModified = file.lastModified();
+        if (lastModified <= 0) { return null; }
+
+        return new HttpCacheInfo(file.length(), lastModified, cacheControl);
+    }
+    ////////////////////////////////////////////////////////////
+
+    ////////////////////////////////////////////////////////////
+    /**
+     * immutable 은 붙이지 않는다.
+     * > 라이브 스트림이 다시 시작되면 같은 세그먼트 이름이 재사용되므로, max-age 가 지나면 재검증해야 한다.
+     *
+     * @param maxAge sec (0 이면 매번 재검증)
+     */
+    public static String makeCacheControl(long maxAge) {
+        if (maxAge <= 0) { return NO_CACHE; }
+
+        return "public, max-age=" + maxAge;
+    }
+
+    public boolean isNotModified(io.netty.handler.codec.http.HttpRequest request) {
+        HttpHeaders headers = request.headers();
+
+        CharSequence ifNoneMatch = headers.get(HttpHeaderNames.IF_NONE_MATCH);
+        if (ifNoneMatch != null) {
+            for (String tag : ifNoneMatch.toString().split(",")) {
+                tag = tag.trim();
+                if (tag.startsWith(WEAK_PREFIX)) { // GET 은 weak 비교
+                    tag = tag.substring(WEAK_PREFIX.length());
+                }
+                if (tag.equals("*") || tag.equals(opaqueTag)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        CharSequence ifModifiedSince = headers.get(HttpHeaderNames.IF_MODIFIED_SINCE);
+        if (ifModifiedSince != null) {
+            try {
+                long since = ZonedDateTime.parse(ifModifiedSince.toString().trim(), DateTimeFormatter.RFC_1123_DATE_TIME)
+                        .toInstant().toEpochMilli();
+                // HTTP 날짜는 초 단위
+                return lastModified / 1000 <= since / 1000;
+            } catch (Exception e) {
+                return false;
+            }
+        }
+
+        return false;
+    }
+
+    public void apply(HttpHeaders headers) {
+        headers.set(HttpHeaderNames.ETAG, etag);
+        headers.set(HttpHeaderNames.LAST_MODIFIED, lastModifiedString);
+        if (cacheControl != null) {
+            headers.set(HttpHeaderNames.CACHE_CONTROL, cacheControl);
+        }
+    }
+
+    private static String makeOpaqueTag(long length, long version) {
+        return "\"" + Long.toHexString(length) + "-" + Long.toHexString(version) + "\"";
+    }
+
+    private static String formatDate(long timeMillis) {
+        return DateTimeFormatter.RFC_1123_DATE_TIME.format(
+                ZonedDateTime.ofInstant(Instant.ofEpochMilli(timeMillis), ZoneOffset.UTC)
+        );
+    }
+    ////////////////////////////////////////////////////////////
+
+    ////////////////////////////////////////////////////////////
+    public String getEtag() {
+        return etag;
+    }
+
+    public long getLastModified() {
+        return lastModified;
+    }
+
+    public String getCacheControl() {
+        return cacheControl;
+    }
+
+    @Override
+    public String toString() {
+        return "HttpCacheInfo{" +
+                "etag='" + etag + '\'' +
+                ", lastModified='" + lastModifiedString + '\'' +
+                ", cacheControl='" + cacheControl + '\'' +
+                '}';
+    }
+    ////////////////////////////////////////////////////////////
+
+}
@@ -6,52 +6,129 @@ import io.netty.handler.codec.http.HttpMethod;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 
+/**
+ * HTTP Method 별 라우팅 테이블
+ *
+ * - 정확히 일치하는 URI : HashMap 조회 O(1)
+ * - [prefix/*] 형태의 URI : path segment trie 에서 가장 길게 일치하는 route
+ *
+ * 조회는 lock 없이 읽고, 변경은 updateLock 안에서 route 하나씩 반영한다.
+ * - 정확히 일치하는 URI : Method 별 ConcurrentHashMap 의 해당 URI 항목만 변경 (전체 복사 X)
+ * - prefix : 해당 Method 의 trie 에서 루트부터 바뀌는 경로의 노드만 새로 만들어 루트를 교체한다.
+ * > route 추가/제거 비용은 전체 route 수와 상관없다.
+ * > 교체 (replaceRoutes) 는 새 route 를 먼저 추가한 후 이전 route 를 제거하므로 교체 중에도 조회 결과가 비지 않는다.
+ *
+ * Method 처리 : 등록된 Method 로만 조회된다. (HEAD 는 GET route 로 조회)
+ * > 기존 선형 탐색은 Method 를 비교하지 않았으므로 GET route 에 POST, PUT 등으로 요청해도 처리되었지만,
+ *   지금은 route 를 찾지 못한다. (404)
+ */
 public class HttpMessageRouteTable {
 
     private static final Logger logger = LoggerFactory.getLogger(HttpMessageRouteTable.class);
 
     ////////////////////////////////////////////////////////////
-    private final List<HttpMessageRoute> routes;
+    public static final String WILDCARD_POSTFIX = "/*";
+    private static final char PATH_SEPARATOR = '/';
+
+    // 같은 URI 가 여러 번 등록되면 먼저 등록된 route 를 사용한다. (기존 선형 탐색과 동일, 먼저 등록된 route 가 제거되면 다음 route 사용)
+    private final Set<HttpMessageRoute> routes = ConcurrentHashMap.newKeySet();
+    private final Map<String, Map<String, List<HttpMessageRoute>>> exactRouteMap = new ConcurrentHashMap<>(); // method > uri > routes (등록 순)
+    private final Map<String, PrefixNode> prefixRouteMap = new ConcurrentHashMap<>(); // method > trie root
+    private final Object updateLock = new Object();
     ////////////////////////////////////////////////////////////
 
     ////////////////////////////////////////////////////////////
     public HttpMessageRouteTable() {
-        routes = new ArrayList<>();
+        // nothing
     }
     ////////////////////////////////////////////////////////////
 
     ////////////////////////////////////////////////////////////
     public void addRoute(final HttpMessageRoute route) {
-        routes.add(route);
-        logger.debug("[HttpMessageRouteTable] ROUTE [{}:{}] is added.", route.getMethod().name(), route.getUri());
+        if (route == null) { return; }
+
+        addRoutes(Collections.singletonList(route));
+    }
+
+    /**
+     * 반환 시점에는 추가한 route 가 조회된다.
+     */
+    public void addRoutes(final Collection<HttpMessageRoute> routes) {
+        if (routes == null || routes.isEmpty()) { return; }
+
+        synchronized (updateLock) {
+            for (HttpMessageRoute route : routes) {
+                add(route);
+            }
+        }
+        for (HttpMessageRoute route : routes) {
+            if (route == null) { continue; }
+            logger.debug("[HttpMessageRouteTable] ROUTE [{}:{}] is added.", route.getMethod().name(), route.getUri());
+        }
+    }
+
+    /**
+     * prevRoutes 를 제거하고 newRoutes 를 추가한다. (다른 곳에서 추가된 route 는 유지)
+     */
+    public void replaceRoutes(final Collection<HttpMessageRoute> prevRoutes, final Collection<HttpMessageRoute> newRoutes) {
+        synchronized (updateLock) {
+            if (newRoutes != null) {
+                for (HttpMessageRoute route : newRoutes) {
+                    add(route);
+                }
+            }
+            if (prevRoutes != null) {
+                for (HttpMessageRoute route : prevRoutes) {
+                    remove(route);
+                }
+            }
+        }
+        logger.debug("[HttpMessageRouteTable] ROUTE TABLE is replaced. (removed={}, added={})",
+                prevRoutes == null ? 0 : prevRoutes.size(),
+                newRoutes == null ? 0 : newRoutes.size()
+        );
     }
 
     public HttpMessageRoute findUriRoute(final HttpMethod method, final String curUri) {
+        if (method == null || curUri == null) { return null; }
+
         if (routes.isEmpty()) {
             logger.warn("[HttpMessageRouteTable] ROUTE TABLE IS EMPTY. Fail to find the route. (uri={})", curUri);
             return null;
         }
 
-        for (final HttpMessageRoute route : routes) {
-            if (route.matches(method, curUri)) {
-                logger.debug("[HttpMessageRouteTable] REGISTERED ROUTE: [{}:{}]", route.getMethod().name(), route.getUri());
-                return route;
-            }
+        String path = curUri;
+        int queryIndex = path.indexOf('?');
+        if (queryIndex >= 0) {
+            path = path.substring(0, queryIndex);
+        }
+
+        String methodName = method.name().toString();
+        HttpMessageRoute route = find(methodName, path);
+        if (route == null && HttpMethod.HEAD.name().toString().equals(methodName)) {
+            route = find(HttpMethod.GET.name().toString(), path);
         }
 
-        return null;
+        if (route != null) {
+            logger.debug("[HttpMessageRouteTable] REGISTERED ROUTE: [{}:{}]", route.getMethod().name(), route.getUri());
+        }
+        return route;
     }
 
     public void clear() {
-        routes.clear();
+        synchronized (updateLock) {
+            routes.clear();
+            exactRouteMap.clear();
+            prefixRouteMap.clear();
+        }
         logger.debug("[HttpMessageRouteTable] ROUTE TABLE is cleared.");
     }
 
     public List<HttpMessageRoute> getRoutes() {
-        return routes;
+        return new ArrayList<>(routes);
     }
 
     public List<String> getUriList() {
@@ -67,8 +144,178 @@ public class HttpMessageRouteTable {
     @Override
     public String toString() {
         Gson gson = new GsonBuilder().setPrettyPrinting().create();
-        return gson.toJson(this);
+        return gson.toJson(getUriList());
+    }
+    ////////////////////////////////////////////////////////////
+
+    ////////////////////////////////////////////////////////////
+    // updateLock 안에서 호출
+    private void add(HttpMessageRoute route) {
+        if (route == null || route.getUri() == null || route.getMethod() == null) { return; }
+        if (!routes.add(route)) { return; } // 이미 등록된 route
+
+        String methodName = route.getMethod().name().toString();
+        String uri = route.getUri();
+        if (uri.endsWith(WILDCARD_POSTFIX)) {
+            prefixRouteMap.put(methodName, PrefixNode.insert(prefixRouteMap.get(methodName), splitPrefix(uri), 0, route));
+        } else {
+            exactRouteMap.computeIfAbsent(methodName, k -> new ConcurrentHashMap<>())
+                    .compute(uri, (k, curRoutes) -> append(curRoutes, route));
+        }
+    }
+
+    // updateLock 안에서 호출
+    private void remove(HttpMessageRoute route) {
+        if (route == null || !routes.remove(route)) { return; }
+
+        String methodName = route.getMethod().name().toString();
+        String uri = route.getUri();
+        if (uri.endsWith(WILDCARD_POSTFIX)) {
+            PrefixNode root = PrefixNode.delete(prefixRouteMap.get(methodName), splitPrefix(uri), 0, route);
+            if (root == null) {
+                prefixRouteMap.remove(methodName);
+            } else {
+                prefixRouteMap.put(methodName, root);
+            }
+        } else {
+            Map<String, List<HttpMessageRoute>> exactRoutes = exactRouteMap.get(methodName);
+            if (exactRoutes == null) { return; }
+
+            exactRoutes.computeIfPresent(uri, (k, curRoutes) -> exclude(curRoutes, route));
+            if (exactRoutes.isEmpty()) {
+                exactRouteMap.remove(methodName);
+            }
+        }
+    }
+
+    private HttpMessageRoute find(String methodName, String path) {
+        Map<String, List<HttpMessageRoute>> exactRoutes = exactRouteMap.get(methodName);
+        if (exactRoutes != null) {
+            List<HttpMessageRoute> curRoutes = exactRoutes.get(path);
+            if (curRoutes != null) { return curRoutes.get(0); }
+        }
+
+        PrefixNode node = prefixRouteMap.get(methodName);
+        if (node == null) { return null; }
+
+        HttpMessageRoute matched = node.getRoute();
+        int index = 0;
+        int length = path.length();
+        while (index < length) {
+            int end = path.indexOf(PATH_SEPARATOR, index);
+            if (end < 0) { end = length; }
+            if (end > index) {
+                node = node.children.get(path.substring(index, end));
+                if (node == null) { break; }
+                if (node.getRoute() != null) {
+                    matched = node.getRoute();
+                }
+            }
+            index = end + 1;
+        }
+        return matched;
+    }
+
+    // [/media/vod/*] > [media, vod]
+    private static List<String> splitPrefix(String uri) {
+        String prefix = uri.substring(0, uri.length() - WILDCARD_POSTFIX.length());
+        List<String> names = new ArrayList<>();
+        int index = 0;
+        while (index < prefix.length()) {
+            int end = prefix.indexOf(PATH_SEPARATOR, index);
+            if (end < 0) { end = prefix.length(); }
+            if (end > index) {
+                names.add(prefix.substring(index, end));
+            }
+            index = end + 1;
+        }
+        return names;
+    }
+
+    // 조회 중인 목록은 수정하지 않는다. (같은 URI 의 route 목록만 새로 만듦, 보통 1 개)
+    private static List<HttpMessageRoute> append(List<HttpMessageRoute> curRoutes, HttpMessageRoute route) {
+        if (curRoutes == null) { return Collections.singletonList(route); }
+
+        List<HttpMessageRoute> newRoutes = new ArrayList<>(curRoutes.size() + 1);
+        newRoutes.addAll(curRoutes);
+        newRoutes.add(route);
+        return Collections.unmodifiableList(newRoutes);
+    }
+
+    // 비면 null (항목 제거)
+    private static List<HttpMessageRoute> exclude(List<HttpMessageRoute> curRoutes, HttpMessageRoute route) {
+        if (curRoutes == null) { return null; }
+
+        List<HttpMessageRoute> newRoutes = new ArrayList<>(curRoutes.size());
+        for (HttpMessageRoute curRoute : curRoutes) {
+            if (curRoute != route) {
+                newRoutes.add(curRoute);
+            }
+        }
+        if (newRoutes.isEmpty()) { return null; }
+        return Collections.unmodifiableList(newRoutes);
+    }
+    ////////////////////////////////////////////////////////////
+
+    ////////////////////////////////////////////////////////////
+    /**
+     * 조회 중인 노드는 수정하지 않는다. (추가/제거 시 루트부터 바뀌는 경로의 노드만 새로 만듦)
+     */
+    private static class PrefixNode {
+
+        private final Map<String, PrefixNode> children;
+        private final List<HttpMessageRoute> routes; // 등록 순, 첫 번째 route 사용
+
+        private PrefixNode(Map<String, PrefixNode> children, List<HttpMessageRoute> routes) {
+            this.children = children;
+            this.routes = routes;
+        }
+
+        private HttpMessageRoute getRoute() {
+            return routes == null ? null : routes.get(0);
+        }
+
+        private static PrefixNode insert(PrefixNode node, List<String> names, int depth, HttpMessageRoute route) {
+            Map<String, PrefixNode> children = node != null ? node.children : Collections.emptyMap();
+            List<HttpMessageRoute> curRoutes = node != null ? node.routes : null;
+
+            if (depth == names.size()) {
+                return new PrefixNode(children, append(curRoutes, route));
+            }
+
+            String name = names.get(depth);
+            PrefixNode child = insert(children.get(name), names, depth + 1, route);
+            Map<String, PrefixNode> newChildren = new HashMap<>(children);
+            newChildren.put(name, child);
+            return new PrefixNode(newChildren, curRoutes);
+        }
+
+        // route 도 자식도 없는 노드는 null
+        private static PrefixNode delete(PrefixNode node, List<String> names, int depth, HttpMessageRoute route) {
+            if (node == null) { return null; }
+
+            if (depth == names.size()) {
+                List<HttpMessageRoute> newRoutes = exclude(node.routes, route);
+                if (newRoutes == null && node.children.isEmpty()) { return null; }
+                return new PrefixNode(node.children, newRoutes);
+            }
+
+            String name = names.get(depth);
+            PrefixNode child = node.children.get(name);
+            if (child == null) { return node; }
+
+            PrefixNode newChild = delete(child, names, depth + 1, route);
+            Map<String, PrefixNode> newChildren = new HashMap<>(node.children);
+            if (newChild == null) {
+                newChildren.remove(name);
+            } else {
+                newChildren.put(name, newChild);
+            }
+            if (newChildren.isEmpty() && node.routes == null) { return null; }
+            return new PrefixNode(newChildren, node.routes);
+        }
+
     }
     ////////////////////////////////////////////////////////////
 
-}
\ No newline at end of file
+}
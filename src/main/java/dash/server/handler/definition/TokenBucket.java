@@ -0,0 +1,65 @@
+package dash.server.handler.definition;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 요청 속도 제한용 token bucket
+ * - 초당 rate 개씩 채워지고 최대 burst 개까지 쌓인다.
+ * - 요청 하나당 token 하나를 사용한다.
+ */
+public class TokenBucket {
+
+    ////////////////////////////////////////////////////////////
+    private final double ratePerNano;
+    private final double burst;
+    private final long fullRefillNanos;
+
+    private double tokens;
+    private long lastRefillTime;
+    ////////////////////////////////////////////////////////////
+
+    ////////////////////////////////////////////////////////////
+    /**
+     * @param rate 초당 허용 요청 수 (> 0)
+     * @param burst 순간 최대 허용 요청 수 (>= 1)
+     */
+    public TokenBucket(double rate, double burst, long now) {
+        this.ratePerNano = rate / TimeUnit.SECONDS.toNanos(1);
+        this.burst = Math.max(burst, 1);
+        this.fullRefillNanos = (long) Math.ceil(this.burst / ratePerNano);
+        this.tokens = this.burst;
+        this.lastRefillTime = now;
+    }
+    ////////////////////////////////////////////////////////////
+
+    ////////////////////////////////////////////////////////////
+    /**
+     * @param now System.nanoTime()
+     * @return 0 이면 허용, 아니면 token 이 하나 채워질 때까지 남은 시간 (ns)
+     */
+    public synchronized long tryAcquire(long now) {
+        refill(now);
+        if (tokens >= 1) {
+            tokens -= 1;
+            return 0;
+        }
+        return Math.max((long) Math.ceil((1 - tokens) / ratePerNano), 1);
+    }
+
+    /**
+     * 마지막 사용 후 bucket 이 가득 찰 만큼 시간이 지났으면 새 bucket 과 같으므로 버려도 된다.
+     */
+    public synchronized boolean isIdle(long now) {
+        return now - lastRefillTime >= fullRefillNanos;
+    }
+
+    private void refill(long now) {
+        long elapsed = now - lastRefillTime;
+        if (elapsed <= 0) { return; }
+
+        tokens = Math.min(burst, tokens + elapsed * ratePerNano);
+        lastRefillTime = now;
+    }
+    ////////////////////////////////////////////////////////////
+
+}
@@ -2,6 +2,7 @@ package dash.server.network;
 
 import config.ConfigManager;
 import dash.client.DashClient;
+import dash.client.pool.DashHttpConnectionPool;
 import dash.client.handler.audio.DashAudioHttpClientHandler;
 import dash.client.handler.mpd.DashMpdHttpClientHandler;
 import dash.client.handler.video.DashVideoHttpClientHandler;
@@ -46,6 +47,9 @@ public class DashLocalAddressManager {
 
     private final boolean isSsl;
     private SslContext sslContext = null;
+
+    // DashClient 공용 연결 풀 (ENABLE_CONNECTION_POOL=false 이면 null)
+    private DashHttpConnectionPool connectionPool = null;
     ////////////////////////////////////////////////////////////
 
     ////////////////////////////////////////////////////////////
@@ -57,7 +61,6 @@ public class DashLocalAddressManager {
         socketManager = new SocketManager(
                 baseEnvironment,
                 true, false,
-                configManager.getThreadCount(),
                 configManager.getSendBufSize(),
                 configManager.getRecvBufSize()
         );
@@ -78,6 +81,18 @@ public class DashLocalAddressManager {
             }
         }
 
+        if (configManager.isEnableConnectionPool()) {
+            connectionPool = new DashHttpConnectionPool(
+                    sslContext,
+                    configManager.getRecvBufSize(),
+                    configManager.getConnectionPoolMaxConnections(),
+                    configManager.getConnectionPoolMaxIdleConnections(),
+                    configManager.getConnectionPoolIdleTimeout(),
+                    configManager.getConnectionPoolMaxPendingRequests()
+            );
+            connectionPool.start();
+        }
+
         // MPD
         for (int i = 0; i < dashLocalMpdNetworkInfos.length; i++) {
             NetAddress localMpdListenAddress = new NetAddress(
@@ -148,6 +163,11 @@ public class DashLocalAddressManager {
     }
 
     public void stop() {
+        if (connectionPool != null) {
+            connectionPool.stop();
+            connectionPool = null;
+        }
+
         closeAllMpdSocket();
         closeAllAudioSocket();
         closeAllVideoSocket();
@@ -394,6 +414,10 @@ public class DashLocalAddressManager {
         return dashLocalVideoNetworkInfos[index];
     }
 
+    public DashHttpConnectionPool getConnectionPool() {
+        return connectionPool;
+    }
+
     private boolean checkMpdNetworkInfoIndex(int index) {
         return index >= 0 && index < dashLocalMpdNetworkInfos.length;
     }
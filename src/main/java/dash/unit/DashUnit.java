@@ -6,12 +6,17 @@ import config.ConfigManager;
 import dash.client.DashClient;
 import dash.client.handler.base.MessageType;
 import dash.mpd.MpdManager;
+import dash.mpd.SegmentTemplateMatcher;
 import dash.mpd.parser.mpd.MPD;
+import dash.server.DashServer;
+import dash.server.handler.definition.HttpMessageRoute;
+import dash.unit.segment.SegmentCache;
 import network.definition.NetAddress;
 import network.socket.SocketProtocol;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import service.AppInstance;
+import service.ServiceManager;
 import service.scheduler.job.Job;
 import service.scheduler.job.JobBuilder;
 import service.scheduler.schedule.ScheduleManager;
@@ -19,8 +24,12 @@ import stream.RemoteStreamService;
 import stream.StreamConfigManager;
 import util.module.FileManager;
 
+import java.io.File;
+import java.util.Collections;
+import java.util.List;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
 
 public class DashUnit {
 
@@ -35,6 +44,7 @@ public class DashUnit {
     private final long expires;
 
     private transient MPD mpd;
+    private transient volatile List<SegmentTemplateMatcher> initSegmentMatchers = Collections.emptyList(); // DashClient 가 없을 때 (로컬 패키징) MPD 의 초기화 세그먼트 템플릿
 
     private String inputFilePath = null;
     private String outputFilePath = null;
@@ -42,6 +52,7 @@ public class DashUnit {
 
     private final AtomicBoolean isRegistered = new AtomicBoolean(false);
     private final AtomicBoolean isLiveStreaming = new AtomicBoolean(false);
+    private final transient AtomicReference<List<HttpMessageRoute>> routes = new AtomicReference<>(Collections.emptyList()); // 이 DashUnit 이 등록한 route (삭제 시 제거)
 
     public final String REMOTE_CAMERA_SERVICE_SCHEDULE_KEY;
 
@@ -191,6 +202,10 @@ public class DashUnit {
             String mpdParentPath = fileManager.getParentPathFromUri(outputFilePath);
             if (mpdParentPath != null) {
                 fileManager.deleteFile(mpdParentPath);
+                SegmentCache segmentCache = ServiceManager.getInstance().getDashServer().getSegmentCache();
+                if (segmentCache != null) {
+                    segmentCache.invalidateByPrefix(mpdParentPath);
+                }
                 logger.debug("[DashUnit(id={})] DELETE ALL MPD Files. (path={})", id, mpdParentPath);
             }
         }
@@ -199,6 +214,16 @@ public class DashUnit {
     public byte[] getSegmentByteData(String uri) {
         return fileManager.readAllBytes(uri);
     }
+
+    public File getSegmentFile(String uri) {
+        if (uri == null) { return null; }
+
+        File file = new File(uri);
+        if (!file.isFile() || file.length() <= 0) {
+            return null;
+        }
+        return file;
+    }
     ////////////////////////////////////////////////////////////
 
     ////////////////////////////////////////////////////////////
@@ -222,6 +247,32 @@ public class DashUnit {
         this.mpd = mpd;
     }
 
+    public void setInitSegmentMatchers(List<SegmentTemplateMatcher> initSegmentMatchers) {
+        this.initSegmentMatchers = initSegmentMatchers == null ? Collections.emptyList() : initSegmentMatchers;
+    }
+
+    /**
+     * MPD 의 SegmentTemplate initialization 으로 초기화 세그먼트인지 판별한다. (파일 이름의 키워드로 판단하지 않음)
+     * - DashClient 가 있으면 DashClient 가 받은 MPD
+     * - 없으면 마지막으로 응답한 MPD (DashMessageHandler)
+     *
+     * @return MPD 를 아직 파싱하지 않았으면 false
+     */
+    public boolean isInitSegment(String uri, SegmentTemplateMatcher.MatchResult result) {
+        DashClient curDashClient = dashClient;
+        if (curDashClient != null) {
+            return curDashClient.getMpdManager().matchInitSegment(uri, result);
+        }
+
+        List<SegmentTemplateMatcher> curInitSegmentMatchers = initSegmentMatchers;
+        for (int i = 0; i < curInitSegmentMatchers.size(); i++) {
+            if (curInitSegmentMatchers.get(i).matchPath(uri, result)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     public String getInputFilePath() {
         return inputFilePath;
     }
@@ -243,7 +294,25 @@ public class DashUnit {
     }
 
     public void setMpdParentPath(String mpdParentPath) {
+        String prevMpdParentPath = this.mpdParentPath;
         this.mpdParentPath = mpdParentPath;
+
+        // 요청 URI > DashUnit 검색용 인덱스 갱신
+        DashServer dashServer = ServiceManager.getInstance().getDashServer();
+        if (dashServer != null) {
+            dashServer.updateDashUnitPath(this, prevMpdParentPath);
+        }
+    }
+
+    public List<HttpMessageRoute> getRoutes() {
+        return routes.get();
+    }
+
+    /**
+     * @return 이전에 등록된 route
+     */
+    public List<HttpMessageRoute> exchangeRoutes(List<HttpMessageRoute> newRoutes) {
+        return routes.getAndSet(newRoutes);
     }
 
     public boolean getIsRegistered() {
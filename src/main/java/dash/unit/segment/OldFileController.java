@@ -6,6 +6,7 @@ import dash.unit.MediaType;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import service.AppInstance;
+import service.ServiceManager;
 import service.scheduler.job.Job;
 import service.scheduler.job.JobContainer;
 import util.module.FileManager;
@@ -98,7 +99,12 @@ public class OldFileController extends JobContainer {
                        mpdManager.getAudioMediaSegmentName(firstSegmentIndex) : mpdManager.getVideoMediaSegmentName(firstSegmentIndex);
                long changedFirstSegmentNumber = mediaSegmentInfo.incAndGetFirstSegmentNumber();
 
-               if (fileManager.deleteFile(fileManager.concatFilePath(dashPath, segmentFileName))) {
+               SegmentCache segmentCache = ServiceManager.getInstance().getDashServer().getSegmentCache();
+               String segmentPath = fileManager.concatFilePath(dashPath, segmentFileName);
+               if (fileManager.deleteFile(segmentPath)) {
+                   if (segmentCache != null) {
+                       segmentCache.invalidate(segmentPath);
+                   }
                    logger.trace("[DashUnit(id={})] First segment({}) is changed : {}", dashUnitId, firstSegmentIndex, changedFirstSegmentNumber);
                } else {
                    if (fileManager.deleteOldFileBySecond(
@@ -106,6 +112,9 @@ public class OldFileController extends JobContainer {
                            exceptFileNameList,
                            exceptFileExtensionList,
                            limitTime)) {
+                       if (segmentCache != null) {
+                           segmentCache.invalidateDeletedFiles(dashPath);
+                       }
                        logger.trace("[DashUnit(id={})] First segment({}) is changed : {}", dashUnitId, firstSegmentIndex, changedFirstSegmentNumber);
                    }
                }
@@ -0,0 +1,346 @@
+package dash.unit.segment;
+
+import dash.server.handler.definition.HttpCacheInfo;
+import io.netty.buffer.ByteBuf;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 원격 DASH 서버에서 받은 세그먼트를 파일 대신 메모리에 보관한다. (DashClient 하나, 메모리 relay 모드)
+ *
+ * - Key : local uri (서버가 요청을 받았을 때의 파일 경로와 같다)
+ * - representation 별로 최근 windowSize 개의 세그먼트만 보관한다. (ring, 오래된 세그먼트부터 제거)
+ * - 초기화 세그먼트는 DashClient 가 중지될 때까지 유지한다. (pinned)
+ * - 세그먼트 데이터는 pooled direct ByteBuf 이고, 응답마다 duplicate().retain() 으로 같은 메모리를 공유한다. (SegmentCache 와 동일)
+ * - 모든 저장소의 세그먼트 합계가 maxTotalBytes (MEMORY_RELAY_MAX_SIZE) 를 넘으면
+ *      모든 저장소에서 가장 오래된 세그먼트부터 제거한다. (초기화 세그먼트, 방금 저장한 세그먼트는 제외)
+ *      > 저장 순서대로 쌓은 전역 제거 큐의 앞에서부터 제거한다. (저장 1 회당 큐 추가, 제거 1 회 : O(1) amortized)
+ *      > 이미 제거된 세그먼트 (ring 에서 밀려남, 재수신으로 교체, 저장소 종료) 의 항목은 큐에서 만날 때 버린다.
+ *      > 저장소 하나의 lock 만 잡고 제거하므로 저장소끼리 lock 순서 문제가 없다.
+ */
+public class RelaySegmentStore {
+
+    ////////////////////////////////////////////////////////////
+    private static final Logger logger = LoggerFactory.getLogger(RelaySegmentStore.class);
+
+    // 전체 저장소 (메모리 부족 시 제거 대상)
+    private static final Set<RelaySegmentStore> relaySegmentStores = ConcurrentHashMap.newKeySet();
+    private static final ConcurrentLinkedDeque<EvictionEntry> evictionQueue = new ConcurrentLinkedDeque<>(); // 저장 순서 (오래된 순)
+    private static final AtomicLong globalTotalBytes = new AtomicLong(0);
+    private static volatile long maxTotalBytes = 0; // 0 : 제한 없음
+
+    private final String dashUnitId;
+    private final int windowSize;
+    private long totalBytes = 0;
+    private boolean isClosed = false; // DashClient 중지 후에 완료된 세그먼트는 저장하지 않음
+
+    private final Map<String, RelaySegment> segmentMap = new HashMap<>();
+    private final Map<String, ArrayDeque<String>> ringMap = new HashMap<>(); // key : representation, value : uri (오래된 순)
+    private final ReentrantLock segmentMapLock = new ReentrantLock();
+
+    private final AtomicLong putCount = new AtomicLong(0);
+    private final AtomicLong hitCount = new AtomicLong(0);
+    private final AtomicLong missCount = new AtomicLong(0);
+    private final AtomicLong evictionCount = new AtomicLong(0);
+    private final AtomicLong pressureEvictionCount = new AtomicLong(0); // 전체 크기 제한으로 제거한 수
+    ////////////////////////////////////////////////////////////
+
+    ////////////////////////////////////////////////////////////
+    public RelaySegmentStore(String dashUnitId, int windowSize) {
+        this.dashUnitId = dashUnitId;
+        this.windowSize = Math.max(windowSize, 1);
+        relaySegmentStores.add(this);
+    }
+
+    /**
+     * @param maxTotalBytes 모든 저장소의 세그먼트 합계 제한 (bytes, 0 이하 : 제한 없음)
+     */
+    public static void configure(long maxTotalBytes) {
+        RelaySegmentStore.maxTotalBytes = Math.max(maxTotalBytes, 0);
+    }
+    ////////////////////////////////////////////////////////////
+
+    ////////////////////////////////////////////////////////////
+    /**
+     * 세그먼트를 저장한다. buf 의 소유권은 저장소로 넘어온다.
+     *
+     * @param representationKey 세그먼트를 보관할 ring, null 이면 초기화 세그먼트 (pinned)
+     */
+    public void put(String representationKey, String uri, ByteBuf buf) {
+        if (uri == null || buf == null) {
+            if (buf != null) { buf.release(); }
+            return;
+        }
+
+        String key = normalize(uri);
+        RelaySegment relaySegment = new RelaySegment(buf, System.currentTimeMillis(), null);
+
+        segmentMapLock.lock();
+        try {
+            if (isClosed) {
+                buf.release();
+                return;
+            }
+
+            RelaySegment prevRelaySegment = segmentMap.put(key, relaySegment);
+            if (prevRelaySegment != null) { // 같은 세그먼트를 다시 받음 (재시도)
+                removeBytes(prevRelaySegment);
+            }
+            addBytes(relaySegment);
+            putCount.incrementAndGet();
+
+            if (representationKey != null && maxTotalBytes > 0) {
+                evictionQueue.offerLast(new EvictionEntry(this, representationKey, key, relaySegment));
+            }
+
+            if (representationKey != null && prevRelaySegment == null) {
+                ArrayDeque<String> ring = ringMap.computeIfAbsent(representationKey, k -> new ArrayDeque<>(windowSize + 1));
+                ring.addLast(key);
+                while (ring.size() > windowSize) {
+                    RelaySegment oldRelaySegment = segmentMap.remove(ring.pollFirst());
+                    if (oldRelaySegment != null) {
+                        removeBytes(oldRelaySegment);
+                        evictionCount.incrementAndGet();
+                    }
+                }
+            }
+        } finally {
+            segmentMapLock.unlock();
+        }
+
+        // lock 을 놓은 후에 처리 (다른 저장소의 lock 을 잡을 수 있음)
+        evictUnderPressure(relaySegment);
+    }
+
+    /**
+     * 데이터와 응답 검증자를 한 번에 조회한다. (조회 중에 세그먼트가 교체되어도 두 값이 어긋나지 않음)
+     * 검증자는 세그먼트마다 한 번만 만든다.
+     * 반환된 RelaySegment 의 ByteBuf 는 호출자가 소유한다. (응답으로 쓰거나 release 해야 한다.)
+     *
+     * @param cacheControl 응답 검증자의 Cache-Control
+     * @return 세그먼트, 없으면 null
+     */
+    public RelaySegment get(String uri, String cacheControl) {
+        if (uri == null) { return null; }
+
+        segmentMapLock.lock();
+        try {
+            RelaySegment relaySegment = segmentMap.get(normalize(uri));
+            if (relaySegment == null) {
+                missCount.incrementAndGet();
+                return null;
+            }
+
+            hitCount.incrementAndGet();
+            return new RelaySegment(relaySegment.buf.duplicate().retain(), relaySegment.createdTime, relaySegment.getCacheInfo(cacheControl));
+        } finally {
+            segmentMapLock.unlock();
+        }
+    }
+
+    /**
+     * 모든 세그먼트를 해제하고 이후 저장 요청은 버린다. (DashClient 중지 시)
+     */
+    public void close() {
+        segmentMapLock.lock();
+        try {
+            isClosed = true;
+            for (RelaySegment relaySegment : segmentMap.values()) {
+                relaySegment.isRemoved = true;
+                relaySegment.buf.release();
+            }
+            segmentMap.clear();
+            ringMap.clear();
+            globalTotalBytes.addAndGet(-totalBytes);
+            totalBytes = 0;
+        } finally {
+            segmentMapLock.unlock();
+        }
+        relaySegmentStores.remove(this);
+        logger.debug("[RelaySegmentStore({})] CLOSE", dashUnitId);
+    }
+
+    private void addBytes(RelaySegment relaySegment) {
+        int bytes = relaySegment.buf.readableBytes();
+        totalBytes += bytes;
+        globalTotalBytes.addAndGet(bytes);
+    }
+
+    // 제거된 세그먼트의 메모리도 해제한다.
+    private void removeBytes(RelaySegment relaySegment) {
+        int bytes = relaySegment.buf.readableBytes();
+        totalBytes -= bytes;
+        globalTotalBytes.addAndGet(-bytes);
+        relaySegment.isRemoved = true;
+        relaySegment.buf.release();
+    }
+    ////////////////////////////////////////////////////////////
+
+    ////////////////////////////////////////////////////////////
+    /**
+     * 전체 크기가 제한을 넘으면 모든 저장소에서 가장 오래된 세그먼트부터 제거한다.
+     * 제한 안이면 큐 앞쪽의 이미 제거된 항목만 정리한다. (큐가 계속 자라지 않도록)
+     *
+     * @param savedRelaySegment 방금 저장한 세그먼트 (제거하지 않음)
+     */
+    private static void evictUnderPressure(RelaySegment savedRelaySegment) {
+        long curMaxTotalBytes = maxTotalBytes;
+        if (curMaxTotalBytes <= 0) { return; }
+
+        EvictionEntry entry;
+        while (globalTotalBytes.get() > curMaxTotalBytes) {
+            entry = evictionQueue.pollFirst();
+
+            // 제거할 수 있는 세그먼트가 없음 (초기화 세그먼트, 방금 저장한 세그먼트만 남음)
+            if (entry == null || entry.relaySegment == savedRelaySegment) {
+                if (entry != null) {
+                    evictionQueue.offerFirst(entry);
+                }
+                logger.warn("[RelaySegmentStore] Total size exceeds the limit. No segment can be evicted. (totalBytes={}, maxTotalBytes={})",
+                        globalTotalBytes.get(), curMaxTotalBytes
+                );
+                return;
+            }
+            entry.relaySegmentStore.evict(entry);
+        }
+
+        while ((entry = evictionQueue.peekFirst()) != null && entry.relaySegment.isRemoved) {
+            evictionQueue.removeFirstOccurrence(entry);
+        }
+    }
+
+    private void evict(EvictionEntry entry) {
+        segmentMapLock.lock();
+        try {
+            if (entry.relaySegment.isRemoved) { return; }
+
+            // 보통 ring 의 맨 앞 (재수신으로 교체된 세그먼트는 ring 안쪽에 있을 수 있음, 최대 windowSize 개 확인)
+            ArrayDeque<String> ring = ringMap.get(entry.representationKey);
+            if (ring != null) {
+                if (entry.key.equals(ring.peekFirst())) {
+                    ring.pollFirst();
+                } else {
+                    ring.remove(entry.key);
+                }
+            }
+            removeBytes(segmentMap.remove(entry.key));
+            pressureEvictionCount.incrementAndGet();
+        } finally {
+            segmentMapLock.unlock();
+        }
+    }
+
+    // [/a//b/c.m4s] > [/a/b/c.m4s] (클라이언트의 저장 경로와 서버의 local uri 를 같은 형태로 맞춤)
+    private String normalize(String uri) {
+        return new File(uri).getPath();
+    }
+    ////////////////////////////////////////////////////////////
+
+    ////////////////////////////////////////////////////////////
+    public int getWindowSize() {
+        return windowSize;
+    }
+
+    public long getTotalBytes() {
+        segmentMapLock.lock();
+        try {
+            return totalBytes;
+        } finally {
+            segmentMapLock.unlock();
+        }
+    }
+
+    public static long getGlobalTotalBytes() {
+        return globalTotalBytes.get();
+    }
+
+    public int getSegmentCount() {
+        segmentMapLock.lock();
+        try {
+            return segmentMap.size();
+        } finally {
+            segmentMapLock.unlock();
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "RelaySegmentStore{" +
+                "dashUnitId=" + dashUnitId +
+                ", windowSize=" + windowSize +
+                ", segments=" + getSegmentCount() +
+                ", totalBytes=" + getTotalBytes() +
+                ", put=" + putCount.get() +
+                ", hit=" + hitCount.get() +
+                ", miss=" + missCount.get() +
+                ", eviction=" + evictionCount.get() +
+                ", pressureEviction=" + pressureEvictionCount.get() +
+                '}';
+    }
+    ////////////////////////////////////////////////////////////
+
+    public static final class RelaySegment {
+
+        private final ByteBuf buf;
+        private final long createdTime;
+        private HttpCacheInfo cacheInfo; // 저장된 세그먼트는 segmentMapLock 안에서 접근
+        private volatile boolean isRemoved = false; // 저장소에서 제거됨 (segmentMapLock 안에서 변경)
+
+        private RelaySegment(ByteBuf buf, long createdTime, HttpCacheInfo cacheInfo) {
+            this.buf = buf;
+            this.createdTime = createdTime;
+            this.cacheInfo = cacheInfo;
+        }
+
+        private HttpCacheInfo getCacheInfo(String cacheControl) {
+            if (cacheInfo == null || !Objects.equals(cacheInfo.getCacheControl(), cacheControl)) {
+                cacheInfo = new HttpCacheInfo(buf.readableBytes(), createdTime, cacheControl);
+            }
+            return cacheInfo;
+        }
+
+        public ByteBuf getBuf() {
+            return buf;
+        }
+
+        /**
+         * @return 세그먼트 저장 시각 (ms)
+         */
+        public long getCreatedTime() {
+            return createdTime;
+        }
+
+        public HttpCacheInfo getCacheInfo() {
+            return cacheInfo;
+        }
+
+    }
+
+    private static final class EvictionEntry {
+
+        private final RelaySegmentStore relaySegmentStore;
+        private final String representationKey;
+        private final String key;
+        private final RelaySegment relaySegment;
+
+        private EvictionEntry(RelaySegmentStore relaySegmentStore, String representationKey, String key, RelaySegment relaySegment) {
+            this.relaySegmentStore = relaySegmentStore;
+            this.representationKey = representationKey;
+            this.key = key;
+            this.relaySegment = relaySegment;
+        }
+
+    }
+
+}
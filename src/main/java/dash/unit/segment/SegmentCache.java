@@ -0,0 +1,330 @@
+package dash.unit.segment;
+
+import dash.server.handler.definition.HttpCacheInfo;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.PooledByteBufAllocator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 자주 요청되는 세그먼트 파일을 pooled direct ByteBuf 로 보관하는 노드 단위 캐시
+ *
+ * - Key : local uri (파일 경로)
+ * - 전체 크기(byte) 기준으로 LRU 제거
+ * - 응답마다 duplicate().retain() 으로 같은 메모리를 공유한다. (응답 전송 후 encoder 가 release)
+ * - 초기화 세그먼트는 DashUnit 이 삭제될 때까지 제거하지 않는다. (pinned)
+ *      > 초기화 세그먼트 여부는 호출자가 MPD 의 initialization 템플릿으로 판별한다. (DashUnit.isInitSegment)
+ * - 파일 크기나 수정 시간이 바뀌면 (append 중이던 파일 등) 다시 읽는다.
+ * - 응답 검증자 (HttpCacheInfo) 도 파일 버전마다 한 번만 만든다. (요청마다 날짜 포맷, ETag 생성 X)
+ */
+public class SegmentCache {
+
+    ////////////////////////////////////////////////////////////
+    private static final Logger logger = LoggerFactory.getLogger(SegmentCache.class);
+
+    private final long maxBytes;
+    private long totalBytes = 0;
+
+    // access-order LinkedHashMap > LRU
+    private final LinkedHashMap<String, Entry> entryMap = new LinkedHashMap<>(256, 0.75f, true);
+    private final ReentrantLock entryMapLock = new ReentrantLock();
+
+    private final AtomicLong hitCount = new AtomicLong(0);
+    private final AtomicLong missCount = new AtomicLong(0);
+    private final AtomicLong evictionCount = new AtomicLong(0);
+    ////////////////////////////////////////////////////////////
+
+    ////////////////////////////////////////////////////////////
+    public SegmentCache(long maxBytes) {
+        this.maxBytes = maxBytes;
+    }
+    ////////////////////////////////////////////////////////////
+
+    ////////////////////////////////////////////////////////////
+    /**
+     * 캐시된 세그먼트를 가져온다. 없으면 파일에서 읽어서 캐시에 저장한다.
+     * 반환된 CachedSegment 의 ByteBuf 는 호출자가 소유한다. (응답으로 쓰거나 release 해야 한다.)
+     *
+     * @param uri local uri
+     * @param cacheControl 응답 검증자의 Cache-Control
+     * @param isInitSegment 초기화 세그먼트면 새로 저장할 때 pinned
+     * @return 세그먼트 데이터 + 검증자, 파일이 없으면 null
+     */
+    public CachedSegment get(String uri, String cacheControl, boolean isInitSegment) {
+        if (uri == null) { return null; }
+
+        File file = new File(uri);
+        long fileLength = file.length(); // 파일이 없으면 0
+        long lastModified = file.lastModified();
+
+        entryMapLock.lock();
+        try {
+            Entry entry = entryMap.get(uri);
+            if (entry != null) {
+                if (entry.length == fileLength && entry.lastModified == lastModified) {
+                    hitCount.incrementAndGet();
+                    return new CachedSegment(entry.buf.duplicate().retain(), entry.getCacheInfo(cacheControl));
+                }
+                removeEntry(uri, entry);
+            }
+        } finally {
+            entryMapLock.unlock();
+        }
+
+        missCount.incrementAndGet();
+        if (fileLength <= 0 || fileLength > Integer.MAX_VALUE) { return null; }
+
+        ByteBuf buf = readFile(file, (int) fileLength);
+        if (buf == null) { return null; }
+
+        // 읽는 동안 파일이 바뀌었으면 캐시하지 않고 이번 요청에만 사용
+        if (buf.readableBytes() != fileLength || file.lastModified() != lastModified) {
+            return new CachedSegment(buf, new HttpCacheInfo(buf.readableBytes(), file.lastModified(), cacheControl));
+        }
+
+        Entry newEntry = new Entry(buf, fileLength, lastModified, isInitSegment);
+        HttpCacheInfo cacheInfo = newEntry.getCacheInfo(cacheControl);
+        entryMapLock.lock();
+        try {
+            if (!entryMap.containsKey(uri) && makeRoom(fileLength, newEntry.isPinned)) {
+                entryMap.put(uri, newEntry);
+                totalBytes += fileLength;
+                return new CachedSegment(buf.duplicate().retain(), cacheInfo);
+            }
+        } finally {
+            entryMapLock.unlock();
+        }
+
+        return new CachedSegment(buf, cacheInfo);
+    }
+
+    public void invalidate(String uri) {
+        if (uri == null) { return; }
+
+        entryMapLock.lock();
+        try {
+            Entry entry = entryMap.get(uri);
+            if (entry != null) {
+                removeEntry(uri, entry);
+            }
+        } finally {
+            entryMapLock.unlock();
+        }
+    }
+
+    /**
+     * 지정한 경로 아래의 모든 항목을 제거한다. (pinned 포함)
+     * DashUnit 삭제 또는 MPD 경로 삭제 시 호출
+     */
+    public void invalidateByPrefix(String pathPrefix) {
+        if (pathPrefix == null || pathPrefix.isEmpty()) { return; }
+
+        entryMapLock.lock();
+        try {
+            Iterator<Map.Entry<String, Entry>> iterator = entryMap.entrySet().iterator();
+            while (iterator.hasNext()) {
+                Map.Entry<String, Entry> mapEntry = iterator.next();
+                if (mapEntry.getKey().startsWith(pathPrefix)) {
+                    totalBytes -= mapEntry.getValue().length;
+                    mapEntry.getValue().buf.release();
+                    iterator.remove();
+                }
+            }
+        } finally {
+            entryMapLock.unlock();
+        }
+    }
+
+    /**
+     * 지정한 경로 아래에서 파일이 삭제된 항목을 제거한다.
+     * (삭제된 파일 이름을 알 수 없는 경우 사용)
+     */
+    public void invalidateDeletedFiles(String pathPrefix) {
+        if (pathPrefix == null || pathPrefix.isEmpty()) { return; }
+
+        entryMapLock.lock();
+        try {
+            Iterator<Map.Entry<String, Entry>> iterator = entryMap.entrySet().iterator();
+            while (iterator.hasNext()) {
+                Map.Entry<String, Entry> mapEntry = iterator.next();
+                if (mapEntry.getKey().startsWith(pathPrefix) && !new File(mapEntry.getKey()).exists()) {
+                    totalBytes -= mapEntry.getValue().length;
+                    mapEntry.getValue().buf.release();
+                    iterator.remove();
+                }
+            }
+        } finally {
+            entryMapLock.unlock();
+        }
+    }
+
+    public void clear() {
+        entryMapLock.lock();
+        try {
+            for (Entry entry : entryMap.values()) {
+                entry.buf.release();
+            }
+            entryMap.clear();
+            totalBytes = 0;
+        } finally {
+            entryMapLock.unlock();
+        }
+    }
+    ////////////////////////////////////////////////////////////
+
+    ////////////////////////////////////////////////////////////
+    private boolean makeRoom(long length, boolean isPinned) {
+        if (length > maxBytes) { return false; }
+
+        Iterator<Map.Entry<String, Entry>> iterator = entryMap.entrySet().iterator();
+        while (totalBytes + length > maxBytes && iterator.hasNext()) {
+            Entry entry = iterator.next().getValue();
+            if (entry.isPinned) { continue; }
+
+            totalBytes -= entry.length;
+            entry.buf.release();
+            iterator.remove();
+            evictionCount.incrementAndGet();
+        }
+
+        if (totalBytes + length > maxBytes) {
+            if (isPinned) {
+                logger.warn("[SegmentCache] Fail to pin the init segment. Cache is full of pinned segments. (total={}, max={})", totalBytes, maxBytes);
+            }
+            return false;
+        }
+        return true;
+    }
+
+    private void removeEntry(String uri, Entry entry) {
+        entryMap.remove(uri);
+        totalBytes -= entry.length;
+        entry.buf.release();
+    }
+
+    private ByteBuf readFile(File file, int length) {
+        ByteBuf buf = PooledByteBufAllocator.DEFAULT.directBuffer(length, length);
+        try (FileChannel fileChannel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            while (buf.isWritable()) {
+                if (buf.writeBytes(fileChannel, buf.writableBytes()) < 0) {
+                    break;
+                }
+            }
+            return buf;
+        } catch (Exception e) {
+            buf.release();
+            logger.warn("[SegmentCache] Fail to read the file. (path={})", file.getAbsolutePath(), e);
+            return null;
+        }
+    }
+
+    ////////////////////////////////////////////////////////////
+
+    ////////////////////////////////////////////////////////////
+    public long getHitCount() {
+        return hitCount.get();
+    }
+
+    public long getMissCount() {
+        return missCount.get();
+    }
+
+    public long getEvictionCount() {
+        return evictionCount.get();
+    }
+
+    public long getTotalBytes() {
+        entryMapLock.lock();
+        try {
+            return totalBytes;
+        } finally {
+            entryMapLock.unlock();
+        }
+    }
+
+    public int getEntryCount() {
+        entryMapLock.lock();
+        try {
+            return entryMap.size();
+        } finally {
+            entryMapLock.unlock();
+        }
+    }
+
+    public long getMaxBytes() {
+        return maxBytes;
+    }
+
+    @Override
+    public String toString() {
+        return "SegmentCache{" +
+                "entries=" + getEntryCount() +
+                ", bytes=" + getTotalBytes() + "/" + maxBytes +
+                ", hit=" + hitCount.get() +
+                ", miss=" + missCount.get() +
+                ", eviction=" + evictionCount.get() +
+                '}';
+    }
+    ////////////////////////////////////////////////////////////
+
+    ////////////////////////////////////////////////////////////
+    private static class Entry {
+
+        private final ByteBuf buf;
+        private final long length;
+        private final long lastModified;
+        private final boolean isPinned;
+        private HttpCacheInfo cacheInfo = null; // entryMapLock 안에서 접근 (새 항목은 등록 전)
+
+        private Entry(ByteBuf buf, long length, long lastModified, boolean isPinned) {
+            this.buf = buf;
+            this.length = length;
+            this.lastModified = lastModified;
+            this.isPinned = isPinned;
+        }
+
+        // 같은 파일은 항상 같은 Cache-Control 로 요청되므로 보통 한 번만 만든다.
+        private HttpCacheInfo getCacheInfo(String cacheControl) {
+            if (cacheInfo == null || !Objects.equals(cacheInfo.getCacheControl(), cacheControl)) {
+                cacheInfo = new HttpCacheInfo(length, lastModified, cacheControl);
+            }
+            return cacheInfo;
+        }
+
+    }
+
+    /**
+     * 응답 하나에서 사용하는 세그먼트 데이터와 검증자
+     */
+    public static final class CachedSegment {
+
+        private final ByteBuf buf;
+        private final HttpCacheInfo cacheInfo;
+
+        private CachedSegment(ByteBuf buf, HttpCacheInfo cacheInfo) {
+            this.buf = buf;
+            this.cacheInfo = cacheInfo;
+        }
+
+        public ByteBuf getBuf() {
+            return buf;
+        }
+
+        public HttpCacheInfo getCacheInfo() {
+            return cacheInfo;
+        }
+
+    }
+    ////////////////////////////////////////////////////////////
+
+}
@@ -12,30 +12,30 @@ public class NetInterface {
     private final transient BaseEnvironment baseEnvironment;
     private final boolean isStream; // tcp or udp
     private final boolean listenOnly; // tcp 일 때만 적용됨
-    private final int threadCount;
     private final int sendBufSize;
     private final int recvBufSize;
+    private final int listenerCount; // listen only (tcp) 일 때 같은 포트의 listen socket 수 (SO_REUSEPORT)
     private NetInterfaceTrafficStats netInterfaceTrafficStats = null;
     ////////////////////////////////////////////////////////////
 
     ////////////////////////////////////////////////////////////
     // CONSTRUCTOR
-    public NetInterface(BaseEnvironment baseEnvironment, boolean isStream, boolean listenOnly, int threadCount, int sendBufSize, int recvBufSize) {
+    public NetInterface(BaseEnvironment baseEnvironment, boolean isStream, boolean listenOnly, int sendBufSize, int recvBufSize) {
+        this(baseEnvironment, isStream, listenOnly, sendBufSize, recvBufSize, 1);
+    }
+
+    public NetInterface(BaseEnvironment baseEnvironment, boolean isStream, boolean listenOnly, int sendBufSize, int recvBufSize, int listenerCount) {
         this.baseEnvironment = baseEnvironment;
         this.isStream = isStream;
         this.listenOnly = listenOnly;
-        this.threadCount = threadCount;
         this.sendBufSize = sendBufSize;
         this.recvBufSize = recvBufSize;
+        this.listenerCount = listenerCount;
     }
     ////////////////////////////////////////////////////////////
 
     ////////////////////////////////////////////////////////////
     // FUNCTIONS
-    public int getThreadCount() {
-        return threadCount;
-    }
-
     public int getSendBufSize() {
         return sendBufSize;
     }
@@ -44,6 +44,10 @@ public class NetInterface {
         return recvBufSize;
     }
 
+    public int getListenerCount() {
+        return listenerCount;
+    }
+
     public void createNewTrafficStats() {
         if (netInterfaceTrafficStats != null) {
             netInterfaceTrafficStats.clear();
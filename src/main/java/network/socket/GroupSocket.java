@@ -6,9 +6,8 @@ import instance.BaseEnvironment;
 import instance.DebugLevel;
 import io.netty.channel.Channel;
 import io.netty.channel.ChannelInitializer;
+import io.netty.channel.socket.DatagramChannel;
 import io.netty.channel.socket.SocketChannel;
-import io.netty.channel.socket.nio.NioDatagramChannel;
-import io.netty.channel.socket.nio.NioSocketChannel;
 import network.definition.DestinationRecord;
 import network.definition.GroupEndpointId;
 import network.definition.NetAddress;
@@ -269,7 +268,6 @@ public class GroupSocket { // SEND-ONLY
                 nettyChannel = new NettyTcpServerChannel(
                         baseEnvironment,
                         sessionId,
-                        netInterface.getThreadCount(),
                         netInterface.getRecvBufSize(),
                         (ChannelInitializer<SocketChannel>) channelHandler
                 );
@@ -277,19 +275,17 @@ public class GroupSocket { // SEND-ONLY
                 nettyChannel = new NettyTcpClientChannel(
                         baseEnvironment,
                         sessionId,
-                        netInterface.getThreadCount(),
                         netInterface.getRecvBufSize(),
-                        (ChannelInitializer<NioSocketChannel>) channelHandler
+                        (ChannelInitializer<SocketChannel>) channelHandler
                 );
             }
         } else {
             nettyChannel = new NettyUdpChannel(
                     baseEnvironment,
                     sessionId,
-                    netInterface.getThreadCount(),
                     netInterface.getSendBufSize(),
                     netInterface.getRecvBufSize(),
-                    (ChannelInitializer<NioDatagramChannel>) channelHandler
+                    (ChannelInitializer<DatagramChannel>) channelHandler
             );
         }
 
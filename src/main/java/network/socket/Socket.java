@@ -6,9 +6,8 @@ import instance.BaseEnvironment;
 import instance.DebugLevel;
 import io.netty.channel.Channel;
 import io.netty.channel.ChannelInitializer;
+import io.netty.channel.socket.DatagramChannel;
 import io.netty.channel.socket.SocketChannel;
-import io.netty.channel.socket.nio.NioDatagramChannel;
-import io.netty.channel.socket.nio.NioSocketChannel;
 import network.definition.NetAddress;
 import network.definition.NetInterface;
 import network.socket.netty.NettyChannel;
@@ -38,27 +37,25 @@ public class Socket {
                 nettyChannel = new NettyTcpServerChannel(
                         baseEnvironment,
                         sessionId,
-                        netInterface.getThreadCount(),
                         netInterface.getRecvBufSize(),
+                        netInterface.getListenerCount(),
                         (ChannelInitializer<SocketChannel>) channelHandler
                 );
             } else {
                 nettyChannel = new NettyTcpClientChannel(
                         baseEnvironment,
                         sessionId,
-                        netInterface.getThreadCount(),
                         netInterface.getRecvBufSize(),
-                        (ChannelInitializer<NioSocketChannel>) channelHandler
+                        (ChannelInitializer<SocketChannel>) channelHandler
                 );
             }
         } else {
             nettyChannel = new NettyUdpChannel(
                     baseEnvironment,
                     sessionId,
-                    netInterface.getThreadCount(),
                     netInterface.getSendBufSize(),
                     netInterface.getRecvBufSize(),
-                    (ChannelInitializer<NioDatagramChannel>) channelHandler
+                    (ChannelInitializer<DatagramChannel>) channelHandler
             );
         }
     }
@@ -104,6 +101,10 @@ public class Socket {
         return sessionId;
     }
 
+    public NettyChannel getNettyChannel() {
+        return nettyChannel;
+    }
+
     public void reset() {
         if (netAddress == null) { return; }
         netAddress.clear();
@@ -23,9 +23,17 @@ public class SocketManager {
     // CONSTRUCTOR
     public SocketManager(BaseEnvironment baseEnvironment,
                          boolean isStream, boolean listenOnly,
-                         int threadCount, int sendBufSize, int recvBufSize) {
+                         int sendBufSize, int recvBufSize) {
         this.baseEnvironment = baseEnvironment;
-        this.netInterface = new NetInterface(baseEnvironment, isStream, listenOnly, threadCount, sendBufSize, recvBufSize);
+        this.netInterface = new NetInterface(baseEnvironment, isStream, listenOnly, sendBufSize, recvBufSize);
+    }
+
+    public SocketManager(BaseEnvironment baseEnvironment,
+                         boolean isStream, boolean listenOnly,
+                         int sendBufSize, int recvBufSize,
+                         int listenerCount) {
+        this.baseEnvironment = baseEnvironment;
+        this.netInterface = new NetInterface(baseEnvironment, isStream, listenOnly, sendBufSize, recvBufSize, listenerCount);
     }
     ////////////////////////////////////////////////////////////
 
@@ -11,7 +11,6 @@ public class NettyChannel {
     // VARIABLES
     private final transient BaseEnvironment baseEnvironment;
     private final String sessionId;
-    private final int threadCount;
 
     private final int sendBufSize;
     private final int recvBufSize;
@@ -24,10 +23,9 @@ public class NettyChannel {
 
     ////////////////////////////////////////////////////////////
     // CONSTRUCTOR
-    public NettyChannel(BaseEnvironment baseEnvironment, String sessionId, int threadCount, int sendBufSize, int recvBufSize) {
+    public NettyChannel(BaseEnvironment baseEnvironment, String sessionId, int sendBufSize, int recvBufSize) {
         this.baseEnvironment = baseEnvironment;
         this.sessionId = sessionId;
-        this.threadCount = threadCount;
 
         this.sendBufSize = sendBufSize;
         this.recvBufSize = recvBufSize;
@@ -48,10 +46,6 @@ public class NettyChannel {
         return sessionId;
     }
 
-    public int getThreadCount() {
-        return threadCount;
-    }
-
     public int getSendBufSize() {
         return sendBufSize;
     }
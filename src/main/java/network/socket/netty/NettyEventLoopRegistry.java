@@ -0,0 +1,106 @@
+package network.socket.netty;
+
+import io.netty.channel.EventLoopGroup;
+import io.netty.util.concurrent.DefaultThreadFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * 프로세스 전역 EventLoopGroup
+ * 모든 SocketManager (NettyChannel) 가 같은 그룹을 공유하므로 스레드 수는 스트림/목적지 수와 무관하다.
+ *
+ * - boss : TCP listen socket accept
+ * - worker : accept 된 TCP 연결 I/O (SO_REUSEPORT listener 는 worker event loop 하나에서 accept 까지 처리)
+ * - client : TCP 연결 요청 (DashClient 등), UDP
+ *
+ * 처음 요청될 때 NettyTransport 설정에 맞게 생성된다. (NettyTransport.configure() 이후에 사용)
+ * 스레드 이름은 EventLoop-{name}-{pool}-{thread} 이다. (thread dump, 로그에서 그룹 구분)
+ * 개별 NettyChannel.stop() 에서는 종료하지 않고, shutdown() 에서 한 번에 종료한다.
+ */
+public class NettyEventLoopRegistry {
+
+    ////////////////////////////////////////////////////////////
+    private static final Logger logger = LoggerFactory.getLogger(NettyEventLoopRegistry.class);
+
+    private static final NettyEventLoopRegistry nettyEventLoopRegistry = new NettyEventLoopRegistry();
+
+    private static final int BOSS_THREAD_COUNT = 1;
+    private static final int CORE_COUNT = Runtime.getRuntime().availableProcessors();
+
+    private EventLoopGroup bossGroup = null;
+    private EventLoopGroup workerGroup = null;
+    private EventLoopGroup clientGroup = null;
+    ////////////////////////////////////////////////////////////
+
+    ////////////////////////////////////////////////////////////
+    private NettyEventLoopRegistry() {}
+
+    public static NettyEventLoopRegistry getInstance() {
+        return nettyEventLoopRegistry;
+    }
+    ////////////////////////////////////////////////////////////
+
+    ////////////////////////////////////////////////////////////
+    public synchronized EventLoopGroup getBossGroup() {
+        if (bossGroup == null) {
+            bossGroup = newEventLoopGroup("boss", BOSS_THREAD_COUNT);
+        }
+        return bossGroup;
+    }
+
+    public synchronized EventLoopGroup getWorkerGroup() {
+        if (workerGroup == null) {
+            workerGroup = newEventLoopGroup("worker", CORE_COUNT);
+        }
+        return workerGroup;
+    }
+
+    public synchronized EventLoopGroup getClientGroup() {
+        if (clientGroup == null) {
+            clientGroup = newEventLoopGroup("client", CORE_COUNT);
+        }
+        return clientGroup;
+    }
+
+    public int getWorkerThreadCount() {
+        return CORE_COUNT;
+    }
+
+    public synchronized void shutdown() {
+        if (bossGroup != null) {
+            bossGroup.shutdownGracefully();
+            bossGroup = null;
+        }
+        if (workerGroup != null) {
+            workerGroup.shutdownGracefully();
+            workerGroup = null;
+        }
+        if (clientGroup != null) {
+            clientGroup.shutdownGracefully();
+            clientGroup = null;
+        }
+        logger.debug("[NettyEventLoopRegistry] Shutdown all event loop groups.");
+    }
+
+    private EventLoopGroup newEventLoopGroup(String name, int threadCount) {
+        EventLoopGroup eventLoopGroup = NettyTransport.newEventLoopGroup(
+                threadCount, new DefaultThreadFactory("EventLoop-" + name)
+        );
+        logger.debug("[NettyEventLoopRegistry] Event loop group is created. (name={}, threads={}, transport={})",
+                name, threadCount, NettyTransport.getName()
+        );
+        return eventLoopGroup;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return "NettyEventLoopRegistry{" +
+                "transport=" + NettyTransport.getName() +
+                ", boss=" + (bossGroup != null ? BOSS_THREAD_COUNT : 0) +
+                ", worker=" + (workerGroup != null ? CORE_COUNT : 0) +
+                ", client=" + (clientGroup != null ? CORE_COUNT : 0) +
+                '}';
+    }
+    ////////////////////////////////////////////////////////////
+
+}
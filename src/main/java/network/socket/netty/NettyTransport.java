@@ -0,0 +1,132 @@
+package network.socket.netty;
+
+import io.netty.bootstrap.Bootstrap;
+import io.netty.bootstrap.ServerBootstrap;
+import io.netty.channel.ChannelOption;
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.epoll.*;
+import io.netty.channel.nio.NioEventLoopGroup;
+import io.netty.channel.socket.DatagramChannel;
+import io.netty.channel.socket.ServerSocketChannel;
+import io.netty.channel.socket.SocketChannel;
+import io.netty.channel.socket.nio.NioDatagramChannel;
+import io.netty.channel.socket.nio.NioServerSocketChannel;
+import io.netty.channel.socket.nio.NioSocketChannel;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Netty transport 선택 (Linux : native epoll, 그 외 : NIO)
+ *
+ * - 모든 NettyChannel 은 EventLoopGroup, Channel class 를 여기서 가져온다.
+ * - configure() 호출 전에는 NIO 를 사용한다.
+ * - epoll 전용 옵션 (SO_REUSEPORT, edge-triggered) 은 epoll 사용 시에만 적용된다.
+ * - TCP_FASTOPEN 은 현재 Netty 버전 (5.0.0.Alpha2) 의 EpollChannelOption 에 없으므로 사용하지 않는다.
+ * - UDP recvmmsg 는 현재 Netty 버전 (5.0.0.Alpha2) 의 EpollDatagramChannel 에 없으므로
+ *      대신 MAX_MESSAGES_PER_READ 로 한 번의 wakeup 에서 여러 datagram 을 읽는다.
+ */
+public class NettyTransport {
+
+    ////////////////////////////////////////////////////////////
+    private static final Logger logger = LoggerFactory.getLogger(NettyTransport.class);
+
+    private static final int DATAGRAM_MAX_MESSAGES_PER_READ = 64;
+
+    private static volatile boolean useEpoll = false;
+    private static volatile boolean edgeTriggered = true;
+    ////////////////////////////////////////////////////////////
+
+    ////////////////////////////////////////////////////////////
+    private NettyTransport() {}
+    ////////////////////////////////////////////////////////////
+
+    ////////////////////////////////////////////////////////////
+    /**
+     * @param enableEpoll epoll 사용 요청 (사용 불가능하면 NIO 로 대체)
+     * @param isEdgeTriggered false 면 level-triggered
+     */
+    public static synchronized void configure(boolean enableEpoll, boolean isEdgeTriggered) {
+        boolean isAvailable = false;
+        if (enableEpoll) {
+            try {
+                isAvailable = Epoll.isAvailable();
+                if (!isAvailable) {
+                    logger.warn("[NettyTransport] Epoll is not available. NIO is used instead. ({})", String.valueOf(Epoll.unavailabilityCause()));
+                }
+            } catch (Throwable e) {
+                logger.warn("[NettyTransport] Epoll is not available. NIO is used instead. ({})", e.toString());
+            }
+        }
+
+        useEpoll = isAvailable;
+        edgeTriggered = isEdgeTriggered;
+        logger.debug("[NettyTransport] Transport is selected. (transport={}, edgeTriggered={})", getName(), edgeTriggered);
+    }
+
+    public static boolean isEpoll() {
+        return useEpoll;
+    }
+
+    public static String getName() {
+        return useEpoll ? "epoll" : "nio";
+    }
+
+    /**
+     * @param threadCount 0 이면 Netty 기본값 (코어 수 * 2)
+     * @param threadFactory event loop 스레드 생성 (스레드 이름)
+     */
+    public static EventLoopGroup newEventLoopGroup(int threadCount, ThreadFactory threadFactory) {
+        return useEpoll ? new EpollEventLoopGroup(threadCount, threadFactory) : new NioEventLoopGroup(threadCount, threadFactory);
+    }
+
+    public static Class<? extends ServerSocketChannel> getServerSocketChannelClass() {
+        return useEpoll ? EpollServerSocketChannel.class : NioServerSocketChannel.class;
+    }
+
+    public static Class<? extends SocketChannel> getSocketChannelClass() {
+        return useEpoll ? EpollSocketChannel.class : NioSocketChannel.class;
+    }
+
+    public static Class<? extends DatagramChannel> getDatagramChannelClass() {
+        return useEpoll ? EpollDatagramChannel.class : NioDatagramChannel.class;
+    }
+    ////////////////////////////////////////////////////////////
+
+    ////////////////////////////////////////////////////////////
+    /**
+     * @param reusePort 같은 포트에 여러 listen socket 을 bind (SO_REUSEPORT, epoll 전용)
+     */
+    public static void applyServerOptions(ServerBootstrap serverBootstrap, boolean reusePort) {
+        if (!useEpoll) { return; }
+
+        serverBootstrap.option(EpollChannelOption.EPOLL_MODE, getEpollMode());
+        serverBootstrap.childOption(EpollChannelOption.EPOLL_MODE, getEpollMode());
+        if (reusePort) {
+            serverBootstrap.option(EpollChannelOption.SO_REUSEPORT, true);
+        }
+    }
+
+    public static void applyClientOptions(Bootstrap bootstrap) {
+        if (!useEpoll) { return; }
+
+        bootstrap.option(EpollChannelOption.EPOLL_MODE, getEpollMode());
+    }
+
+    public static void applyDatagramOptions(Bootstrap bootstrap, boolean reusePort) {
+        bootstrap.option(ChannelOption.MAX_MESSAGES_PER_READ, DATAGRAM_MAX_MESSAGES_PER_READ);
+        if (!useEpoll) { return; }
+
+        bootstrap.option(EpollChannelOption.EPOLL_MODE, getEpollMode());
+        if (reusePort) {
+            bootstrap.option(EpollChannelOption.SO_REUSEPORT, true);
+        }
+    }
+
+    private static EpollMode getEpollMode() {
+        return edgeTriggered ? EpollMode.EDGE_TRIGGERED : EpollMode.LEVEL_TRIGGERED;
+    }
+    ////////////////////////////////////////////////////////////
+
+}
@@ -7,10 +7,11 @@ import io.netty.buffer.ByteBuf;
 import io.netty.buffer.PooledByteBufAllocator;
 import io.netty.buffer.Unpooled;
 import io.netty.channel.*;
-import io.netty.channel.nio.NioEventLoopGroup;
-import io.netty.channel.socket.nio.NioSocketChannel;
+import io.netty.channel.socket.SocketChannel;
 import io.netty.handler.codec.http.HttpRequest;
 import network.socket.netty.NettyChannel;
+import network.socket.netty.NettyEventLoopRegistry;
+import network.socket.netty.NettyTransport;
 
 import java.net.InetAddress;
 import java.net.UnknownHostException;
@@ -19,7 +20,6 @@ public class NettyTcpClientChannel extends NettyChannel {
 
     ////////////////////////////////////////////////////////////
     // VARIABLES
-    private final EventLoopGroup eventLoopGroup;
     private final Bootstrap bootstrap;
     private Channel listenChannel = null;
     private Channel connectChannel = null;
@@ -30,17 +30,17 @@ public class NettyTcpClientChannel extends NettyChannel {
 
     ////////////////////////////////////////////////////////////
     // CONSTRUCTOR
-    public NettyTcpClientChannel(BaseEnvironment baseEnvironment, String sessionId, int threadCount, int recvBufSize, ChannelInitializer<NioSocketChannel> childHandler) {
-        super(baseEnvironment, sessionId, threadCount, 0, recvBufSize);
+    public NettyTcpClientChannel(BaseEnvironment baseEnvironment, String sessionId, int recvBufSize, ChannelInitializer<SocketChannel> childHandler) {
+        super(baseEnvironment, sessionId, 0, recvBufSize);
 
-        eventLoopGroup = new NioEventLoopGroup(threadCount);
         bootstrap = new Bootstrap();
-        bootstrap.group(eventLoopGroup).channel(NioSocketChannel.class)
+        bootstrap.group(NettyEventLoopRegistry.getInstance().getClientGroup()).channel(NettyTransport.getSocketChannelClass())
                 .option(ChannelOption.SO_RCVBUF, recvBufSize)
                 .option(ChannelOption.ALLOCATOR, PooledByteBufAllocator.DEFAULT)
                 .option(ChannelOption.SO_REUSEADDR, true)
                 .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, 1000)
                 .handler(childHandler);
+        NettyTransport.applyClientOptions(bootstrap);
     }
     ////////////////////////////////////////////////////////////
 
@@ -52,7 +52,7 @@ public class NettyTcpClientChannel extends NettyChannel {
         getSendBuf().clear();
         closeConnectChannel();
         closeListenChannel();
-        eventLoopGroup.shutdownGracefully();
+        // EventLoopGroup 은 공유 자원이므로 종료하지 않는다. (NettyEventLoopRegistry)
     }
 
     @Override
@@ -0,0 +1,57 @@
+package network.socket.netty.tcp;
+
+import io.netty.channel.*;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Listen socket 별 accept 수, 현재 연결 수
+ * Server channel 의 pipeline 에 추가되어 accept 된 child channel 을 센다.
+ */
+@ChannelHandler.Sharable
+public class NettyTcpListenerStats extends ChannelHandlerAdapter {
+
+    ////////////////////////////////////////////////////////////
+    private final int index;
+    private final AtomicLong acceptCount = new AtomicLong(0);
+    private final AtomicInteger connectionCount = new AtomicInteger(0);
+    private final ChannelFutureListener closeListener = future -> connectionCount.decrementAndGet();
+    ////////////////////////////////////////////////////////////
+
+    ////////////////////////////////////////////////////////////
+    public NettyTcpListenerStats(int index) {
+        this.index = index;
+    }
+    ////////////////////////////////////////////////////////////
+
+    ////////////////////////////////////////////////////////////
+    @Override
+    public void channelRead(ChannelHandlerContext ctx, Object msg) throws Exception {
+        if (msg instanceof Channel) {
+            acceptCount.incrementAndGet();
+            connectionCount.incrementAndGet();
+            ((Channel) msg).closeFuture().addListener(closeListener);
+        }
+        ctx.fireChannelRead(msg);
+    }
+
+    public int getIndex() {
+        return index;
+    }
+
+    public long getAcceptCount() {
+        return acceptCount.get();
+    }
+
+    public int getConnectionCount() {
+        return connectionCount.get();
+    }
+
+    @Override
+    public String toString() {
+        return "#" + index + "(accept=" + acceptCount.get() + ", conn=" + connectionCount.get() + ")";
+    }
+    ////////////////////////////////////////////////////////////
+
+}
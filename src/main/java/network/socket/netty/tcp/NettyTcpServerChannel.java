@@ -5,40 +5,74 @@ import instance.DebugLevel;
 import io.netty.bootstrap.ServerBootstrap;
 import io.netty.buffer.PooledByteBufAllocator;
 import io.netty.channel.*;
-import io.netty.channel.nio.NioEventLoopGroup;
 import io.netty.channel.socket.SocketChannel;
-import io.netty.channel.socket.nio.NioServerSocketChannel;
 import network.socket.netty.NettyChannel;
+import network.socket.netty.NettyEventLoopRegistry;
+import network.socket.netty.NettyTransport;
 
 import java.net.InetAddress;
 import java.net.UnknownHostException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 
 public class NettyTcpServerChannel extends NettyChannel {
 
     ////////////////////////////////////////////////////////////
     // VARIABLES
-    private final EventLoopGroup bossGroup;
-    private final EventLoopGroup workerGroup = new NioEventLoopGroup();
-    private final ServerBootstrap serverBootstrap;
+    private final List<ServerBootstrap> serverBootstraps = new ArrayList<>();
+    private final List<NettyTcpListenerStats> listenerStatsList = new ArrayList<>();
 
-    private Channel listenChannel = null;
+    private final List<Channel> listenChannels = new ArrayList<>();
     ////////////////////////////////////////////////////////////
 
     ////////////////////////////////////////////////////////////
     // CONSTRUCTOR
-    public NettyTcpServerChannel(BaseEnvironment baseEnvironment, String sessionId, int threadCount, int recvBufSize, ChannelInitializer<SocketChannel> childHandler) {
-        super(baseEnvironment, sessionId, threadCount, 0, recvBufSize);
+    public NettyTcpServerChannel(BaseEnvironment baseEnvironment, String sessionId, int recvBufSize, ChannelInitializer<SocketChannel> childHandler) {
+        this(baseEnvironment, sessionId, recvBufSize, 1, childHandler);
+    }
+
+    /**
+     * @param listenerCount 같은 포트에 bind 할 listen socket 수 (SO_REUSEPORT, epoll 전용)
+     *                      각 listen socket 은 자신의 event loop 에서 accept 하고, accept 된 연결도 같은 event loop 에서 처리한다.
+     *                      (커널이 연결을 listen socket 별로 분산)
+     */
+    public NettyTcpServerChannel(BaseEnvironment baseEnvironment, String sessionId, int recvBufSize, int listenerCount, ChannelInitializer<SocketChannel> childHandler) {
+        super(baseEnvironment, sessionId, 0, recvBufSize);
+
+        if (listenerCount > 1 && !NettyTransport.isEpoll()) {
+            getBaseEnvironment().printMsg(DebugLevel.WARN, "[NettyTcpServerChannel] SO_REUSEPORT needs the epoll transport. Single listener is used. (listenerCount=%s)", listenerCount);
+            listenerCount = 1;
+        }
+
+        NettyEventLoopRegistry eventLoopRegistry = NettyEventLoopRegistry.getInstance();
+        if (listenerCount > 1) {
+            for (int i = 0; i < listenerCount; i++) {
+                EventLoop eventLoop = eventLoopRegistry.getWorkerGroup().next();
+                addServerBootstrap(eventLoop, eventLoop, recvBufSize, true, childHandler);
+            }
+        } else {
+            addServerBootstrap(eventLoopRegistry.getBossGroup(), eventLoopRegistry.getWorkerGroup(), recvBufSize, false, childHandler);
+        }
+    }
+
+    private void addServerBootstrap(EventLoopGroup parentGroup, EventLoopGroup childGroup, int recvBufSize, boolean reusePort, ChannelInitializer<SocketChannel> childHandler) {
+        NettyTcpListenerStats listenerStats = new NettyTcpListenerStats(listenerStatsList.size());
 
-        bossGroup = new NioEventLoopGroup(threadCount);
-        serverBootstrap = new ServerBootstrap();
-        serverBootstrap.group(bossGroup, workerGroup);
-        serverBootstrap.channel(NioServerSocketChannel.class)
+        ServerBootstrap serverBootstrap = new ServerBootstrap();
+        serverBootstrap.group(parentGroup, childGroup);
+        serverBootstrap.channel(NettyTransport.getServerSocketChannelClass())
                 .option(ChannelOption.SO_RCVBUF, recvBufSize)
                 .option(ChannelOption.ALLOCATOR, PooledByteBufAllocator.DEFAULT)
                 .option(ChannelOption.SO_REUSEADDR, true)
                 .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, 1000)
                 .option(ChannelOption.MAX_MESSAGES_PER_READ, Integer.MAX_VALUE)
+                .handler(listenerStats)
                 .childHandler(childHandler);
+        NettyTransport.applyServerOptions(serverBootstrap, reusePort);
+
+        serverBootstraps.add(serverBootstrap);
+        listenerStatsList.add(listenerStats);
     }
     ////////////////////////////////////////////////////////////
 
@@ -48,19 +82,17 @@ public class NettyTcpServerChannel extends NettyChannel {
     public void stop () {
         getRecvBuf().clear();
         closeListenChannel();
-        workerGroup.shutdownGracefully();
-        bossGroup.shutdownGracefully();
+        // EventLoopGroup 은 공유 자원이므로 종료하지 않는다. (NettyEventLoopRegistry)
     }
 
     @Override
     public Channel openListenChannel(String ip, int port) {
-        if (listenChannel != null) {
+        if (!listenChannels.isEmpty()) {
             getBaseEnvironment().printMsg(DebugLevel.WARN, "[NettyTcpServerChannel(%s:%s)] Channel is already opened.", ip, port);
             return null;
         }
 
         InetAddress address;
-        ChannelFuture channelFuture;
 
         try {
             address = InetAddress.getByName(ip);
@@ -70,30 +102,34 @@ public class NettyTcpServerChannel extends NettyChannel {
         }
 
         try {
-            channelFuture = serverBootstrap.bind(address, port).sync();
-            this.listenChannel = channelFuture.channel();
-            getBaseEnvironment().printMsg("[NettyTcpServerChannel(%s:%s)] Channel is opened", address, port);
-
-            return this.listenChannel;
-        } catch (Exception e1) {
-            getBaseEnvironment().printMsg(DebugLevel.WARN, "[NettyTcpServerChannel(%s:%s)] Channel is interrupted. (%s)", ip, port, e1.toString());
-            if (listenChannel != null) {
-                try {
-                    listenChannel.closeFuture().sync();
-                } catch (Exception e2) {
-                    // ignore
-                }
+            for (ServerBootstrap serverBootstrap : serverBootstraps) {
+                ChannelFuture channelFuture = serverBootstrap.bind(address, port).sync();
+                listenChannels.add(channelFuture.channel());
             }
+            getBaseEnvironment().printMsg("[NettyTcpServerChannel(%s:%s)] Channel is opened (listeners=%s, transport=%s)",
+                    address, port, listenChannels.size(), NettyTransport.getName()
+            );
+
+            return listenChannels.get(0);
+        } catch (Exception e) {
+            getBaseEnvironment().printMsg(DebugLevel.WARN, "[NettyTcpServerChannel(%s:%s)] Channel is interrupted. (%s)", ip, port, e.toString());
+            closeListenChannel();
             return null;
         }
     }
 
     @Override
     public void closeListenChannel() {
-        if (listenChannel == null) { return; }
+        if (listenChannels.isEmpty()) { return; }
+
+        for (Channel listenChannel : listenChannels) {
+            listenChannel.close();
+        }
+        listenChannels.clear();
+    }
 
-        listenChannel.close();
-        listenChannel = null;
+    public List<NettyTcpListenerStats> getListenerStatsList() {
+        return Collections.unmodifiableList(listenerStatsList);
     }
     ////////////////////////////////////////////////////////////
 
@@ -10,9 +10,10 @@ import io.netty.channel.Channel;
 import io.netty.channel.ChannelFuture;
 import io.netty.channel.ChannelInitializer;
 import io.netty.channel.ChannelOption;
-import io.netty.channel.nio.NioEventLoopGroup;
-import io.netty.channel.socket.nio.NioDatagramChannel;
+import io.netty.channel.socket.DatagramChannel;
 import network.socket.netty.NettyChannel;
+import network.socket.netty.NettyEventLoopRegistry;
+import network.socket.netty.NettyTransport;
 
 import java.net.InetAddress;
 import java.net.UnknownHostException;
@@ -21,7 +22,6 @@ public class NettyUdpChannel extends NettyChannel {
 
     ////////////////////////////////////////////////////////////
     // VARIABLES
-    private final NioEventLoopGroup nioEventLoopGroup;
     private final Bootstrap bootstrap;
     private Channel listenChannel = null;
     private Channel connectChannel = null;
@@ -29,12 +29,11 @@ public class NettyUdpChannel extends NettyChannel {
 
     ////////////////////////////////////////////////////////////
     // CONSTRUCTOR
-    public NettyUdpChannel(BaseEnvironment baseEnvironment, String sessionId, int threadCount, int sendBufSize, int recvBufSize, ChannelInitializer<NioDatagramChannel> channelHandler) {
-        super(baseEnvironment, sessionId, threadCount, sendBufSize, recvBufSize);
+    public NettyUdpChannel(BaseEnvironment baseEnvironment, String sessionId, int sendBufSize, int recvBufSize, ChannelInitializer<DatagramChannel> channelHandler) {
+        super(baseEnvironment, sessionId, sendBufSize, recvBufSize);
 
-        nioEventLoopGroup = new NioEventLoopGroup(threadCount);
         bootstrap = new Bootstrap();
-        bootstrap.group(nioEventLoopGroup).channel(NioDatagramChannel.class)
+        bootstrap.group(NettyEventLoopRegistry.getInstance().getClientGroup()).channel(NettyTransport.getDatagramChannelClass())
                 .option(ChannelOption.SO_BROADCAST, false)
                 .option(ChannelOption.SO_SNDBUF, sendBufSize)
                 .option(ChannelOption.SO_RCVBUF, recvBufSize)
@@ -42,6 +41,7 @@ public class NettyUdpChannel extends NettyChannel {
                 .option(ChannelOption.SO_REUSEADDR, true)
                 .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, 1000)
                 .handler(channelHandler);
+        NettyTransport.applyDatagramOptions(bootstrap, false);
     }
     ////////////////////////////////////////////////////////////
 
@@ -53,7 +53,7 @@ public class NettyUdpChannel extends NettyChannel {
         getSendBuf().clear();
         closeConnectChannel();
         closeListenChannel();
-        nioEventLoopGroup.shutdownGracefully();
+        // EventLoopGroup 은 공유 자원이므로 종료하지 않는다. (NettyEventLoopRegistry)
     }
 
     @Override
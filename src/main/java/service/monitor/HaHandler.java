@@ -1,11 +1,16 @@
 package service.monitor;
 
+import dash.client.pool.DashHttpConnectionPool;
+import dash.server.handler.DashAccessLog;
 import dash.unit.StreamType;
+import dash.unit.segment.SegmentCache;
+import network.socket.netty.NettyEventLoopRegistry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import service.ServiceManager;
 import service.scheduler.job.Job;
 import service.scheduler.job.JobContainer;
+import service.scheduler.timer.SharedTimerService;
 import service.system.SystemManager;
 
 /**
@@ -33,6 +38,24 @@ public class HaHandler extends JobContainer {
                     ServiceManager.getInstance().getDashServer().getDashUnitMapSizeWithStreamType(StreamType.STATIC),
                     ServiceManager.getInstance().getDashServer().getDashUnitMapSizeWithStreamType(StreamType.DYNAMIC)
             );
+
+            SegmentCache segmentCache = ServiceManager.getInstance().getDashServer().getSegmentCache();
+            if (segmentCache != null) {
+                logger.debug("| {}", segmentCache);
+            }
+            logger.debug("| {}", ServiceManager.getInstance().getDashServer().getDashPackagingExecutor());
+            logger.debug("| HttpListener={}", ServiceManager.getInstance().getDashServer().getHttpMessageManager().getListenerStatsList());
+            logger.debug("| {}", ServiceManager.getInstance().getDashServer().getHttpMessageManager().getAdmissionController());
+            DashAccessLog accessLog = ServiceManager.getInstance().getDashServer().getHttpMessageManager().getAccessLog();
+            if (accessLog != null) {
+                logger.debug("| {}", accessLog);
+            }
+            DashHttpConnectionPool connectionPool = ServiceManager.getInstance().getDashServer().getDashLocalAddressManager().getConnectionPool();
+            if (connectionPool != null) {
+                logger.debug("| {}", connectionPool);
+            }
+            logger.debug("| {}", NettyEventLoopRegistry.getInstance());
+            logger.debug("| {}", SharedTimerService.getInstance());
         });
     }
 
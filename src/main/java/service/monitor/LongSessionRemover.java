@@ -13,9 +13,7 @@ import service.scheduler.job.JobContainer;
 import util.module.FileManager;
 
 import java.io.File;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 
 public class LongSessionRemover extends JobContainer {
 
@@ -42,14 +40,8 @@ public class LongSessionRemover extends JobContainer {
                 ///////////////////////////////////
                 // 1) CHECK USELESS SESSION
                 if (configManager.isEnableAutoDeleteUselessSession()) {
-                    HashMap<String, DashUnit> dashUnitMap = dashServer.getCloneDashMap();
-                    if (!dashUnitMap.isEmpty()) {
-                        for (Map.Entry<String, DashUnit> entry : dashUnitMap.entrySet()) {
-                            if (entry == null) {
-                                continue;
-                            }
-
-                            DashUnit dashUnit = entry.getValue();
+                    if (dashServer.getDashUnitMapSize() > 0) {
+                        for (DashUnit dashUnit : dashServer.getDashUnits()) {
                             if (dashUnit == null) {
                                 continue;
                             }
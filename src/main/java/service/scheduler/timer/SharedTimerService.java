@@ -0,0 +1,348 @@
+package service.scheduler.timer;
+
+import io.netty.util.HashedWheelTimer;
+import io.netty.util.Timeout;
+import io.netty.util.Timer;
+import io.netty.util.TimerTask;
+import org.apache.commons.lang3.concurrent.BasicThreadFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 프로세스 전역 timeout 관리 (HashedWheelTimer shard)
+ * DashClient 마다 HashedWheelTimer (스레드) 를 만들지 않고, 모든 timeout 을 여기에 등록한다.
+ *
+ * - key (dashUnitId 등) 로 shard 를 고르므로 같은 key 의 timeout 은 항상 같은 wheel 에서 만료된다.
+ * - wheel 스레드는 만료 판정만 하고, task 는 등록할 때 넘긴 executor (client event loop 등) 에서 실행된다.
+ *      > 오래 걸리는 task (DashUnit 삭제 등) 가 같은 shard 의 다른 timeout 을 지연시키지 않는다.
+ * - 등록/취소는 wheel 의 queue 에 넣기만 하므로 비용이 작다. (O(1))
+ * - tick lag : shard 마다 1 초 주기의 probe 를 등록해서 예정 시각보다 늦게 실행된 시간을 잰다.
+ *
+ * 처음 요청될 때 configure() 설정에 맞게 생성된다. shutdown() 에서 모든 shard 를 종료한다.
+ */
+public class SharedTimerService {
+
+    ////////////////////////////////////////////////////////////
+    private static final Logger logger = LoggerFactory.getLogger(SharedTimerService.class);
+
+    private static final SharedTimerService sharedTimerService = new SharedTimerService();
+
+    private static final long LAG_PROBE_INTERVAL_MS = 1000;
+
+    private int shardCount = 1;
+    private long tickDurationMs = 100;
+    private int ticksPerWheel = 512;
+
+    private volatile TimerShard[] shards = null;
+    private boolean isShutdown = false;
+    private final AtomicInteger nextShardIndex = new AtomicInteger(0);
+    ////////////////////////////////////////////////////////////
+
+    ////////////////////////////////////////////////////////////
+    private SharedTimerService() {}
+
+    public static SharedTimerService getInstance() {
+        return sharedTimerService;
+    }
+
+    /**
+     * 처음 timeout 이 등록되기 전에 호출해야 적용된다.
+     */
+    public synchronized void configure(int shardCount, long tickDurationMs, int ticksPerWheel) {
+        if (shards != null) {
+            logger.warn("[SharedTimerService] Already started. Configuration is ignored. (shards={}, tick={}ms, ticksPerWheel={})",
+                    shardCount, tickDurationMs, ticksPerWheel
+            );
+            return;
+        }
+
+        this.shardCount = Math.max(shardCount, 1);
+        this.tickDurationMs = Math.max(tickDurationMs, 1);
+        this.ticksPerWheel = Math.max(ticksPerWheel, 1);
+    }
+    ////////////////////////////////////////////////////////////
+
+    ////////////////////////////////////////////////////////////
+    /**
+     * @param key shard 선택 기준 (null 이면 순서대로 분배)
+     * @param executor 만료 시 task 를 실행할 executor
+     * @return 종료된 상태이면 null
+     */
+    public Timeout newTimeout(Object key, Executor executor, TimerTask task, long delay, TimeUnit timeUnit) {
+        if (executor == null) {
+            logger.warn("[SharedTimerService] Executor is null. Fail to add the timeout. (key={})", key);
+            return null;
+        }
+
+        TimerShard[] curShards = getShards();
+        if (curShards == null) {
+            logger.warn("[SharedTimerService] Timer is shut down. Fail to add the timeout. (key={})", key);
+            return null;
+        }
+
+        int index;
+        if (key != null) {
+            index = (key.hashCode() & Integer.MAX_VALUE) % curShards.length;
+        } else {
+            index = (nextShardIndex.getAndIncrement() & Integer.MAX_VALUE) % curShards.length;
+        }
+        return curShards[index].newTimeout(executor, task, delay, timeUnit);
+    }
+
+    private TimerShard[] getShards() {
+        TimerShard[] curShards = shards;
+        if (curShards != null) { return curShards; }
+
+        synchronized (this) {
+            if (shards == null && !isShutdown) {
+                TimerShard[] newShards = new TimerShard[shardCount];
+                for (int i = 0; i < shardCount; i++) {
+                    newShards[i] = new TimerShard(i);
+                }
+                shards = newShards;
+                logger.debug("[SharedTimerService] Timer is created. (shards={}, tick={}ms, ticksPerWheel={})",
+                        shardCount, tickDurationMs, ticksPerWheel
+                );
+            }
+            return shards;
+        }
+    }
+
+    public synchronized void shutdown() {
+        isShutdown = true;
+        if (shards == null) { return; }
+
+        for (TimerShard shard : shards) {
+            shard.stop();
+        }
+        logger.debug("[SharedTimerService] Shutdown all timer shards. ({})", this);
+        shards = null;
+    }
+    ////////////////////////////////////////////////////////////
+
+    ////////////////////////////////////////////////////////////
+    public long getPendingTimeouts() {
+        TimerShard[] curShards = shards;
+        if (curShards == null) { return 0; }
+
+        long pending = 0;
+        for (TimerShard shard : curShards) {
+            pending += shard.pending.get();
+        }
+        return pending;
+    }
+
+    /**
+     * @return 가장 최근 tick lag 중 최대값 (ms)
+     */
+    public long getTickLagMs() {
+        TimerShard[] curShards = shards;
+        if (curShards == null) { return 0; }
+
+        long lag = 0;
+        for (TimerShard shard : curShards) {
+            lag = Math.max(lag, shard.lastLagMs);
+        }
+        return lag;
+    }
+
+    @Override
+    public String toString() {
+        TimerShard[] curShards = shards;
+        if (curShards == null) {
+            return "SharedTimerService{shards=0}";
+        }
+
+        StringBuilder stringBuilder = new StringBuilder("SharedTimerService{");
+        stringBuilder.append("tick=").append(tickDurationMs).append("ms")
+                .append(", pending=").append(getPendingTimeouts());
+        for (TimerShard shard : curShards) {
+            stringBuilder.append(", ").append(shard);
+        }
+        return stringBuilder.append('}').toString();
+    }
+    ////////////////////////////////////////////////////////////
+
+    ////////////////////////////////////////////////////////////
+    private class TimerShard {
+
+        private final int index;
+        private final Timer timer;
+
+        private final AtomicLong pending = new AtomicLong(0);
+        private final AtomicLong scheduled = new AtomicLong(0);
+        private final AtomicLong expired = new AtomicLong(0);
+        private final AtomicLong cancelled = new AtomicLong(0);
+
+        private volatile long lastLagMs = 0;
+        private volatile long maxLagMs = 0;
+        private volatile boolean isStopped = false;
+
+        private TimerShard(int index) {
+            this.index = index;
+
+            ThreadFactory threadFactory = new BasicThreadFactory.Builder()
+                    .namingPattern("SharedTimer-" + index + "-%d")
+                    .daemon(true)
+                    .build();
+            this.timer = new HashedWheelTimer(threadFactory, tickDurationMs, TimeUnit.MILLISECONDS, ticksPerWheel);
+            scheduleLagProbe();
+        }
+
+        private Timeout newTimeout(Executor executor, TimerTask task, long delay, TimeUnit timeUnit) {
+            TrackedTimeout trackedTimeout = new TrackedTimeout(this, executor, task);
+            pending.incrementAndGet();
+            scheduled.incrementAndGet();
+            try {
+                trackedTimeout.delegate = timer.newTimeout(trackedTimeout, delay, timeUnit);
+            } catch (Exception e) { // 종료된 timer
+                trackedTimeout.finish();
+                logger.warn("[SharedTimerService] Fail to add the timeout. (shard={})", index, e);
+                return null;
+            }
+            return trackedTimeout;
+        }
+
+        private void scheduleLagProbe() {
+            if (isStopped) { return; }
+
+            long expectedTime = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(LAG_PROBE_INTERVAL_MS);
+            try {
+                timer.newTimeout(timeout -> {
+                    long lagMs = Math.max(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - expectedTime), 0);
+                    lastLagMs = lagMs;
+                    if (lagMs > maxLagMs) {
+                        maxLagMs = lagMs;
+                    }
+                    scheduleLagProbe();
+                }, LAG_PROBE_INTERVAL_MS, TimeUnit.MILLISECONDS);
+            } catch (Exception e) {
+                // 종료된 timer
+            }
+        }
+
+        private void stop() {
+            isStopped = true;
+            timer.stop();
+        }
+
+        @Override
+        public String toString() {
+            return "[" + index +
+                    "](pending=" + pending.get() +
+                    ", scheduled=" + scheduled.get() +
+                    ", expired=" + expired.get() +
+                    ", cancelled=" + cancelled.get() +
+                    ", lag=" + lastLagMs + "ms" +
+                    ", maxLag=" + maxLagMs + "ms)";
+        }
+
+    }
+
+    /**
+     * 실행 또는 취소 시 pending 수를 한 번만 줄인다.
+     * 만료되면 task 를 executor 에 넘기기만 한다. (wheel 스레드에서 task 를 실행하지 않음)
+     * executor 에 넘긴 후에도 task 가 시작되기 전이면 취소할 수 있다. (state 를 먼저 바꾼 쪽만 진행)
+     */
+    private static class TrackedTimeout implements Timeout, TimerTask {
+
+        private static final int STATE_INIT = 0;
+        private static final int STATE_CANCELLED = 1;
+        private static final int STATE_RUNNING = 2;
+
+        private final TimerShard shard;
+        private final Executor executor;
+        private final TimerTask task;
+        private final AtomicBoolean isFinished = new AtomicBoolean(false);
+        private final AtomicInteger state = new AtomicInteger(STATE_INIT);
+        private volatile Timeout delegate = null;
+
+        private TrackedTimeout(TimerShard shard, Executor executor, TimerTask task) {
+            this.shard = shard;
+            this.executor = executor;
+            this.task = task;
+        }
+
+        private boolean finish() {
+            if (isFinished.compareAndSet(false, true)) {
+                shard.pending.decrementAndGet();
+                return true;
+            }
+            return false;
+        }
+
+        @Override
+        public void run(Timeout timeout) throws Exception {
+            if (!finish() || state.get() == STATE_CANCELLED) { return; }
+
+            shard.expired.incrementAndGet();
+            try {
+                executor.execute(this::runTask);
+            } catch (RejectedExecutionException e) { // 종료된 executor
+                logger.warn("[SharedTimerService] Executor is shut down. Fail to run the timeout task. (shard={})", shard.index);
+            }
+        }
+
+        private void runTask() {
+            if (!state.compareAndSet(STATE_INIT, STATE_RUNNING)) { return; } // 취소됨
+
+            try {
+                task.run(this);
+            } catch (Exception e) {
+                logger.warn("[SharedTimerService] Fail to run the timeout task. (shard={})", shard.index, e);
+            }
+        }
+
+        @Override
+        public Timer timer() {
+            return shard.timer;
+        }
+
+        @Override
+        public TimerTask task() {
+            return task;
+        }
+
+        @Override
+        public boolean isExpired() {
+            if (state.get() == STATE_CANCELLED) { return false; }
+
+            Timeout curDelegate = delegate;
+            return curDelegate != null && curDelegate.isExpired();
+        }
+
+        @Override
+        public boolean isCancelled() {
+            return state.get() == STATE_CANCELLED;
+        }
+
+        /**
+         * @return task 가 이미 시작되었거나 취소되었으면 false
+         */
+        @Override
+        public boolean cancel() {
+            if (!state.compareAndSet(STATE_INIT, STATE_CANCELLED)) { return false; }
+
+            Timeout curDelegate = delegate;
+            if (curDelegate != null) {
+                curDelegate.cancel();
+            }
+            if (!finish()) { // 이미 executor 에 넘김 (pending 은 run() 에서 줄였음)
+                shard.expired.decrementAndGet();
+            }
+            shard.cancelled.incrementAndGet();
+            return true;
+        }
+
+    }
+    ////////////////////////////////////////////////////////////
+
+}
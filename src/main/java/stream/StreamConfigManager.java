@@ -56,8 +56,15 @@ public class StreamConfigManager {
         fFmpegFrameRecorder.setOption("media_seg_name", uriFileName + MEDIA_SEGMENT_POSTFIX);
         fFmpegFrameRecorder.setOption("use_template", "1");
         fFmpegFrameRecorder.setOption("use_timeline", "0");
-        //fFmpegFrameRecorder.setOption("ldash", "1");
-        //fFmpegFrameRecorder.setOption("streaming", "1");
+
+        // LL-DASH (라이브만 해당, window 가 없는 VOD 패키징은 제외)
+        // 세그먼트를 fragment 단위로 바로 기록 > 서버는 생성 중인 세그먼트(.tmp)를 chunked 로 전송
+        // MPD 에는 availabilityTimeOffset (seg_duration - frag_duration) 이 추가된다.
+        boolean isLowLatency = configManager.isEnableLowLatency() && windowSize > 0;
+        if (isLowLatency) {
+            fFmpegFrameRecorder.setOption("ldash", "1");
+            fFmpegFrameRecorder.setOption("streaming", "1");
+        }
 
         /**
          * Set an intended target latency in seconds (fractional value can be set) for serving.
@@ -75,12 +82,14 @@ public class StreamConfigManager {
             fFmpegFrameRecorder.setOption("seg_duration", String.valueOf(segmentDuration));
         }
 
-        //fFmpegFrameRecorder.setOption("frag_type", "duration"); // Set the type of interval for fragmentation.
         /**
          * Set the length in seconds of fragments within segments (fractional value can be set).
          * Create fragments that are duration microseconds long.
          */
-        //fFmpegFrameRecorder.setOption("frag_duration", "0.2");
+        if (isLowLatency) {
+            fFmpegFrameRecorder.setOption("frag_type", "duration"); // Set the type of interval for fragmentation.
+            fFmpegFrameRecorder.setOption("frag_duration", String.valueOf(configManager.getFragmentDuration()));
+        }
 
         // URL of the page that will return the UTC timestamp in ISO format. Example: "https://time.akamai.com/?iso"
         fFmpegFrameRecorder.setOption("utc_timing_url", "https://time.akamai.com/?iso");
@@ -109,7 +118,9 @@ public class StreamConfigManager {
          * Set container format (mp4/webm) options using a : separated list of key=value parameters.
          * Values containing : special characters must be escaped.
          */
-        //fFmpegFrameRecorder.setOption("format_options", "movflags=+cmaf");
+        if (isLowLatency) {
+            fFmpegFrameRecorder.setOption("format_options", "movflags=+cmaf");
+        }
 
         /**
          * moov atom is the special part of the file,
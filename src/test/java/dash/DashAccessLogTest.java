@@ -0,0 +1,56 @@
+package dash;
+
+import dash.server.handler.DashAccessLog;
+import io.netty.handler.codec.http.HttpMethod;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.List;
+
+public class DashAccessLogTest {
+
+    @Test
+    public void testWriteRecords() throws Exception {
+        File directory = Files.createTempDirectory("access-log").toFile();
+        directory.deleteOnExit();
+        File file = new File(directory, "access.csv");
+        file.deleteOnExit();
+
+        DashAccessLog accessLog = new DashAccessLog(file.getAbsolutePath(), 4, 1024 * 1024, 0);
+        Assert.assertTrue(accessLog.start());
+        try {
+            // 버퍼 크기보다 많은 서로 다른 URI 가 지나가도 기록 순서대로 원래 URI 를 씀
+            int count = 64;
+            for (int i = 0; i < count; i++) {
+                String uri = (i % 2 == 0) ? "/live/test/manifest.mpd" : "/live/test/chunk-stream0-" + i + ".m4s";
+                publish(accessLog, new String(uri), 200, i, "test");
+            }
+            publish(accessLog, "/a,\"b\"", 404, 0, null);
+        } finally {
+            accessLog.stop();
+        }
+
+        List<String> lines = Files.readAllLines(file.toPath(), StandardCharsets.UTF_8);
+        Assert.assertEquals(66, lines.size());
+        Assert.assertEquals("time,method,uri,status,bytes,latency_us,dash_unit_id", lines.get(0));
+        for (int i = 0; i < 64; i++) {
+            String[] fields = lines.get(i + 1).split(",");
+            String uri = (i % 2 == 0) ? "/live/test/manifest.mpd" : "/live/test/chunk-stream0-" + i + ".m4s";
+            Assert.assertEquals(uri, fields[2]);
+            Assert.assertEquals(String.valueOf(i), fields[4]);
+        }
+        Assert.assertTrue(lines.get(65).endsWith(",GET,\"/a,\"\"b\"\"\",404,0,1,"));
+        Assert.assertEquals(65, accessLog.getWrittenCount());
+    }
+
+    // 버퍼가 가득 차면 기록 스레드가 비울 때까지 다시 시도
+    private static void publish(DashAccessLog accessLog, String uri, int status, long bytes, String dashUnitId) throws InterruptedException {
+        while (!accessLog.publish(HttpMethod.GET, uri, status, bytes, 1000, dashUnitId)) {
+            Thread.sleep(1);
+        }
+    }
+
+}
@@ -0,0 +1,57 @@
+package dash;
+
+import dash.server.handler.definition.HttpByteRange;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.List;
+
+public class HttpByteRangeTest {
+
+    @Test
+    public void test() {
+        long length = 1000;
+
+        /////////////////////////////////////////////
+        // 1) SINGLE RANGE
+        List<HttpByteRange> ranges = HttpByteRange.parse("bytes=0-499", length);
+        Assert.assertNotNull(ranges);
+        Assert.assertEquals(1, ranges.size());
+        Assert.assertEquals(0, ranges.get(0).getStart());
+        Assert.assertEquals(499, ranges.get(0).getEnd());
+        Assert.assertEquals(500, ranges.get(0).getLength());
+        Assert.assertEquals("bytes 0-499/1000", ranges.get(0).makeContentRange(length));
+
+        // open-ended, suffix, end beyond length
+        Assert.assertEquals(999, HttpByteRange.parse("bytes=500-", length).get(0).getEnd());
+        Assert.assertEquals(900, HttpByteRange.parse("bytes=-100", length).get(0).getStart());
+        Assert.assertEquals(0, HttpByteRange.parse("bytes=-5000", length).get(0).getStart());
+        Assert.assertEquals(999, HttpByteRange.parse("bytes=900-5000", length).get(0).getEnd());
+
+        /////////////////////////////////////////////
+        // 2) MULTI RANGE (unsatisfiable specs are skipped)
+        ranges = HttpByteRange.parse("bytes=0-99, 200-299, 2000-3000", length);
+        Assert.assertNotNull(ranges);
+        Assert.assertEquals(2, ranges.size());
+        Assert.assertEquals(200, ranges.get(1).getStart());
+
+        /////////////////////////////////////////////
+        // 3) NOT SATISFIABLE > 416
+        Assert.assertTrue(HttpByteRange.parse("bytes=1000-", length).isEmpty());
+        Assert.assertTrue(HttpByteRange.parse("bytes=-0", length).isEmpty());
+        Assert.assertEquals("bytes */1000", HttpByteRange.makeUnsatisfiedContentRange(length));
+
+        /////////////////////////////////////////////
+        // 4) IGNORED > 200
+        Assert.assertNull(HttpByteRange.parse("items=0-1", length));
+        Assert.assertNull(HttpByteRange.parse("bytes=500-100", length));
+        Assert.assertNull(HttpByteRange.parse("bytes=abc-", length));
+        Assert.assertNull(HttpByteRange.parse("bytes=-", length));
+        StringBuilder tooMany = new StringBuilder("bytes=0-0");
+        for (int i = 1; i <= HttpByteRange.MAX_RANGE_COUNT; i++) {
+            tooMany.append(',').append(i).append('-').append(i);
+        }
+        Assert.assertNull(HttpByteRange.parse(tooMany.toString(), length));
+    }
+
+}
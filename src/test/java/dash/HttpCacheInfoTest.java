@@ -0,0 +1,58 @@
+package dash;
+
+import dash.server.handler.definition.HttpCacheInfo;
+import io.netty.handler.codec.http.DefaultHttpRequest;
+import io.netty.handler.codec.http.HttpHeaderNames;
+import io.netty.handler.codec.http.HttpMethod;
+import io.netty.handler.codec.http.HttpRequest;
+import io.netty.handler.codec.http.HttpVersion;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+
+public class HttpCacheInfoTest {
+
+    private static final long LAST_MODIFIED = 1700000000000L;
+
+    @Test
+    public void testEtag() {
+        // 파일 정보 기준 > weak
+        HttpCacheInfo fileCacheInfo = new HttpCacheInfo(1024, LAST_MODIFIED, null);
+        Assert.assertTrue(fileCacheInfo.getEtag().startsWith("W/\""));
+
+        // 내용 기준 > strong, 같은 크기와 수정 시간이라도 내용이 바뀌면 ETag 가 바뀐다. (라이브 MPD)
+        byte[] mpd1 = "<MPD publishTime=\"2023-01-01T00:00:01Z\"/>".getBytes(StandardCharsets.UTF_8);
+        byte[] mpd2 = "<MPD publishTime=\"2023-01-01T00:00:02Z\"/>".getBytes(StandardCharsets.UTF_8);
+        HttpCacheInfo mpdCacheInfo1 = HttpCacheInfo.fromContent(mpd1, LAST_MODIFIED, HttpCacheInfo.NO_CACHE);
+        HttpCacheInfo mpdCacheInfo2 = HttpCacheInfo.fromContent(mpd2, LAST_MODIFIED, HttpCacheInfo.NO_CACHE);
+        Assert.assertTrue(mpdCacheInfo1.getEtag().startsWith("\""));
+        Assert.assertNotEquals(mpdCacheInfo1.getEtag(), mpdCacheInfo2.getEtag());
+        Assert.assertEquals(mpdCacheInfo1.getEtag(), HttpCacheInfo.fromContent(mpd1.clone(), LAST_MODIFIED, null).getEtag());
+    }
+
+    @Test
+    public void testNotModified() {
+        byte[] mpd1 = "<MPD publishTime=\"2023-01-01T00:00:01Z\"/>".getBytes(StandardCharsets.UTF_8);
+        byte[] mpd2 = "<MPD publishTime=\"2023-01-01T00:00:02Z\"/>".getBytes(StandardCharsets.UTF_8);
+        HttpCacheInfo mpdCacheInfo1 = HttpCacheInfo.fromContent(mpd1, LAST_MODIFIED, null);
+        HttpCacheInfo mpdCacheInfo2 = HttpCacheInfo.fromContent(mpd2, LAST_MODIFIED, null);
+
+        HttpRequest request = makeRequest(mpdCacheInfo1.getEtag());
+        Assert.assertTrue(mpdCacheInfo1.isNotModified(request));
+        Assert.assertFalse(mpdCacheInfo2.isNotModified(request));
+
+        // weak ETag 도 GET 에서는 W/ 유무와 상관없이 비교
+        HttpCacheInfo fileCacheInfo = new HttpCacheInfo(1024, LAST_MODIFIED, null);
+        Assert.assertTrue(fileCacheInfo.isNotModified(makeRequest(fileCacheInfo.getEtag())));
+        Assert.assertTrue(fileCacheInfo.isNotModified(makeRequest(fileCacheInfo.getEtag().substring(2))));
+        Assert.assertFalse(new HttpCacheInfo(1024, LAST_MODIFIED + 1, null).isNotModified(makeRequest(fileCacheInfo.getEtag())));
+    }
+
+    private static HttpRequest makeRequest(String ifNoneMatch) {
+        HttpRequest request = new DefaultHttpRequest(HttpVersion.HTTP_1_1, HttpMethod.GET, "/live/test/test.mpd");
+        request.headers().set(HttpHeaderNames.IF_NONE_MATCH, ifNoneMatch);
+        return request;
+    }
+
+}
@@ -0,0 +1,138 @@
+package dash;
+
+import dash.server.handler.definition.HttpMessageHandler;
+import dash.server.handler.definition.HttpMessageRoute;
+import dash.server.handler.definition.HttpMessageRouteTable;
+import io.netty.handler.codec.http.HttpMethod;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+public class HttpMessageRouteTableTest {
+
+    private static final HttpMessageHandler EMPTY_HANDLER = (request, response, originUri, uriFileName, ctx, dashUnit) -> null;
+
+    @Test
+    public void test() {
+        HttpMessageRouteTable routeTable = new HttpMessageRouteTable();
+        Assert.assertNull(routeTable.findUriRoute(HttpMethod.GET, "/live/test/test.mpd"));
+
+        /////////////////////////////////////////////
+        // 1) EXACT MATCH
+        HttpMessageRoute mpdRoute = new HttpMessageRoute(HttpMethod.GET, "/media/live/test/test.mpd", EMPTY_HANDLER);
+        routeTable.addRoute(mpdRoute);
+        Assert.assertSame(mpdRoute, routeTable.findUriRoute(HttpMethod.GET, "/media/live/test/test.mpd"));
+        Assert.assertSame(mpdRoute, routeTable.findUriRoute(HttpMethod.GET, "/media/live/test/test.mpd?t=1"));
+        Assert.assertSame(mpdRoute, routeTable.findUriRoute(HttpMethod.HEAD, "/media/live/test/test.mpd"));
+        Assert.assertNull(routeTable.findUriRoute(HttpMethod.POST, "/media/live/test/test.mpd"));
+        Assert.assertNull(routeTable.findUriRoute(HttpMethod.GET, "/media/live/test/other.mpd"));
+
+        /////////////////////////////////////////////
+        // 2) PREFIX MATCH (longest prefix wins)
+        HttpMessageRoute vodRoute = new HttpMessageRoute(HttpMethod.GET, "/media/vod/*", EMPTY_HANDLER);
+        HttpMessageRoute vodAnimalRoute = new HttpMessageRoute(HttpMethod.GET, "/media/vod/animal/*", EMPTY_HANDLER);
+        routeTable.addRoute(vodRoute);
+        routeTable.addRoute(vodAnimalRoute);
+        Assert.assertSame(vodRoute, routeTable.findUriRoute(HttpMethod.GET, "/media/vod/seoul.mpd"));
+        Assert.assertSame(vodAnimalRoute, routeTable.findUriRoute(HttpMethod.GET, "/media/vod/animal/tigers/tigers.mpd"));
+        Assert.assertNull(routeTable.findUriRoute(HttpMethod.GET, "/media/vodx/seoul.mpd"));
+
+        /////////////////////////////////////////////
+        // 3) ATOMIC REPLACEMENT (other routes are kept)
+        HttpMessageRoute newVodRoute = new HttpMessageRoute(HttpMethod.GET, "/media/vod/*", EMPTY_HANDLER);
+        List<HttpMessageRoute> prevRoutes = Collections.singletonList(vodRoute);
+        routeTable.replaceRoutes(prevRoutes, Collections.singletonList(newVodRoute));
+        Assert.assertSame(newVodRoute, routeTable.findUriRoute(HttpMethod.GET, "/media/vod/seoul.mpd"));
+        Assert.assertSame(mpdRoute, routeTable.findUriRoute(HttpMethod.GET, "/media/live/test/test.mpd"));
+        Assert.assertEquals(3, routeTable.getRoutes().size());
+
+        routeTable.clear();
+        Assert.assertTrue(routeTable.getRoutes().isEmpty());
+    }
+
+    @Test
+    public void testAddRoutes() {
+        HttpMessageRouteTable routeTable = new HttpMessageRouteTable();
+
+        HttpMessageRoute vodRoute = new HttpMessageRoute(HttpMethod.GET, "/media/vod/*", EMPTY_HANDLER);
+        routeTable.addRoute(vodRoute);
+
+        // 여러 route 를 한 번에 추가해도 이전에 추가한 route 는 그대로 조회
+        HttpMessageRoute mpdRoute = new HttpMessageRoute(HttpMethod.GET, "/media/live/test/test.mpd", EMPTY_HANDLER);
+        HttpMessageRoute vodAnimalRoute = new HttpMessageRoute(HttpMethod.GET, "/media/vod/animal/*", EMPTY_HANDLER);
+        routeTable.addRoutes(Arrays.asList(mpdRoute, vodAnimalRoute));
+        Assert.assertSame(mpdRoute, routeTable.findUriRoute(HttpMethod.GET, "/media/live/test/test.mpd"));
+        Assert.assertSame(vodRoute, routeTable.findUriRoute(HttpMethod.GET, "/media/vod/seoul.mpd"));
+        Assert.assertSame(vodAnimalRoute, routeTable.findUriRoute(HttpMethod.GET, "/media/vod/animal/tigers/tigers.mpd"));
+        Assert.assertEquals(3, routeTable.getRoutes().size());
+
+        // 같은 URI 는 먼저 등록된 route 유지
+        routeTable.addRoutes(Arrays.asList(
+                new HttpMessageRoute(HttpMethod.GET, "/media/live/test/test.mpd", EMPTY_HANDLER),
+                new HttpMessageRoute(HttpMethod.GET, "/media/vod/*", EMPTY_HANDLER)
+        ));
+        Assert.assertSame(mpdRoute, routeTable.findUriRoute(HttpMethod.GET, "/media/live/test/test.mpd"));
+        Assert.assertSame(vodRoute, routeTable.findUriRoute(HttpMethod.GET, "/media/vod/seoul.mpd"));
+    }
+
+    @Test
+    public void testRemoveRoutes() {
+        HttpMessageRouteTable routeTable = new HttpMessageRouteTable();
+        HttpMessageRoute vodRoute = new HttpMessageRoute(HttpMethod.GET, "/media/vod/*", EMPTY_HANDLER);
+        routeTable.addRoute(vodRoute);
+
+        // DashUnit 시작 > 종료를 반복해도 route 가 쌓이지 않는다.
+        for (int i = 0; i < 3; i++) {
+            List<HttpMessageRoute> unitRoutes = Arrays.asList(
+                    new HttpMessageRoute(HttpMethod.GET, "/media/live/test", EMPTY_HANDLER),
+                    new HttpMessageRoute(HttpMethod.GET, "/media/live/test/test.mpd", EMPTY_HANDLER),
+                    new HttpMessageRoute(HttpMethod.GET, "/media/vod/animal/*", EMPTY_HANDLER)
+            );
+            routeTable.addRoutes(unitRoutes);
+            Assert.assertSame(unitRoutes.get(1), routeTable.findUriRoute(HttpMethod.GET, "/media/live/test/test.mpd"));
+            Assert.assertSame(unitRoutes.get(2), routeTable.findUriRoute(HttpMethod.GET, "/media/vod/animal/tigers.mpd"));
+            Assert.assertEquals(4, routeTable.getRoutes().size());
+
+            routeTable.replaceRoutes(unitRoutes, Collections.emptyList());
+            Assert.assertNull(routeTable.findUriRoute(HttpMethod.GET, "/media/live/test/test.mpd"));
+            Assert.assertSame(vodRoute, routeTable.findUriRoute(HttpMethod.GET, "/media/vod/animal/tigers.mpd"));
+            Assert.assertEquals(1, routeTable.getRoutes().size());
+        }
+
+        // 먼저 등록된 route 가 제거되면 같은 URI 의 다음 route 를 사용
+        HttpMessageRoute mpdRoute = new HttpMessageRoute(HttpMethod.GET, "/media/live/test/test.mpd", EMPTY_HANDLER);
+        HttpMessageRoute duplicatedMpdRoute = new HttpMessageRoute(HttpMethod.GET, "/media/live/test/test.mpd", EMPTY_HANDLER);
+        HttpMessageRoute duplicatedVodRoute = new HttpMessageRoute(HttpMethod.GET, "/media/vod/*", EMPTY_HANDLER);
+        routeTable.addRoutes(Arrays.asList(mpdRoute, duplicatedMpdRoute, duplicatedVodRoute));
+        routeTable.replaceRoutes(Arrays.asList(mpdRoute, vodRoute), Collections.emptyList());
+        Assert.assertSame(duplicatedMpdRoute, routeTable.findUriRoute(HttpMethod.GET, "/media/live/test/test.mpd"));
+        Assert.assertSame(duplicatedVodRoute, routeTable.findUriRoute(HttpMethod.GET, "/media/vod/seoul.mpd"));
+    }
+
+    /**
+     * route 는 등록된 Method 로만 조회된다. (HEAD 는 GET route 사용)
+     * 기존 선형 탐색은 Method 를 비교하지 않았으므로 GET route 에 다른 Method 로 요청해도 처리되었지만, 지금은 404
+     */
+    @Test
+    public void testMethod() {
+        HttpMessageRouteTable routeTable = new HttpMessageRouteTable();
+        HttpMessageRoute getRoute = new HttpMessageRoute(HttpMethod.GET, "/media/live/test/test.mpd", EMPTY_HANDLER);
+        HttpMessageRoute postRoute = new HttpMessageRoute(HttpMethod.POST, "/media/upload/*", EMPTY_HANDLER);
+        routeTable.addRoutes(Arrays.asList(getRoute, postRoute));
+
+        Assert.assertSame(getRoute, routeTable.findUriRoute(HttpMethod.GET, "/media/live/test/test.mpd"));
+        Assert.assertSame(getRoute, routeTable.findUriRoute(HttpMethod.HEAD, "/media/live/test/test.mpd"));
+        Assert.assertNull(routeTable.findUriRoute(HttpMethod.POST, "/media/live/test/test.mpd"));
+        Assert.assertNull(routeTable.findUriRoute(HttpMethod.PUT, "/media/live/test/test.mpd"));
+        Assert.assertNull(routeTable.findUriRoute(HttpMethod.DELETE, "/media/live/test/test.mpd"));
+        Assert.assertNull(routeTable.findUriRoute(HttpMethod.OPTIONS, "/media/live/test/test.mpd"));
+
+        Assert.assertSame(postRoute, routeTable.findUriRoute(HttpMethod.POST, "/media/upload/a.mp4"));
+        Assert.assertNull(routeTable.findUriRoute(HttpMethod.GET, "/media/upload/a.mp4"));
+        Assert.assertNull(routeTable.findUriRoute(HttpMethod.HEAD, "/media/upload/a.mp4"));
+    }
+
+}
@@ -0,0 +1,127 @@
+package dash;
+
+import dash.server.handler.HttpMessageManager;
+import dash.server.handler.HttpResponseHeaderCache;
+import dash.server.handler.definition.HttpCacheInfo;
+import dash.unit.segment.SegmentCache;
+import io.netty.handler.codec.http.DefaultHttpHeaders;
+import io.netty.handler.codec.http.HttpHeaderNames;
+import io.netty.handler.codec.http.HttpHeaders;
+import org.junit.Assert;
+import org.junit.Assume;
+import org.junit.Test;
+
+import java.io.File;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * 응답마다 만들던 값을 재사용하는지 검증한다.
+ * - 헤더 값 (Date) : 스레드 할당량 (ThreadMXBean, 지원하지 않는 JVM 에서는 건너뜀)
+ * - 세그먼트 검증자 (HttpCacheInfo) : 파일 버전이 같으면 같은 인스턴스
+ */
+public class HttpResponseAllocationTest {
+
+    private static final int WARMUP_COUNT = 20000;
+    private static final int MEASURE_COUNT = 100000;
+
+    @Test
+    public void testHeaderAllocation() {
+        AllocationCounter allocation = new AllocationCounter();
+        Assume.assumeTrue(allocation.isSupported());
+
+        HttpResponseHeaderCache headerCache = new HttpResponseHeaderCache("UDASH");
+        HttpHeaders headers = new DefaultHttpHeaders();
+
+        /////////////////////////////////////////////
+        // 1) 헤더 값 (Date) : 초가 바뀔 때만 새로 만든다.
+        double cachedValueBytes = allocation.measure(() -> {
+            if (headerCache.getDate().length() == 0) { throw new IllegalStateException(); }
+        });
+        Assert.assertTrue("date=" + cachedValueBytes + " bytes/op", cachedValueBytes < 1);
+
+        /////////////////////////////////////////////
+        // 2) 공통 헤더 전체 설정 (같은 헤더 객체 재사용) : 매번 포맷하던 방식의 절반 미만
+        double legacyHeaderBytes = allocation.measure(() -> {
+            headers.clear();
+            headers.set(HttpHeaderNames.SERVER, "UDASH");
+            headers.set(HttpHeaderNames.DATE, ZonedDateTime.now().format(DateTimeFormatter.RFC_1123_DATE_TIME));
+            headers.set(HttpHeaderNames.CONTENT_TYPE, "text/plain; charset=UTF-8");
+            headers.set(HttpHeaderNames.CONTENT_LENGTH, Integer.toString(1024));
+            headers.set(HttpHeaderNames.ACCESS_CONTROL_ALLOW_ORIGIN, "*");
+        });
+        double cachedHeaderBytes = allocation.measure(() -> {
+            headers.clear();
+            headerCache.setCommonHeaders(headers, HttpMessageManager.TYPE_PLAIN, 1024);
+        });
+        Assert.assertTrue("legacy=" + legacyHeaderBytes + ", cached=" + cachedHeaderBytes + " bytes/op",
+                cachedHeaderBytes < legacyHeaderBytes / 2
+        );
+    }
+
+    @Test
+    public void testSegmentCacheInfo() throws Exception {
+        File segmentFile = File.createTempFile("chunk-stream0-", ".m4s");
+        segmentFile.deleteOnExit();
+        Files.write(segmentFile.toPath(), new byte[1024]);
+        Assert.assertTrue(segmentFile.setLastModified(1700000000000L));
+
+        SegmentCache segmentCache = new SegmentCache(1024 * 1024);
+        try {
+            SegmentCache.CachedSegment first = segmentCache.get(segmentFile.getAbsolutePath(), HttpCacheInfo.NO_CACHE, false);
+            SegmentCache.CachedSegment second = segmentCache.get(segmentFile.getAbsolutePath(), HttpCacheInfo.NO_CACHE, false);
+            first.getBuf().release();
+            second.getBuf().release();
+
+            // 같은 파일 버전 > 요청마다 검증자를 만들지 않는다.
+            Assert.assertSame(first.getCacheInfo(), second.getCacheInfo());
+            Assert.assertEquals(1, segmentCache.getHitCount());
+
+            // 파일이 바뀌면 새 검증자
+            Assert.assertTrue(segmentFile.setLastModified(1700000001000L));
+            SegmentCache.CachedSegment third = segmentCache.get(segmentFile.getAbsolutePath(), HttpCacheInfo.NO_CACHE, false);
+            third.getBuf().release();
+            Assert.assertNotSame(first.getCacheInfo(), third.getCacheInfo());
+            Assert.assertNotEquals(first.getCacheInfo().getEtag(), third.getCacheInfo().getEtag());
+        } finally {
+            segmentCache.clear();
+        }
+    }
+
+    private static class AllocationCounter {
+
+        private final com.sun.management.ThreadMXBean threadMXBean;
+
+        private AllocationCounter() {
+            java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+            threadMXBean = bean instanceof com.sun.management.ThreadMXBean ? (com.sun.management.ThreadMXBean) bean : null;
+            if (threadMXBean != null && threadMXBean.isThreadAllocatedMemorySupported()) {
+                threadMXBean.setThreadAllocatedMemoryEnabled(true);
+            }
+        }
+
+        private boolean isSupported() {
+            return threadMXBean != null
+                    && threadMXBean.isThreadAllocatedMemorySupported()
+                    && threadMXBean.isThreadAllocatedMemoryEnabled();
+        }
+
+        private double measure(Runnable runnable) {
+            for (int i = 0; i < WARMUP_COUNT; i++) {
+                runnable.run();
+            }
+
+            long threadId = Thread.currentThread().getId();
+            long before = threadMXBean.getThreadAllocatedBytes(threadId);
+            for (int i = 0; i < MEASURE_COUNT; i++) {
+                runnable.run();
+            }
+            long after = threadMXBean.getThreadAllocatedBytes(threadId);
+            return (double) (after - before) / MEASURE_COUNT;
+        }
+
+    }
+
+}
@@ -0,0 +1,73 @@
+package dash;
+
+import dash.server.handler.HttpMessageManager;
+import dash.server.handler.HttpResponseHeaderCache;
+import io.netty.handler.codec.http.DefaultHttpHeaders;
+import io.netty.handler.codec.http.HttpHeaderNames;
+import io.netty.handler.codec.http.HttpHeaders;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+
+public class HttpResponseHeaderCacheTest {
+
+    @Test
+    public void testDate() throws Exception {
+        HttpResponseHeaderCache headerCache = new HttpResponseHeaderCache("UDASH");
+
+        // RFC 1123, GMT
+        long before = System.currentTimeMillis() / 1000;
+        CharSequence date = headerCache.getDate();
+        long after = System.currentTimeMillis() / 1000;
+        ZonedDateTime parsed = ZonedDateTime.parse(date.toString(), DateTimeFormatter.RFC_1123_DATE_TIME);
+        Assert.assertEquals(ZoneOffset.UTC, parsed.getOffset());
+        Assert.assertTrue(date.toString().endsWith(" GMT"));
+        long second = parsed.toEpochSecond();
+        Assert.assertTrue(second >= before && second <= after);
+
+        // 같은 초 안에서는 같은 값을 재사용, 초가 바뀌면 새로 만든다.
+        long curSecond;
+        CharSequence prevDate;
+        CharSequence sameDate;
+        do {
+            curSecond = System.currentTimeMillis() / 1000;
+            prevDate = headerCache.getDate();
+            sameDate = headerCache.getDate();
+        } while (curSecond != System.currentTimeMillis() / 1000);
+        Assert.assertSame(prevDate, sameDate);
+
+        while (System.currentTimeMillis() / 1000 == curSecond) {
+            Thread.sleep(10);
+        }
+        CharSequence nextDate = headerCache.getDate();
+        Assert.assertNotSame(prevDate, nextDate);
+        Assert.assertTrue(ZonedDateTime.parse(nextDate.toString(), DateTimeFormatter.RFC_1123_DATE_TIME).toEpochSecond() > curSecond);
+    }
+
+    @Test
+    public void testCommonHeaders() {
+        HttpResponseHeaderCache headerCache = new HttpResponseHeaderCache("UDASH");
+        HttpHeaders headers = new DefaultHttpHeaders();
+
+        headerCache.setCommonHeaders(headers, HttpMessageManager.TYPE_PLAIN, 1024);
+        Assert.assertEquals("UDASH", headers.get(HttpHeaderNames.SERVER).toString());
+        Assert.assertEquals(HttpMessageManager.TYPE_PLAIN.toString(), headers.get(HttpHeaderNames.CONTENT_TYPE).toString());
+        Assert.assertEquals("1024", headers.get(HttpHeaderNames.CONTENT_LENGTH).toString());
+        Assert.assertEquals("*", headers.get(HttpHeaderNames.ACCESS_CONTROL_ALLOW_ORIGIN).toString());
+        Assert.assertNotNull(headers.get(HttpHeaderNames.DATE));
+
+        // Content-Type 없음, Content-Length 음수 (304 등) > 설정하지 않음
+        headers.clear();
+        headerCache.setCommonHeaders(headers, null, -1);
+        Assert.assertNull(headers.get(HttpHeaderNames.CONTENT_TYPE));
+        Assert.assertNull(headers.get(HttpHeaderNames.CONTENT_LENGTH));
+        Assert.assertEquals("UDASH", headers.get(HttpHeaderNames.SERVER).toString());
+
+        // 서버 이름이 없으면 빈 값
+        Assert.assertEquals("", new HttpResponseHeaderCache(null).getServerName().toString());
+    }
+
+}
@@ -0,0 +1,72 @@
+package dash;
+
+import dash.unit.segment.RelaySegmentStore;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class RelaySegmentStoreTest {
+
+    private static final int SEGMENT_SIZE = 1000;
+
+    @Test
+    public void testEvictUnderPressure() {
+        RelaySegmentStore.configure(SEGMENT_SIZE * 4);
+        RelaySegmentStore store1 = new RelaySegmentStore("TEST1", 2);
+        RelaySegmentStore store2 = new RelaySegmentStore("TEST2", 10);
+        try {
+            // 초기화 세그먼트는 제거하지 않음
+            store1.put(null, "/test1/init.mp4", newSegment());
+            store1.put("video", "/test1/chunk-1.m4s", newSegment());
+            store2.put("video", "/test2/chunk-1.m4s", newSegment());
+
+            // ring (windowSize=2) 에서 밀려난 세그먼트는 전체 제한과 상관없이 제거됨
+            store1.put("video", "/test1/chunk-2.m4s", newSegment());
+            store1.put("video", "/test1/chunk-3.m4s", newSegment());
+            Assert.assertFalse(contains(store1, "/test1/chunk-1.m4s"));
+            Assert.assertEquals(SEGMENT_SIZE * 4, RelaySegmentStore.getGlobalTotalBytes());
+
+            // 전체 제한 초과 > 모든 저장소에서 가장 오래된 세그먼트 (store2 의 chunk-1) 부터 제거
+            store2.put("video", "/test2/chunk-2.m4s", newSegment());
+            Assert.assertFalse(contains(store2, "/test2/chunk-1.m4s"));
+            Assert.assertTrue(contains(store1, "/test1/chunk-2.m4s"));
+            Assert.assertEquals(SEGMENT_SIZE * 4, RelaySegmentStore.getGlobalTotalBytes());
+
+            // 재수신으로 교체된 세그먼트는 새로 저장한 시각 기준
+            store1.put("video", "/test1/chunk-2.m4s", newSegment());
+            store2.put("video", "/test2/chunk-3.m4s", newSegment());
+            Assert.assertFalse(contains(store1, "/test1/chunk-3.m4s"));
+            Assert.assertTrue(contains(store1, "/test1/chunk-2.m4s"));
+            Assert.assertTrue(contains(store1, "/test1/init.mp4"));
+            Assert.assertEquals(SEGMENT_SIZE * 4, RelaySegmentStore.getGlobalTotalBytes());
+
+            // 종료된 저장소의 세그먼트는 제거 대상에서 빠짐
+            store1.close();
+            Assert.assertEquals(SEGMENT_SIZE * 2, RelaySegmentStore.getGlobalTotalBytes());
+            store2.put("video", "/test2/chunk-4.m4s", newSegment());
+            store2.put("video", "/test2/chunk-5.m4s", newSegment());
+            store2.put("video", "/test2/chunk-6.m4s", newSegment());
+            Assert.assertEquals(4, store2.getSegmentCount());
+            Assert.assertFalse(contains(store2, "/test2/chunk-2.m4s"));
+            Assert.assertTrue(contains(store2, "/test2/chunk-3.m4s"));
+        } finally {
+            store1.close();
+            store2.close();
+            RelaySegmentStore.configure(0);
+        }
+    }
+
+    private static ByteBuf newSegment() {
+        return Unpooled.wrappedBuffer(new byte[SEGMENT_SIZE]);
+    }
+
+    private static boolean contains(RelaySegmentStore store, String uri) {
+        RelaySegmentStore.RelaySegment relaySegment = store.get(uri, null);
+        if (relaySegment == null) { return false; }
+
+        relaySegment.getBuf().release();
+        return true;
+    }
+
+}
@@ -0,0 +1,62 @@
+package dash;
+
+import dash.server.handler.definition.HttpCacheInfo;
+import dash.unit.segment.SegmentCache;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.File;
+import java.nio.file.Files;
+
+public class SegmentCacheTest {
+
+    private static final int SEGMENT_SIZE = 1024;
+
+    @Test
+    public void testPinnedInitSegment() throws Exception {
+        File directory = Files.createTempDirectory("segment-cache").toFile();
+        directory.deleteOnExit();
+
+        // 파일 이름에 "init" 이 있어도 MPD 의 initialization 템플릿과 일치하지 않으면 일반 세그먼트 (제거 대상)
+        File initSegment = makeSegment(directory, "init-stream0.m4s");
+        File mediaSegment = makeSegment(directory, "initial_chunk-stream0-00001.m4s");
+        File nextMediaSegment = makeSegment(directory, "initial_chunk-stream0-00002.m4s");
+
+        SegmentCache segmentCache = new SegmentCache(SEGMENT_SIZE * 2);
+        try {
+            get(segmentCache, initSegment, true);
+            get(segmentCache, mediaSegment, false);
+            get(segmentCache, nextMediaSegment, false);
+            Assert.assertEquals(2, segmentCache.getEntryCount());
+            Assert.assertEquals(1, segmentCache.getEvictionCount());
+
+            // 초기화 세그먼트는 남아 있고, 먼저 저장된 미디어 세그먼트가 제거됨
+            long missCount = segmentCache.getMissCount();
+            get(segmentCache, initSegment, true);
+            get(segmentCache, nextMediaSegment, false);
+            Assert.assertEquals(missCount, segmentCache.getMissCount());
+            get(segmentCache, mediaSegment, false);
+            Assert.assertEquals(missCount + 1, segmentCache.getMissCount());
+
+            // DashUnit 삭제 시에는 pinned 도 제거
+            segmentCache.invalidateByPrefix(directory.getAbsolutePath());
+            Assert.assertEquals(0, segmentCache.getEntryCount());
+        } finally {
+            segmentCache.clear();
+        }
+    }
+
+    private static File makeSegment(File directory, String name) throws Exception {
+        File segment = new File(directory, name);
+        segment.deleteOnExit();
+        Files.write(segment.toPath(), new byte[SEGMENT_SIZE]);
+        return segment;
+    }
+
+    private static void get(SegmentCache segmentCache, File segment, boolean isInitSegment) {
+        SegmentCache.CachedSegment cachedSegment = segmentCache.get(segment.getAbsolutePath(), HttpCacheInfo.NO_CACHE, isInitSegment);
+        Assert.assertNotNull(cachedSegment);
+        cachedSegment.getBuf().release();
+    }
+
+}
@@ -0,0 +1,46 @@
+package dash;
+
+import dash.client.prefetch.SegmentPrefetchWindow;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class SegmentPrefetchWindowTest {
+
+    @Test
+    public void test() {
+        SegmentPrefetchWindow window = new SegmentPrefetchWindow(3, 5);
+
+        // window 크기만큼만 요청 가능
+        Assert.assertEquals(5, window.acquire());
+        Assert.assertEquals(6, window.acquire());
+        Assert.assertEquals(7, window.acquire());
+        Assert.assertFalse(window.hasFreeSlot());
+        Assert.assertEquals(-1, window.acquire());
+        Assert.assertEquals(3, window.getInFlightCount());
+
+        // 순서가 바뀐 완료는 완료 번호를 전진시키지 않음
+        Assert.assertEquals(-1, window.complete(7));
+        Assert.assertEquals(-1, window.complete(6));
+        Assert.assertEquals(1, window.getInFlightCount());
+        Assert.assertFalse(window.isInFlight(6));
+        Assert.assertTrue(window.isInFlight(5));
+        Assert.assertFalse(window.hasFreeSlot());
+
+        // 앞의 세그먼트가 완료되면 연속된 구간만큼 한 번에 전진
+        Assert.assertEquals(7, window.complete(5));
+        Assert.assertEquals(8, window.getNextCompleteNumber());
+        Assert.assertEquals(0, window.getInFlightCount());
+
+        // 중복, 범위 밖 완료는 무시
+        Assert.assertEquals(-1, window.complete(5));
+        Assert.assertEquals(-1, window.complete(9));
+
+        // 슬롯 재사용 시 이전 완료 상태가 남지 않음
+        Assert.assertEquals(8, window.acquire());
+        Assert.assertEquals(9, window.acquire());
+        Assert.assertTrue(window.isInFlight(8));
+        Assert.assertEquals(-1, window.complete(9));
+        Assert.assertEquals(9, window.complete(8));
+    }
+
+}
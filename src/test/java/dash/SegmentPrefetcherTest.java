@@ -0,0 +1,266 @@
+package dash;
+
+import dash.client.handler.base.MessageType;
+import dash.client.handler.base.SegmentWriter;
+import dash.client.handler.segment.DashSegmentHttpMessageHandler;
+import dash.client.prefetch.SegmentPrefetcher;
+import io.netty.handler.codec.http.*;
+import io.netty.util.Timeout;
+import io.netty.util.Timer;
+import io.netty.util.TimerTask;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 시각과 예약 실행을 ManualScheduler 로 대체해서 실제 시간을 기다리지 않는다.
+ */
+public class SegmentPrefetcherTest {
+
+    private static final long SEGMENT_DURATION = 50000; // micro-sec
+    private static final long REQUEST_TIMEOUT = 300; // ms
+
+    @Test
+    public void testRequestTimeout() {
+        ManualScheduler scheduler = new ManualScheduler();
+        TestSegmentPrefetcher segmentPrefetcher = new TestSegmentPrefetcher(3, scheduler);
+        try {
+            // SegmentDuration 마다 하나씩, window 크기 (3) 까지 요청
+            segmentPrefetcher.start();
+            scheduler.advance(TimeUnit.MICROSECONDS.toMillis(SEGMENT_DURATION) * 3);
+            Assert.assertNotNull(segmentPrefetcher.getRequest(3, 1));
+            Assert.assertEquals(3, segmentPrefetcher.requests.size());
+
+            // 1 번은 응답이 없음, 2, 3 번은 완료 > 다른 요청의 응답이 1 번의 timeout 을 끄지 않는다.
+            DashSegmentHttpMessageHandler hungHandler = segmentPrefetcher.getRequest(1, 1);
+            respond(segmentPrefetcher.getRequest(2, 1));
+            respond(segmentPrefetcher.getRequest(3, 1));
+            Assert.assertEquals(-1, segmentPrefetcher.lastSegmentNumber);
+
+            // 1 번만 timeout 후 다시 요청
+            scheduler.advance(REQUEST_TIMEOUT);
+            Assert.assertNotNull(segmentPrefetcher.getRequest(1, 2));
+            Assert.assertTrue(hungHandler.isFinished());
+            Assert.assertNull(segmentPrefetcher.getRequest(2, 2));
+            Assert.assertNull(segmentPrefetcher.getRequest(3, 2));
+            Assert.assertEquals(1, segmentPrefetcher.getRetriedCount());
+
+            // 늦게 도착한 이전 응답은 무시
+            respond(hungHandler);
+            Assert.assertEquals(-1, segmentPrefetcher.lastSegmentNumber);
+
+            // 다시 요청한 1 번이 완료되면 연속된 3 번까지 반영
+            DashSegmentHttpMessageHandler retriedHandler = segmentPrefetcher.getRequest(1, 2);
+            respond(retriedHandler);
+            Assert.assertEquals(3, segmentPrefetcher.lastSegmentNumber);
+
+            // 완료된 요청의 timeout 은 취소됨
+            scheduler.advance(REQUEST_TIMEOUT);
+            Assert.assertNull(segmentPrefetcher.getRequest(1, 3));
+            Assert.assertFalse(segmentPrefetcher.isDashUnitStopped);
+        } finally {
+            segmentPrefetcher.stop();
+        }
+    }
+
+    @Test
+    public void testRequestTimeoutRetryCount() {
+        ManualScheduler scheduler = new ManualScheduler();
+        TestSegmentPrefetcher segmentPrefetcher = new TestSegmentPrefetcher(1, scheduler);
+        try {
+            // 응답이 전혀 없으면 재시도 횟수만큼 다시 요청한 후 DashUnit 을 종료한다.
+            segmentPrefetcher.start();
+            scheduler.advance(TimeUnit.MICROSECONDS.toMillis(SEGMENT_DURATION) + REQUEST_TIMEOUT * 3);
+            Assert.assertTrue(segmentPrefetcher.isDashUnitStopped);
+            Assert.assertNotNull(segmentPrefetcher.getRequest(1, 2));
+            Assert.assertNull(segmentPrefetcher.getRequest(1, 3));
+            Assert.assertTrue(segmentPrefetcher.isStopped());
+        } finally {
+            segmentPrefetcher.stop();
+        }
+    }
+
+    private static void respond(DashSegmentHttpMessageHandler messageHandler) {
+        HttpResponse httpResponse = new DefaultHttpResponse(HttpVersion.HTTP_1_1, HttpResponseStatus.OK);
+        messageHandler.processResponse(httpResponse, null);
+        messageHandler.processContent(httpResponse, null);
+        messageHandler.processResponse(LastHttpContent.EMPTY_LAST_CONTENT, null);
+        messageHandler.processContent(LastHttpContent.EMPTY_LAST_CONTENT, null);
+    }
+
+    /**
+     * 수동으로 진행하는 시각과 예약 실행 (테스트 스레드에서 실행)
+     */
+    private static class ManualScheduler {
+
+        private final PriorityQueue<ScheduledTask> taskQueue = new PriorityQueue<>();
+        private long now = 0; // nano-sec
+        private long taskSeq = 0;
+
+        private Future<?> schedule(Runnable task, long delay, TimeUnit timeUnit) {
+            ScheduledTask scheduledTask = new ScheduledTask(now + timeUnit.toNanos(Math.max(delay, 0)), taskSeq++, task);
+            taskQueue.add(scheduledTask);
+            return scheduledTask.futureTask;
+        }
+
+        /**
+         * 시각을 timeMs 만큼 진행하면서 예정 시각이 지난 작업을 순서대로 실행한다.
+         */
+        private void advance(long timeMs) {
+            long targetTime = now + TimeUnit.MILLISECONDS.toNanos(timeMs);
+            while (!taskQueue.isEmpty() && taskQueue.peek().time <= targetTime) {
+                ScheduledTask scheduledTask = taskQueue.poll();
+                now = scheduledTask.time;
+                scheduledTask.futureTask.run();
+            }
+            now = targetTime;
+        }
+
+    }
+
+    private static class ScheduledTask implements Comparable<ScheduledTask> {
+
+        private final long time;
+        private final long seq;
+        private final FutureTask<Void> futureTask;
+
+        private ScheduledTask(long time, long seq, Runnable task) {
+            this.time = time;
+            this.seq = seq;
+            this.futureTask = new FutureTask<>(task, null);
+        }
+
+        @Override
+        public int compareTo(ScheduledTask o) {
+            return time != o.time ? Long.compare(time, o.time) : Long.compare(seq, o.seq);
+        }
+
+    }
+
+    private static class ManualTimeout implements Timeout {
+
+        private final Future<?> future;
+
+        private ManualTimeout(Future<?> future) {
+            this.future = future;
+        }
+
+        @Override
+        public Timer timer() { return null; }
+
+        @Override
+        public TimerTask task() { return null; }
+
+        @Override
+        public boolean isExpired() { return future.isDone() && !future.isCancelled(); }
+
+        @Override
+        public boolean isCancelled() { return future.isCancelled(); }
+
+        @Override
+        public boolean cancel() { return future.cancel(false); }
+
+    }
+
+    /**
+     * 요청을 보내지 않고 기록만 한다.
+     */
+    private static class TestSegmentPrefetcher extends SegmentPrefetcher {
+
+        private final ManualScheduler scheduler;
+        private final List<DashSegmentHttpMessageHandler> requests = new ArrayList<>();
+        private long lastSegmentNumber = -1;
+        private boolean isDashUnitStopped = false;
+
+        private TestSegmentPrefetcher(int retryCount, ManualScheduler scheduler) {
+            super("TEST", MessageType.VIDEO, "0", 3, 1, retryCount, REQUEST_TIMEOUT, null); // executor 대신 scheduler 사용
+            this.scheduler = scheduler;
+        }
+
+        private DashSegmentHttpMessageHandler getRequest(long number, int attempt) {
+            for (DashSegmentHttpMessageHandler messageHandler : requests) {
+                if (messageHandler.getSegmentNumber() == number && messageHandler.getAttempt() == attempt) {
+                    return messageHandler;
+                }
+            }
+            return null;
+        }
+
+        @Override
+        protected long nanoTime() {
+            return scheduler.now;
+        }
+
+        @Override
+        protected Future<?> schedule(Runnable task, long delay, TimeUnit timeUnit) {
+            return scheduler.schedule(task, delay, timeUnit);
+        }
+
+        @Override
+        public Timeout newRequestTimeout(Runnable task, long timeout) {
+            return new ManualTimeout(scheduler.schedule(task, timeout, TimeUnit.MILLISECONDS));
+        }
+
+        @Override
+        protected boolean isClientStopped() {
+            return isDashUnitStopped;
+        }
+
+        @Override
+        protected long getSegmentDuration() {
+            return SEGMENT_DURATION;
+        }
+
+        @Override
+        protected long applyAtoIntoDuration(long duration) {
+            return duration;
+        }
+
+        @Override
+        protected String getSegmentName(long number) {
+            return "chunk-stream0-" + number + ".m4s";
+        }
+
+        @Override
+        protected String getTargetSegmentPath(String segmentName) {
+            return segmentName;
+        }
+
+        @Override
+        protected SegmentWriter createSegmentWriter() {
+            return new SegmentWriter() {
+                @Override
+                public boolean open(String targetPath) { return true; }
+
+                @Override
+                public boolean write(String targetPath, HttpContent httpContent) { return true; }
+
+                @Override
+                public void abort() {}
+            };
+        }
+
+        @Override
+        protected void sendSegmentRequest(String segmentName, DashSegmentHttpMessageHandler messageHandler) {
+            requests.add(messageHandler);
+        }
+
+        @Override
+        protected void updateLastSegmentNumber(long lastNumber) {
+            lastSegmentNumber = lastNumber;
+        }
+
+        @Override
+        protected void stopDashUnit() {
+            isDashUnitStopped = true;
+        }
+
+    }
+
+}
@@ -0,0 +1,61 @@
+package dash;
+
+import dash.mpd.SegmentTemplateMatcher;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class SegmentTemplateMatcherTest {
+
+    @Test
+    public void test() {
+        SegmentTemplateMatcher.MatchResult result = new SegmentTemplateMatcher.MatchResult();
+
+        // 미디어 세그먼트
+        SegmentTemplateMatcher mediaMatcher = SegmentTemplateMatcher.compile("Seoul_chunk$RepresentationID$_$Number%05d$.m4s");
+        Assert.assertNotNull(mediaMatcher);
+        Assert.assertTrue(mediaMatcher.matchPath("/media/live/Seoul/Seoul_chunk0_00008.m4s", result));
+        Assert.assertEquals(0, result.getRepresentationIdAsInt());
+        Assert.assertEquals(8, result.getNumber());
+        Assert.assertEquals(-1, result.getTime());
+
+        // 두 자리 이상 RepresentationID, 형식 폭보다 긴 번호
+        Assert.assertTrue(mediaMatcher.matchPath("/Seoul/Seoul_chunk12_123456.m4s", result));
+        Assert.assertEquals(12, result.getRepresentationIdAsInt());
+        Assert.assertEquals(123456, result.getNumber());
+
+        // RepresentationID 안에 다음 고정 문자열 ('_') 이 포함된 경우
+        Assert.assertTrue(mediaMatcher.matchPath("Seoul_chunkv_1_00003.m4s", result));
+        Assert.assertEquals("v_1", result.getRepresentationId());
+        Assert.assertTrue(result.representationIdEquals("v_1"));
+        Assert.assertFalse(result.representationIdEquals("v_2"));
+        Assert.assertEquals(-1, result.getRepresentationIdAsInt());
+        Assert.assertEquals(3, result.getNumber());
+        Assert.assertSame(mediaMatcher, result.getMatcher());
+
+        // 초기화 세그먼트, 다른 스트림은 일치하지 않음
+        Assert.assertFalse(mediaMatcher.matchPath("/Seoul/Seoul_init0.m4s", result));
+        Assert.assertFalse(mediaMatcher.matchPath("/Busan/Busan_chunk0_00008.m4s", result));
+        Assert.assertFalse(mediaMatcher.matchPath("/Seoul/Seoul_chunk0_0000a.m4s", result));
+        Assert.assertFalse(result.hasRepresentationId());
+        Assert.assertNull(result.getMatcher());
+
+        SegmentTemplateMatcher initMatcher = SegmentTemplateMatcher.compile("Seoul_init$RepresentationID$.m4s");
+        Assert.assertNotNull(initMatcher);
+        Assert.assertTrue(initMatcher.matchPath("/Seoul/Seoul_init1.m4s", result));
+        Assert.assertTrue(result.representationIdEquals("1"));
+
+        // $Time$, 하위 경로, $$
+        SegmentTemplateMatcher timeMatcher = SegmentTemplateMatcher.compile("$RepresentationID$/t$Time$$$.m4s");
+        Assert.assertNotNull(timeMatcher);
+        Assert.assertTrue(timeMatcher.matchPath("/live/video/t900000$.m4s", result));
+        Assert.assertEquals("video", result.getRepresentationId());
+        Assert.assertEquals(900000, result.getTime());
+        Assert.assertEquals(-1, result.getNumber());
+
+        // 지원하지 않는 템플릿
+        Assert.assertNull(SegmentTemplateMatcher.compile("$RepresentationID$$Number$.m4s"));
+        Assert.assertNull(SegmentTemplateMatcher.compile("chunk$Unknown$.m4s"));
+        Assert.assertNull(SegmentTemplateMatcher.compile("chunk$Number.m4s"));
+    }
+
+}
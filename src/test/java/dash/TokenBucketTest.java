@@ -0,0 +1,42 @@
+package dash;
+
+import dash.server.handler.DashAdmissionController;
+import dash.server.handler.definition.TokenBucket;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+
+public class TokenBucketTest {
+
+    @Test
+    public void test() {
+        long now = 0;
+        TokenBucket tokenBucket = new TokenBucket(10, 3, now); // 초당 10개, 최대 3개
+
+        // burst 만큼 바로 허용
+        for (int i = 0; i < 3; i++) {
+            Assert.assertEquals(0, tokenBucket.tryAcquire(now));
+        }
+
+        // 다음 token 은 100ms 후
+        long waitNanos = tokenBucket.tryAcquire(now);
+        Assert.assertTrue(waitNanos > 0);
+        Assert.assertTrue(waitNanos <= TimeUnit.MILLISECONDS.toNanos(100));
+        Assert.assertEquals(1, DashAdmissionController.toRetryAfterSec(waitNanos));
+
+        now += TimeUnit.MILLISECONDS.toNanos(100);
+        Assert.assertEquals(0, tokenBucket.tryAcquire(now));
+        Assert.assertTrue(tokenBucket.tryAcquire(now) > 0);
+
+        // 오래 쉬어도 burst 이상 쌓이지 않음
+        now += TimeUnit.SECONDS.toNanos(10);
+        Assert.assertTrue(tokenBucket.isIdle(now));
+        for (int i = 0; i < 3; i++) {
+            Assert.assertEquals(0, tokenBucket.tryAcquire(now));
+        }
+        Assert.assertTrue(tokenBucket.tryAcquire(now) > 0);
+        Assert.assertFalse(tokenBucket.isIdle(now));
+    }
+
+}
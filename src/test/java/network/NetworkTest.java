@@ -4,8 +4,8 @@ import instance.BaseEnvironment;
 import instance.DebugLevel;
 import io.netty.channel.ChannelInitializer;
 import io.netty.channel.ChannelPipeline;
-import io.netty.channel.socket.nio.NioDatagramChannel;
-import io.netty.channel.socket.nio.NioSocketChannel;
+import io.netty.channel.socket.DatagramChannel;
+import io.netty.channel.socket.SocketChannel;
 import network.definition.NetAddress;
 import network.handler.ClientHandler;
 import network.handler.ServerHandler;
@@ -39,7 +39,6 @@ public class NetworkTest {
                 baseEnvironment,
                 false,
                 false,
-                10,
                 500000,
                 500000
         );
@@ -50,18 +49,18 @@ public class NetworkTest {
         //
 
         // Netty Channel Initializer 생성
-        ChannelInitializer<NioDatagramChannel> clientChannelInitializer = new ChannelInitializer<NioDatagramChannel>() {
+        ChannelInitializer<DatagramChannel> clientChannelInitializer = new ChannelInitializer<DatagramChannel>() {
             @Override
-            protected void initChannel(NioDatagramChannel nioDatagramChannel) {
-                final ChannelPipeline channelPipeline = nioDatagramChannel.pipeline();
+            protected void initChannel(DatagramChannel datagramChannel) {
+                final ChannelPipeline channelPipeline = datagramChannel.pipeline();
                 channelPipeline.addLast(new ClientHandler());
             }
         };
 
-        ChannelInitializer<NioDatagramChannel> serverChannelInitializer = new ChannelInitializer<NioDatagramChannel>() {
+        ChannelInitializer<DatagramChannel> serverChannelInitializer = new ChannelInitializer<DatagramChannel>() {
             @Override
-            protected void initChannel(NioDatagramChannel nioDatagramChannel) {
-                final ChannelPipeline channelPipeline = nioDatagramChannel.pipeline();
+            protected void initChannel(DatagramChannel datagramChannel) {
+                final ChannelPipeline channelPipeline = datagramChannel.pipeline();
                 channelPipeline.addLast(new ServerHandler());
             }
         };
@@ -111,7 +110,6 @@ public class NetworkTest {
                 baseEnvironment,
                 false,
                 false,
-                10,
                 0,
                 500000
         );
@@ -120,10 +118,10 @@ public class NetworkTest {
         NetAddress netAddress1 = new NetAddress("127.0.0.1", 5000,true, SocketProtocol.TCP);
 
         // Netty Channel Initializer 생성
-        ChannelInitializer<NioSocketChannel> serverChannelInitializer = new ChannelInitializer<NioSocketChannel>() {
+        ChannelInitializer<SocketChannel> serverChannelInitializer = new ChannelInitializer<SocketChannel>() {
             @Override
-            protected void initChannel(NioSocketChannel nioDatagramChannel) {
-                final ChannelPipeline channelPipeline = nioDatagramChannel.pipeline();
+            protected void initChannel(SocketChannel socketChannel) {
+                final ChannelPipeline channelPipeline = socketChannel.pipeline();
                 channelPipeline.addLast(new ServerHandler());
             }
         };